@@ -1,7 +1,23 @@
 package site.kuril.api;
 
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import site.kuril.api.response.Response;
 import site.kuril.domain.agent.model.entity.ExecuteCommandEntity;
+import site.kuril.domain.agent.model.valobj.AiClientReadinessVO;
+import site.kuril.domain.agent.model.valobj.ArmoryChangeSetVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentAdmissionLimitVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentAdmissionMetricsVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentCancellationMetricsVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentSessionExecutorMetricsVO;
+import site.kuril.domain.agent.model.valobj.LlmConcurrencyLimitMetricsVO;
+import site.kuril.domain.agent.model.valobj.LlmHttpPoolMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpCircuitBreakerMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpConnectionPoolMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpResourceLifecycleMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpToolCallbackCacheMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpToolResultCacheStatsVO;
+
+import java.util.List;
 
 /**
  * AI Agent 服务接口
@@ -20,4 +36,110 @@ public interface IAiAgentService {
      */
     ResponseBodyEmitter autoAgent(ExecuteCommandEntity executeCommandEntity);
 
+    /**
+     * 查询AI客户端就绪状态
+     * 返回后台装配进度、装配耗时以及冷启动到就绪的耗时
+     * 
+     * @return 就绪状态
+     */
+    Response<AiClientReadinessVO> readiness();
+
+    /**
+     * 查询MCP工具回调缓存指标
+     * 返回实际工具列举次数以及命中客户端缓存而避免的次数
+     * 
+     * @return 缓存指标
+     */
+    Response<McpToolCallbackCacheMetricsVO> mcpToolCacheMetrics();
+
+    /**
+     * 查询MCP连接池指标
+     * 返回各连接池的连接数、借出等待时间与健康检查丢弃的连接数
+     * 
+     * @return 连接池指标
+     */
+    Response<List<McpConnectionPoolMetricsVO>> mcpPoolMetrics();
+
+    /**
+     * 查询MCP工具结果缓存统计
+     * 返回每个工具的会话层、共享层命中次数与未命中次数
+     * 
+     * @return 缓存统计
+     */
+    Response<List<McpToolResultCacheStatsVO>> mcpToolResultCacheStats();
+
+    /**
+     * 查询MCP熔断器状态
+     * 返回每个 MCP 的熔断状态、连续失败次数、健康检查延迟与最近的状态转换
+     * 
+     * @return 熔断器指标
+     */
+    Response<List<McpCircuitBreakerMetricsVO>> mcpCircuitBreakers();
+
+    /**
+     * 查询装配资源生命周期指标
+     * 返回使用中与退役中的资源、存活的 MCP 连接数与 stdio 子进程数
+     * 
+     * @return 生命周期指标
+     */
+    Response<McpResourceLifecycleMetricsVO> mcpLifecycleMetrics();
+
+    /**
+     * 查询AutoAgent会话执行器指标
+     * 返回执行模式、执行中与排队中的会话数以及累计拒绝的会话数
+     * 
+     * @return 会话执行器指标
+     */
+    Response<AutoAgentSessionExecutorMetricsVO> sessionExecutorMetrics();
+
+    /**
+     * 查询AutoAgent会话准入指标
+     * 返回全局与每个智能体的并发会话数、排队深度以及累计拒绝、超时数
+     * 
+     * @return 会话准入指标
+     */
+    Response<AutoAgentAdmissionMetricsVO> sessionAdmissionMetrics();
+
+    /**
+     * 运行时调整AutoAgent会话准入限制
+     * 调大并发限制后立即放行排队中的会话
+     * 
+     * @param limitVO 新的限制，未设置的字段保持不变
+     * @return 调整后的准入指标
+     */
+    Response<AutoAgentAdmissionMetricsVO> updateSessionAdmissionLimits(AutoAgentAdmissionLimitVO limitVO);
+
+    /**
+     * 查询AutoAgent会话取消指标
+     * 客户端断开后会话被取消，返回取消的会话数、中止的进行中模型调用，以及因此省下的步数、模型调用与输出 token 估算值
+     * 
+     * @return 会话取消指标
+     */
+    Response<AutoAgentCancellationMetricsVO> sessionCancellationMetrics();
+
+    /**
+     * 查询模型调用自适应并发上限
+     * 返回每个 API baseUrl 的当前并发上限、短期与基线 RTT、过载次数与削减的调用数
+     * 
+     * @return 自适应并发上限指标
+     */
+    Response<List<LlmConcurrencyLimitMetricsVO>> llmConcurrencyLimits();
+
+    /**
+     * 查询模型调用HTTP连接池指标
+     * 每个 baseUrl 一个连接池，按远端地址返回已借出、已建立、空闲的连接数与等待获取连接的请求数
+     * 
+     * @return HTTP连接池指标
+     */
+    Response<List<LlmHttpPoolMetricsVO>> llmHttpPoolMetrics();
+
+    /**
+     * 增量重新装配AI客户端
+     * 只重建相对上次成功装配发生变化的组件及其下游依赖，未变化的 MCP 连接与 HTTP 客户端继续复用
+     * 
+     * @param clientIds 客户端ID，逗号分隔
+     * @return 变更集
+     */
+    Response<ArmoryChangeSetVO> reloadClients(String clientIds);
+
 }
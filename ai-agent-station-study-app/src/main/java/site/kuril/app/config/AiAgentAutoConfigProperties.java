@@ -24,4 +24,14 @@ public class AiAgentAutoConfigProperties {
      * 例如: ["3101,3102,3103,3104"] 或 ["3101", "3102", "3103", "3104"]
      */
     private List<String> clientIds;
+
+    /**
+     * 装配失败后的重试次数，0 表示不重试
+     */
+    private int retryMaxAttempts = 3;
+
+    /**
+     * 首次重试前的等待时间(毫秒)，之后每次翻倍
+     */
+    private long retryBackoffMs = 5000;
 }
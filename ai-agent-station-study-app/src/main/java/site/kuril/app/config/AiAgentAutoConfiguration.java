@@ -11,16 +11,21 @@ import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
 import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
 import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory.StrategyHandler;
+import site.kuril.domain.agent.service.armory.readiness.AiClientReadinessTracker;
 import site.kuril.types.common.Constants;
 
 import javax.annotation.Resource;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 /**
  * AI Agent 自动装配配置
- * 在应用启动完成后自动装配指定的AI客户端
+ * 在应用启动完成后于后台线程自动装配指定的AI客户端，装配进度与就绪状态由 AiClientReadinessTracker 跟踪；
+ * 装配失败时按退避间隔重试，重试耗尽后才标记失败
  * 
  * @author Kuril
  */
@@ -36,6 +41,12 @@ public class AiAgentAutoConfiguration implements ApplicationListener<Application
     @Resource
     private DefaultArmoryStrategyFactory defaultArmoryStrategyFactory;
 
+    @Resource
+    private AiClientReadinessTracker aiClientReadinessTracker;
+
+    @Resource
+    private ThreadPoolExecutor armoryExecutor;
+
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
         try {
@@ -65,22 +76,47 @@ public class AiAgentAutoConfiguration implements ApplicationListener<Application
                 commandIdList = clientIds;
             }
 
-            log.info("开始自动装配AI客户端，客户端ID列表: {}", commandIdList);
+            log.info("开始后台自动装配AI客户端，客户端ID列表: {}", commandIdList);
 
-            // 执行自动装配
+            // 先标记装配中，再提交后台任务，避免就绪状态出现空窗
+            aiClientReadinessTracker.begin(commandIdList);
+            CompletableFuture.runAsync(() -> armory(commandIdList, 0), armoryExecutor);
+
+        } catch (Exception e) {
+            log.error("AI Agent 自动装配失败", e);
+        }
+    }
+
+    /**
+     * 执行自动装配并回报就绪状态
+     * 失败的装配不会发布，重试期间应用保持装配中状态
+     * @param attempt 已重试次数
+     */
+    private void armory(List<String> commandIdList, int attempt) {
+        try {
             StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> armoryStrategyHandler =
                     defaultArmoryStrategyFactory.armoryStrategyHandler();
 
+            DefaultArmoryStrategyFactory.DynamicContext dynamicContext = new DefaultArmoryStrategyFactory.DynamicContext();
             String result = armoryStrategyHandler.apply(
                     ArmoryCommandEntity.builder()
                             .commandType(AiAgentEnumVO.AI_CLIENT.getCode())
                             .commandIdList(commandIdList)
                             .build(),
-                    new DefaultArmoryStrategyFactory.DynamicContext());
+                    dynamicContext);
+
+            aiClientReadinessTracker.complete(commandIdList);
+            log.info("AI Agent 自动装配完成，结果: {}, MCP握手报告: {}", result, dynamicContext.getMcpHandshakeReports().values());
 
-            log.info("AI Agent 自动装配完成，结果: {}", result);
-            
         } catch (Exception e) {
+            if (attempt < aiAgentAutoConfigProperties.getRetryMaxAttempts()) {
+                long backoffMillis = aiAgentAutoConfigProperties.getRetryBackoffMs() << Math.min(attempt, 6);
+                log.warn("AI Agent 自动装配失败，{}ms 后第 {} 次重试，原因: {}", backoffMillis, attempt + 1, e.getMessage());
+                CompletableFuture.runAsync(() -> armory(commandIdList, attempt + 1),
+                        CompletableFuture.delayedExecutor(backoffMillis, TimeUnit.MILLISECONDS, armoryExecutor));
+                return;
+            }
+            aiClientReadinessTracker.fail(commandIdList, e);
             log.error("AI Agent 自动装配失败", e);
         }
     }
@@ -11,6 +11,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jdbc.core.JdbcTemplate;
+import site.kuril.domain.agent.service.armory.transport.LlmHttpTransportManager;
 
 @Configuration
 public class AiAgentConfig {
@@ -33,12 +34,11 @@ public class AiAgentConfig {
     @Bean("vectorStore")
     public PgVectorStore pgVectorStore(@Value("${spring.ai.openai.base-url}") String baseUrl,
                                        @Value("${spring.ai.openai.api-key}") String apiKey,
-                                       @Qualifier("pgVectorJdbcTemplate") JdbcTemplate jdbcTemplate) {
+                                       @Qualifier("pgVectorJdbcTemplate") JdbcTemplate jdbcTemplate,
+                                       LlmHttpTransportManager llmHttpTransportManager) {
 
-        OpenAiApi openAiApi = OpenAiApi.builder()
-                .baseUrl(baseUrl)
-                .apiKey(apiKey)
-                .build();
+        // 与装配的对话客户端共享同一 baseUrl 的连接池
+        OpenAiApi openAiApi = llmHttpTransportManager.openAiApi(baseUrl, apiKey);
 
         OpenAiEmbeddingModel embeddingModel = new OpenAiEmbeddingModel(openAiApi);
         return PgVectorStore.builder(jdbcTemplate, embeddingModel)
@@ -1,9 +1,13 @@
 package site.kuril.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import site.kuril.domain.agent.service.execute.session.AutoAgentSessionExecutor;
 
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
@@ -11,9 +15,11 @@ import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 线程池配置
- * 为数据加载策略提供异步处理能力
+ * 为数据加载策略提供异步处理能力，为装配流程（DAG 节点、MCP握手、预热）提供独立的执行线程，
+ * 为同一轮的多个工具调用提供并行执行线程，并为AutoAgent会话提供独立的执行线程
  */
 @Configuration
+@EnableConfigurationProperties(ThreadPoolConfigProperties.class)
 public class ThreadPoolConfig {
 
     @Bean("threadPoolExecutor")
@@ -44,4 +50,72 @@ public class ThreadPoolConfig {
         );
     }
 
+    /**
+     * 装配线程池
+     * 装配主流程、DAG 节点、MCP握手与连接池预建、客户端预热都在此执行，它们会阻塞等待彼此；
+     * 不排队，线程耗尽时由提交线程自己执行，避免排在 threadPoolExecutor 队列中等待已被占满的线程
+     */
+    @Bean("armoryExecutor")
+    public ThreadPoolExecutor armoryExecutor(@Value("${spring.ai.agent.armory.executor-max-threads:32}") int maxThreads) {
+        return new ThreadPoolExecutor(
+                0,
+                maxThreads,
+                60L,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "armory-io-" + threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /**
+     * 工具调用线程池
+     * 不排队，线程耗尽时由发起工具调用的线程自己执行，避免会话线程等待子任务时互相阻塞
+     */
+    @Bean("toolCallExecutor")
+    public ThreadPoolExecutor toolCallExecutor(@Value("${spring.ai.agent.tool.executor-max-threads:32}") int maxThreads) {
+        return new ThreadPoolExecutor(
+                0,
+                maxThreads,
+                60L,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                new ThreadFactory() {
+                    private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                    @Override
+                    public Thread newThread(Runnable r) {
+                        Thread thread = new Thread(r, "tool-call-" + threadNumber.getAndIncrement());
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+    }
+
+    /**
+     * AutoAgent会话执行器
+     * 整段多轮执行占用一个线程直到结束，满载时拒绝新会话；拒绝策略固定为拒绝，忽略 policy 配置，
+     * 由提交线程执行会阻塞 Web 请求线程，静默丢弃则会让 SSE 连接永远没有响应
+     */
+    @Bean(name = "autoAgentSessionExecutor", destroyMethod = "shutdown")
+    public AutoAgentSessionExecutor autoAgentSessionExecutor(ThreadPoolConfigProperties properties) {
+        return new AutoAgentSessionExecutor(
+                properties.getCorePoolSize(),
+                properties.getMaxPoolSize(),
+                properties.getKeepAliveTime(),
+                properties.getBlockQueueSize(),
+                Boolean.TRUE.equals(properties.getVirtualThreads()));
+    }
+
 }
@@ -22,5 +22,7 @@ public class ThreadPoolConfigProperties {
      * CallerRunsPolicy：如果任务添加线程池失败，那么主线程自己执行该任务
      * */
     private String policy = "AbortPolicy";
+    /** AutoAgent会话是否每会话一个虚拟线程（需 JDK 21+，否则回退为平台线程池） */
+    private Boolean virtualThreads = false;
 
 }
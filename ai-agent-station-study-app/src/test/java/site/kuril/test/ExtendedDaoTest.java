@@ -223,4 +223,22 @@ public class ExtendedDaoTest {
         log.info("- 启用的提示词: {} 个", aiClientSystemPromptDao.queryEnabledPrompts().size());
         log.info("- 启用的MCP工具: {} 个", aiClientToolMcpDao.queryEnabledMcps().size());
     }
+
+    @Test
+    public void test_batchQueries() {
+        log.info("=== 批量IN查询测试 ===");
+
+        List<String> clientIds = List.of("3101", "3102", "3103", "3104");
+        List<AiClientConfig> clientConfigs = aiClientConfigDao.queryBySourceIdsAndTargetType("client", clientIds, null);
+        log.info("- 客户端关联配置: {} 个", clientConfigs.size());
+
+        List<String> modelIds = aiClientConfigDao.queryBySourceIdsAndTargetType("client", clientIds, "model")
+                .stream().map(AiClientConfig::getTargetId).distinct().toList();
+        List<AiClientModel> models = aiClientModelDao.queryByModelIds(modelIds);
+        log.info("- 模型配置: {}", models);
+
+        List<String> apiIds = models.stream().map(AiClientModel::getApiId).distinct().toList();
+        log.info("- API配置: {} 个", aiClientApiDao.queryByApiIds(apiIds).size());
+        log.info("- MCP工具配置: {} 个", aiClientToolMcpDao.queryByMcpIds(List.of("5001", "5003")).size());
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,60 @@
+package site.kuril.test.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import site.kuril.domain.agent.service.execute.limit.AdaptiveConcurrencyLimit;
+
+/**
+ * 模型调用自适应并发上限测试
+ * RTT 平稳且用满上限时放宽；RTT 骤增时收窄；过载时乘性退避；达到上限且等待超时的调用被削减
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    public void test_gradient() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 10, 1, 50, 0.2, 1.5, 0.9);
+
+        for (int i = 0; i < 30; i++) {
+            round(limit, 100);
+        }
+        log.info("RTT 平稳后: {}", limit.queryMetrics());
+        Assert.assertEquals(50, limit.getLimit());
+
+        round(limit, 1000);
+        log.info("RTT 骤增后: {}", limit.queryMetrics());
+        Assert.assertTrue(limit.getLimit() < 50);
+    }
+
+    @Test
+    public void test_overloadAndShed() throws Exception {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 10, 1, 50, 0.2, 1.5, 0.9);
+
+        Assert.assertTrue(limit.acquire(0));
+        limit.onOverload();
+        Assert.assertEquals(9, limit.getLimit());
+
+        for (int i = 0; i < 9; i++) {
+            Assert.assertTrue(limit.acquire(0));
+        }
+        Assert.assertFalse(limit.acquire(50));
+        log.info("并发已满: {}", limit.queryMetrics());
+        Assert.assertEquals(1, limit.queryMetrics().getShedCount());
+        Assert.assertEquals(9, limit.queryMetrics().getInFlight());
+    }
+
+    /**
+     * 用满上限后逐个以相同 RTT 完成
+     */
+    private void round(AdaptiveConcurrencyLimit limit, long rttMillis) throws InterruptedException {
+        int acquired = 0;
+        while (limit.acquire(0)) {
+            acquired++;
+        }
+        for (int i = 0; i < acquired; i++) {
+            limit.onSuccess(rttMillis);
+        }
+    }
+
+}
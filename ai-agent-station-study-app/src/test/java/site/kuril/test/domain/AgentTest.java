@@ -1,6 +1,7 @@
 package site.kuril.test.domain;
 
 import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.ai.openai.api.OpenAiApi;
@@ -324,6 +325,36 @@ public class AgentTest {
         log.info("========== AI Agent Advisor 顾问角色和 ChatClient 客户端测试完成 ==========");
     }
 
+    @Test
+    public void test_incrementalArmory() throws Exception {
+        log.info("========== 开始测试增量装配 ==========");
+
+        DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> armoryStrategyHandler =
+                defaultArmoryStrategyFactory.armoryStrategyHandler();
+
+        // 第一次全量装配，建立签名基线
+        DefaultArmoryStrategyFactory.DynamicContext fullContext = new DefaultArmoryStrategyFactory.DynamicContext();
+        armoryStrategyHandler.apply(ArmoryCommandEntity.builder()
+                .commandType(AiAgentEnumVO.AI_CLIENT.getCode())
+                .commandIdList(Arrays.asList("3001"))
+                .build(), fullContext);
+        log.info("全量装配组件: {}", fullContext.getArmoryChangeSet().getRebuildBeanNames());
+
+        // 配置未变化时，增量装配不应重建任何组件
+        DefaultArmoryStrategyFactory.DynamicContext incrementalContext = new DefaultArmoryStrategyFactory.DynamicContext();
+        armoryStrategyHandler.apply(ArmoryCommandEntity.builder()
+                .commandType(AiAgentEnumVO.AI_CLIENT.getCode())
+                .commandIdList(Arrays.asList("3001"))
+                .incremental(true)
+                .build(), incrementalContext);
+
+        log.info("增量装配变更集: {}", JSON.toJSONString(incrementalContext.getArmoryChangeSet()));
+        Assert.assertTrue(incrementalContext.getArmoryChangeSet().getRebuildBeanNames().isEmpty());
+        Assert.assertTrue(incrementalContext.getStagedComponents().isEmpty());
+
+        log.info("========== 增量装配测试完成 ==========");
+    }
+
     @Test
     public void test_springBeans() throws Exception {
         log.info("========== 检查Spring容器中的Bean ==========");
@@ -0,0 +1,251 @@
+package site.kuril.test.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.*;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import site.kuril.domain.agent.adapter.port.IAgentRepository;
+import site.kuril.domain.agent.model.aggregate.AiClientGraphAggregate;
+import site.kuril.infrastructure.dao.IAiClientAdvisorDao;
+import site.kuril.infrastructure.dao.IAiClientApiDao;
+import site.kuril.infrastructure.dao.IAiClientConfigDao;
+import site.kuril.infrastructure.dao.IAiClientDao;
+import site.kuril.infrastructure.dao.IAiClientModelDao;
+import site.kuril.infrastructure.dao.IAiClientSystemPromptDao;
+import site.kuril.infrastructure.dao.IAiClientToolMcpDao;
+import site.kuril.infrastructure.dao.adapter.graph.AiClientConfigGraphCache;
+import site.kuril.infrastructure.dao.po.AiClient;
+import site.kuril.infrastructure.dao.po.AiClientAdvisor;
+import site.kuril.infrastructure.dao.po.AiClientApi;
+import site.kuril.infrastructure.dao.po.AiClientConfig;
+import site.kuril.infrastructure.dao.po.AiClientSystemPrompt;
+import site.kuril.infrastructure.dao.po.AiClientToolMcp;
+
+import javax.annotation.Resource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 客户端配置图加载基准测试
+ * 对比六路 CompletableFuture 扇出加载与单次连接查询加载的SQL往返次数和耗时（4 / 40 / 400 个客户端）；
+ * 仓储的按客户端查询现已由配置图快照提供，扇出基线直接调用 DAO 复现原有的全表查询与逐客户端、逐模型的关联查询
+ * 40、400 个客户端的数据以 3101 的关联关系为模板临时生成，测试结束后清理
+ */
+@Slf4j
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class AiClientGraphLoadBenchmarkTest {
+
+    private static final String BENCH_CLIENT_PREFIX = "bench_";
+
+    private static final StatementCounter STATEMENT_COUNTER = new StatementCounter();
+
+    @Resource
+    private IAgentRepository repository;
+
+    @Resource
+    private AiClientConfigGraphCache aiClientConfigGraphCache;
+
+    @Resource
+    private ThreadPoolExecutor threadPoolExecutor;
+
+    @Resource
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Resource
+    private IAiClientDao aiClientDao;
+
+    @Resource
+    private IAiClientConfigDao aiClientConfigDao;
+
+    @Resource
+    private IAiClientApiDao aiClientApiDao;
+
+    @Resource
+    private IAiClientModelDao aiClientModelDao;
+
+    @Resource
+    private IAiClientToolMcpDao aiClientToolMcpDao;
+
+    @Resource
+    private IAiClientSystemPromptDao aiClientSystemPromptDao;
+
+    @Resource
+    private IAiClientAdvisorDao aiClientAdvisorDao;
+
+    private final List<String> benchClientIds = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        if (!sqlSessionFactory.getConfiguration().getInterceptors().contains(STATEMENT_COUNTER)) {
+            sqlSessionFactory.getConfiguration().addInterceptor(STATEMENT_COUNTER);
+        }
+        List<AiClientConfig> templateConfigs = aiClientConfigDao.queryBySourceIdsAndTargetType("client", List.of("3101"), null);
+        for (int i = 0; i < 400; i++) {
+            String clientId = BENCH_CLIENT_PREFIX + i;
+            aiClientDao.insert(AiClient.builder()
+                    .clientId(clientId)
+                    .clientName("基准测试客户端" + i)
+                    .description("benchmark")
+                    .status(1)
+                    .createTime(LocalDateTime.now())
+                    .updateTime(LocalDateTime.now())
+                    .build());
+            for (AiClientConfig template : templateConfigs) {
+                aiClientConfigDao.insert(AiClientConfig.builder()
+                        .sourceType("client")
+                        .sourceId(clientId)
+                        .targetType(template.getTargetType())
+                        .targetId(template.getTargetId())
+                        .extParam(template.getExtParam())
+                        .status(1)
+                        .createTime(LocalDateTime.now())
+                        .updateTime(LocalDateTime.now())
+                        .build());
+            }
+            benchClientIds.add(clientId);
+        }
+    }
+
+    @After
+    public void tearDown() {
+        for (String clientId : benchClientIds) {
+            aiClientConfigDao.deleteBySourceId(clientId);
+            aiClientDao.deleteByClientId(clientId);
+        }
+        aiClientConfigGraphCache.invalidate();
+    }
+
+    @Test
+    public void test_clientGraphLoad_benchmark() throws Exception {
+        List<List<String>> scenarios = List.of(
+                List.of("3101", "3102", "3103", "3104"),
+                benchClientIds.subList(0, 40),
+                benchClientIds.subList(0, 400));
+
+        // 预热，排除连接池建立和语句解析的影响
+        fanOutLoad(scenarios.get(0));
+        repository.queryAiClientGraphByClientIds(scenarios.get(0));
+
+        for (List<String> clientIds : scenarios) {
+            aiClientConfigGraphCache.invalidate();
+            STATEMENT_COUNTER.reset();
+            long start = System.nanoTime();
+            int fanOutClients = fanOutLoad(clientIds);
+            long fanOutMillis = (System.nanoTime() - start) / 1_000_000;
+            int fanOutStatements = STATEMENT_COUNTER.get();
+
+            STATEMENT_COUNTER.reset();
+            start = System.nanoTime();
+            AiClientGraphAggregate aggregate = repository.queryAiClientGraphByClientIds(clientIds);
+            long graphMillis = (System.nanoTime() - start) / 1_000_000;
+            int graphStatements = STATEMENT_COUNTER.get();
+
+            log.info("客户端数量: {} | 扇出加载: {} 条SQL, {}ms, 客户端 {} | 配置图加载: {} 条SQL, {}ms, 客户端 {}",
+                    clientIds.size(), fanOutStatements, fanOutMillis, fanOutClients,
+                    graphStatements, graphMillis, aggregate.getAiClientList().size());
+        }
+    }
+
+    /**
+     * 原有的六路并行扇出加载方式，直接调用 DAO，不经过配置图快照
+     */
+    private int fanOutLoad(List<String> clientIds) throws Exception {
+        CompletableFuture<?> api = CompletableFuture.supplyAsync(() -> {
+            List<String> apiIds = configTargetIds("client", clientIds, "api");
+            return aiClientApiDao.queryAll().stream()
+                    .filter(po -> apiIds.contains(po.getApiId()) && isEnabled(po.getStatus()))
+                    .map(AiClientApi::getApiId)
+                    .toList();
+        }, threadPoolExecutor);
+        CompletableFuture<?> model = CompletableFuture.supplyAsync(() -> {
+            List<String> modelIds = configTargetIds("client", clientIds, "model");
+            // 原实现每个模型再全表查询一次配置表，取模型关联的 MCP
+            return aiClientModelDao.queryAll().stream()
+                    .filter(po -> modelIds.contains(po.getModelId()) && isEnabled(po.getStatus()))
+                    .map(po -> configTargetIds("model", List.of(po.getModelId()), "mcp"))
+                    .toList();
+        }, threadPoolExecutor);
+        CompletableFuture<?> mcp = CompletableFuture.supplyAsync(() -> {
+            List<String> mcpIds = configTargetIds("client", clientIds, "mcp");
+            return aiClientToolMcpDao.queryAll().stream()
+                    .filter(po -> mcpIds.contains(po.getMcpId()) && isEnabled(po.getStatus()))
+                    .map(AiClientToolMcp::getMcpId)
+                    .toList();
+        }, threadPoolExecutor);
+        CompletableFuture<?> prompt = CompletableFuture.supplyAsync(() -> {
+            List<String> promptIds = configTargetIds("client", clientIds, "prompt");
+            return aiClientSystemPromptDao.queryAll().stream()
+                    .filter(po -> promptIds.contains(po.getPromptId()) && isEnabled(po.getStatus()))
+                    .map(AiClientSystemPrompt::getPromptId)
+                    .toList();
+        }, threadPoolExecutor);
+        CompletableFuture<?> advisor = CompletableFuture.supplyAsync(() -> {
+            List<String> advisorIds = configTargetIds("client", clientIds, "advisor");
+            return aiClientAdvisorDao.queryAll().stream()
+                    .filter(po -> advisorIds.contains(po.getAdvisorId()) && isEnabled(po.getStatus()))
+                    .map(AiClientAdvisor::getAdvisorId)
+                    .toList();
+        }, threadPoolExecutor);
+        CompletableFuture<List<String>> client = CompletableFuture.supplyAsync(() -> aiClientDao.queryAll().stream()
+                .filter(po -> clientIds.contains(po.getClientId()) && isEnabled(po.getStatus()))
+                .map(po -> {
+                    // 原实现每个客户端分别全表查询四次配置表，取模型、MCP、顾问、提示词
+                    for (String targetType : List.of("model", "mcp", "advisor", "prompt")) {
+                        configTargetIds("client", List.of(po.getClientId()), targetType);
+                    }
+                    return po.getClientId();
+                })
+                .toList(), threadPoolExecutor);
+        CompletableFuture.allOf(api, model, mcp, prompt, advisor, client).get();
+        return client.get().size();
+    }
+
+    private List<String> configTargetIds(String sourceType, List<String> sourceIds, String targetType) {
+        return aiClientConfigDao.queryAll().stream()
+                .filter(config -> sourceType.equals(config.getSourceType())
+                        && sourceIds.contains(config.getSourceId())
+                        && targetType.equals(config.getTargetType()))
+                .map(AiClientConfig::getTargetId)
+                .toList();
+    }
+
+    private static boolean isEnabled(Integer status) {
+        return status != null && status == 1;
+    }
+
+    /**
+     * 统计预编译SQL语句数量（即数据库往返次数）
+     */
+    @Intercepts({@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class})})
+    public static class StatementCounter implements Interceptor {
+
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Object intercept(Invocation invocation) throws Throwable {
+            counter.incrementAndGet();
+            return invocation.proceed();
+        }
+
+        public void reset() {
+            counter.set(0);
+        }
+
+        public int get() {
+            return counter.get();
+        }
+    }
+
+}
@@ -0,0 +1,90 @@
+package site.kuril.test.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import site.kuril.domain.agent.model.valobj.AutoAgentAdmissionLimitVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentAdmissionMetricsVO;
+import site.kuril.domain.agent.service.execute.session.AutoAgentAdmissionManager;
+import site.kuril.types.enums.ResponseCode;
+import site.kuril.types.exception.AppException;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutoAgent会话准入控制测试
+ * 并发上限 1、队列长度 1：第二个会话排队并收到位置，第三个会话立即拒绝；第一个会话结束后排队的会话被放行
+ */
+@Slf4j
+public class AutoAgentAdmissionManagerTest {
+
+    @Test
+    public void test_queueAndReject() throws Exception {
+        AutoAgentAdmissionManager admissionManager = new AutoAgentAdmissionManager();
+        admissionManager.updateLimits(AutoAgentAdmissionLimitVO.builder()
+                .maxConcurrentSessions(1)
+                .maxConcurrentPerAgent(1)
+                .maxQueueSize(1)
+                .queueTimeoutMillis(10000L)
+                .build());
+
+        ExecutorService executor = Executors.newCachedThreadPool();
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch secondStarted = new CountDownLatch(1);
+        List<Integer> positions = new CopyOnWriteArrayList<>();
+
+        try {
+            admissionManager.submit("s1", "3", executor, () -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, listener(positions));
+            admissionManager.submit("s2", "3", executor, secondStarted::countDown, listener(positions));
+
+            try {
+                admissionManager.submit("s3", "3", executor, () -> {
+                }, listener(positions));
+                Assert.fail("队列已满时应拒绝");
+            } catch (AppException e) {
+                Assert.assertEquals(ResponseCode.SESSION_QUEUE_FULL.getCode(), e.getCode());
+            }
+
+            AutoAgentAdmissionMetricsVO metrics = admissionManager.queryMetrics();
+            log.info("准入指标: {}", metrics);
+            Assert.assertEquals(1, metrics.getActiveSessions());
+            Assert.assertEquals(1, metrics.getQueueDepth());
+            Assert.assertEquals(1, metrics.getRejectedCount());
+            Assert.assertEquals(List.of(1), positions);
+
+            release.countDown();
+            Assert.assertTrue(secondStarted.await(5, TimeUnit.SECONDS));
+            Assert.assertEquals(2, admissionManager.queryMetrics().getAdmittedCount());
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+            admissionManager.destroy();
+        }
+    }
+
+    private AutoAgentAdmissionManager.AdmissionListener listener(List<Integer> positions) {
+        return new AutoAgentAdmissionManager.AdmissionListener() {
+            @Override
+            public void onQueued(int position) {
+                positions.add(position);
+            }
+
+            @Override
+            public void onExpired(String reason) {
+                log.warn("排队失败: {}", reason);
+            }
+        };
+    }
+
+}
@@ -0,0 +1,123 @@
+package site.kuril.test.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+import site.kuril.domain.agent.service.execute.limit.AdaptiveConcurrencyLimit;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationToken;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * AutoAgent会话取消令牌测试
+ * 取消后进行中的流立即结束并取消上游订阅；阻塞中的调用与等待模型调用许可被中断并抛出 CancellationException；只有第一次取消生效
+ */
+@Slf4j
+public class AutoAgentCancellationTokenTest {
+
+    @Test
+    public void test_bindStream() {
+        AutoAgentCancellationToken token = new AutoAgentCancellationToken();
+        AtomicBoolean upstreamCancelled = new AtomicBoolean();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            scheduler.schedule(() -> token.cancel("SSE连接错误"), 200, TimeUnit.MILLISECONDS);
+
+            long start = System.currentTimeMillis();
+            token.bind(Flux.interval(Duration.ofMillis(50)).doOnCancel(() -> upstreamCancelled.set(true)))
+                    .blockLast(Duration.ofSeconds(5));
+            long elapsed = System.currentTimeMillis() - start;
+            log.info("流在取消后结束: {}ms", elapsed);
+
+            Assert.assertTrue(elapsed < 2000);
+            Assert.assertTrue(upstreamCancelled.get());
+            Assert.assertFalse(token.cancel("SSE连接完成"));
+            Assert.assertEquals("SSE连接错误", token.getReason());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_interruptible() throws Exception {
+        AutoAgentCancellationToken token = new AutoAgentCancellationToken();
+        CountDownLatch blocked = new CountDownLatch(1);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            scheduler.execute(() -> {
+                try {
+                    blocked.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                token.cancel("SSE发送失败");
+            });
+
+            try {
+                token.interruptible(() -> {
+                    blocked.countDown();
+                    try {
+                        Thread.sleep(10000);
+                    } catch (InterruptedException e) {
+                        throw new IllegalStateException("调用被中断", e);
+                    }
+                    return "never";
+                });
+                Assert.fail("取消后应抛出 CancellationException");
+            } catch (CancellationException e) {
+                log.info("阻塞调用已中止: {}", e.getMessage());
+            }
+            Assert.assertFalse(Thread.currentThread().isInterrupted());
+
+            try {
+                token.interruptible(() -> "after");
+                Assert.fail("已取消时不应再发起调用");
+            } catch (CancellationException e) {
+                Assert.assertTrue(token.isCancelled());
+            }
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void test_interruptPermitWait() {
+        AutoAgentCancellationToken token = new AutoAgentCancellationToken();
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit("test", 1, 1, 1, 0.2, 1.5, 0.9);
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            Assert.assertTrue(token.interruptible(() -> acquire(limit, 0)));
+            scheduler.schedule(() -> token.cancel("SSE连接超时"), 200, TimeUnit.MILLISECONDS);
+
+            // 上限已满，等待许可的会话取消后立即放弃等待，不等满 10s
+            long start = System.currentTimeMillis();
+            try {
+                token.interruptible(() -> acquire(limit, 10000));
+                Assert.fail("取消后应抛出 CancellationException");
+            } catch (CancellationException e) {
+                log.info("等待许可已中止: {}ms", System.currentTimeMillis() - start);
+            }
+            Assert.assertTrue(System.currentTimeMillis() - start < 2000);
+            Assert.assertFalse(Thread.currentThread().isInterrupted());
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private static boolean acquire(AdaptiveConcurrencyLimit limit, long timeoutMillis) {
+        try {
+            return limit.acquire(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待许可被中断", e);
+        }
+    }
+
+}
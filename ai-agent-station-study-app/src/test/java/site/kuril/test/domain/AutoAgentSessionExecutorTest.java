@@ -0,0 +1,63 @@
+package site.kuril.test.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import site.kuril.domain.agent.model.valobj.AutoAgentSessionExecutorMetricsVO;
+import site.kuril.domain.agent.service.execute.session.AutoAgentSessionExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AutoAgent会话执行器测试
+ * 1 个线程 + 1 个排队位置时，第三个会话被拒绝，指标反映执行中、排队中与拒绝数
+ */
+@Slf4j
+public class AutoAgentSessionExecutorTest {
+
+    @Test
+    public void test_rejectWhenFull() throws Exception {
+        AutoAgentSessionExecutor executor = new AutoAgentSessionExecutor(1, 1, 60, 1, false);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch finished = new CountDownLatch(2);
+        Runnable session = () -> {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        };
+
+        try {
+            executor.execute(session);
+            executor.execute(session);
+            Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+            try {
+                executor.execute(session);
+                Assert.fail("会话已满时应拒绝");
+            } catch (RejectedExecutionException expected) {
+                // 预期拒绝
+            }
+
+            AutoAgentSessionExecutorMetricsVO metrics = executor.queryMetrics();
+            log.info("会话执行器指标: {}", metrics);
+            Assert.assertEquals(AutoAgentSessionExecutor.MODE_PLATFORM, metrics.getMode());
+            Assert.assertEquals(1, metrics.getActiveSessions());
+            Assert.assertEquals(1, metrics.getQueueDepth());
+            Assert.assertEquals(2, metrics.getSubmittedCount());
+            Assert.assertEquals(1, metrics.getRejectedCount());
+
+            release.countDown();
+            Assert.assertTrue(finished.await(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package site.kuril.test.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.Prompt;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorVO;
+import site.kuril.domain.agent.service.armory.advisor.ChatMemoryAdvisorFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * 对话记忆隔离测试
+ * 同一个记忆顾问挂在多个客户端上时，不同会话、同一会话的不同客户端、未传会话ID的调用互相看不到记忆
+ */
+@Slf4j
+public class ChatMemoryAdvisorIsolationTest {
+
+    private final List<String> prompts = new CopyOnWriteArrayList<>();
+
+    private final ChatModel chatModel = new ChatModel() {
+        @Override
+        public ChatResponse call(Prompt prompt) {
+            prompts.add(prompt.getContents());
+            return new ChatResponse(List.of(new Generation(new AssistantMessage("收到"))));
+        }
+    };
+
+    @Test
+    public void test_sessionIsolation() {
+        Advisor advisor = new ChatMemoryAdvisorFactory().create(AiClientAdvisorVO.builder()
+                .advisorId("6001")
+                .advisorType("CHAT_MEMORY")
+                .build());
+        ChatClient chatClient = ChatClient.builder(chatModel).defaultAdvisors(advisor).build();
+
+        call(chatClient, "secret-of-session-1", ChatMemoryAdvisorFactory.conversationId("3001", "s1"));
+        call(chatClient, "secret-without-session", ChatMemory.DEFAULT_CONVERSATION_ID);
+
+        call(chatClient, "question-of-session-2", ChatMemoryAdvisorFactory.conversationId("3001", "s2"));
+        call(chatClient, "question-of-other-client", ChatMemoryAdvisorFactory.conversationId("3002", "s1"));
+        call(chatClient, "question-without-session", ChatMemory.DEFAULT_CONVERSATION_ID);
+        call(chatClient, "follow-up-of-session-1", ChatMemoryAdvisorFactory.conversationId("3001", "s1"));
+
+        prompts.forEach(prompt -> log.info("提示词: {}", prompt));
+        Assert.assertFalse(prompts.get(2).contains("secret"));
+        Assert.assertFalse(prompts.get(3).contains("secret"));
+        Assert.assertFalse(prompts.get(4).contains("secret"));
+        Assert.assertTrue(prompts.get(5).contains("secret-of-session-1"));
+        Assert.assertFalse(prompts.get(5).contains("secret-without-session"));
+    }
+
+    private void call(ChatClient chatClient, String message, String conversationId) {
+        chatClient.prompt(message)
+                .advisors(a -> a.param(ChatMemory.CONVERSATION_ID, conversationId))
+                .call()
+                .content();
+    }
+
+}
@@ -0,0 +1,60 @@
+package site.kuril.test.domain;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.ai.tool.ToolCallback;
+import site.kuril.domain.agent.service.armory.mcp.LazyMcpSyncClient;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 延迟连接 MCP 客户端测试
+ * 工具回调缓存后，空闲断开再列举不重新建立连接；进行中的调用不会被空闲回收
+ */
+@Slf4j
+public class LazyMcpSyncClientTest {
+
+    @Test
+    public void test_cachedToolCallbacksWithoutReconnect() {
+        AtomicInteger connections = new AtomicInteger();
+        LazyMcpSyncClient lazyClient = new LazyMcpSyncClient("test_mcp", () -> {
+            connections.incrementAndGet();
+            return mockClient();
+        }, 1L);
+
+        ToolCallback[] toolCallbacks = lazyClient.getToolCallbacks();
+        Assert.assertEquals(1, toolCallbacks.length);
+        Assert.assertEquals(1, connections.get());
+
+        Assert.assertTrue(lazyClient.closeIfIdle(System.currentTimeMillis() + 1000));
+        Assert.assertFalse(lazyClient.isConnected());
+
+        ToolCallback[] cached = lazyClient.getToolCallbacks();
+        Assert.assertEquals(toolCallbacks[0].getToolDefinition().name(), cached[0].getToolDefinition().name());
+        Assert.assertFalse(lazyClient.isConnected());
+        Assert.assertEquals(1, connections.get());
+    }
+
+    @Test
+    public void test_inFlightNotReaped() {
+        LazyMcpSyncClient lazyClient = new LazyMcpSyncClient("test_mcp", this::mockClient, 1L);
+
+        boolean closed = lazyClient.execute(mcpClient -> lazyClient.closeIfIdle(System.currentTimeMillis() + 1000));
+        Assert.assertFalse(closed);
+        Assert.assertTrue(lazyClient.isConnected());
+    }
+
+    private McpSyncClient mockClient() {
+        McpSyncClient mcpClient = Mockito.mock(McpSyncClient.class);
+        Mockito.when(mcpClient.getClientInfo()).thenReturn(new McpSchema.Implementation("test-filesystem", "1.0.0"));
+        Mockito.when(mcpClient.listTools()).thenReturn(new McpSchema.ListToolsResult(
+                List.of(new McpSchema.Tool("read_file", "read_file", "{\"type\":\"object\"}")), null));
+        return mcpClient;
+    }
+
+}
@@ -0,0 +1,49 @@
+package site.kuril.test.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import site.kuril.domain.agent.model.valobj.enums.McpCircuitStateEnumVO;
+import site.kuril.domain.agent.service.armory.mcp.McpCircuitBreaker;
+
+/**
+ * MCP 熔断器测试
+ * 半开期间只放行一次试探调用，试探结束前其余请求被拒绝；试探成功关闭、失败重新打开
+ */
+@Slf4j
+public class McpCircuitBreakerTest {
+
+    @Test
+    public void test_halfOpenSingleTrial() {
+        McpCircuitBreaker breaker = new McpCircuitBreaker("test", 2, 1000);
+        breaker.recordFailure("connection refused");
+        breaker.recordFailure("connection refused");
+        Assert.assertEquals(McpCircuitStateEnumVO.OPEN, breaker.getState());
+        Assert.assertFalse(breaker.allowRequest(System.currentTimeMillis()));
+
+        long halfOpenAt = System.currentTimeMillis() + 1000;
+        Assert.assertTrue(breaker.allowRequest(halfOpenAt));
+        Assert.assertEquals(McpCircuitStateEnumVO.HALF_OPEN, breaker.getState());
+        Assert.assertFalse(breaker.allowRequest(halfOpenAt + 1));
+        Assert.assertTrue(breaker.isAvailable(halfOpenAt + 1));
+
+        // 试探失败重新打开
+        breaker.recordFailure("connection refused");
+        Assert.assertEquals(McpCircuitStateEnumVO.OPEN, breaker.getState());
+
+        long nextHalfOpenAt = System.currentTimeMillis() + 1000;
+        Assert.assertTrue(breaker.allowRequest(nextHalfOpenAt));
+        breaker.releaseTrial();
+        Assert.assertTrue(breaker.allowRequest(nextHalfOpenAt + 1));
+        Assert.assertFalse(breaker.allowRequest(nextHalfOpenAt + 2));
+
+        // 试探成功关闭，之后全部放行
+        breaker.recordSuccess();
+        Assert.assertEquals(McpCircuitStateEnumVO.CLOSED, breaker.getState());
+        Assert.assertTrue(breaker.allowRequest(nextHalfOpenAt + 3));
+        Assert.assertTrue(breaker.allowRequest(nextHalfOpenAt + 3));
+
+        log.info("熔断器指标: {}", breaker.queryMetrics());
+    }
+
+}
@@ -0,0 +1,88 @@
+package site.kuril.test.domain;
+
+import com.alibaba.fastjson.JSON;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mockito;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.SyncMcpToolCallback;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import site.kuril.domain.agent.model.valobj.AiClientToolMcpVO;
+import site.kuril.domain.agent.service.armory.mcp.McpToolResultCache;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * MCP 工具结果缓存测试
+ * 使用真实的 SyncMcpToolCallback（工具定义名称带客户端前缀）与计数的模拟客户端，验证按原始工具名称匹配策略、
+ * 参数规范化命中、会话隔离以及写工具清空缓存
+ */
+@Slf4j
+@RunWith(SpringRunner.class)
+@SpringBootTest
+public class McpToolResultCacheTest {
+
+    private static final String MCP_ID = "test_mcp";
+
+    private static final String MCP_BEAN_NAME = "ai_client_tool_mcp_test_mcp";
+
+    @Resource
+    private McpToolResultCache mcpToolResultCache;
+
+    @Test
+    public void test_memoizeReadTool() {
+        mcpToolResultCache.registerPolicies(MCP_BEAN_NAME, MCP_ID, Map.of(
+                "read_file", AiClientToolMcpVO.ToolCachePolicy.builder().cacheable(true).ttlSeconds(60L).build()));
+
+        AtomicInteger readCalls = new AtomicInteger();
+        AtomicInteger writeCalls = new AtomicInteger();
+        ToolCallback[] rawToolCallbacks = new ToolCallback[]{
+                countingToolCallback("read_file", readCalls),
+                countingToolCallback("write_file", writeCalls)};
+        Assert.assertNotEquals("read_file", rawToolCallbacks[0].getToolDefinition().name());
+
+        ToolCallback[] toolCallbacks = mcpToolResultCache.wrap(MCP_BEAN_NAME, rawToolCallbacks,
+                McpToolResultCache.originalToolNames(rawToolCallbacks));
+        ToolCallback readFile = toolCallbacks[0];
+        ToolCallback writeFile = toolCallbacks[1];
+
+        ToolContext session01 = new ToolContext(Map.of(McpToolResultCache.SESSION_ID, "session_01"));
+        ToolContext session02 = new ToolContext(Map.of(McpToolResultCache.SESSION_ID, "session_02"));
+
+        // 键顺序不同的相同参数命中同一缓存
+        readFile.call("{\"path\":\"a.txt\",\"encoding\":\"utf-8\"}", session01);
+        readFile.call("{\"encoding\":\"utf-8\",\"path\":\"a.txt\"}", session01);
+        Assert.assertEquals(1, readCalls.get());
+
+        // 会话级缓存在会话之间隔离
+        readFile.call("{\"path\":\"a.txt\",\"encoding\":\"utf-8\"}", session02);
+        Assert.assertEquals(2, readCalls.get());
+
+        // 写工具不缓存，并清空该 MCP 的缓存结果
+        writeFile.call("{\"path\":\"a.txt\"}", session01);
+        writeFile.call("{\"path\":\"a.txt\"}", session01);
+        Assert.assertEquals(2, writeCalls.get());
+        readFile.call("{\"path\":\"a.txt\",\"encoding\":\"utf-8\"}", session01);
+        Assert.assertEquals(3, readCalls.get());
+
+        log.info("工具结果缓存统计: {}", JSON.toJSONString(mcpToolResultCache.queryStats()));
+    }
+
+    private ToolCallback countingToolCallback(String toolName, AtomicInteger counter) {
+        McpSyncClient mcpClient = Mockito.mock(McpSyncClient.class);
+        Mockito.when(mcpClient.getClientInfo()).thenReturn(new McpSchema.Implementation("test-filesystem", "1.0.0"));
+        Mockito.when(mcpClient.callTool(Mockito.any())).thenAnswer(invocation -> new McpSchema.CallToolResult(
+                List.of(new McpSchema.TextContent(toolName + "#" + counter.incrementAndGet())), false));
+        return new SyncMcpToolCallback(mcpClient, new McpSchema.Tool(toolName, toolName, "{\"type\":\"object\"}"));
+    }
+
+}
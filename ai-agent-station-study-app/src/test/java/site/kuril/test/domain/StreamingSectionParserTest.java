@@ -0,0 +1,85 @@
+package site.kuril.test.domain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Assert;
+import org.junit.Test;
+import site.kuril.domain.agent.service.execute.stream.StreamingSectionParser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 流式分段解析器测试
+ * 按任意切分的 token 喂入，验证段落在下一个标题到达时即发出，且拼接的全文与原文一致
+ */
+@Slf4j
+public class StreamingSectionParserTest {
+
+    private static final String ANALYSIS_RESULT = """
+            **任务状态分析:**
+            用户需要一篇文章
+            尚未开始
+
+            **执行历史评估:**
+            [首次执行]
+
+            **下一步策略:**
+            先写大纲
+
+            **完成度评估:** 0%
+
+            **任务状态:** CONTINUE""";
+
+    private static final List<StreamingSectionParser.SectionRule> RULES = List.of(
+            StreamingSectionParser.SectionRule.of("任务状态分析:", "analysis_status"),
+            StreamingSectionParser.SectionRule.of("执行历史评估:", "analysis_history"),
+            StreamingSectionParser.SectionRule.of("下一步策略:", "analysis_strategy"),
+            new StreamingSectionParser.SectionRule("完成度评估:", "analysis_progress", true),
+            new StreamingSectionParser.SectionRule("任务状态:", "analysis_task_status", true));
+
+    @Test
+    public void test_emitSectionsIncrementally() {
+        List<String> emitted = new ArrayList<>();
+        StreamingSectionParser parser = new StreamingSectionParser(RULES, null,
+                (subType, content) -> emitted.add(subType + "=" + content.trim()), null);
+
+        // 每 3 个字符一个 token，标题会被切断在两个 token 之间
+        for (int i = 0; i < ANALYSIS_RESULT.length(); i += 3) {
+            parser.append(ANALYSIS_RESULT.substring(i, Math.min(i + 3, ANALYSIS_RESULT.length())));
+            if (parser.getText().endsWith("先写")) {
+                // 第三段的内容刚到达时，前两段已经发出
+                Assert.assertEquals(2, emitted.size());
+            }
+        }
+        String text = parser.finish();
+
+        Assert.assertEquals(ANALYSIS_RESULT, text);
+        Assert.assertTrue(parser.isSectionMatched());
+        Assert.assertEquals(List.of(
+                "analysis_status=用户需要一篇文章\n尚未开始",
+                "analysis_history=[首次执行]",
+                "analysis_strategy=先写大纲",
+                "analysis_progress=**完成度评估:** 0%",
+                "analysis_task_status=**任务状态:** CONTINUE"), emitted);
+        log.info("分段结果: {}", emitted);
+    }
+
+    @Test
+    public void test_leadingContentAndLineListener() {
+        List<String> emitted = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        StreamingSectionParser parser = new StreamingSectionParser(
+                List.of(StreamingSectionParser.SectionRule.of("执行结果:", "execution_result")), "execution_process",
+                (subType, content) -> emitted.add(subType + "=" + content.trim()), lines::add);
+
+        parser.append("调用了 write_file\n");
+        parser.append(null);
+        parser.append("执行结果:\n/tmp/a.md");
+        String text = parser.finish();
+
+        Assert.assertEquals("调用了 write_file\n执行结果:\n/tmp/a.md", text);
+        Assert.assertEquals(List.of("execution_process=调用了 write_file", "execution_result=/tmp/a.md"), emitted);
+        Assert.assertEquals(List.of("调用了 write_file", "执行结果:", "/tmp/a.md"), lines);
+    }
+
+}
@@ -1,5 +1,6 @@
 package site.kuril.domain.agent.adapter.port;
 
+import site.kuril.domain.agent.model.aggregate.AiClientGraphAggregate;
 import site.kuril.domain.agent.model.valobj.*;
 
 import java.util.List;
@@ -67,6 +68,14 @@ public interface IAgentRepository {
      */
     List<AiClientVO> AiClientVOByClientIds(List<String> clientIds);
 
+    /**
+     * 根据客户端ID列表一次性查询完整的客户端配置图
+     * client -> model -> api / mcp / prompt / advisor，最多两条SQL
+     * @param clientIds 客户端ID列表
+     * @return 客户端配置图聚合
+     */
+    AiClientGraphAggregate queryAiClientGraphByClientIds(List<String> clientIds);
+
     /**
      * 查询AI智能体客户端流程配置
      * @param aiAgentId AI智能体ID
@@ -0,0 +1,58 @@
+package site.kuril.domain.agent.model.aggregate;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import site.kuril.domain.agent.model.valobj.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AI客户端配置图聚合
+ * 一次性承载 client -> model -> api / mcp / prompt / advisor 的完整配置，供装配数据加载使用
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AiClientGraphAggregate {
+
+    /**
+     * 客户端关联的API配置
+     */
+    @Builder.Default
+    private List<AiClientApiVO> aiClientApiList = new ArrayList<>();
+
+    /**
+     * 客户端关联的模型配置（含模型关联的MCP ID）
+     */
+    @Builder.Default
+    private List<AiClientModelVO> aiClientModelList = new ArrayList<>();
+
+    /**
+     * 客户端关联的MCP工具配置
+     */
+    @Builder.Default
+    private List<AiClientToolMcpVO> aiClientToolMcpList = new ArrayList<>();
+
+    /**
+     * 客户端关联的系统提示词配置
+     */
+    @Builder.Default
+    private List<AiClientSystemPromptVO> aiClientSystemPromptList = new ArrayList<>();
+
+    /**
+     * 客户端关联的顾问配置
+     */
+    @Builder.Default
+    private List<AiClientAdvisorVO> aiClientAdvisorList = new ArrayList<>();
+
+    /**
+     * 客户端配置
+     */
+    @Builder.Default
+    private List<AiClientVO> aiClientList = new ArrayList<>();
+
+}
@@ -28,6 +28,11 @@ public class ArmoryCommandEntity {
      */
     private List<String> commandIdList;
 
+    /**
+     * 是否增量装配：只重建相对上次成功装配发生变化的组件及其下游依赖
+     */
+    private boolean incremental;
+
     /**
      * 获取数据加载策略
      * @return 数据加载策略名称
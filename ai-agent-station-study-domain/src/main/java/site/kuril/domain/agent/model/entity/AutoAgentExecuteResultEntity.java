@@ -18,7 +18,7 @@ import lombok.NoArgsConstructor;
 public class AutoAgentExecuteResultEntity {
 
     /**
-     * 数据类型：analysis(分析阶段), execution(执行阶段), supervision(监督阶段), summary(总结阶段), error(错误信息), complete(完成标识)
+     * 数据类型：analysis(分析阶段), execution(执行阶段), supervision(监督阶段), summary(总结阶段), error(错误信息), complete(完成标识), queued(排队等待)
      */
     private String type;
 
@@ -29,6 +29,7 @@ public class AutoAgentExecuteResultEntity {
      * - execution_target(执行目标), execution_process(执行过程), execution_result(执行结果), execution_quality(质量检查)
      * - supervision_assessment(质量评估), supervision_issues(问题识别), supervision_suggestions(改进建议), supervision_score(质量评分)
      * - summary_overview(总结概览), summary_completed_work(已完成工作), summary_incomplete_reasons(未完成原因), summary_evaluation(效果评估)
+     * - final_answer(最终答案), final_answer_delta(流式发送的最终答案分块，按顺序拼接即为完整答案), final_answer_done(流式最终答案结束标识，内容为空)
      */
     private String subType;
 
@@ -248,4 +249,18 @@ public class AutoAgentExecuteResultEntity {
                 .sessionId(sessionId)
                 .build();
     }
+
+    /**
+     * 创建排队位置标识，position 从 1 开始
+     */
+    public static AutoAgentExecuteResultEntity createQueuedResult(int position, String sessionId) {
+        return AutoAgentExecuteResultEntity.builder()
+                .type("queued")
+                .step(0)
+                .content(String.valueOf(position))
+                .completed(false)
+                .timestamp(System.currentTimeMillis())
+                .sessionId(sessionId)
+                .build();
+    }
 }
@@ -5,13 +5,16 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.StringUtils;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * AI客户端顾问配置值对象
  */
+@Slf4j
 @Data
 @Builder
 @AllArgsConstructor
@@ -29,7 +32,7 @@ public class AiClientAdvisorVO {
     private String advisorName;
 
     /**
-     * 顾问类型(PromptChatMemory/RagAnswer/SimpleLoggerAdvisor等)
+     * 顾问类型(CHAT_MEMORY/RAG_ANSWER/TECHNICAL_EXPERT，忽略大小写)
      */
     private String advisorType;
 
@@ -53,6 +56,11 @@ public class AiClientAdvisorVO {
      */
     private RagAnswer ragAnswer;
 
+    /**
+     * TechnicalExpert配置对象
+     */
+    private TechnicalExpert technicalExpert;
+
     /**
      * 状态(0:禁用,1:启用)
      */
@@ -69,20 +77,25 @@ public class AiClientAdvisorVO {
     private LocalDateTime updateTime;
 
     /**
-     * 解析扩展参数
+     * 解析扩展参数，按顾问类型解析为对应的配置对象；已解析时直接返回
      */
     public void parseExtParam() {
-        if (StringUtils.isNotBlank(extParam)) {
-            try {
-                if ("ChatMemory".equals(advisorType)) {
-                    this.chatMemory = JSON.parseObject(extParam, ChatMemory.class);
-                } else if ("RagAnswer".equals(advisorType)) {
-                    this.ragAnswer = JSON.parseObject(extParam, RagAnswer.class);
-                }
-            } catch (Exception e) {
-                // 如果解析失败，保持原值，记录警告日志
-                System.err.println("解析顾问配置失败: " + e.getMessage());
+        if (StringUtils.isBlank(extParam) || chatMemory != null || ragAnswer != null || technicalExpert != null) {
+            return;
+        }
+        AiClientAdvisorTypeEnumVO advisorTypeEnum = AiClientAdvisorTypeEnumVO.getByCode(advisorType);
+        if (advisorTypeEnum == null) {
+            return;
+        }
+        try {
+            switch (advisorTypeEnum) {
+                case CHAT_MEMORY -> this.chatMemory = JSON.parseObject(extParam, ChatMemory.class);
+                case RAG_ANSWER -> this.ragAnswer = JSON.parseObject(extParam, RagAnswer.class);
+                case TECHNICAL_EXPERT -> this.technicalExpert = JSON.parseObject(extParam, TechnicalExpert.class);
             }
+        } catch (Exception e) {
+            // 如果解析失败，保持原值，由顾问工厂使用默认配置
+            log.warn("解析顾问配置失败: advisorId={}, advisorType={}, extParam={}", advisorId, advisorType, extParam, e);
         }
     }
 
@@ -117,6 +130,30 @@ public class AiClientAdvisorVO {
          * 过滤表达式
          */
         private String filterExpression;
+
+        /**
+         * 相似度阈值
+         */
+        private Double threshold;
+    }
+
+    /**
+     * TechnicalExpert配置
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class TechnicalExpert {
+        /**
+         * 擅长领域
+         */
+        private List<String> expertise;
+
+        /**
+         * 回答风格
+         */
+        private String style;
     }
 
-} 
\ No newline at end of file
+}
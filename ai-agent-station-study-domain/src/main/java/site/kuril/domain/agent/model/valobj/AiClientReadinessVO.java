@@ -0,0 +1,50 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * AI客户端就绪状态值对象
+ * 汇总后台装配进度以及冷启动到就绪的耗时
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AiClientReadinessVO {
+
+    /**
+     * 是否已就绪（后台装配完成且成功）
+     */
+    private boolean ready;
+
+    /**
+     * 后台装配是否仍在进行
+     */
+    private boolean armoryInProgress;
+
+    /**
+     * 客户端ID -> 装配进度
+     */
+    private Map<String, String> clientStatus;
+
+    /**
+     * 后台装配耗时(毫秒)，装配未结束时为空
+     */
+    private Long armoryMillis;
+
+    /**
+     * 冷启动到就绪耗时(毫秒)，从 JVM 启动算起，未就绪时为空
+     */
+    private Long coldStartToReadyMillis;
+
+    /**
+     * 装配失败原因
+     */
+    private String errorMessage;
+
+}
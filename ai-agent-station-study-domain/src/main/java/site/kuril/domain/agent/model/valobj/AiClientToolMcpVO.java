@@ -52,6 +52,16 @@ public class AiClientToolMcpVO {
      */
     private Integer requestTimeout;
 
+    /**
+     * 扩展参数(JSON格式)
+     */
+    private String extParam;
+
+    /**
+     * 扩展参数对象
+     */
+    private ExtParamConfig extParamConfig;
+
     /**
      * 状态(0:禁用,1:启用)
      */
@@ -67,6 +77,87 @@ public class AiClientToolMcpVO {
      */
     private LocalDateTime updateTime;
 
+    /**
+     * 是否延迟连接（首次使用时才建立连接）
+     */
+    public boolean isLazyInit() {
+        return extParamConfig != null && Boolean.TRUE.equals(extParamConfig.getLazyInit());
+    }
+
+    /**
+     * 是否使用连接池（poolMaxSize 大于1），连接池优先于延迟连接
+     */
+    public boolean isPooled() {
+        return extParamConfig != null && extParamConfig.getPoolMaxSize() != null && extParamConfig.getPoolMaxSize() > 1;
+    }
+
+    /**
+     * 是否使用异步客户端（McpAsyncClient）
+     */
+    public boolean isAsync() {
+        return extParamConfig != null && Boolean.TRUE.equals(extParamConfig.getAsync());
+    }
+
+    /**
+     * 扩展参数配置
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ExtParamConfig {
+        /**
+         * 是否延迟连接
+         */
+        private Boolean lazyInit;
+        /**
+         * 延迟连接的空闲关闭时间(秒)，为空或小于等于0时不回收
+         */
+        private Long idleTtlSeconds;
+        /**
+         * 连接池最小连接数，为空时为1
+         */
+        private Integer poolMinSize;
+        /**
+         * 连接池最大连接数（stdio 为进程数，SSE 为会话数），大于1时启用连接池
+         */
+        private Integer poolMaxSize;
+        /**
+         * 是否使用异步客户端，连接池与延迟连接优先
+         */
+        private Boolean async;
+        /**
+         * 工具结果缓存策略，key为工具名称；未配置的工具（含所有写工具）不缓存
+         */
+        private Map<String, ToolCachePolicy> toolCache;
+    }
+
+    /**
+     * 工具结果缓存策略，只应配置给幂等的只读工具
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ToolCachePolicy {
+        /**
+         * 是否缓存结果
+         */
+        private Boolean cacheable;
+        /**
+         * 缓存时间(秒)，为空时使用全局默认值
+         */
+        private Long ttlSeconds;
+        /**
+         * 单条结果的最大字节数，超过时不缓存；为空时使用全局默认值
+         */
+        private Integer maxResultBytes;
+        /**
+         * 缓存层级(session/shared)，为空时为 session
+         */
+        private String scope;
+    }
+
     /**
      * SSE传输配置
      */
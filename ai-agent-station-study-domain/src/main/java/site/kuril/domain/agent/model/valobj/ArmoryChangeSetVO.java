@@ -0,0 +1,38 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 装配变更集值对象
+ * 记录一次装配中需要重建和保持不变的组件Bean名称
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArmoryChangeSetVO {
+
+    /**
+     * 是否增量装配
+     */
+    private boolean incremental;
+
+    /**
+     * 需要重建的组件Bean名称（含因上游变化而级联重建的组件）
+     */
+    @Builder.Default
+    private List<String> rebuildBeanNames = new ArrayList<>();
+
+    /**
+     * 保持不变、继续使用当前代实例的组件Bean名称
+     */
+    @Builder.Default
+    private List<String> unchangedBeanNames = new ArrayList<>();
+
+}
@@ -0,0 +1,38 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AutoAgent会话准入限制值对象
+ * 运行时调整时未设置的字段保持不变
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AutoAgentAdmissionLimitVO {
+
+    /**
+     * 全局最大并发会话数
+     */
+    private Integer maxConcurrentSessions;
+
+    /**
+     * 每个智能体的最大并发会话数
+     */
+    private Integer maxConcurrentPerAgent;
+
+    /**
+     * 等待队列长度
+     */
+    private Integer maxQueueSize;
+
+    /**
+     * 排队超时(毫秒)
+     */
+    private Long queueTimeoutMillis;
+
+}
@@ -0,0 +1,84 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * AutoAgent会话准入指标值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AutoAgentAdmissionMetricsVO {
+
+    /**
+     * 全局最大并发会话数
+     */
+    private int maxConcurrentSessions;
+
+    /**
+     * 每个智能体的最大并发会话数
+     */
+    private int maxConcurrentPerAgent;
+
+    /**
+     * 等待队列长度
+     */
+    private int maxQueueSize;
+
+    /**
+     * 排队超时(毫秒)
+     */
+    private long queueTimeoutMillis;
+
+    /**
+     * 已放行、尚未结束的会话数
+     */
+    private int activeSessions;
+
+    /**
+     * 每个智能体已放行的会话数，key为aiAgentId
+     */
+    private Map<String, Integer> activeSessionsByAgent;
+
+    /**
+     * 排队中的会话数
+     */
+    private int queueDepth;
+
+    /**
+     * 累计放行的会话数
+     */
+    private long admittedCount;
+
+    /**
+     * 累计进入排队的会话数
+     */
+    private long queuedCount;
+
+    /**
+     * 累计被拒绝的会话数（队列已满或出队后执行器拒绝）
+     */
+    private long rejectedCount;
+
+    /**
+     * 累计排队超时的会话数
+     */
+    private long timeoutCount;
+
+    /**
+     * 累计排队中客户端断开而撤回的会话数
+     */
+    private long withdrawnCount;
+
+    /**
+     * 平均排队时长(毫秒)
+     */
+    private long avgQueueWaitMillis;
+
+}
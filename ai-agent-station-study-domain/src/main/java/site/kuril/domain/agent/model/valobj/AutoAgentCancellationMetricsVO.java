@@ -0,0 +1,54 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * AutoAgent会话取消指标值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AutoAgentCancellationMetricsVO {
+
+    /**
+     * 累计取消的会话数
+     */
+    private long cancelledSessions;
+
+    /**
+     * 按取消原因统计的会话数
+     */
+    private Map<String, Long> cancelledByReason;
+
+    /**
+     * 取消时被中止的进行中模型调用数
+     */
+    private long abortedLlmCalls;
+
+    /**
+     * 因取消未执行的步数（轮次）
+     */
+    private long savedSteps;
+
+    /**
+     * 因取消未发起的模型调用数，含总结
+     */
+    private long savedLlmCalls;
+
+    /**
+     * 因取消节省的输出 token 估算值
+     */
+    private long estimatedSavedTokens;
+
+    /**
+     * 从取消到会话结束的平均耗时(毫秒)
+     */
+    private long avgCancelLatencyMillis;
+
+}
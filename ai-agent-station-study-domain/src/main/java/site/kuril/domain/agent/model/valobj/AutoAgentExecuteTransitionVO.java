@@ -0,0 +1,43 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import site.kuril.domain.agent.model.valobj.enums.AutoAgentExecuteStateEnumVO;
+
+/**
+ * AutoAgent执行状态转换记录值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AutoAgentExecuteTransitionVO {
+
+    /**
+     * 执行的状态
+     */
+    private AutoAgentExecuteStateEnumVO state;
+
+    /**
+     * 转换到的下一个状态
+     */
+    private AutoAgentExecuteStateEnumVO nextState;
+
+    /**
+     * 执行该状态时的步数
+     */
+    private int step;
+
+    /**
+     * 节点返回结果
+     */
+    private String result;
+
+    /**
+     * 节点耗时(毫秒)
+     */
+    private long durationMillis;
+
+}
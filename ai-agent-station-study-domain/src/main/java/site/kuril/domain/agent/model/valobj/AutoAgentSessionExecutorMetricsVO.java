@@ -0,0 +1,62 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * AutoAgent会话执行器指标值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AutoAgentSessionExecutorMetricsVO {
+
+    /**
+     * 执行模式：PLATFORM 平台线程池 / VIRTUAL 每会话一个虚拟线程
+     */
+    private String mode;
+
+    /**
+     * 最大并发会话数
+     */
+    private int maxSessions;
+
+    /**
+     * 正在执行的会话数
+     */
+    private int activeSessions;
+
+    /**
+     * 当前线程数
+     */
+    private int poolSize;
+
+    /**
+     * 排队等待的会话数
+     */
+    private int queueDepth;
+
+    /**
+     * 等待队列长度
+     */
+    private int queueCapacity;
+
+    /**
+     * 累计提交的会话数
+     */
+    private long submittedCount;
+
+    /**
+     * 累计结束的会话数
+     */
+    private long completedCount;
+
+    /**
+     * 累计被拒绝的会话数
+     */
+    private long rejectedCount;
+
+}
@@ -0,0 +1,67 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 模型调用自适应并发上限指标值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LlmConcurrencyLimitMetricsVO {
+
+    /**
+     * API baseUrl
+     */
+    private String baseUrl;
+
+    /**
+     * 当前并发上限
+     */
+    private int limit;
+
+    /**
+     * 进行中的模型调用数
+     */
+    private int inFlight;
+
+    /**
+     * 等待许可的调用数
+     */
+    private int waiting;
+
+    /**
+     * 短期 RTT 均值(毫秒)，流式调用为首个分块耗时
+     */
+    private long rttMillis;
+
+    /**
+     * 长期 RTT 均值(毫秒)，作为无负载基线
+     */
+    private long rttNoLoadMillis;
+
+    /**
+     * 最近一次 RTT(毫秒)
+     */
+    private long lastRttMillis;
+
+    /**
+     * 累计成功调用数
+     */
+    private long successCount;
+
+    /**
+     * 累计过载（限流、服务端错误、超时）次数
+     */
+    private long overloadCount;
+
+    /**
+     * 累计因等待许可超时而削减的调用数
+     */
+    private long shedCount;
+
+}
@@ -0,0 +1,52 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * LLM HTTP 连接池指标值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LlmHttpPoolMetricsVO {
+
+    /**
+     * 连接池名称
+     */
+    private String poolName;
+
+    /**
+     * 远端地址
+     */
+    private String remoteAddress;
+
+    /**
+     * 已借出的连接数
+     */
+    private int acquiredSize;
+
+    /**
+     * 已建立的连接数
+     */
+    private int allocatedSize;
+
+    /**
+     * 空闲连接数
+     */
+    private int idleSize;
+
+    /**
+     * 等待获取连接的请求数
+     */
+    private int pendingAcquireSize;
+
+    /**
+     * 最大连接数
+     */
+    private int maxAllocatedSize;
+
+}
@@ -0,0 +1,83 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * MCP 熔断器指标值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class McpCircuitBreakerMetricsVO {
+
+    /**
+     * MCP ID
+     */
+    private String mcpId;
+
+    /**
+     * 当前状态(CLOSED/OPEN/HALF_OPEN)
+     */
+    private String state;
+
+    /**
+     * 连续失败次数
+     */
+    private int consecutiveFailures;
+
+    /**
+     * 累计成功次数（工具调用、工具列举与健康检查）
+     */
+    private long successCount;
+
+    /**
+     * 累计失败次数
+     */
+    private long failureCount;
+
+    /**
+     * 熔断打开期间被拒绝的调用次数
+     */
+    private long rejectedCount;
+
+    /**
+     * 累计状态转换次数
+     */
+    private long transitionCount;
+
+    /**
+     * 最近一次健康检查耗时(毫秒)
+     */
+    private Long lastProbeLatencyMillis;
+
+    /**
+     * 最近一次失败原因
+     */
+    private String lastError;
+
+    /**
+     * 最近的状态转换记录
+     */
+    private List<Transition> transitions;
+
+    /**
+     * 状态转换记录
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Transition {
+        private String from;
+        private String to;
+        private long timeMillis;
+        private String reason;
+    }
+
+}
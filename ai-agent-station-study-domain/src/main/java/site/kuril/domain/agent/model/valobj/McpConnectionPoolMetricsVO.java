@@ -0,0 +1,82 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MCP 连接池指标值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class McpConnectionPoolMetricsVO {
+
+    /**
+     * MCP ID
+     */
+    private String mcpId;
+
+    /**
+     * 最小连接数
+     */
+    private int minSize;
+
+    /**
+     * 最大连接数
+     */
+    private int maxSize;
+
+    /**
+     * 当前连接总数
+     */
+    private int totalConnections;
+
+    /**
+     * 空闲连接数
+     */
+    private int idleConnections;
+
+    /**
+     * 借出中的连接数
+     */
+    private int activeConnections;
+
+    /**
+     * 等待借出连接的线程数
+     */
+    private int waitingThreads;
+
+    /**
+     * 累计借出次数
+     */
+    private long borrowCount;
+
+    /**
+     * 平均借出等待时间(毫秒)
+     */
+    private long avgWaitMillis;
+
+    /**
+     * 最大借出等待时间(毫秒)
+     */
+    private long maxWaitMillis;
+
+    /**
+     * 借出超时次数
+     */
+    private long timeoutCount;
+
+    /**
+     * 累计新建连接数
+     */
+    private long createdCount;
+
+    /**
+     * 累计丢弃连接数（健康检查失败、调用后 ping 不通、连接池关闭）
+     */
+    private long discardedCount;
+
+}
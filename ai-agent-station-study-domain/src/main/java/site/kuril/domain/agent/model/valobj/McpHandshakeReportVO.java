@@ -0,0 +1,54 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import site.kuril.domain.agent.model.valobj.enums.McpClientStatusEnumVO;
+
+/**
+ * MCP 握手报告值对象
+ * 记录单个 MCP 客户端的握手耗时以及是否在启动截止时间内完成
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class McpHandshakeReportVO {
+
+    /**
+     * MCP ID
+     */
+    private String mcpId;
+
+    /**
+     * MCP名称
+     */
+    private String mcpName;
+
+    /**
+     * 传输类型(sse/stdio)
+     */
+    private String transportType;
+
+    /**
+     * 客户端状态
+     */
+    private McpClientStatusEnumVO status;
+
+    /**
+     * 握手耗时(毫秒)，握手仍在进行中时为空
+     */
+    private Long latencyMillis;
+
+    /**
+     * 是否在启动截止时间内完成握手
+     */
+    private boolean withinDeadline;
+
+    /**
+     * 失败原因
+     */
+    private String errorMessage;
+
+}
@@ -0,0 +1,80 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 装配资源生命周期指标值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class McpResourceLifecycleMetricsVO {
+
+    /**
+     * 使用中的资源数
+     */
+    private int liveResources;
+
+    /**
+     * 已被替换、等待关闭的资源数
+     */
+    private int retiringResources;
+
+    /**
+     * 进行中的工具调用数
+     */
+    private int inFlightCalls;
+
+    /**
+     * 存活的 MCP 连接数（stdio 进程或 SSE 会话，连接池按实际连接计）
+     */
+    private int liveConnections;
+
+    /**
+     * 存活的 stdio 子进程数
+     */
+    private int liveProcesses;
+
+    /**
+     * 累计关闭的资源数
+     */
+    private long closedResources;
+
+    /**
+     * 超过排空超时仍有进行中调用而被强制关闭的资源数
+     */
+    private long forcedCloses;
+
+    /**
+     * 关闭后仍存活而被终止的子孙进程数
+     */
+    private long orphanProcessesKilled;
+
+    /**
+     * 资源明细
+     */
+    private List<Resource> resources;
+
+    /**
+     * 资源明细
+     */
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Resource {
+        private String beanName;
+        private String type;
+        private String state;
+        private int inFlight;
+        private int connections;
+        private Long retiredAtMillis;
+    }
+
+}
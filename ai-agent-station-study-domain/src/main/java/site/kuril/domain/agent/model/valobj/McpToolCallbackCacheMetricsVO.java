@@ -0,0 +1,47 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MCP 工具回调缓存指标值对象
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class McpToolCallbackCacheMetricsVO {
+
+    /**
+     * 实际发起的工具列举(tools/list)次数
+     */
+    private long toolListCalls;
+
+    /**
+     * 命中缓存而避免的工具列举次数
+     */
+    private long toolListCallsAvoided;
+
+    /**
+     * 客户端级缓存命中次数
+     */
+    private long clientCacheHits;
+
+    /**
+     * 客户端级缓存未命中次数
+     */
+    private long clientCacheMisses;
+
+    /**
+     * 已缓存的MCP数量
+     */
+    private int cachedMcpCount;
+
+    /**
+     * 已缓存的客户端数量
+     */
+    private int cachedClientCount;
+
+}
@@ -0,0 +1,57 @@
+package site.kuril.domain.agent.model.valobj;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * MCP 工具结果缓存统计值对象（按工具）
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class McpToolResultCacheStatsVO {
+
+    /**
+     * MCP ID
+     */
+    private String mcpId;
+
+    /**
+     * 工具名称
+     */
+    private String toolName;
+
+    /**
+     * 会话层命中次数
+     */
+    private long sessionHits;
+
+    /**
+     * 共享层命中次数
+     */
+    private long sharedHits;
+
+    /**
+     * 未命中次数（实际调用了 MCP）
+     */
+    private long misses;
+
+    /**
+     * 会话级工具缺少会话ID而未走缓存的次数
+     */
+    private long bypasses;
+
+    /**
+     * 结果超过字节数上限而未缓存的次数
+     */
+    private long oversized;
+
+    /**
+     * 写工具调用后清空该 MCP 缓存的次数
+     */
+    private long invalidations;
+
+}
@@ -0,0 +1,24 @@
+package site.kuril.domain.agent.model.valobj.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * AI客户端装配进度枚举
+ * 描述后台装配过程中单个客户端所处的阶段
+ */
+@Getter
+@AllArgsConstructor
+public enum AiClientArmoryStatusEnumVO {
+
+    BUILDING("BUILDING", "装配中", "后台装配已开始，客户端尚未构建"),
+    BUILT("BUILT", "已构建", "ChatClient 已构建，等待整代发布"),
+    READY("READY", "就绪", "已发布到运行时注册表，可以处理请求"),
+    FAILED("FAILED", "失败", "装配失败，客户端不可用"),
+    ;
+
+    private final String code;
+    private final String name;
+    private final String description;
+
+}
@@ -0,0 +1,52 @@
+package site.kuril.domain.agent.model.valobj.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * AutoAgent执行状态枚举
+ * 执行状态机的状态，轮次状态通过客户端类型与 ai_agent_flow_config 中的流程配置对应
+ */
+@Getter
+@AllArgsConstructor
+public enum AutoAgentExecuteStateEnumVO {
+
+    ROOT("ROOT", "初始化", "加载流程配置并初始化执行上下文", null),
+    ANALYZE("ANALYZE", "任务分析", "分析任务状态并制定下一步策略", AiClientTypeEnumVO.TASK_ANALYZER_CLIENT),
+    EXECUTE("EXECUTE", "精准执行", "按策略执行具体任务", AiClientTypeEnumVO.PRECISION_EXECUTOR_CLIENT),
+    SUPERVISE("SUPERVISE", "质量监督", "评估执行质量并决定是否继续", AiClientTypeEnumVO.QUALITY_SUPERVISOR_CLIENT),
+    SUMMARY("SUMMARY", "执行总结", "输出执行总结与最终答案", AiClientTypeEnumVO.RESPONSE_ASSISTANT),
+    DONE("DONE", "已完成", "执行链路正常结束", null),
+    CANCELLED("CANCELLED", "已取消", "客户端断开等原因取消了执行", null),
+    ;
+
+    private final String code;
+    private final String name;
+    private final String description;
+
+    /**
+     * 对应的客户端类型，非客户端驱动的状态为 null
+     */
+    private final AiClientTypeEnumVO clientType;
+
+    /**
+     * 是否为终止状态
+     */
+    public boolean isTerminal() {
+        return this == DONE || this == CANCELLED;
+    }
+
+    /**
+     * 根据客户端类型获取轮次状态（分析、执行、监督），其他客户端类型返回 null
+     */
+    public static AutoAgentExecuteStateEnumVO getRoundStateByClientType(String clientTypeCode) {
+        for (AutoAgentExecuteStateEnumVO enumVO : values()) {
+            if (enumVO.getClientType() != null && enumVO != SUMMARY
+                    && enumVO.getClientType().getCode().equals(clientTypeCode)) {
+                return enumVO;
+            }
+        }
+        return null;
+    }
+
+}
@@ -0,0 +1,22 @@
+package site.kuril.domain.agent.model.valobj.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * MCP 熔断器状态枚举
+ */
+@Getter
+@AllArgsConstructor
+public enum McpCircuitStateEnumVO {
+
+    CLOSED("CLOSED", "关闭", "MCP正常，工具提供给模型"),
+    OPEN("OPEN", "打开", "连续超时或失败达到阈值，工具不再提供给模型，调用立即失败"),
+    HALF_OPEN("HALF_OPEN", "半开", "打开时长已到，允许健康检查与工具调用试探，成功后关闭，失败后重新打开"),
+    ;
+
+    private final String code;
+    private final String name;
+    private final String description;
+
+}
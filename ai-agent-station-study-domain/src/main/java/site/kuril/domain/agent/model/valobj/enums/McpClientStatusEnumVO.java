@@ -0,0 +1,24 @@
+package site.kuril.domain.agent.model.valobj.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * MCP 客户端状态枚举
+ * 描述 MCP 客户端握手（initialize）的结果
+ */
+@Getter
+@AllArgsConstructor
+public enum McpClientStatusEnumVO {
+
+    READY("READY", "可用", "握手完成，客户端可正常调用工具"),
+    DEGRADED("DEGRADED", "降级", "启动截止时间内未完成握手，已注册并在后台继续连接"),
+    FAILED("FAILED", "失败", "握手失败，客户端不可用"),
+    LAZY("LAZY", "延迟连接", "已注册延迟代理，首次列举或调用工具时才建立连接"),
+    ;
+
+    private final String code;
+    private final String name;
+    private final String description;
+
+}
@@ -0,0 +1,21 @@
+package site.kuril.domain.agent.model.valobj.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 装配资源生命周期状态枚举
+ */
+@Getter
+@AllArgsConstructor
+public enum McpResourceStateEnumVO {
+
+    LIVE("LIVE", "使用中", "资源属于运行时注册表当前代"),
+    RETIRING("RETIRING", "退役中", "资源已被重新装配替换，等待进行中的调用结束后关闭"),
+    ;
+
+    private final String code;
+    private final String name;
+    private final String description;
+
+}
@@ -0,0 +1,33 @@
+package site.kuril.domain.agent.model.valobj.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * MCP 工具结果缓存层级枚举
+ */
+@Getter
+@AllArgsConstructor
+public enum McpToolResultCacheScopeEnumVO {
+
+    SESSION("session", "会话级", "只在同一会话内复用，会话之间互不可见"),
+    SHARED("shared", "共享", "所有会话共享，适用于与用户无关的只读工具"),
+    ;
+
+    private final String code;
+    private final String name;
+    private final String description;
+
+    /**
+     * 根据代码获取枚举，未配置或无法识别时为会话级
+     */
+    public static McpToolResultCacheScopeEnumVO getByCode(String code) {
+        for (McpToolResultCacheScopeEnumVO scope : values()) {
+            if (scope.code.equalsIgnoreCase(code)) {
+                return scope;
+            }
+        }
+        return SESSION;
+    }
+
+}
@@ -2,15 +2,15 @@ package site.kuril.domain.agent.service.armory;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.config.BeanDefinition;
-import org.springframework.beans.factory.support.BeanDefinitionBuilder;
-import org.springframework.beans.factory.support.DefaultListableBeanFactory;
 import org.springframework.context.ApplicationContext;
+import org.springframework.util.ClassUtils;
 import site.kuril.domain.agent.adapter.port.IAgentRepository;
 import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
 import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
+import site.kuril.domain.agent.service.armory.registry.AiClientRuntimeRegistry;
 
 import javax.annotation.Resource;
+import java.util.List;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeoutException;
@@ -34,9 +34,18 @@ public abstract class AbstractArmorySupport {
     @Resource
     protected ThreadPoolExecutor threadPoolExecutor;
 
+    /**
+     * 装配线程池，MCP握手与预热等会阻塞的装配任务在此执行
+     */
+    @Resource
+    protected ThreadPoolExecutor armoryExecutor;
+
     @Resource
     protected IAgentRepository repository;
 
+    @Resource
+    protected AiClientRuntimeRegistry aiClientRuntimeRegistry;
+
     /**
      * 获取Bean名称
      * @param beanId Bean ID
@@ -65,27 +74,32 @@ public abstract class AbstractArmorySupport {
     protected abstract String doApply(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception;
 
     /**
-     * 动态注册Bean到Spring容器
+     * 登记组件到本次装配的暂存代，装配成功后由 {@link AiClientRuntimeRegistry} 整代原子发布
+     * @param dynamicContext 动态上下文
      * @param beanName Bean名称
-     * @param beanClass Bean类型
-     * @param beanInstance Bean实例
+     * @param beanInstance 组件实例
      */
-    protected synchronized <T> void registerBean(String beanName, Class<T> beanClass, T beanInstance) {
-        DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory) applicationContext.getAutowireCapableBeanFactory();
-        
-        // 构建Bean定义
-        BeanDefinitionBuilder beanDefinitionBuilder = BeanDefinitionBuilder.genericBeanDefinition(beanClass, () -> beanInstance);
-        BeanDefinition beanDefinition = beanDefinitionBuilder.getRawBeanDefinition();
-        beanDefinition.setScope(BeanDefinition.SCOPE_SINGLETON);
-        
-        // 如果Bean已存在，先移除
-        if (beanFactory.containsBeanDefinition(beanName)) {
-            beanFactory.removeBeanDefinition(beanName);
+    protected <T> void registerBean(Object dynamicContext, String beanName, T beanInstance) {
+        ((DefaultArmoryStrategyFactory.DynamicContext) dynamicContext).stageComponent(beanName, beanInstance);
+        log.info("成功登记组件: {}", beanName);
+    }
+
+    /**
+     * 获取已装配的组件，优先取本次装配暂存的组件，其次取运行时注册表当前代
+     * @param dynamicContext 动态上下文
+     * @param beanName Bean名称
+     * @return 组件实例
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T getComponent(Object dynamicContext, String beanName) {
+        Object component = ((DefaultArmoryStrategyFactory.DynamicContext) dynamicContext).getStagedComponent(beanName);
+        if (component == null) {
+            component = aiClientRuntimeRegistry.getComponent(beanName);
+        }
+        if (component == null) {
+            throw new IllegalStateException("未找到已装配的组件: " + beanName);
         }
-        
-        // 注册新的Bean
-        beanFactory.registerBeanDefinition(beanName, beanDefinition);
-        log.info("成功注册Bean: {}", beanName);
+        return (T) component;
     }
 
     /**
@@ -99,23 +113,25 @@ public abstract class AbstractArmorySupport {
     }
 
     /**
-     * 路由方法（简化版本）
-     * 完整版本应使用扳手工程的router方法
+     * 节点名称，用于日志和耗时记录
+     */
+    public String nodeName() {
+        return ClassUtils.getUserClass(getClass()).getSimpleName();
+    }
+
+    /**
+     * 当前节点依赖的前置节点，由 DAG 执行器保证前置节点全部完成后才执行当前节点
+     * 缺省无依赖
      */
-    protected String router(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
-        // 简化版本的路由实现
-        return "SUCCESS";
+    public List<Class<? extends AbstractArmorySupport>> dependsOn() {
+        return List.of();
     }
 
     /**
      * 统一的处理方法
-     * 确保每个节点都能正确执行doApply和router逻辑
+     * 每个节点在一次装配命令中只执行一次，节点间的先后关系由 ArmoryDagExecutor 按 dependsOn 编排
      */
     public String process(ArmoryCommandEntity armoryCommandEntity, Object dynamicContext) throws Exception {
-        // 执行当前节点的处理逻辑
-        doApply(armoryCommandEntity, dynamicContext);
-        
-        // 路由到下一个节点
-        return router(armoryCommandEntity, dynamicContext);
+        return doApply(armoryCommandEntity, dynamicContext);
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -8,17 +8,22 @@ import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
 import site.kuril.domain.agent.model.valobj.AiClientApiVO;
 import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
+import site.kuril.domain.agent.service.armory.transport.LlmHttpTransportManager;
 
+import javax.annotation.Resource;
 import java.util.List;
 
 /**
  * AI客户端API节点
- * 用于构建和注册OpenAiApi对象到Spring容器
+ * 用于构建和注册OpenAiApi对象到运行时注册表
  */
 @Slf4j
 @Service
 public class AiClientApiNode extends AbstractArmorySupport {
 
+    @Resource
+    private LlmHttpTransportManager llmHttpTransportManager;
+
     @Override
     protected String doApply(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
         log.info("Ai Agent 构建节点，API 接口请求{}", JSON.toJSONString(requestParameter));
@@ -32,14 +37,11 @@ public class AiClientApiNode extends AbstractArmorySupport {
         }
 
         for (AiClientApiVO aiClientApiVO : aiClientApiList) {
-            // 构建OpenAiApi对象
-            OpenAiApi openAiApi = OpenAiApi.builder()
-                    .baseUrl(aiClientApiVO.getBaseUrl())
-                    .apiKey(aiClientApiVO.getApiKey())
-                    .build();
+            // 构建OpenAiApi对象，同一 baseUrl 共享连接池，相同 baseUrl + apiKey 复用实例
+            OpenAiApi openAiApi = llmHttpTransportManager.openAiApi(aiClientApiVO.getBaseUrl(), aiClientApiVO.getApiKey());
 
-            // 注册Bean对象
-            registerBean(beanName(aiClientApiVO.getApiId()), OpenAiApi.class, openAiApi);
+            // 登记组件，装配成功后整代发布
+            registerBean(context, beanName(aiClientApiVO.getApiId()), openAiApi);
 
             log.info("成功构建并注册 OpenAiApi，Bean名称: {}，API配置: [baseUrl={}, apiId={}]",
                     beanName(aiClientApiVO.getApiId()),
@@ -50,31 +52,10 @@ public class AiClientApiNode extends AbstractArmorySupport {
         return "SUCCESS";
     }
 
-    /**
-     * 获取下一个处理节点
-     */
-    public DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> get(
-            ArmoryCommandEntity armoryCommandEntity, 
-            DefaultArmoryStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        
-        log.info("=== AiClientApiNode.get() 方法被调用 ===");
-        
-        try {
-            // 通过ApplicationContext获取下一个节点，避免循环依赖
-            AiClientToolMcpNode aiClientToolMcpNode = applicationContext.getBean(AiClientToolMcpNode.class);
-            log.info("✅ 成功获取 AiClientToolMcpNode: {}", aiClientToolMcpNode.getClass().getSimpleName());
-            
-            return new DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String>() {
-                @Override
-                public String apply(ArmoryCommandEntity entity, DefaultArmoryStrategyFactory.DynamicContext context) throws Exception {
-                    log.info("=== 准备调用aiClientToolMcpNode.process() ===");
-                    return aiClientToolMcpNode.process(entity, context);
-                }
-            };
-        } catch (Exception e) {
-            log.error("⚠️ 获取AiClientToolMcpNode失败: {}", e.getMessage());
-            return null;
-        }
+    @Override
+    public List<Class<? extends AbstractArmorySupport>> dependsOn() {
+        // API 构建依赖数据加载
+        return List.of(RootNode.class);
     }
 
     @Override
@@ -87,23 +68,4 @@ public class AiClientApiNode extends AbstractArmorySupport {
         return AiAgentEnumVO.AI_CLIENT_API.getDataName();
     }
 
-    @Override
-    protected String router(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
-        log.info("=== AiClientApiNode.router() 方法被调用 ===");
-        
-        // 路由到下一个节点
-        DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> nextHandler = 
-                get(requestParameter, (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext);
-        
-        if (nextHandler != null) {
-            log.info("✅ 找到下一个处理节点，准备执行");
-            String result = nextHandler.apply(requestParameter, (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext);
-            log.info("✅ 下一个处理节点执行完成，返回结果: {}", result);
-            return result;
-        }
-        
-        log.warn("⚠️ 没有找到下一个处理节点，返回SUCCESS");
-        return "SUCCESS";
-    }
-
 } 
\ No newline at end of file
@@ -9,18 +9,24 @@ import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
 import site.kuril.domain.agent.model.valobj.AiClientModelVO;
 import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
+import site.kuril.domain.agent.service.armory.tool.ParallelToolCallingManager;
 
+import javax.annotation.Resource;
 import java.util.List;
 import java.util.ArrayList;
 
 /**
  * AI客户端模型节点
- * 用于构建和注册OpenAiChatModel对象到Spring容器
+ * 用于构建和注册OpenAiChatModel对象到运行时注册表
+ * 模型使用并行工具调用管理器，同一轮的多个工具调用并行执行
  */
 @Slf4j
 @Service
 public class AiClientModelNode extends AbstractArmorySupport {
 
+    @Resource
+    private ParallelToolCallingManager parallelToolCallingManager;
+
     @Override
     protected String doApply(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
         log.info("Ai Agent 构建节点，Model 模型构建{}", JSON.toJSONString(requestParameter));
@@ -36,7 +42,7 @@ public class AiClientModelNode extends AbstractArmorySupport {
         for (AiClientModelVO aiClientModelVO : aiClientModelList) {
             // 1. 获取对应的 OpenAiApi Bean
             String apiBeanName = AiAgentEnumVO.AI_CLIENT_API.getBeanName(aiClientModelVO.getApiId());
-            OpenAiApi openAiApi = (OpenAiApi) getBean(apiBeanName);
+            OpenAiApi openAiApi = getComponent(context, apiBeanName);
             log.info("获取到API Bean: {}", apiBeanName);
 
             // 2. 获取关联的 MCP 工具列表（如果有）
@@ -49,7 +55,7 @@ public class AiClientModelNode extends AbstractArmorySupport {
                 for (String mcpId : toolMcpIds) {
                     try {
                         String mcpBeanName = AiAgentEnumVO.AI_CLIENT_TOOL_MCP.getBeanName(mcpId);
-                        Object mcpClient = getBean(mcpBeanName);
+                        Object mcpClient = getComponent(context, mcpBeanName);
                         mcpToolCallbacks.add(mcpClient);
                         log.info("成功获取MCP工具Bean: mcpId={}, beanName={}", mcpId, mcpBeanName);
                     } catch (Exception e) {
@@ -65,7 +71,8 @@ public class AiClientModelNode extends AbstractArmorySupport {
 
             // 3. 构建 OpenAiChatModel
             OpenAiChatModel.Builder modelBuilder = OpenAiChatModel.builder()
-                    .openAiApi(openAiApi);
+                    .openAiApi(openAiApi)
+                    .toolCallingManager(parallelToolCallingManager);
             
             // 如果有MCP工具，可以在这里集成（具体实现取决于Spring AI版本）
             if (!mcpToolCallbacks.isEmpty()) {
@@ -78,8 +85,8 @@ public class AiClientModelNode extends AbstractArmorySupport {
             
             OpenAiChatModel openAiChatModel = modelBuilder.build();
 
-            // 4. 注册Bean对象
-            registerBean(beanName(aiClientModelVO.getModelId()), OpenAiChatModel.class, openAiChatModel);
+            // 4. 登记组件，装配成功后整代发布
+            registerBean(context, beanName(aiClientModelVO.getModelId()), openAiChatModel);
 
             log.info("成功构建并注册 OpenAiChatModel，Bean名称: {}，模型配置: [model={}, apiId={}]",
                     beanName(aiClientModelVO.getModelId()),
@@ -90,28 +97,10 @@ public class AiClientModelNode extends AbstractArmorySupport {
         return "SUCCESS";
     }
 
-    /**
-     * 获取下一个处理节点
-     */
-    public DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> get(
-            ArmoryCommandEntity requestParameter, 
-            DefaultArmoryStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        
-        try {
-            // 通过ApplicationContext获取下一个节点，避免循环依赖
-            AiClientAdvisorNode aiClientAdvisorNode = applicationContext.getBean(AiClientAdvisorNode.class);
-            log.info("✅ 成功获取 AiClientAdvisorNode: {}", aiClientAdvisorNode.getClass().getSimpleName());
-            
-            return new DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String>() {
-                @Override
-                public String apply(ArmoryCommandEntity entity, DefaultArmoryStrategyFactory.DynamicContext context) throws Exception {
-                    return aiClientAdvisorNode.process(entity, context);
-                }
-            };
-        } catch (Exception e) {
-            log.error("⚠️ 获取AiClientAdvisorNode失败: {}", e.getMessage());
-            return null;
-        }
+    @Override
+    public List<Class<? extends AbstractArmorySupport>> dependsOn() {
+        // 模型构建需要 OpenAiApi 和 MCP 客户端
+        return List.of(AiClientApiNode.class, AiClientToolMcpNode.class);
     }
 
     @Override
@@ -124,17 +113,4 @@ public class AiClientModelNode extends AbstractArmorySupport {
         return AiAgentEnumVO.AI_CLIENT_MODEL.getDataName();
     }
 
-    @Override
-    protected String router(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
-        // 路由到下一个节点
-        DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> nextHandler = 
-                get(requestParameter, (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext);
-        
-        if (nextHandler != null) {
-            return nextHandler.apply(requestParameter, (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext);
-        }
-        
-        return "SUCCESS";
-    }
-
 } 
\ No newline at end of file
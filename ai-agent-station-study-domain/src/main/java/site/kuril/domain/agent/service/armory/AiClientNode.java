@@ -11,19 +11,24 @@ import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
 import site.kuril.domain.agent.model.valobj.AiClientSystemPromptVO;
 import site.kuril.domain.agent.model.valobj.AiClientVO;
 import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
+import site.kuril.domain.agent.service.armory.readiness.AiClientReadinessTracker;
 
+import javax.annotation.Resource;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
  * AI客户端节点
- * 用于构建和注册ChatClient对话客户端到Spring容器
+ * 用于构建和注册ChatClient对话客户端到运行时注册表
  */
 @Slf4j
 @Service
 public class AiClientNode extends AbstractArmorySupport {
 
+    @Resource
+    private AiClientReadinessTracker aiClientReadinessTracker;
+
     @Override
     protected String doApply(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
         log.info("Ai Agent 构建节点，客户端{}", JSON.toJSONString(requestParameter));
@@ -55,7 +60,7 @@ public class AiClientNode extends AbstractArmorySupport {
             String modelBeanName = aiClientVO.getModelBeanName();
             if (modelBeanName != null) {
                 try {
-                    chatModel = getBean(modelBeanName);
+                    chatModel = getComponent(context, modelBeanName);
                     log.info("成功获取模型Bean: {}", modelBeanName);
                 } catch (Exception e) {
                     log.warn("获取模型Bean失败: {}, 错误: {}", modelBeanName, e.getMessage());
@@ -70,7 +75,7 @@ public class AiClientNode extends AbstractArmorySupport {
             if (mcpBeanNameList != null && !mcpBeanNameList.isEmpty()) {
                 for (String mcpBeanName : mcpBeanNameList) {
                     try {
-                        Object mcpClient = getBean(mcpBeanName);
+                        Object mcpClient = getComponent(context, mcpBeanName);
                         mcpClients.add(mcpClient);
                         log.info("成功获取MCP Bean: {}", mcpBeanName);
                     } catch (Exception e) {
@@ -87,7 +92,7 @@ public class AiClientNode extends AbstractArmorySupport {
             if (advisorBeanNameList != null && !advisorBeanNameList.isEmpty()) {
                 for (String advisorBeanName : advisorBeanNameList) {
                     try {
-                        Object advisor = getBean(advisorBeanName);
+                        Object advisor = getComponent(context, advisorBeanName);
                         advisors.add(advisor);
                         log.info("成功获取顾问Bean: {}", advisorBeanName);
                     } catch (Exception e) {
@@ -101,8 +106,9 @@ public class AiClientNode extends AbstractArmorySupport {
             // 5. 构建对话客户端
             ChatClient chatClient = buildChatClient(aiClientVO, chatModel, mcpClients, advisors, defaultSystem.toString());
             
-            // 注册Bean对象
-            registerBean(beanName(aiClientVO.getClientId()), ChatClient.class, chatClient);
+            // 登记组件，装配成功后整代发布
+            registerBean(context, beanName(aiClientVO.getClientId()), chatClient);
+            aiClientReadinessTracker.markBuilt(aiClientVO.getClientId());
             
             log.info("成功创建AI客户端: clientId={}, clientName={}, beanName={}, 组件统计[模型:{}, MCP:{}, 顾问:{}]", 
                     aiClientVO.getClientId(), 
@@ -116,15 +122,10 @@ public class AiClientNode extends AbstractArmorySupport {
         return "SUCCESS";
     }
 
-    /**
-     * 获取下一个处理节点（客户端构建是最后一个节点）
-     */
-    public DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> get(
-            ArmoryCommandEntity requestParameter, 
-            DefaultArmoryStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        
-        // 返回 null 表示流程结束
-        return null;
+    @Override
+    public List<Class<? extends AbstractArmorySupport>> dependsOn() {
+        // 客户端构建需要模型、MCP 客户端和顾问
+        return List.of(AiClientModelNode.class, AiClientToolMcpNode.class, AiClientAdvisorNode.class);
     }
 
     @Override
@@ -137,12 +138,6 @@ public class AiClientNode extends AbstractArmorySupport {
         return AiAgentEnumVO.AI_CLIENT.getDataName();
     }
 
-    @Override
-    protected String router(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
-        // 客户端构建是最后一个节点，直接返回成功
-        return "SUCCESS";
-    }
-
     /**
      * 构建ChatClient对象
      * 使用Spring AI的ChatClient.builder()构建真正的ChatClient实例
@@ -1,30 +1,80 @@
 package site.kuril.domain.agent.service.armory;
 
 import com.alibaba.fastjson.JSON;
+import io.modelcontextprotocol.client.McpAsyncClient;
 import io.modelcontextprotocol.client.McpClient;
 import io.modelcontextprotocol.client.McpSyncClient;
 import io.modelcontextprotocol.client.transport.HttpClientSseClientTransport;
 import io.modelcontextprotocol.client.transport.ServerParameters;
-import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.spec.McpClientTransport;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
 import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
 import site.kuril.domain.agent.model.valobj.AiClientToolMcpVO;
+import site.kuril.domain.agent.model.valobj.McpHandshakeReportVO;
+import site.kuril.domain.agent.model.valobj.enums.McpClientStatusEnumVO;
 import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
+import site.kuril.domain.agent.service.armory.mcp.LazyMcpSyncClient;
+import site.kuril.domain.agent.service.armory.mcp.McpConnectionPool;
+import site.kuril.domain.agent.service.armory.mcp.McpConnectionPoolManager;
+import site.kuril.domain.agent.service.armory.mcp.McpIdleConnectionReaper;
+import site.kuril.domain.agent.service.armory.mcp.McpResourceLifecycleManager;
+import site.kuril.domain.agent.service.armory.mcp.McpStdioClientTransport;
+import site.kuril.domain.agent.service.armory.mcp.McpToolCallbackCache;
+import site.kuril.domain.agent.service.armory.mcp.McpToolResultCache;
 
+import javax.annotation.Resource;
 import java.time.Duration;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * AI客户端MCP工具节点
- * 用于构建和注册McpSyncClient对象到Spring容器
+ * 用于构建和注册McpSyncClient对象到运行时注册表
+ * 所有MCP客户端并行握手，超过启动截止时间仍未完成的以降级状态注册并在后台继续连接；
+ * 配置了延迟连接（ext_param.lazyInit）的客户端只注册代理，首次使用时才连接；
+ * 配置了连接池（ext_param.poolMaxSize 大于1）的注册连接池，并发会话各自借出连接调用工具；
+ * 配置了异步（ext_param.async）的注册 McpAsyncClient
  */
 @Slf4j
 @Service
 public class AiClientToolMcpNode extends AbstractArmorySupport {
 
+    /**
+     * 全部 MCP 客户端握手的启动截止时间(毫秒)
+     */
+    @Value("${spring.ai.agent.mcp.init-deadline-ms:30000}")
+    private long initDeadlineMillis;
+
+    /**
+     * MCP 握手状态，key为mcpId；降级客户端后台握手完成后在此更新
+     */
+    private final Map<String, McpHandshakeReportVO> handshakeReportMap = new ConcurrentHashMap<>();
+
+    @Resource
+    private McpIdleConnectionReaper mcpIdleConnectionReaper;
+
+    @Resource
+    private McpToolCallbackCache mcpToolCallbackCache;
+
+    @Resource
+    private McpConnectionPoolManager mcpConnectionPoolManager;
+
+    @Resource
+    private McpToolResultCache mcpToolResultCache;
+
+    @Resource
+    private McpResourceLifecycleManager mcpResourceLifecycleManager;
+
     @Override
     protected String doApply(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
         log.info("Ai Agent 构建节点，Tool MCP 工具配置{}", JSON.toJSONString(requestParameter));
@@ -37,57 +87,210 @@ public class AiClientToolMcpNode extends AbstractArmorySupport {
             return "SUCCESS";
         }
 
+        // 1. 构建客户端（或连接池）并并行发起握手
+        Map<AiClientToolMcpVO, Object> mcpClientMap = new LinkedHashMap<>();
+        Map<String, CompletableFuture<Long>> handshakeFutureMap = new LinkedHashMap<>();
         for (AiClientToolMcpVO aiClientToolMcpVO : aiClientToolMcpList) {
             log.info("处理MCP配置: mcpId={}, mcpName={}, transportType={}", 
                     aiClientToolMcpVO.getMcpId(), 
                     aiClientToolMcpVO.getMcpName(), 
                     aiClientToolMcpVO.getTransportType());
 
-            // 构建MCP客户端
-            log.info("开始创建MCP客户端: mcpId={}", aiClientToolMcpVO.getMcpId());
+            // 登记工具结果缓存策略，工具回调列举时按策略包装
+            mcpToolResultCache.registerPolicies(beanName(aiClientToolMcpVO.getMcpId()), aiClientToolMcpVO.getMcpId(),
+                    aiClientToolMcpVO.getExtParamConfig() != null ? aiClientToolMcpVO.getExtParamConfig().getToolCache() : null);
+
+            // 连接池：并行预建 poolMinSize 个连接，作为握手
+            if (aiClientToolMcpVO.isPooled()) {
+                AiClientToolMcpVO.ExtParamConfig extParamConfig = aiClientToolMcpVO.getExtParamConfig();
+                McpConnectionPool pool = mcpConnectionPoolManager.create(aiClientToolMcpVO.getMcpId(), () -> createMcpClient(aiClientToolMcpVO),
+                        extParamConfig.getPoolMinSize() != null ? extParamConfig.getPoolMinSize() : 1, extParamConfig.getPoolMaxSize());
+                mcpClientMap.put(aiClientToolMcpVO, pool);
+                handshakeFutureMap.put(aiClientToolMcpVO.getMcpId(), CompletableFuture.supplyAsync(pool::prefill, armoryExecutor));
+                continue;
+            }
+
+            // 延迟连接：注册代理，首次使用时才建立连接
+            if (aiClientToolMcpVO.isLazyInit()) {
+                registerLazyClient(context, aiClientToolMcpVO);
+                recordReport(context, aiClientToolMcpVO, McpClientStatusEnumVO.LAZY, null, true, null);
+                continue;
+            }
+
+            // 异步客户端：握手不占用线程，工具调用可在同一连接上并发在途
+            if (aiClientToolMcpVO.isAsync()) {
+                McpAsyncClient mcpAsyncClient = createMcpAsyncClient(aiClientToolMcpVO);
+                if (mcpAsyncClient == null) {
+                    recordReport(context, aiClientToolMcpVO, McpClientStatusEnumVO.FAILED, null, false, "客户端创建失败");
+                    continue;
+                }
+                mcpClientMap.put(aiClientToolMcpVO, mcpAsyncClient);
+                long start = System.currentTimeMillis();
+                handshakeFutureMap.put(aiClientToolMcpVO.getMcpId(), mcpAsyncClient.initialize()
+                        .map(initResult -> {
+                            log.info("MCP异步客户端握手成功: mcpId={}, initResult={}", aiClientToolMcpVO.getMcpId(), initResult);
+                            return System.currentTimeMillis() - start;
+                        })
+                        .toFuture());
+                continue;
+            }
+
             McpSyncClient mcpClient = createMcpClient(aiClientToolMcpVO);
-            
-            if (mcpClient != null) {
-                // 注册Bean对象
-                registerBean(beanName(aiClientToolMcpVO.getMcpId()), McpSyncClient.class, mcpClient);
-                
-                log.info("成功创建MCP客户端: mcpId={}, mcpName={}, transportType={}, beanName={}", 
-                        aiClientToolMcpVO.getMcpId(), 
-                        aiClientToolMcpVO.getMcpName(),
-                        aiClientToolMcpVO.getTransportType(),
-                        beanName(aiClientToolMcpVO.getMcpId()));
-            } else {
+            if (mcpClient == null) {
                 log.warn("MCP客户端创建失败: mcpId={}, transportType={}", 
                         aiClientToolMcpVO.getMcpId(), 
                         aiClientToolMcpVO.getTransportType());
+                recordReport(context, aiClientToolMcpVO, McpClientStatusEnumVO.FAILED, null, false, "客户端创建失败");
+                continue;
+            }
+
+            mcpClientMap.put(aiClientToolMcpVO, mcpClient);
+            handshakeFutureMap.put(aiClientToolMcpVO.getMcpId(), CompletableFuture.supplyAsync(() -> {
+                long start = System.currentTimeMillis();
+                var initResult = mcpClient.initialize();
+                log.info("MCP客户端握手成功: mcpId={}, initResult={}", aiClientToolMcpVO.getMcpId(), initResult);
+                return System.currentTimeMillis() - start;
+            }, armoryExecutor));
+        }
+
+        // 2. 在截止时间内等待全部握手
+        long handshakeStart = System.currentTimeMillis();
+        try {
+            CompletableFuture.allOf(handshakeFutureMap.values().toArray(new CompletableFuture[0]))
+                    .get(initDeadlineMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("MCP客户端握手超过启动截止时间 {}ms，未完成的客户端以降级状态注册", initDeadlineMillis);
+        } catch (ExecutionException e) {
+            // 单个客户端握手失败不影响其他客户端，下面逐个处理
+        }
+
+        // 3. 按握手结果注册
+        for (Map.Entry<AiClientToolMcpVO, Object> entry : mcpClientMap.entrySet()) {
+            AiClientToolMcpVO aiClientToolMcpVO = entry.getKey();
+            Object mcpClient = entry.getValue();
+            CompletableFuture<Long> handshakeFuture = handshakeFutureMap.get(aiClientToolMcpVO.getMcpId());
+
+            if (!handshakeFuture.isDone()) {
+                // 握手完成前不提供工具；先标记再注册，避免握手在注册前完成时状态被覆盖
+                mcpResourceLifecycleManager.handshakeStarted(mcpClient);
+                registerBean(context, beanName(aiClientToolMcpVO.getMcpId()), mcpClient);
+                registerPool(mcpClient);
+                recordReport(context, aiClientToolMcpVO, McpClientStatusEnumVO.DEGRADED, null, false, null);
+                handshakeFuture.whenComplete((latency, throwable) -> onBackgroundHandshake(aiClientToolMcpVO, mcpClient, latency, handshakeStart, throwable));
+                continue;
+            }
+
+            if (handshakeFuture.isCompletedExceptionally()) {
+                Throwable cause = handshakeFuture.handle((latency, throwable) -> throwable).join();
+                log.error("MCP客户端握手失败: mcpId={}, 错误: {}", aiClientToolMcpVO.getMcpId(), cause.getMessage(), cause);
+                recordReport(context, aiClientToolMcpVO, McpClientStatusEnumVO.FAILED, null, true, rootMessage(cause));
+                // 握手失败的客户端不注册，立即关闭以回收子进程或连接
+                mcpResourceLifecycleManager.closeNow(beanName(aiClientToolMcpVO.getMcpId()), mcpClient);
+                continue;
             }
+
+            registerBean(context, beanName(aiClientToolMcpVO.getMcpId()), mcpClient);
+            registerPool(mcpClient);
+            recordReport(context, aiClientToolMcpVO, McpClientStatusEnumVO.READY, handshakeFuture.join(), true, null);
+            log.info("成功创建MCP客户端: mcpId={}, mcpName={}, transportType={}, beanName={}", 
+                    aiClientToolMcpVO.getMcpId(), 
+                    aiClientToolMcpVO.getMcpName(),
+                    aiClientToolMcpVO.getTransportType(),
+                    beanName(aiClientToolMcpVO.getMcpId()));
         }
 
+        log.info("MCP客户端握手报告: {}", JSON.toJSONString(context.getMcpHandshakeReports()));
         return "SUCCESS";
     }
 
     /**
-     * 获取下一个处理节点
+     * 查询MCP客户端握手状态
+     * 降级客户端在后台完成握手后，此处返回最新状态
      */
-    public DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> get(
-            ArmoryCommandEntity requestParameter, 
-            DefaultArmoryStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        
-        try {
-            // 通过ApplicationContext获取下一个节点，避免循环依赖
-            AiClientModelNode aiClientModelNode = applicationContext.getBean(AiClientModelNode.class);
-            log.info("✅ 成功获取 AiClientModelNode: {}", aiClientModelNode.getClass().getSimpleName());
-            
-            return new DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String>() {
-                @Override
-                public String apply(ArmoryCommandEntity entity, DefaultArmoryStrategyFactory.DynamicContext context) throws Exception {
-                    return aiClientModelNode.process(entity, context);
-                }
-            };
-        } catch (Exception e) {
-            log.error("⚠️ 获取AiClientModelNode失败: {}", e.getMessage());
-            return null;
+    public McpHandshakeReportVO queryHandshakeReport(String mcpId) {
+        return handshakeReportMap.get(mcpId);
+    }
+
+    /**
+     * 注册延迟连接的MCP客户端代理
+     */
+    private void registerLazyClient(DefaultArmoryStrategyFactory.DynamicContext context, AiClientToolMcpVO aiClientToolMcpVO) {
+        Long idleTtlSeconds = aiClientToolMcpVO.getExtParamConfig().getIdleTtlSeconds();
+        long idleTtlMillis = idleTtlSeconds != null ? TimeUnit.SECONDS.toMillis(idleTtlSeconds) : 0L;
+
+        LazyMcpSyncClient lazyClient = new LazyMcpSyncClient(aiClientToolMcpVO.getMcpId(), () -> createMcpClient(aiClientToolMcpVO), idleTtlMillis);
+        registerBean(context, beanName(aiClientToolMcpVO.getMcpId()), lazyClient);
+        mcpIdleConnectionReaper.register(lazyClient);
+
+        log.info("成功注册延迟MCP客户端: mcpId={}, mcpName={}, idleTtl={}ms, beanName={}",
+                aiClientToolMcpVO.getMcpId(),
+                aiClientToolMcpVO.getMcpName(),
+                idleTtlMillis,
+                beanName(aiClientToolMcpVO.getMcpId()));
+    }
+
+    /**
+     * 登记连接池，由管理器做定期健康检查；重新装配时关闭同一 mcpId 的旧连接池
+     */
+    private void registerPool(Object mcpClient) {
+        if (mcpClient instanceof McpConnectionPool pool) {
+            mcpConnectionPoolManager.register(pool);
+        }
+    }
+
+    /**
+     * 降级客户端后台握手完成回调
+     * 成功后开放其工具；失败时从运行时注册表移除并交给生命周期管理器关闭，尚未发布的由发布时移除，装配失败的随暂存组件关闭
+     */
+    private void onBackgroundHandshake(AiClientToolMcpVO aiClientToolMcpVO, Object mcpClient, Long handshakeLatency, long handshakeStart, Throwable throwable) {
+        long latency = handshakeLatency != null ? handshakeLatency : System.currentTimeMillis() - handshakeStart;
+        String beanName = beanName(aiClientToolMcpVO.getMcpId());
+        if (throwable != null) {
+            log.error("降级MCP客户端后台握手失败，移除并关闭: mcpId={}, 耗时: {}ms, 错误: {}", aiClientToolMcpVO.getMcpId(), latency, throwable.getMessage());
+            handshakeReportMap.put(aiClientToolMcpVO.getMcpId(), buildReport(aiClientToolMcpVO, McpClientStatusEnumVO.FAILED, latency, false, rootMessage(throwable)));
+            mcpResourceLifecycleManager.handshakeFailed(mcpClient);
+            aiClientRuntimeRegistry.remove(beanName, mcpClient);
+            mcpToolCallbackCache.invalidate(beanName);
+            return;
         }
+        log.info("降级MCP客户端后台握手完成: mcpId={}, 耗时: {}ms", aiClientToolMcpVO.getMcpId(), latency);
+        handshakeReportMap.put(aiClientToolMcpVO.getMcpId(), buildReport(aiClientToolMcpVO, McpClientStatusEnumVO.READY, latency, false, null));
+        mcpResourceLifecycleManager.handshakeSucceeded(mcpClient);
+        mcpToolCallbackCache.invalidate(beanName);
+    }
+
+    private void recordReport(DefaultArmoryStrategyFactory.DynamicContext context, AiClientToolMcpVO aiClientToolMcpVO,
+                              McpClientStatusEnumVO status, Long latencyMillis, boolean withinDeadline, String errorMessage) {
+        McpHandshakeReportVO report = buildReport(aiClientToolMcpVO, status, latencyMillis, withinDeadline, errorMessage);
+        handshakeReportMap.put(aiClientToolMcpVO.getMcpId(), report);
+        context.recordMcpHandshakeReport(report);
+    }
+
+    private McpHandshakeReportVO buildReport(AiClientToolMcpVO aiClientToolMcpVO, McpClientStatusEnumVO status,
+                                             Long latencyMillis, boolean withinDeadline, String errorMessage) {
+        return McpHandshakeReportVO.builder()
+                .mcpId(aiClientToolMcpVO.getMcpId())
+                .mcpName(aiClientToolMcpVO.getMcpName())
+                .transportType(aiClientToolMcpVO.getTransportType())
+                .status(status)
+                .latencyMillis(latencyMillis)
+                .withinDeadline(withinDeadline)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    private String rootMessage(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage();
+    }
+
+    @Override
+    public List<Class<? extends AbstractArmorySupport>> dependsOn() {
+        // MCP 构建依赖数据加载，与 API 构建互不依赖，可并行
+        return List.of(RootNode.class);
     }
 
     @Override
@@ -100,32 +303,56 @@ public class AiClientToolMcpNode extends AbstractArmorySupport {
         return AiAgentEnumVO.AI_CLIENT_TOOL_MCP.getDataName();
     }
 
-    @Override
-    protected String router(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
-        // 路由到下一个节点
-        DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> nextHandler = 
-                get(requestParameter, (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext);
-        
-        if (nextHandler != null) {
-            return nextHandler.apply(requestParameter, (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext);
+    /**
+     * 创建MCP同步客户端
+     * 根据传输类型和配置创建相应的MCP客户端，仅构建传输与客户端对象，不执行握手
+     */
+    private McpSyncClient createMcpClient(AiClientToolMcpVO mcpConfig) {
+        McpClientTransport transport = createTransport(mcpConfig);
+        if (transport == null) {
+            return null;
         }
-        
-        return "SUCCESS";
+
+        McpSyncClient mcpClient = McpClient.sync(transport)
+                .requestTimeout(Duration.ofSeconds(mcpConfig.getRequestTimeout()))
+                .toolsChangeConsumer(tools -> mcpToolCallbackCache.invalidate(beanName(mcpConfig.getMcpId())))
+                .build();
+
+        // 握手（initialize）由 doApply 并行发起
+        log.info("MCP同步客户端创建完成: mcpId={}, transportType={}", mcpConfig.getMcpId(), mcpConfig.getTransportType());
+        return mcpClient;
     }
 
     /**
-     * 创建MCP客户端
-     * 根据传输类型和配置创建相应的MCP客户端
-     * 在真实环境中，这里会创建实际的McpSyncClient对象
+     * 创建MCP异步客户端
+     * 握手与工具调用返回 Mono，同一连接上的多个请求可以同时在途
      */
-    private McpSyncClient createMcpClient(AiClientToolMcpVO mcpConfig) {
+    private McpAsyncClient createMcpAsyncClient(AiClientToolMcpVO mcpConfig) {
+        McpClientTransport transport = createTransport(mcpConfig);
+        if (transport == null) {
+            return null;
+        }
+
+        McpAsyncClient mcpClient = McpClient.async(transport)
+                .requestTimeout(Duration.ofSeconds(mcpConfig.getRequestTimeout()))
+                .toolsChangeConsumer(tools -> Mono.fromRunnable(() -> mcpToolCallbackCache.invalidate(beanName(mcpConfig.getMcpId()))))
+                .build();
+
+        log.info("MCP异步客户端创建完成: mcpId={}, transportType={}", mcpConfig.getMcpId(), mcpConfig.getTransportType());
+        return mcpClient;
+    }
+
+    /**
+     * 根据传输类型创建MCP传输
+     */
+    private McpClientTransport createTransport(AiClientToolMcpVO mcpConfig) {
         try {
             String transportType = mcpConfig.getTransportType();
             
             if ("sse".equals(transportType)) {
-                return createSseMcpClient(mcpConfig);
+                return createSseTransport(mcpConfig);
             } else if ("stdio".equals(transportType)) {
-                return createStdioMcpClient(mcpConfig);
+                return createStdioTransport(mcpConfig);
             } else {
                 log.warn("不支持的传输类型: {}", transportType);
                 return null;
@@ -137,9 +364,9 @@ public class AiClientToolMcpNode extends AbstractArmorySupport {
     }
 
     /**
-     * 创建SSE类型的MCP客户端
+     * 创建SSE类型的MCP传输
      */
-    private McpSyncClient createSseMcpClient(AiClientToolMcpVO mcpConfig) {
+    private McpClientTransport createSseTransport(AiClientToolMcpVO mcpConfig) {
         log.info("创建SSE MCP客户端: mcpId={}", mcpConfig.getMcpId());
         
         AiClientToolMcpVO.TransportConfigSse sseConfig = mcpConfig.getTransportConfigSse();
@@ -148,39 +375,24 @@ public class AiClientToolMcpNode extends AbstractArmorySupport {
             return null;
         }
         
-        try {
-            // 创建SSE传输
-            HttpClientSseClientTransport transport;
-            if (sseConfig.getSseEndpoint() != null && !sseConfig.getSseEndpoint().isEmpty()) {
-                transport = HttpClientSseClientTransport.builder(sseConfig.getBaseUri())
-                        .sseEndpoint(sseConfig.getSseEndpoint())
-                        .build();
-            } else {
-                transport = HttpClientSseClientTransport.builder(sseConfig.getBaseUri()).build();
-            }
-            
-            // 创建MCP同步客户端
-            McpSyncClient mcpClient = McpClient.sync(transport)
-                    .requestTimeout(Duration.ofSeconds(mcpConfig.getRequestTimeout()))
+        // 创建SSE传输
+        HttpClientSseClientTransport transport;
+        if (sseConfig.getSseEndpoint() != null && !sseConfig.getSseEndpoint().isEmpty()) {
+            transport = HttpClientSseClientTransport.builder(sseConfig.getBaseUri())
+                    .sseEndpoint(sseConfig.getSseEndpoint())
                     .build();
-            
-            // 初始化客户端
-            var initResult = mcpClient.initialize();
-            log.info("SSE MCP客户端初始化成功: mcpId={}, baseUri={}, initResult={}", 
-                    mcpConfig.getMcpId(), sseConfig.getBaseUri(), initResult);
-            
-            return mcpClient;
-            
-        } catch (Exception e) {
-            log.error("创建SSE MCP客户端失败: mcpId={}, 错误: {}", mcpConfig.getMcpId(), e.getMessage(), e);
-            return null;
+        } else {
+            transport = HttpClientSseClientTransport.builder(sseConfig.getBaseUri()).build();
         }
+        
+        log.info("SSE MCP传输创建完成: mcpId={}, baseUri={}", mcpConfig.getMcpId(), sseConfig.getBaseUri());
+        return transport;
     }
 
     /**
-     * 创建STDIO类型的MCP客户端
+     * 创建STDIO类型的MCP传输
      */
-    private McpSyncClient createStdioMcpClient(AiClientToolMcpVO mcpConfig) {
+    private McpClientTransport createStdioTransport(AiClientToolMcpVO mcpConfig) {
         log.info("创建STDIO MCP客户端: mcpId={}", mcpConfig.getMcpId());
         
         AiClientToolMcpVO.TransportConfigStdio stdioConfig = mcpConfig.getTransportConfigStdio();
@@ -189,49 +401,32 @@ public class AiClientToolMcpNode extends AbstractArmorySupport {
             return null;
         }
         
-        try {
-            // 获取第一个stdio配置（通常只有一个）
-            Map.Entry<String, AiClientToolMcpVO.TransportConfigStdio.Stdio> firstEntry = 
-                    stdioConfig.getStdio().entrySet().iterator().next();
-            AiClientToolMcpVO.TransportConfigStdio.Stdio stdio = firstEntry.getValue();
-            
-            log.info("STDIO配置详情: key={}, command={}, args={}", 
-                    firstEntry.getKey(), stdio.getCommand(), 
-                    stdio.getArgs() != null ? String.join(" ", stdio.getArgs()) : "null");
-            
-            // 构建服务器参数
-            ServerParameters.Builder paramBuilder = ServerParameters.builder(stdio.getCommand());
-            
-            // 添加参数
-            if (stdio.getArgs() != null && stdio.getArgs().length > 0) {
-                paramBuilder.args(stdio.getArgs());
-                log.info("添加命令参数: {}", String.join(" ", stdio.getArgs()));
-            }
-            
-            // 注意：当前版本的ServerParameters可能不支持environment方法
-            // 如果需要环境变量，可能需要通过其他方式设置
-            
-            ServerParameters serverParams = paramBuilder.build();
-            
-            // 创建STDIO传输
-            StdioClientTransport transport = new StdioClientTransport(serverParams);
-            
-            // 创建MCP同步客户端
-            McpSyncClient mcpClient = McpClient.sync(transport)
-                    .requestTimeout(Duration.ofSeconds(mcpConfig.getRequestTimeout()))
-                    .build();
-            
-            // 初始化客户端
-            var initResult = mcpClient.initialize();
-            log.info("STDIO MCP客户端初始化成功: mcpId={}, command={}, initResult={}", 
-                    mcpConfig.getMcpId(), stdio.getCommand(), initResult);
-            
-            return mcpClient;
-            
-        } catch (Exception e) {
-            log.error("创建STDIO MCP客户端失败: mcpId={}, 错误: {}", mcpConfig.getMcpId(), e.getMessage(), e);
-            return null;
+        // 获取第一个stdio配置（通常只有一个）
+        Map.Entry<String, AiClientToolMcpVO.TransportConfigStdio.Stdio> firstEntry = 
+                stdioConfig.getStdio().entrySet().iterator().next();
+        AiClientToolMcpVO.TransportConfigStdio.Stdio stdio = firstEntry.getValue();
+        
+        log.info("STDIO配置详情: key={}, command={}, args={}", 
+                firstEntry.getKey(), stdio.getCommand(), 
+                stdio.getArgs() != null ? String.join(" ", stdio.getArgs()) : "null");
+        
+        // 构建服务器参数
+        ServerParameters.Builder paramBuilder = ServerParameters.builder(stdio.getCommand());
+        
+        // 添加参数
+        if (stdio.getArgs() != null && stdio.getArgs().length > 0) {
+            paramBuilder.args(stdio.getArgs());
+            log.info("添加命令参数: {}", String.join(" ", stdio.getArgs()));
         }
+        
+        // 注意：当前版本的ServerParameters可能不支持environment方法
+        // 如果需要环境变量，可能需要通过其他方式设置
+        
+        // 子进程登记到生命周期管理器，关闭后清理残留的子孙进程
+        McpStdioClientTransport transport = new McpStdioClientTransport(mcpConfig.getMcpId(), paramBuilder.build(), mcpResourceLifecycleManager);
+        
+        log.info("STDIO MCP传输创建完成: mcpId={}, command={}", mcpConfig.getMcpId(), stdio.getCommand());
+        return transport;
     }
 
-} 
\ No newline at end of file
+}
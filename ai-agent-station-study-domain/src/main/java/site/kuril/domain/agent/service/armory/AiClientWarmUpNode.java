@@ -0,0 +1,174 @@
+package site.kuril.domain.agent.service.armory;
+
+import com.alibaba.fastjson.JSON;
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
+import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
+import site.kuril.domain.agent.model.valobj.AiClientApiVO;
+import site.kuril.domain.agent.model.valobj.AiClientVO;
+import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
+import site.kuril.domain.agent.service.armory.mcp.McpConnectionPool;
+import site.kuril.domain.agent.service.armory.mcp.McpToolCallbackCache;
+import site.kuril.domain.agent.service.armory.transport.LlmHttpTransportManager;
+
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * AI客户端预热节点（可选）
+ * 在客户端装配完成后预建模型端点连接、列举并缓存 MCP 工具，并可选发送极小的预热请求，
+ * 避免部署后的首个会话承担 DNS、TLS、HTTP/2 协商与工具列举的延迟；并发数与总耗时均有上限
+ */
+@Slf4j
+@Service
+public class AiClientWarmUpNode extends AbstractArmorySupport {
+
+    @Value("${spring.ai.agent.warm-up.enabled:false}")
+    private boolean enabled;
+
+    @Value("${spring.ai.agent.warm-up.max-concurrency:4}")
+    private int maxConcurrency;
+
+    @Value("${spring.ai.agent.warm-up.budget-ms:15000}")
+    private long budgetMillis;
+
+    @Value("${spring.ai.agent.warm-up.prime-request:false}")
+    private boolean primeRequest;
+
+    @Resource
+    private LlmHttpTransportManager llmHttpTransportManager;
+
+    @Resource
+    private McpToolCallbackCache mcpToolCallbackCache;
+
+    @Override
+    protected String doApply(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
+        if (!enabled) {
+            return "SUCCESS";
+        }
+
+        log.info("Ai Agent 构建节点，客户端预热{}", JSON.toJSONString(requestParameter));
+
+        DefaultArmoryStrategyFactory.DynamicContext context = (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext;
+        List<AiClientVO> aiClientList = context.getValue(dataName());
+
+        if (aiClientList == null || aiClientList.isEmpty()) {
+            log.warn("没有需要被预热的 ai client");
+            return "SUCCESS";
+        }
+
+        Queue<WarmUpTask> taskQueue = new ConcurrentLinkedQueue<>(buildTasks(context, aiClientList));
+        long deadline = System.currentTimeMillis() + budgetMillis;
+
+        // 按并发上限启动工作线程，逐个领取预热任务，超过预算后不再领取
+        List<CompletableFuture<Void>> workers = new ArrayList<>();
+        for (int i = 0; i < Math.min(maxConcurrency, taskQueue.size()); i++) {
+            workers.add(CompletableFuture.runAsync(() -> drain(taskQueue, deadline, context), armoryExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture[0]))
+                    .get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("客户端预热超过预算 {}ms，剩余 {} 项预热放弃", budgetMillis, taskQueue.size());
+        } catch (ExecutionException e) {
+            log.warn("客户端预热异常: {}", e.getMessage());
+        }
+
+        log.info("客户端预热完成，预热耗时: {}", context.getWarmUpTimings());
+        return "SUCCESS";
+    }
+
+    @Override
+    public List<Class<? extends AbstractArmorySupport>> dependsOn() {
+        // 预热在客户端装配完成后执行
+        return List.of(AiClientNode.class);
+    }
+
+    @Override
+    protected String beanName(String beanId) {
+        // 预热节点不登记组件
+        return "";
+    }
+
+    @Override
+    protected String dataName() {
+        return AiAgentEnumVO.AI_CLIENT.getDataName();
+    }
+
+    /**
+     * 构建预热任务：模型端点连接按 baseUrl 去重，MCP 工具列表按 MCP 去重，预热请求按模型去重
+     */
+    private List<WarmUpTask> buildTasks(DefaultArmoryStrategyFactory.DynamicContext context, List<AiClientVO> aiClientList) {
+        Map<String, WarmUpTask> tasks = new LinkedHashMap<>();
+
+        List<AiClientApiVO> aiClientApiList = context.getValue(AiAgentEnumVO.AI_CLIENT_API.getDataName());
+        if (aiClientApiList != null) {
+            for (AiClientApiVO aiClientApiVO : aiClientApiList) {
+                String baseUrl = aiClientApiVO.getBaseUrl();
+                tasks.putIfAbsent("connect:" + baseUrl, new WarmUpTask("connect:" + baseUrl,
+                        () -> llmHttpTransportManager.warmUp(baseUrl, Duration.ofMillis(budgetMillis))));
+            }
+        }
+
+        for (AiClientVO aiClientVO : aiClientList) {
+            List<String> mcpBeanNameList = aiClientVO.getMcpBeanNameList();
+            if (mcpBeanNameList != null) {
+                for (String mcpBeanName : mcpBeanNameList) {
+                    tasks.putIfAbsent("tools:" + mcpBeanName, new WarmUpTask("tools:" + mcpBeanName, () -> {
+                        Object mcpComponent = getComponent(context, mcpBeanName);
+                        // 延迟连接的 MCP 不在预热中建连，连接池已在装配时预建连接
+                        if (mcpComponent instanceof McpSyncClient || mcpComponent instanceof McpAsyncClient || mcpComponent instanceof McpConnectionPool) {
+                            mcpToolCallbackCache.getToolCallbacks(mcpBeanName, mcpComponent);
+                        }
+                    }));
+                }
+            }
+
+            String modelBeanName = aiClientVO.getModelBeanName();
+            if (primeRequest && modelBeanName != null) {
+                tasks.putIfAbsent("prime:" + modelBeanName, new WarmUpTask("prime:" + modelBeanName, () -> {
+                    ChatModel chatModel = getComponent(context, modelBeanName);
+                    chatModel.call(new Prompt("ping", OpenAiChatOptions.builder().maxTokens(1).build()));
+                }));
+            }
+        }
+
+        return new ArrayList<>(tasks.values());
+    }
+
+    private void drain(Queue<WarmUpTask> taskQueue, long deadline, DefaultArmoryStrategyFactory.DynamicContext context) {
+        WarmUpTask task;
+        while (System.currentTimeMillis() < deadline && (task = taskQueue.poll()) != null) {
+            long start = System.currentTimeMillis();
+            try {
+                task.action().run();
+            } catch (Exception e) {
+                log.warn("预热失败: {}, 错误: {}", task.name(), e.getMessage());
+            } finally {
+                context.recordWarmUpTiming(task.name(), System.currentTimeMillis() - start);
+            }
+        }
+    }
+
+    private record WarmUpTask(String name, Runnable action) {
+    }
+
+}
@@ -4,18 +4,20 @@ import com.alibaba.fastjson.JSON;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
-import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
 import site.kuril.domain.agent.service.armory.business.data.ILoadDataStrategy;
 import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
+import site.kuril.domain.agent.service.armory.incremental.AiClientConfigChangeDetector;
 
 import javax.annotation.Resource;
+
 import java.util.Map;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeoutException;
 
 /**
  * 根节点实现
- * 继承抽象支撑类，实现数据加载的路由分发
+ * 继承抽象支撑类，按命令类型选择数据加载策略，是装配 DAG 的入口节点；
+ * 数据加载后计算组件签名，增量装配时只把发生变化的组件交给下游节点
  * 
  * 注意：完整版本需要继承扳手工程的设计模式框架
  * 当前为简化实现版本
@@ -27,7 +29,7 @@ public class RootNode extends AbstractArmorySupport {
     private final Map<String, ILoadDataStrategy> loadDataStrategyMap;
 
     @Resource
-    private AiClientApiNode aiClientApiNode;
+    private AiClientConfigChangeDetector aiClientConfigChangeDetector;
 
     public RootNode(Map<String, ILoadDataStrategy> loadDataStrategyMap) {
         this.loadDataStrategyMap = loadDataStrategyMap;
@@ -51,7 +53,9 @@ public class RootNode extends AbstractArmorySupport {
     @Override
     protected String doApply(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
         log.info("Ai Agent 构建，数据加载节点{}", JSON.toJSONString(requestParameter));
-        return router(requestParameter, dynamicContext);
+        multiThread(requestParameter, dynamicContext);
+        aiClientConfigChangeDetector.detect((DefaultArmoryStrategyFactory.DynamicContext) dynamicContext, requestParameter.isIncremental());
+        return "SUCCESS";
     }
 
     @Override
@@ -66,56 +70,4 @@ public class RootNode extends AbstractArmorySupport {
         return "";
     }
 
-    @Override
-    protected String router(ArmoryCommandEntity requestParameter, Object dynamicContext) throws Exception {
-        // 执行多线程数据加载
-        multiThread(requestParameter, dynamicContext);
-        
-        // 路由到下一个节点
-        DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> nextHandler = 
-                get(requestParameter, (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext);
-        
-        if (nextHandler != null) {
-            return nextHandler.apply(requestParameter, (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext);
-        }
-        
-        return "SUCCESS";
-    }
-
-    /**
-     * 获取下一个处理节点
-     * 完整版本应实现：StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> get(...)
-     */
-    public DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String> get(
-            ArmoryCommandEntity armoryCommandEntity, 
-            DefaultArmoryStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        
-        // 根据命令类型决定下一个节点
-        String commandType = armoryCommandEntity.getCommandType();
-        if (AiAgentEnumVO.AI_CLIENT.getCode().equals(commandType)) {
-            // 客户端命令，路由到API构建节点
-            return new DefaultArmoryStrategyFactory.StrategyHandler<ArmoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext, String>() {
-                @Override
-                public String apply(ArmoryCommandEntity entity, DefaultArmoryStrategyFactory.DynamicContext context) throws Exception {
-                    log.info("RootNode 路由到 AiClientApiNode，开始执行API节点处理");
-                    return aiClientApiNode.process(entity, context);  // 使用process方法而不是doApply
-                }
-            };
-        }
-        
-        // 默认不路由到下一个节点
-        return null;
-    }
-
-    /**
-     * 简化版本的处理方法
-     */
-    public String process(ArmoryCommandEntity armoryCommandEntity, Object dynamicContext) throws Exception {
-        // 执行当前节点的处理逻辑
-        doApply(armoryCommandEntity, dynamicContext);
-        
-        // 路由到下一个节点
-        return router(armoryCommandEntity, dynamicContext);
-    }
-
-} 
\ No newline at end of file
+}
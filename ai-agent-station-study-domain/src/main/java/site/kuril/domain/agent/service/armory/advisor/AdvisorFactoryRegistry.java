@@ -0,0 +1,49 @@
+package site.kuril.domain.agent.service.armory.advisor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorTypeEnumVO;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorVO;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 顾问工厂注册表
+ * 启动时按顾问类型收集全部 IAdvisorFactory，构建时直接按类型分派
+ */
+@Slf4j
+@Component
+public class AdvisorFactoryRegistry {
+
+    private final Map<AiClientAdvisorTypeEnumVO, IAdvisorFactory> factoryMap = new EnumMap<>(AiClientAdvisorTypeEnumVO.class);
+
+    public AdvisorFactoryRegistry(List<IAdvisorFactory> advisorFactories) {
+        for (IAdvisorFactory advisorFactory : advisorFactories) {
+            IAdvisorFactory previous = factoryMap.put(advisorFactory.advisorType(), advisorFactory);
+            if (previous != null) {
+                throw new IllegalStateException("顾问类型存在重复的工厂: " + advisorFactory.advisorType().getCode());
+            }
+        }
+        log.info("顾问工厂注册完成: {}", factoryMap.keySet());
+    }
+
+    /**
+     * 构建顾问
+     * @param advisorVO 顾问配置
+     * @return 顾问实例，类型未知或依赖不可用时返回 null
+     */
+    public Advisor create(AiClientAdvisorVO advisorVO) {
+        AiClientAdvisorTypeEnumVO advisorType = AiClientAdvisorTypeEnumVO.getByCode(advisorVO.getAdvisorType());
+        IAdvisorFactory advisorFactory = advisorType == null ? null : factoryMap.get(advisorType);
+        if (advisorFactory == null) {
+            log.warn("未知的顾问类型: advisorId={}, advisorType={}", advisorVO.getAdvisorId(), advisorVO.getAdvisorType());
+            return null;
+        }
+        advisorVO.parseExtParam();
+        return advisorFactory.create(advisorVO);
+    }
+
+}
@@ -0,0 +1,56 @@
+package site.kuril.domain.agent.service.armory.advisor;
+
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+
+import java.util.List;
+
+/**
+ * 按顾问隔离的对话记忆
+ * 会话ID前加顾问ID，共享同一个记忆存储的多个顾问互不可见；未指定会话ID（Spring AI 默认会话）时不读写记忆，
+ * 避免不同用户的对话落入同一个会话
+ */
+public class AdvisorScopedChatMemory implements ChatMemory {
+
+    private final String advisorId;
+
+    private final ChatMemory delegate;
+
+    public AdvisorScopedChatMemory(String advisorId, ChatMemory delegate) {
+        this.advisorId = advisorId;
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        if (isDefault(conversationId)) {
+            return;
+        }
+        delegate.add(scope(conversationId), messages);
+    }
+
+    @Override
+    public List<Message> get(String conversationId) {
+        if (isDefault(conversationId)) {
+            return List.of();
+        }
+        return delegate.get(scope(conversationId));
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        if (isDefault(conversationId)) {
+            return;
+        }
+        delegate.clear(scope(conversationId));
+    }
+
+    private String scope(String conversationId) {
+        return advisorId + ":" + conversationId;
+    }
+
+    private static boolean isDefault(String conversationId) {
+        return conversationId == null || ChatMemory.DEFAULT_CONVERSATION_ID.equals(conversationId);
+    }
+
+}
@@ -0,0 +1,55 @@
+package site.kuril.domain.agent.service.armory.advisor;
+
+import org.springframework.ai.chat.client.advisor.PromptChatMemoryAdvisor;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.memory.ChatMemoryRepository;
+import org.springframework.ai.chat.memory.InMemoryChatMemoryRepository;
+import org.springframework.ai.chat.memory.MessageWindowChatMemory;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorTypeEnumVO;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorVO;
+
+/**
+ * 对话记忆顾问工厂
+ * 各顾问实例共享同一个记忆存储，重新装配顾问不会丢失已有会话的记忆；记忆按顾问隔离，
+ * 调用方以 {@link #conversationId(String, String)} 传入的会话ID再按客户端与会话隔离
+ */
+@Component
+public class ChatMemoryAdvisorFactory implements IAdvisorFactory {
+
+    private static final int DEFAULT_MAX_MESSAGES = 100;
+
+    private final ChatMemoryRepository chatMemoryRepository = new InMemoryChatMemoryRepository();
+
+    @Override
+    public AiClientAdvisorTypeEnumVO advisorType() {
+        return AiClientAdvisorTypeEnumVO.CHAT_MEMORY;
+    }
+
+    @Override
+    public Advisor create(AiClientAdvisorVO advisorVO) {
+        AiClientAdvisorVO.ChatMemory config = advisorVO.getChatMemory();
+        int maxMessages = config != null && config.getMaxMessages() != null ? config.getMaxMessages() : DEFAULT_MAX_MESSAGES;
+
+        PromptChatMemoryAdvisor.Builder builder = PromptChatMemoryAdvisor.builder(
+                new AdvisorScopedChatMemory(advisorVO.getAdvisorId(), MessageWindowChatMemory.builder()
+                        .chatMemoryRepository(chatMemoryRepository)
+                        .maxMessages(maxMessages)
+                        .build()));
+        if (advisorVO.getOrderNum() != null) {
+            builder.order(advisorVO.getOrderNum());
+        }
+        return builder.build();
+    }
+
+    /**
+     * 对话记忆的会话ID，同一会话中不同角色的客户端各自保留记忆
+     * @param clientId 客户端ID
+     * @param sessionId 会话ID
+     * @return clientId:sessionId
+     */
+    public static String conversationId(String clientId, String sessionId) {
+        return clientId + ":" + sessionId;
+    }
+
+}
@@ -0,0 +1,25 @@
+package site.kuril.domain.agent.service.armory.advisor;
+
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorTypeEnumVO;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorVO;
+
+/**
+ * 顾问工厂接口
+ * 每种顾问类型一个实现，注册为 Spring Bean 后由 {@link AdvisorFactoryRegistry} 启动时收集
+ */
+public interface IAdvisorFactory {
+
+    /**
+     * 支持的顾问类型
+     */
+    AiClientAdvisorTypeEnumVO advisorType();
+
+    /**
+     * 构建顾问
+     * @param advisorVO 顾问配置，ext_param 已解析
+     * @return 顾问实例，依赖不可用时返回 null
+     */
+    Advisor create(AiClientAdvisorVO advisorVO);
+
+}
@@ -0,0 +1,72 @@
+package site.kuril.domain.agent.service.armory.advisor;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.ai.chat.client.advisor.vectorstore.QuestionAnswerAdvisor;
+import org.springframework.ai.vectorstore.SearchRequest;
+import org.springframework.ai.vectorstore.VectorStore;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorTypeEnumVO;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorVO;
+
+/**
+ * RAG检索增强顾问工厂
+ * VectorStore 在首次构建时解析一次并缓存
+ */
+@Slf4j
+@Component
+public class RagAnswerAdvisorFactory implements IAdvisorFactory {
+
+    private static final int DEFAULT_TOP_K = 5;
+
+    private final ObjectProvider<VectorStore> vectorStoreProvider;
+
+    private volatile VectorStore vectorStore;
+
+    public RagAnswerAdvisorFactory(ObjectProvider<VectorStore> vectorStoreProvider) {
+        this.vectorStoreProvider = vectorStoreProvider;
+    }
+
+    @Override
+    public AiClientAdvisorTypeEnumVO advisorType() {
+        return AiClientAdvisorTypeEnumVO.RAG_ANSWER;
+    }
+
+    @Override
+    public Advisor create(AiClientAdvisorVO advisorVO) {
+        VectorStore store = vectorStore();
+        if (store == null) {
+            log.warn("未配置VectorStore，跳过RAG顾问: advisorId={}", advisorVO.getAdvisorId());
+            return null;
+        }
+
+        AiClientAdvisorVO.RagAnswer config = advisorVO.getRagAnswer();
+        SearchRequest.Builder searchRequest = SearchRequest.builder()
+                .topK(config != null && config.getTopK() != null ? config.getTopK() : DEFAULT_TOP_K);
+        if (config != null && config.getThreshold() != null) {
+            searchRequest.similarityThreshold(config.getThreshold());
+        }
+        if (config != null && StringUtils.isNotBlank(config.getFilterExpression())) {
+            searchRequest.filterExpression(config.getFilterExpression());
+        }
+
+        QuestionAnswerAdvisor.Builder builder = QuestionAnswerAdvisor.builder(store)
+                .searchRequest(searchRequest.build());
+        if (advisorVO.getOrderNum() != null) {
+            builder.order(advisorVO.getOrderNum());
+        }
+        return builder.build();
+    }
+
+    private VectorStore vectorStore() {
+        VectorStore store = vectorStore;
+        if (store == null) {
+            store = vectorStoreProvider.getIfAvailable();
+            vectorStore = store;
+        }
+        return store;
+    }
+
+}
@@ -0,0 +1,48 @@
+package site.kuril.domain.agent.service.armory.advisor;
+
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.AdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.BaseAdvisor;
+
+/**
+ * 技术专家顾问
+ * 在系统提示词末尾追加擅长领域与回答风格的约束
+ */
+public class TechnicalExpertAdvisor implements BaseAdvisor {
+
+    private final String expertSystemText;
+
+    private final int order;
+
+    public TechnicalExpertAdvisor(String expertSystemText, int order) {
+        this.expertSystemText = expertSystemText;
+        this.order = order;
+    }
+
+    @Override
+    public ChatClientRequest before(ChatClientRequest chatClientRequest, AdvisorChain advisorChain) {
+        return chatClientRequest.mutate()
+                .prompt(chatClientRequest.prompt().augmentSystemMessage(
+                        systemMessage -> systemMessage.mutate()
+                                .text(systemMessage.getText() + System.lineSeparator() + expertSystemText)
+                                .build()))
+                .build();
+    }
+
+    @Override
+    public ChatClientResponse after(ChatClientResponse chatClientResponse, AdvisorChain advisorChain) {
+        return chatClientResponse;
+    }
+
+    @Override
+    public String getName() {
+        return "TechnicalExpertAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+}
@@ -0,0 +1,38 @@
+package site.kuril.domain.agent.service.armory.advisor;
+
+import org.springframework.ai.chat.client.advisor.api.Advisor;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorTypeEnumVO;
+import site.kuril.domain.agent.model.valobj.AiClientAdvisorVO;
+
+/**
+ * 技术专家顾问工厂
+ */
+@Component
+public class TechnicalExpertAdvisorFactory implements IAdvisorFactory {
+
+    @Override
+    public AiClientAdvisorTypeEnumVO advisorType() {
+        return AiClientAdvisorTypeEnumVO.TECHNICAL_EXPERT;
+    }
+
+    @Override
+    public Advisor create(AiClientAdvisorVO advisorVO) {
+        AiClientAdvisorVO.TechnicalExpert config = advisorVO.getTechnicalExpert();
+
+        StringBuilder expertSystemText = new StringBuilder("你是一名资深技术专家");
+        if (config != null && config.getExpertise() != null && !config.getExpertise().isEmpty()) {
+            expertSystemText.append("，擅长领域：").append(String.join("、", config.getExpertise()));
+        }
+        expertSystemText.append("。回答需准确、可落地，必要时给出代码示例与注意事项");
+        if (config != null && config.getStyle() != null) {
+            expertSystemText.append("，回答风格：").append(config.getStyle());
+        }
+        expertSystemText.append("。");
+
+        int order = advisorVO.getOrderNum() != null ? advisorVO.getOrderNum() : Ordered.HIGHEST_PRECEDENCE + 1000;
+        return new TechnicalExpertAdvisor(expertSystemText.toString(), order);
+    }
+
+}
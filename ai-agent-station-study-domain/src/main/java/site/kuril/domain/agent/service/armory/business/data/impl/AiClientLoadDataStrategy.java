@@ -3,6 +3,7 @@ package site.kuril.domain.agent.service.armory.business.data.impl;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import site.kuril.domain.agent.adapter.port.IAgentRepository;
+import site.kuril.domain.agent.model.aggregate.AiClientGraphAggregate;
 import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
 import site.kuril.domain.agent.model.valobj.*;
 import site.kuril.domain.agent.service.armory.business.data.ILoadDataStrategy;
@@ -11,8 +12,6 @@ import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFacto
 import javax.annotation.Resource;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.stream.Collectors;
 
 /**
@@ -26,58 +25,22 @@ public class AiClientLoadDataStrategy implements ILoadDataStrategy {
     @Resource
     private IAgentRepository repository;
 
-    @Resource
-    protected ThreadPoolExecutor threadPoolExecutor;
-
     @Override
     public void loadData(ArmoryCommandEntity armoryCommandEntity, Object dynamicContext) {
         List<String> clientIdList = armoryCommandEntity.getCommandIdList();
         DefaultArmoryStrategyFactory.DynamicContext context = (DefaultArmoryStrategyFactory.DynamicContext) dynamicContext;
 
         try {
-            // 异步加载API配置数据
-            CompletableFuture<List<AiClientApiVO>> aiClientApiListFuture = CompletableFuture.supplyAsync(() -> {
-                log.info("查询配置数据(ai_client_api) {}", clientIdList);
-                return repository.queryAiClientApiVOListByClientIds(clientIdList);
-            }, threadPoolExecutor);
-
-            // 异步加载模型配置数据
-            CompletableFuture<List<AiClientModelVO>> aiClientModelListFuture = CompletableFuture.supplyAsync(() -> {
-                log.info("查询配置数据(ai_client_model) {}", clientIdList);
-                return repository.AiClientModelVOByClientIds(clientIdList);
-            }, threadPoolExecutor);
-
-            // 异步加载MCP工具配置数据
-            CompletableFuture<List<AiClientToolMcpVO>> aiClientToolMcpListFuture = CompletableFuture.supplyAsync(() -> {
-                log.info("查询配置数据(ai_client_tool_mcp) {}", clientIdList);
-                return repository.AiClientToolMcpVOByClientIds(clientIdList);
-            }, threadPoolExecutor);
-
-            // 异步加载系统提示词配置数据
-            CompletableFuture<List<AiClientSystemPromptVO>> aiClientSystemPromptListFuture = CompletableFuture.supplyAsync(() -> {
-                log.info("查询配置数据(ai_client_system_prompt) {}", clientIdList);
-                return repository.AiClientSystemPromptVOByClientIds(clientIdList);
-            }, threadPoolExecutor);
-
-            // 异步加载顾问配置数据
-            CompletableFuture<List<AiClientAdvisorVO>> aiClientAdvisorListFuture = CompletableFuture.supplyAsync(() -> {
-                log.info("查询配置数据(ai_client_advisor) {}", clientIdList);
-                return repository.AiClientAdvisorVOByClientIds(clientIdList);
-            }, threadPoolExecutor);
-
-            // 异步加载客户端配置数据
-            CompletableFuture<List<AiClientVO>> aiClientListFuture = CompletableFuture.supplyAsync(() -> {
-                log.info("查询配置数据(ai_client) {}", clientIdList);
-                return repository.AiClientVOByClientIds(clientIdList);
-            }, threadPoolExecutor);
-
-            // 等待所有异步任务完成并获取结果
-            List<AiClientApiVO> aiClientApiList = aiClientApiListFuture.get();
-            List<AiClientModelVO> aiClientModelList = aiClientModelListFuture.get();
-            List<AiClientToolMcpVO> aiClientToolMcpList = aiClientToolMcpListFuture.get();
-            List<AiClientSystemPromptVO> aiClientSystemPromptList = aiClientSystemPromptListFuture.get();
-            List<AiClientAdvisorVO> aiClientAdvisorList = aiClientAdvisorListFuture.get();
-            List<AiClientVO> aiClientList = aiClientListFuture.get();
+            // 一次性加载客户端配置图（client -> model -> api / mcp / prompt / advisor）
+            log.info("查询配置数据(ai_client graph) {}", clientIdList);
+            AiClientGraphAggregate aiClientGraph = repository.queryAiClientGraphByClientIds(clientIdList);
+
+            List<AiClientApiVO> aiClientApiList = aiClientGraph.getAiClientApiList();
+            List<AiClientModelVO> aiClientModelList = aiClientGraph.getAiClientModelList();
+            List<AiClientToolMcpVO> aiClientToolMcpList = aiClientGraph.getAiClientToolMcpList();
+            List<AiClientSystemPromptVO> aiClientSystemPromptList = aiClientGraph.getAiClientSystemPromptList();
+            List<AiClientAdvisorVO> aiClientAdvisorList = aiClientGraph.getAiClientAdvisorList();
+            List<AiClientVO> aiClientList = aiClientGraph.getAiClientList();
 
             // 将系统提示词转换为 Map 结构，方便后续使用
             Map<String, AiClientSystemPromptVO> systemPromptMap = aiClientSystemPromptList.stream()
@@ -0,0 +1,145 @@
+package site.kuril.domain.agent.service.armory.factory;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
+import site.kuril.domain.agent.service.armory.AbstractArmorySupport;
+import site.kuril.domain.agent.service.armory.incremental.AiClientConfigChangeDetector;
+import site.kuril.domain.agent.service.armory.registry.AiClientRuntimeRegistry;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * 装配 DAG 执行器
+ * 按各节点声明的 dependsOn 拓扑排序，每次装配命令中每个节点只执行一次；
+ * 互不依赖的节点（如 API 与 MCP 构建）在 armoryExecutor 上并行执行，并记录各节点耗时；
+ * 全部节点成功后才将本次装配的组件发布到运行时注册表，并记录组件签名作为增量装配的基线
+ */
+@Slf4j
+@Component
+public class ArmoryDagExecutor {
+
+    @Resource
+    private ThreadPoolExecutor armoryExecutor;
+
+    @Resource
+    private AiClientRuntimeRegistry aiClientRuntimeRegistry;
+
+    @Resource
+    private AiClientConfigChangeDetector aiClientConfigChangeDetector;
+
+    /**
+     * 拓扑有序的节点列表
+     */
+    private final List<AbstractArmorySupport> sortedNodes;
+
+    public ArmoryDagExecutor(List<AbstractArmorySupport> armoryNodes) {
+        this.sortedNodes = topologicalSort(armoryNodes);
+        log.info("装配 DAG 初始化完成，执行顺序: {}", sortedNodes.stream().map(AbstractArmorySupport::nodeName).toList());
+    }
+
+    /**
+     * 执行一次装配命令
+     */
+    public String execute(ArmoryCommandEntity armoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext dynamicContext) throws Exception {
+        long start = System.currentTimeMillis();
+        Map<Class<?>, CompletableFuture<Void>> futures = new HashMap<>();
+
+        for (AbstractArmorySupport node : sortedNodes) {
+            CompletableFuture<?>[] dependencies = node.dependsOn().stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            CompletableFuture<Void> ready = dependencies.length == 0
+                    ? CompletableFuture.completedFuture(null)
+                    : CompletableFuture.allOf(dependencies);
+            futures.put(nodeClass(node), ready.thenRunAsync(() -> runNode(node, armoryCommandEntity, dynamicContext), armoryExecutor));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof CompletionException && e.getCause().getCause() != null
+                    ? e.getCause().getCause() : e.getCause();
+            log.error("装配 DAG 执行失败，命令类型: {}, 节点耗时: {}", armoryCommandEntity.getCommandType(), dynamicContext.getNodeDurations());
+            // 本次装配未发布，已创建的 MCP 客户端与子进程立即关闭
+            aiClientRuntimeRegistry.discard(dynamicContext.getStagedComponents());
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            }
+            throw e;
+        }
+
+        // 全部节点成功后，本次装配的组件整代发布
+        aiClientRuntimeRegistry.publish(dynamicContext.getStagedComponents());
+        aiClientConfigChangeDetector.markApplied(dynamicContext.getConfigSignatures());
+
+        log.info("装配 DAG 执行完成，命令类型: {}, 增量: {}, 重建组件: {}, 总耗时: {}ms, 节点耗时: {}, 预热耗时: {}",
+                armoryCommandEntity.getCommandType(), armoryCommandEntity.isIncremental(), dynamicContext.getStagedComponents().size(),
+                System.currentTimeMillis() - start, dynamicContext.getNodeDurations(), dynamicContext.getWarmUpTimings());
+        return "SUCCESS";
+    }
+
+    private void runNode(AbstractArmorySupport node, ArmoryCommandEntity armoryCommandEntity, DefaultArmoryStrategyFactory.DynamicContext dynamicContext) {
+        long start = System.currentTimeMillis();
+        try {
+            node.process(armoryCommandEntity, dynamicContext);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            dynamicContext.recordNodeDuration(node.nodeName(), System.currentTimeMillis() - start);
+        }
+    }
+
+    /**
+     * Kahn 拓扑排序，依赖缺失或存在环时启动失败
+     */
+    private static List<AbstractArmorySupport> topologicalSort(List<AbstractArmorySupport> nodes) {
+        Map<Class<?>, AbstractArmorySupport> nodeMap = new LinkedHashMap<>();
+        nodes.forEach(node -> nodeMap.put(nodeClass(node), node));
+
+        Map<Class<?>, Integer> inDegree = new HashMap<>();
+        Map<Class<?>, List<Class<?>>> dependents = new HashMap<>();
+        for (AbstractArmorySupport node : nodes) {
+            Class<?> nodeClass = nodeClass(node);
+            inDegree.putIfAbsent(nodeClass, 0);
+            for (Class<? extends AbstractArmorySupport> dependency : node.dependsOn()) {
+                if (!nodeMap.containsKey(dependency)) {
+                    throw new IllegalStateException("装配节点 " + node.nodeName() + " 依赖的节点不存在: " + dependency.getSimpleName());
+                }
+                inDegree.merge(nodeClass, 1, Integer::sum);
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(nodeClass);
+            }
+        }
+
+        Deque<Class<?>> queue = new ArrayDeque<>();
+        inDegree.forEach((nodeClass, degree) -> {
+            if (degree == 0) queue.add(nodeClass);
+        });
+
+        List<AbstractArmorySupport> sorted = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            Class<?> nodeClass = queue.poll();
+            sorted.add(nodeMap.get(nodeClass));
+            for (Class<?> dependent : dependents.getOrDefault(nodeClass, List.of())) {
+                if (inDegree.merge(dependent, -1, Integer::sum) == 0) {
+                    queue.add(dependent);
+                }
+            }
+        }
+
+        if (sorted.size() != nodes.size()) {
+            throw new IllegalStateException("装配节点之间存在循环依赖: " + nodeMap.keySet());
+        }
+        return Collections.unmodifiableList(sorted);
+    }
+
+    private static Class<?> nodeClass(AbstractArmorySupport node) {
+        return ClassUtils.getUserClass(node.getClass());
+    }
+
+}
@@ -2,9 +2,11 @@ package site.kuril.domain.agent.service.armory.factory;
 
 import org.springframework.stereotype.Component;
 import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
-import site.kuril.domain.agent.service.armory.RootNode;
+import site.kuril.domain.agent.model.valobj.ArmoryChangeSetVO;
+import site.kuril.domain.agent.model.valobj.McpHandshakeReportVO;
 
 import javax.annotation.Resource;
+import java.util.Collections;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map;
 
@@ -17,17 +19,18 @@ import java.util.Map;
 @Component
 public class DefaultArmoryStrategyFactory {
 
-    @Resource(name = "armoryRootNode")
-    private RootNode rootNode;
+    @Resource
+    private ArmoryDagExecutor armoryDagExecutor;
 
     /**
      * 获取策略处理器
+     * 由 DAG 执行器编排 RootNode -> (Api | ToolMcp | Advisor) -> Model -> Client -> WarmUp，每个节点只执行一次
      */
     public StrategyHandler<ArmoryCommandEntity, DynamicContext, String> armoryStrategyHandler() {
         return new StrategyHandler<ArmoryCommandEntity, DynamicContext, String>() {
             @Override
             public String apply(ArmoryCommandEntity entity, DynamicContext context) throws Exception {
-                return rootNode.process(entity, context);
+                return armoryDagExecutor.execute(entity, context);
             }
         };
     }
@@ -46,6 +49,36 @@ public class DefaultArmoryStrategyFactory {
     public static class DynamicContext {
         private final Map<String, Object> contextData = new ConcurrentHashMap<>();
 
+        /**
+         * 装配节点耗时（毫秒），key为节点名称
+         */
+        private final Map<String, Long> nodeDurations = new ConcurrentHashMap<>();
+
+        /**
+         * MCP 握手报告，key为mcpId
+         */
+        private final Map<String, McpHandshakeReportVO> mcpHandshakeReports = new ConcurrentHashMap<>();
+
+        /**
+         * 本次装配暂存的组件，key为Bean名称；装配成功后整代发布到运行时注册表
+         */
+        private final Map<String, Object> stagedComponents = new ConcurrentHashMap<>();
+
+        /**
+         * 预热耗时（毫秒），key为预热项
+         */
+        private final Map<String, Long> warmUpTimings = new ConcurrentHashMap<>();
+
+        /**
+         * 本次加载配置的组件签名，key为Bean名称；装配成功后作为下一次增量装配的比对基线
+         */
+        private volatile Map<String, String> configSignatures = Collections.emptyMap();
+
+        /**
+         * 本次装配的变更集
+         */
+        private volatile ArmoryChangeSetVO armoryChangeSet;
+
         public void put(String key, Object value) {
             contextData.put(key, value);
         }
@@ -78,6 +111,58 @@ public class DefaultArmoryStrategyFactory {
         public Map<String, Object> getAllData() {
             return new ConcurrentHashMap<>(contextData);
         }
+
+        public void recordNodeDuration(String nodeName, long durationMillis) {
+            nodeDurations.put(nodeName, durationMillis);
+        }
+
+        public Map<String, Long> getNodeDurations() {
+            return Collections.unmodifiableMap(nodeDurations);
+        }
+
+        public void recordMcpHandshakeReport(McpHandshakeReportVO report) {
+            mcpHandshakeReports.put(report.getMcpId(), report);
+        }
+
+        public Map<String, McpHandshakeReportVO> getMcpHandshakeReports() {
+            return Collections.unmodifiableMap(mcpHandshakeReports);
+        }
+
+        public void stageComponent(String beanName, Object component) {
+            stagedComponents.put(beanName, component);
+        }
+
+        public Object getStagedComponent(String beanName) {
+            return stagedComponents.get(beanName);
+        }
+
+        public Map<String, Object> getStagedComponents() {
+            return Collections.unmodifiableMap(stagedComponents);
+        }
+
+        public void recordWarmUpTiming(String item, long durationMillis) {
+            warmUpTimings.put(item, durationMillis);
+        }
+
+        public Map<String, Long> getWarmUpTimings() {
+            return Collections.unmodifiableMap(warmUpTimings);
+        }
+
+        public void setConfigSignatures(Map<String, String> configSignatures) {
+            this.configSignatures = Collections.unmodifiableMap(configSignatures);
+        }
+
+        public Map<String, String> getConfigSignatures() {
+            return configSignatures;
+        }
+
+        public void setArmoryChangeSet(ArmoryChangeSetVO armoryChangeSet) {
+            this.armoryChangeSet = armoryChangeSet;
+        }
+
+        public ArmoryChangeSetVO getArmoryChangeSet() {
+            return armoryChangeSet;
+        }
     }
 
 } 
\ No newline at end of file
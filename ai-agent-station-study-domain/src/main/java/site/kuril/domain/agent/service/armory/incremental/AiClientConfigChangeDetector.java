@@ -0,0 +1,175 @@
+package site.kuril.domain.agent.service.armory.incremental;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.*;
+import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
+import site.kuril.domain.agent.service.armory.registry.AiClientRuntimeRegistry;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 客户端配置变更检测器
+ * 以 update_time 加依赖关系为每个组件计算版本签名，与上次成功装配的签名比对得出直接变更，
+ * 再沿 api -> model -> client、mcp -> model / client、prompt / advisor -> client 传播出需要重建的组件；
+ * 增量装配时将未变化的组件从动态上下文中剔除，下游节点通过运行时注册表复用其当前实例
+ */
+@Slf4j
+@Component
+public class AiClientConfigChangeDetector {
+
+    @Resource
+    private AiClientRuntimeRegistry aiClientRuntimeRegistry;
+
+    /**
+     * 上次成功装配的组件签名，key为Bean名称
+     */
+    private final Map<String, String> appliedSignatures = new ConcurrentHashMap<>();
+
+    /**
+     * 计算本次加载数据的组件签名并暂存到动态上下文；增量装配时只保留需要重建的组件
+     * @param context 已完成数据加载的动态上下文
+     * @param incremental 是否增量装配
+     * @return 变更集
+     */
+    public ArmoryChangeSetVO detect(DefaultArmoryStrategyFactory.DynamicContext context, boolean incremental) {
+        List<AiClientApiVO> apiList = listOf(context, AiAgentEnumVO.AI_CLIENT_API);
+        List<AiClientToolMcpVO> toolMcpList = listOf(context, AiAgentEnumVO.AI_CLIENT_TOOL_MCP);
+        List<AiClientAdvisorVO> advisorList = listOf(context, AiAgentEnumVO.AI_CLIENT_ADVISOR);
+        List<AiClientModelVO> modelList = listOf(context, AiAgentEnumVO.AI_CLIENT_MODEL);
+        List<AiClientVO> clientList = listOf(context, AiAgentEnumVO.AI_CLIENT);
+        Map<String, AiClientSystemPromptVO> systemPromptMap = context.getValue(AiAgentEnumVO.AI_CLIENT_SYSTEM_PROMPT.getDataName());
+
+        // 1. 计算签名
+        Map<String, String> signatures = new LinkedHashMap<>();
+        apiList.forEach(api -> signatures.put(apiBeanName(api), signature(api.getUpdateTime())));
+        toolMcpList.forEach(mcp -> signatures.put(mcpBeanName(mcp), signature(mcp.getUpdateTime())));
+        advisorList.forEach(advisor -> signatures.put(advisorBeanName(advisor), signature(advisor.getUpdateTime())));
+        if (systemPromptMap != null) {
+            systemPromptMap.values().forEach(prompt -> signatures.put(promptKey(prompt.getPromptId()), signature(prompt.getUpdateTime())));
+        }
+        modelList.forEach(model -> signatures.put(modelBeanName(model), signature(model.getUpdateTime(), model.getApiId(), model.getToolMcpIds())));
+        clientList.forEach(client -> signatures.put(clientBeanName(client), signature(client.getUpdateTime(), client.getModelBeanName(),
+                client.getMcpBeanNameList(), client.getAdvisorBeanNameList(), client.getPromptIdList())));
+        context.setConfigSignatures(signatures);
+
+        if (!incremental) {
+            ArmoryChangeSetVO changeSet = ArmoryChangeSetVO.builder()
+                    .incremental(false)
+                    .rebuildBeanNames(new ArrayList<>(signatures.keySet()))
+                    .build();
+            context.setArmoryChangeSet(changeSet);
+            return changeSet;
+        }
+
+        // 2. 直接变更：签名不同或当前代中不存在
+        Set<String> changed = new LinkedHashSet<>();
+        signatures.forEach((key, signature) -> {
+            boolean isPrompt = key.startsWith(AiAgentEnumVO.AI_CLIENT_SYSTEM_PROMPT.getBeanNamePrefix());
+            if (!signature.equals(appliedSignatures.get(key)) || (!isPrompt && aiClientRuntimeRegistry.getComponent(key) == null)) {
+                changed.add(key);
+            }
+        });
+
+        // 3. 沿依赖传播：api / mcp -> model，model / mcp / advisor / prompt -> client
+        for (AiClientModelVO model : modelList) {
+            boolean dependencyChanged = changed.contains(AiAgentEnumVO.AI_CLIENT_API.getBeanName(model.getApiId()))
+                    || nullSafe(model.getToolMcpIds()).stream()
+                    .anyMatch(mcpId -> changed.contains(AiAgentEnumVO.AI_CLIENT_TOOL_MCP.getBeanName(mcpId)));
+            if (dependencyChanged) {
+                changed.add(modelBeanName(model));
+            }
+        }
+        for (AiClientVO client : clientList) {
+            boolean dependencyChanged = (client.getModelBeanName() != null && changed.contains(client.getModelBeanName()))
+                    || nullSafe(client.getMcpBeanNameList()).stream().anyMatch(changed::contains)
+                    || nullSafe(client.getAdvisorBeanNameList()).stream().anyMatch(changed::contains)
+                    || nullSafe(client.getPromptIdList()).stream().anyMatch(promptId -> changed.contains(promptKey(promptId)));
+            if (dependencyChanged) {
+                changed.add(clientBeanName(client));
+            }
+        }
+
+        // 4. 只保留需要重建的组件，提示词仅作为客户端的构建数据，保持完整
+        context.put(AiAgentEnumVO.AI_CLIENT_API.getDataName(), retain(apiList, this::apiBeanName, changed));
+        context.put(AiAgentEnumVO.AI_CLIENT_TOOL_MCP.getDataName(), retain(toolMcpList, this::mcpBeanName, changed));
+        context.put(AiAgentEnumVO.AI_CLIENT_ADVISOR.getDataName(), retain(advisorList, this::advisorBeanName, changed));
+        context.put(AiAgentEnumVO.AI_CLIENT_MODEL.getDataName(), retain(modelList, this::modelBeanName, changed));
+        context.put(AiAgentEnumVO.AI_CLIENT.getDataName(), retain(clientList, this::clientBeanName, changed));
+
+        List<String> rebuild = changed.stream()
+                .filter(key -> !key.startsWith(AiAgentEnumVO.AI_CLIENT_SYSTEM_PROMPT.getBeanNamePrefix()))
+                .collect(Collectors.toList());
+        List<String> unchanged = signatures.keySet().stream()
+                .filter(key -> !changed.contains(key))
+                .filter(key -> !key.startsWith(AiAgentEnumVO.AI_CLIENT_SYSTEM_PROMPT.getBeanNamePrefix()))
+                .collect(Collectors.toList());
+
+        ArmoryChangeSetVO changeSet = ArmoryChangeSetVO.builder()
+                .incremental(true)
+                .rebuildBeanNames(rebuild)
+                .unchangedBeanNames(unchanged)
+                .build();
+        context.setArmoryChangeSet(changeSet);
+        log.info("增量装配变更检测完成，重建: {}, 复用: {}", rebuild, unchanged.size());
+        return changeSet;
+    }
+
+    /**
+     * 装配成功发布后记录本次签名，作为下一次增量装配的比对基线
+     */
+    public void markApplied(Map<String, String> signatures) {
+        if (signatures != null) {
+            appliedSignatures.putAll(signatures);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> List<T> listOf(DefaultArmoryStrategyFactory.DynamicContext context, AiAgentEnumVO aiAgentEnumVO) {
+        Object value = context.getValue(aiAgentEnumVO.getDataName());
+        return value instanceof List ? (List<T>) value : List.of();
+    }
+
+    private <T> List<T> retain(List<T> list, Function<T, String> beanName, Set<String> changed) {
+        return list.stream()
+                .filter(item -> changed.contains(beanName.apply(item)))
+                .collect(Collectors.toList());
+    }
+
+    private static String signature(Object... parts) {
+        return Arrays.stream(parts).map(String::valueOf).collect(Collectors.joining("|"));
+    }
+
+    private static <T> List<T> nullSafe(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+
+    private String apiBeanName(AiClientApiVO api) {
+        return AiAgentEnumVO.AI_CLIENT_API.getBeanName(api.getApiId());
+    }
+
+    private String mcpBeanName(AiClientToolMcpVO mcp) {
+        return AiAgentEnumVO.AI_CLIENT_TOOL_MCP.getBeanName(mcp.getMcpId());
+    }
+
+    private String advisorBeanName(AiClientAdvisorVO advisor) {
+        return AiAgentEnumVO.AI_CLIENT_ADVISOR.getBeanName(advisor.getAdvisorId());
+    }
+
+    private String modelBeanName(AiClientModelVO model) {
+        return AiAgentEnumVO.AI_CLIENT_MODEL.getBeanName(model.getModelId());
+    }
+
+    private String clientBeanName(AiClientVO client) {
+        return AiAgentEnumVO.AI_CLIENT.getBeanName(client.getClientId());
+    }
+
+    private String promptKey(String promptId) {
+        return AiAgentEnumVO.AI_CLIENT_SYSTEM_PROMPT.getBeanName(promptId);
+    }
+
+}
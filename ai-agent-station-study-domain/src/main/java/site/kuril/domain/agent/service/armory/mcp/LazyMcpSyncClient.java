@@ -0,0 +1,238 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.SyncMcpToolCallback;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 延迟连接的 MCP 客户端代理
+ * 以 ai_client_tool_mcp_<id> 注册到 Spring 容器，首次列举或调用工具时才建立连接并握手；
+ * 并发的首次调用共享同一次握手（single-flight），连接空闲超过 TTL 后由 {@link McpIdleConnectionReaper} 关闭，下次使用时重新连接
+ */
+@Slf4j
+public class LazyMcpSyncClient implements ToolCallbackProvider, AutoCloseable {
+
+    private final String mcpId;
+
+    /**
+     * 客户端工厂，只构建传输与客户端对象，不执行握手
+     */
+    private final Supplier<McpSyncClient> clientFactory;
+
+    private final long idleTtlMillis;
+
+    private volatile McpSyncClient client;
+
+    private CompletableFuture<McpSyncClient> connecting;
+
+    /**
+     * 工具回调在首次列举后缓存，空闲断开后再次列举无需重连
+     */
+    private volatile ToolCallback[] toolCallbacks;
+
+    private volatile long lastUsedMillis = System.currentTimeMillis();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public LazyMcpSyncClient(String mcpId, Supplier<McpSyncClient> clientFactory, long idleTtlMillis) {
+        this.mcpId = mcpId;
+        this.clientFactory = clientFactory;
+        this.idleTtlMillis = idleTtlMillis;
+    }
+
+    public String getMcpId() {
+        return mcpId;
+    }
+
+    public boolean isConnected() {
+        return client != null;
+    }
+
+    /**
+     * 列举工具，首次调用时建立连接；工具定义（名称前缀取自客户端信息）随之缓存
+     */
+    public McpSchema.ListToolsResult listTools() {
+        return execute(mcpClient -> {
+            McpSchema.ListToolsResult result = mcpClient.listTools();
+            this.toolCallbacks = result.tools().stream()
+                    .map(tool -> new LazyToolCallback(tool, new SyncMcpToolCallback(mcpClient, tool).getToolDefinition()))
+                    .toArray(ToolCallback[]::new);
+            return result;
+        });
+    }
+
+    /**
+     * 调用工具，连接已被空闲回收时重新建立
+     */
+    public McpSchema.CallToolResult callTool(McpSchema.CallToolRequest callToolRequest) {
+        return execute(mcpClient -> mcpClient.callTool(callToolRequest));
+    }
+
+    /**
+     * 工具回调，已缓存时直接返回，不建立连接
+     */
+    @Override
+    public ToolCallback[] getToolCallbacks() {
+        ToolCallback[] cached = toolCallbacks;
+        if (cached == null) {
+            listTools();
+            cached = toolCallbacks;
+        }
+        return cached.clone();
+    }
+
+    /**
+     * 在已连接的客户端上执行操作
+     * 进行中计数与 {@link #closeIfIdle(long)} 的检查和关闭在同一把锁下，计数之后取到的连接不会被空闲回收
+     */
+    public <T> T execute(Function<McpSyncClient, T> action) {
+        synchronized (this) {
+            inFlight.incrementAndGet();
+        }
+        try {
+            McpSyncClient mcpClient = acquire();
+            lastUsedMillis = System.currentTimeMillis();
+            return action.apply(mcpClient);
+        } finally {
+            lastUsedMillis = System.currentTimeMillis();
+            inFlight.decrementAndGet();
+        }
+    }
+
+    /**
+     * 空闲超过 TTL 且没有进行中的调用时关闭连接
+     * @return 是否关闭了连接
+     */
+    public boolean closeIfIdle(long nowMillis) {
+        if (idleTtlMillis <= 0 || client == null || inFlight.get() > 0 || nowMillis - lastUsedMillis < idleTtlMillis) {
+            return false;
+        }
+        McpSyncClient idleClient;
+        synchronized (this) {
+            if (client == null || inFlight.get() > 0 || nowMillis - lastUsedMillis < idleTtlMillis) {
+                return false;
+            }
+            idleClient = client;
+            client = null;
+        }
+        log.info("MCP客户端空闲超过 {}ms，关闭连接: mcpId={}", idleTtlMillis, mcpId);
+        closeQuietly(idleClient);
+        return true;
+    }
+
+    @Override
+    public void close() {
+        McpSyncClient current;
+        synchronized (this) {
+            current = client;
+            client = null;
+        }
+        if (current != null) {
+            closeQuietly(current);
+        }
+    }
+
+    /**
+     * 获取已连接的客户端，并发的首次调用共享同一次握手
+     */
+    private McpSyncClient acquire() {
+        McpSyncClient current = client;
+        if (current != null) {
+            return current;
+        }
+
+        CompletableFuture<McpSyncClient> flight;
+        boolean leader = false;
+        synchronized (this) {
+            if (client != null) {
+                return client;
+            }
+            if (connecting == null) {
+                connecting = new CompletableFuture<>();
+                leader = true;
+            }
+            flight = connecting;
+        }
+
+        if (leader) {
+            long start = System.currentTimeMillis();
+            try {
+                McpSyncClient mcpClient = clientFactory.get();
+                if (mcpClient == null) {
+                    throw new IllegalStateException("MCP客户端创建失败: mcpId=" + mcpId);
+                }
+                mcpClient.initialize();
+                synchronized (this) {
+                    client = mcpClient;
+                    connecting = null;
+                }
+                log.info("延迟MCP客户端首次使用，握手完成: mcpId={}, 耗时: {}ms", mcpId, System.currentTimeMillis() - start);
+                flight.complete(mcpClient);
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    connecting = null;
+                }
+                log.error("延迟MCP客户端握手失败: mcpId={}, 错误: {}", mcpId, e.getMessage());
+                flight.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        return flight.join();
+    }
+
+    private void closeQuietly(McpSyncClient mcpClient) {
+        try {
+            mcpClient.closeGracefully();
+        } catch (Exception e) {
+            log.warn("关闭MCP客户端失败: mcpId={}, 错误: {}", mcpId, e.getMessage());
+        }
+    }
+
+    /**
+     * 延迟工具回调，每次调用时通过代理获取（或重建）连接
+     */
+    private class LazyToolCallback implements McpNamedToolCallback {
+
+        private final McpSchema.Tool tool;
+
+        private final ToolDefinition toolDefinition;
+
+        private LazyToolCallback(McpSchema.Tool tool, ToolDefinition toolDefinition) {
+            this.tool = tool;
+            this.toolDefinition = toolDefinition;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return toolDefinition;
+        }
+
+        @Override
+        public String getOriginalToolName() {
+            return tool.name();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return execute(mcpClient -> new SyncMcpToolCallback(mcpClient, tool).call(toolInput));
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            return call(toolInput);
+        }
+
+    }
+
+}
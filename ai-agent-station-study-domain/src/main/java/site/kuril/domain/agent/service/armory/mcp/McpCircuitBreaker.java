@@ -0,0 +1,168 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import lombok.extern.slf4j.Slf4j;
+import site.kuril.domain.agent.model.valobj.McpCircuitBreakerMetricsVO;
+import site.kuril.domain.agent.model.valobj.enums.McpCircuitStateEnumVO;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+
+/**
+ * 单个 MCP 的熔断器
+ * 连续失败达到阈值后打开，打开时长到期后进入半开；半开期间只放行一次试探调用，其余请求拒绝，
+ * 试探成功即关闭、失败重新打开。试探调用超过打开时长仍未结束时视为丢失，重新放行一次试探
+ */
+@Slf4j
+public class McpCircuitBreaker {
+
+    private static final int MAX_TRANSITIONS = 20;
+
+    private final String mcpId;
+
+    private final int failureThreshold;
+
+    private final long openDurationMillis;
+
+    private McpCircuitStateEnumVO state = McpCircuitStateEnumVO.CLOSED;
+
+    private int consecutiveFailures;
+
+    private long openedAtMillis;
+
+    /**
+     * 半开期间是否已有试探调用在进行
+     */
+    private boolean trialInFlight;
+
+    private long trialStartedAtMillis;
+
+    private long successCount;
+
+    private long failureCount;
+
+    private long rejectedCount;
+
+    private long transitionCount;
+
+    private Long lastProbeLatencyMillis;
+
+    private String lastError;
+
+    private final Deque<McpCircuitBreakerMetricsVO.Transition> transitions = new ArrayDeque<>();
+
+    public McpCircuitBreaker(String mcpId, int failureThreshold, long openDurationMillis) {
+        this.mcpId = mcpId;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openDurationMillis = openDurationMillis;
+    }
+
+    /**
+     * 是否允许请求；打开时长到期时转为半开，半开期间只有占到试探名额的请求返回 true，
+     * 占到名额的调用方必须以 recordSuccess、recordFailure 或 releaseTrial 结束试探
+     */
+    public synchronized boolean allowRequest(long nowMillis) {
+        if (state == McpCircuitStateEnumVO.OPEN && nowMillis - openedAtMillis >= openDurationMillis) {
+            transition(McpCircuitStateEnumVO.HALF_OPEN, nowMillis, "打开时长已到");
+        }
+        if (state == McpCircuitStateEnumVO.CLOSED) {
+            return true;
+        }
+        if (state == McpCircuitStateEnumVO.OPEN) {
+            return false;
+        }
+        if (trialInFlight && nowMillis - trialStartedAtMillis < openDurationMillis) {
+            return false;
+        }
+        trialInFlight = true;
+        trialStartedAtMillis = nowMillis;
+        return true;
+    }
+
+    /**
+     * 是否可提供该 MCP 的工具：关闭或半开时为 true，不占用试探名额
+     */
+    public synchronized boolean isAvailable(long nowMillis) {
+        if (state == McpCircuitStateEnumVO.OPEN && nowMillis - openedAtMillis >= openDurationMillis) {
+            transition(McpCircuitStateEnumVO.HALF_OPEN, nowMillis, "打开时长已到");
+        }
+        return state != McpCircuitStateEnumVO.OPEN;
+    }
+
+    /**
+     * 放弃已占到的试探名额而不计结果，用于健康检查跳过探测
+     */
+    public synchronized void releaseTrial() {
+        trialInFlight = false;
+    }
+
+    public synchronized McpCircuitStateEnumVO getState() {
+        return state;
+    }
+
+    public synchronized void recordRejected() {
+        rejectedCount++;
+    }
+
+    public synchronized void recordSuccess() {
+        successCount++;
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        if (state == McpCircuitStateEnumVO.HALF_OPEN) {
+            transition(McpCircuitStateEnumVO.CLOSED, System.currentTimeMillis(), "试探成功");
+        }
+    }
+
+    public synchronized void recordProbe(long latencyMillis) {
+        lastProbeLatencyMillis = latencyMillis;
+    }
+
+    public synchronized void recordFailure(String error) {
+        long now = System.currentTimeMillis();
+        failureCount++;
+        consecutiveFailures++;
+        lastError = error;
+        trialInFlight = false;
+        if (state == McpCircuitStateEnumVO.HALF_OPEN
+                || (state == McpCircuitStateEnumVO.CLOSED && consecutiveFailures >= failureThreshold)) {
+            openedAtMillis = now;
+            transition(McpCircuitStateEnumVO.OPEN, now, "连续失败 " + consecutiveFailures + " 次: " + error);
+        }
+    }
+
+    public synchronized McpCircuitBreakerMetricsVO queryMetrics() {
+        return McpCircuitBreakerMetricsVO.builder()
+                .mcpId(mcpId)
+                .state(state.getCode())
+                .consecutiveFailures(consecutiveFailures)
+                .successCount(successCount)
+                .failureCount(failureCount)
+                .rejectedCount(rejectedCount)
+                .transitionCount(transitionCount)
+                .lastProbeLatencyMillis(lastProbeLatencyMillis)
+                .lastError(lastError)
+                .transitions(new ArrayList<>(transitions))
+                .build();
+    }
+
+    private void transition(McpCircuitStateEnumVO to, long nowMillis, String reason) {
+        McpCircuitStateEnumVO from = state;
+        state = to;
+        transitionCount++;
+        transitions.addLast(McpCircuitBreakerMetricsVO.Transition.builder()
+                .from(from.getCode())
+                .to(to.getCode())
+                .timeMillis(nowMillis)
+                .reason(reason)
+                .build());
+        if (transitions.size() > MAX_TRANSITIONS) {
+            transitions.removeFirst();
+        }
+        if (to == McpCircuitStateEnumVO.OPEN) {
+            log.warn("MCP熔断器打开: mcpId={}, {} -> {}, 原因: {}", mcpId, from.getCode(), to.getCode(), reason);
+        } else {
+            log.info("MCP熔断器状态转换: mcpId={}, {} -> {}, 原因: {}", mcpId, from.getCode(), to.getCode(), reason);
+        }
+    }
+
+}
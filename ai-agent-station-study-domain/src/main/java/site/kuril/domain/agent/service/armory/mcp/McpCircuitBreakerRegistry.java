@@ -0,0 +1,300 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
+import site.kuril.domain.agent.model.valobj.McpCircuitBreakerMetricsVO;
+import site.kuril.domain.agent.service.armory.registry.AiClientRuntimeRegistry;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * MCP 熔断器注册表
+ * 每个 MCP 一个熔断器，工具调用与工具列举的成败计入熔断器；定期对运行时注册表中的全部 MCP 做 ping 健康检查，
+ * 卡死的服务在健康检查超时后即计为失败，不必等到 request_timeout；熔断打开的 MCP 工具不再提供给模型。
+ * 服务端正常返回的工具错误（如文件不存在）不计入失败
+ */
+@Slf4j
+@Component
+public class McpCircuitBreakerRegistry {
+
+    @Resource
+    private AiClientRuntimeRegistry aiClientRuntimeRegistry;
+
+    /**
+     * 连续失败多少次后打开熔断
+     */
+    @Value("${spring.ai.agent.mcp.circuit-breaker.failure-threshold:3}")
+    private int failureThreshold;
+
+    @Value("${spring.ai.agent.mcp.circuit-breaker.open-duration-ms:30000}")
+    private long openDurationMillis;
+
+    @Value("${spring.ai.agent.mcp.circuit-breaker.health-check-interval-ms:15000}")
+    private long healthCheckIntervalMillis;
+
+    @Value("${spring.ai.agent.mcp.circuit-breaker.health-check-timeout-ms:5000}")
+    private long healthCheckTimeoutMillis;
+
+    /**
+     * 熔断器，key为MCP Bean名称
+     */
+    private final Map<String, McpCircuitBreaker> breakerMap = new ConcurrentHashMap<>();
+
+    /**
+     * 健康检查仍在进行的 MCP，卡死的 ping 结束前不再重复发起
+     */
+    private final Set<String> probingBeanNames = ConcurrentHashMap.newKeySet();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final ExecutorService probeExecutor = Executors.newCachedThreadPool(new ThreadFactory() {
+        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "mcp-health-probe-" + threadNumber.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }
+    });
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::healthCheck, healthCheckIntervalMillis, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 是否允许调用该 MCP，熔断打开、或半开且试探调用进行中时为 false；
+     * 返回 true 后必须以 recordSuccess 或 recordFailure 计入结果
+     */
+    public boolean allowRequest(String mcpBeanName) {
+        return breaker(mcpBeanName).allowRequest(System.currentTimeMillis());
+    }
+
+    /**
+     * 是否向模型提供该 MCP 的工具，熔断打开时为 false；半开时提供，由工具调用争用试探名额
+     */
+    public boolean isAvailable(String mcpBeanName) {
+        return breaker(mcpBeanName).isAvailable(System.currentTimeMillis());
+    }
+
+    public void recordSuccess(String mcpBeanName) {
+        breaker(mcpBeanName).recordSuccess();
+    }
+
+    public void recordFailure(String mcpBeanName, Throwable throwable) {
+        breaker(mcpBeanName).recordFailure(rootMessage(throwable));
+    }
+
+    /**
+     * 包装工具回调：熔断打开时立即失败，调用结果计入熔断器
+     */
+    public ToolCallback[] wrap(String mcpBeanName, ToolCallback[] toolCallbacks) {
+        ToolCallback[] wrapped = new ToolCallback[toolCallbacks.length];
+        for (int i = 0; i < toolCallbacks.length; i++) {
+            wrapped[i] = new CircuitBreakerToolCallback(toolCallbacks[i], mcpBeanName);
+        }
+        return wrapped;
+    }
+
+    public List<McpCircuitBreakerMetricsVO> queryMetrics() {
+        return breakerMap.values().stream()
+                .map(McpCircuitBreaker::queryMetrics)
+                .toList();
+    }
+
+    private McpCircuitBreaker breaker(String mcpBeanName) {
+        return breakerMap.computeIfAbsent(mcpBeanName, beanName -> new McpCircuitBreaker(
+                beanName.substring(AiAgentEnumVO.AI_CLIENT_TOOL_MCP.getBeanNamePrefix().length()), failureThreshold, openDurationMillis));
+    }
+
+    /**
+     * 对运行时注册表中的全部 MCP 发起 ping，熔断打开且未到期、或半开且试探进行中的 MCP 跳过
+     */
+    private void healthCheck() {
+        try {
+            for (String mcpBeanName : aiClientRuntimeRegistry.current().beanNames(AiAgentEnumVO.AI_CLIENT_TOOL_MCP.getBeanNamePrefix())) {
+                Object mcpComponent = aiClientRuntimeRegistry.getComponent(mcpBeanName);
+                Supplier<Boolean> ping = pingOf(mcpComponent);
+                if (ping == null || !probingBeanNames.add(mcpBeanName)) {
+                    continue;
+                }
+                if (!allowRequest(mcpBeanName)) {
+                    probingBeanNames.remove(mcpBeanName);
+                    continue;
+                }
+
+                long start = System.currentTimeMillis();
+                CompletableFuture<Boolean> probe = CompletableFuture.supplyAsync(ping, probeExecutor);
+                probe.whenComplete((result, throwable) -> probingBeanNames.remove(mcpBeanName));
+                probe.copy()
+                        .orTimeout(healthCheckTimeoutMillis, TimeUnit.MILLISECONDS)
+                        .whenComplete((probed, throwable) -> onProbe(mcpBeanName, System.currentTimeMillis() - start, probed, throwable));
+            }
+        } catch (Exception e) {
+            log.warn("MCP健康检查失败: {}", e.getMessage());
+        }
+    }
+
+    private void onProbe(String mcpBeanName, long latencyMillis, Boolean probed, Throwable throwable) {
+        McpCircuitBreaker breaker = breaker(mcpBeanName);
+        if (throwable == null && !Boolean.TRUE.equals(probed)) {
+            // 没有可探测的空闲连接，不计结果
+            breaker.releaseTrial();
+            return;
+        }
+        breaker.recordProbe(latencyMillis);
+        if (throwable == null) {
+            breaker.recordSuccess();
+            return;
+        }
+        Throwable cause = throwable.getCause() != null ? throwable.getCause() : throwable;
+        if (cause instanceof TimeoutException) {
+            breaker.recordFailure("健康检查超时 " + healthCheckTimeoutMillis + "ms");
+        } else {
+            breaker.recordFailure(rootMessage(cause));
+        }
+    }
+
+    /**
+     * 按组件类型构造 ping，返回是否完成了探测；未连接的延迟客户端不为健康检查建立连接，
+     * 连接池只探测空闲连接，不排队等待借出，连接全部借出时跳过（繁忙不等于故障，真实调用的成败已计入熔断器）
+     */
+    private Supplier<Boolean> pingOf(Object mcpComponent) {
+        if (mcpComponent instanceof McpSyncClient mcpSyncClient) {
+            return () -> {
+                mcpSyncClient.ping();
+                return true;
+            };
+        }
+        if (mcpComponent instanceof McpAsyncClient mcpAsyncClient) {
+            return () -> {
+                mcpAsyncClient.ping().block();
+                return true;
+            };
+        }
+        if (mcpComponent instanceof LazyMcpSyncClient lazyClient && lazyClient.isConnected()) {
+            return () -> {
+                lazyClient.execute(McpSyncClient::ping);
+                return true;
+            };
+        }
+        if (mcpComponent instanceof McpConnectionPool pool) {
+            return pool::pingIdle;
+        }
+        return null;
+    }
+
+    /**
+     * 服务端已响应的错误：JSON-RPC 错误响应，或工具结果 isError（SyncMcpToolCallback 抛出 "Error calling tool"）
+     */
+    private static boolean isToolError(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof McpError) {
+                return true;
+            }
+            if (cause instanceof IllegalStateException && cause.getMessage() != null && cause.getMessage().startsWith("Error calling tool")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String rootMessage(Throwable throwable) {
+        Throwable cause = throwable;
+        while (cause.getCause() != null && cause.getCause() != cause) {
+            cause = cause.getCause();
+        }
+        return cause.getMessage() != null ? cause.getMessage() : cause.getClass().getSimpleName();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+        probeExecutor.shutdownNow();
+    }
+
+    /**
+     * 熔断工具回调
+     */
+    private class CircuitBreakerToolCallback implements ToolCallback {
+
+        private final ToolCallback delegate;
+
+        private final String mcpBeanName;
+
+        private CircuitBreakerToolCallback(ToolCallback delegate, String mcpBeanName) {
+            this.delegate = delegate;
+            this.mcpBeanName = mcpBeanName;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public ToolMetadata getToolMetadata() {
+            return delegate.getToolMetadata();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return call(toolInput, null);
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            McpCircuitBreaker breaker = breaker(mcpBeanName);
+            if (!breaker.allowRequest(System.currentTimeMillis())) {
+                breaker.recordRejected();
+                throw new ToolExecutionException(getToolDefinition(),
+                        new IllegalStateException("MCP服务暂不可用（熔断中）: " + mcpBeanName));
+            }
+            try {
+                String result = toolContext == null ? delegate.call(toolInput) : delegate.call(toolInput, toolContext);
+                breaker.recordSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                if (isToolError(e)) {
+                    // 服务端正常返回的工具错误说明 MCP 可用
+                    breaker.recordSuccess();
+                } else {
+                    breaker.recordFailure(rootMessage(e));
+                }
+                throw e;
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,351 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.SyncMcpToolCallback;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import site.kuril.domain.agent.model.valobj.McpConnectionPoolMetricsVO;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * MCP 连接池
+ * 同一个 mcpId 维护 min~max 个已握手的连接（stdio 为多个进程，SSE 为多个会话），
+ * 工具调用时借出一个连接、调用后归还，避免所有会话在同一条管道上串行执行工具；
+ * 空闲连接后进先出，长时间未使用的连接借出前先 ping 校验，调用失败的连接 ping 不通时丢弃
+ */
+@Slf4j
+public class McpConnectionPool implements ToolCallbackProvider, AutoCloseable {
+
+    private final String mcpId;
+
+    /**
+     * 客户端工厂，只构建传输与客户端对象，不执行握手
+     */
+    private final Supplier<McpSyncClient> clientFactory;
+
+    private final int minSize;
+
+    private final int maxSize;
+
+    private final long acquireTimeoutMillis;
+
+    /**
+     * 空闲超过该时间的连接在借出前先 ping 校验
+     */
+    private final long validateAfterMillis;
+
+    /**
+     * 借出许可，限制同时在用的连接数不超过 maxSize
+     */
+    private final Semaphore permits;
+
+    private final BlockingDeque<PooledConnection> idleConnections = new LinkedBlockingDeque<>();
+
+    private final AtomicInteger totalConnections = new AtomicInteger();
+
+    private final AtomicLong borrowCount = new AtomicLong();
+
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+
+    private final AtomicLong maxWaitMillis = new AtomicLong();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    private final AtomicLong createdCount = new AtomicLong();
+
+    private final AtomicLong discardedCount = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public McpConnectionPool(String mcpId, Supplier<McpSyncClient> clientFactory, int minSize, int maxSize,
+                             long acquireTimeoutMillis, long validateAfterMillis) {
+        this.mcpId = mcpId;
+        this.clientFactory = clientFactory;
+        this.maxSize = Math.max(1, maxSize);
+        this.minSize = Math.max(0, Math.min(minSize, this.maxSize));
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.validateAfterMillis = validateAfterMillis;
+        this.permits = new Semaphore(this.maxSize, true);
+    }
+
+    public String getMcpId() {
+        return mcpId;
+    }
+
+    /**
+     * 预建 minSize 个连接并握手，装配时调用
+     * @return 握手耗时(毫秒)
+     */
+    public long prefill() {
+        long start = System.currentTimeMillis();
+        while (totalConnections.get() < Math.max(1, minSize)) {
+            idleConnections.offerLast(create());
+        }
+        log.info("MCP连接池预建完成: mcpId={}, 连接数: {}, 耗时: {}ms", mcpId, totalConnections.get(), System.currentTimeMillis() - start);
+        return System.currentTimeMillis() - start;
+    }
+
+    @Override
+    public ToolCallback[] getToolCallbacks() {
+        return execute(mcpClient -> mcpClient.listTools().tools().stream()
+                .map(tool -> new PooledToolCallback(tool, new SyncMcpToolCallback(mcpClient, tool).getToolDefinition()))
+                .toArray(ToolCallback[]::new));
+    }
+
+    /**
+     * 借出一个连接执行操作后归还
+     */
+    public <T> T execute(Function<McpSyncClient, T> action) {
+        PooledConnection connection = borrow();
+        boolean broken = false;
+        try {
+            return action.apply(connection.client);
+        } catch (RuntimeException e) {
+            // 工具本身报错时连接仍可用，只有 ping 不通才丢弃
+            broken = !ping(connection);
+            throw e;
+        } finally {
+            release(connection, broken);
+        }
+    }
+
+    /**
+     * 熔断探测用：不等待地借出一个空闲连接 ping 后归还，ping 失败时丢弃该连接并抛出异常
+     * @return 是否完成了探测；连接全部借出或连接池已关闭时不探测，返回 false
+     */
+    public boolean pingIdle() {
+        if (closed || !permits.tryAcquire()) {
+            return false;
+        }
+        PooledConnection connection = idleConnections.pollFirst();
+        if (connection == null) {
+            permits.release();
+            return false;
+        }
+        boolean broken = true;
+        try {
+            connection.client.ping();
+            connection.lastUsedMillis = System.currentTimeMillis();
+            broken = false;
+            return true;
+        } finally {
+            release(connection, broken);
+        }
+    }
+
+    /**
+     * 健康检查：ping 空闲较久的连接，丢弃失效连接并补足 minSize
+     */
+    public void healthCheck(long nowMillis) {
+        for (PooledConnection connection : new ArrayList<>(idleConnections)) {
+            if (nowMillis - connection.lastUsedMillis < validateAfterMillis || !idleConnections.remove(connection)) {
+                continue;
+            }
+            if (ping(connection)) {
+                idleConnections.offerLast(connection);
+            } else {
+                log.warn("MCP连接健康检查失败，丢弃连接: mcpId={}", mcpId);
+                discard(connection);
+            }
+        }
+
+        while (!closed && totalConnections.get() < minSize) {
+            try {
+                idleConnections.offerLast(create());
+            } catch (Exception e) {
+                log.warn("MCP连接池补足连接失败: mcpId={}, 错误: {}", mcpId, e.getMessage());
+                break;
+            }
+        }
+    }
+
+    public McpConnectionPoolMetricsVO queryMetrics() {
+        long borrowed = borrowCount.get();
+        return McpConnectionPoolMetricsVO.builder()
+                .mcpId(mcpId)
+                .minSize(minSize)
+                .maxSize(maxSize)
+                .totalConnections(totalConnections.get())
+                .idleConnections(idleConnections.size())
+                .activeConnections(maxSize - permits.availablePermits())
+                .waitingThreads(permits.getQueueLength())
+                .borrowCount(borrowed)
+                .avgWaitMillis(borrowed == 0 ? 0 : totalWaitMillis.get() / borrowed)
+                .maxWaitMillis(maxWaitMillis.get())
+                .timeoutCount(timeoutCount.get())
+                .createdCount(createdCount.get())
+                .discardedCount(discardedCount.get())
+                .build();
+    }
+
+    /**
+     * 关闭连接池，空闲连接立即关闭，借出中的连接在归还时关闭
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idleConnections.pollFirst()) != null) {
+            discard(connection);
+        }
+        log.info("MCP连接池已关闭: mcpId={}", mcpId);
+    }
+
+    private PooledConnection borrow() {
+        if (closed) {
+            throw new IllegalStateException("MCP连接池已关闭: mcpId=" + mcpId);
+        }
+
+        long start = System.currentTimeMillis();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new IllegalStateException("获取MCP连接超时: mcpId=" + mcpId + ", 等待: " + acquireTimeoutMillis + "ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("获取MCP连接被中断: mcpId=" + mcpId, e);
+        }
+
+        try {
+            PooledConnection connection;
+            while ((connection = idleConnections.pollFirst()) != null) {
+                if (System.currentTimeMillis() - connection.lastUsedMillis < validateAfterMillis || ping(connection)) {
+                    break;
+                }
+                log.warn("MCP空闲连接校验失败，丢弃连接: mcpId={}", mcpId);
+                discard(connection);
+            }
+            if (connection == null) {
+                connection = create();
+            }
+
+            long waitMillis = System.currentTimeMillis() - start;
+            borrowCount.incrementAndGet();
+            totalWaitMillis.addAndGet(waitMillis);
+            maxWaitMillis.accumulateAndGet(waitMillis, Math::max);
+            return connection;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private void release(PooledConnection connection, boolean broken) {
+        try {
+            if (broken || closed) {
+                discard(connection);
+            } else {
+                connection.lastUsedMillis = System.currentTimeMillis();
+                idleConnections.offerFirst(connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private PooledConnection create() {
+        long start = System.currentTimeMillis();
+        McpSyncClient mcpClient = clientFactory.get();
+        if (mcpClient == null) {
+            throw new IllegalStateException("MCP客户端创建失败: mcpId=" + mcpId);
+        }
+        try {
+            mcpClient.initialize();
+        } catch (RuntimeException e) {
+            closeQuietly(mcpClient);
+            throw e;
+        }
+        totalConnections.incrementAndGet();
+        createdCount.incrementAndGet();
+        log.info("MCP连接池新建连接: mcpId={}, 当前连接数: {}, 握手耗时: {}ms", mcpId, totalConnections.get(), System.currentTimeMillis() - start);
+        return new PooledConnection(mcpClient);
+    }
+
+    private void discard(PooledConnection connection) {
+        totalConnections.decrementAndGet();
+        discardedCount.incrementAndGet();
+        closeQuietly(connection.client);
+    }
+
+    private boolean ping(PooledConnection connection) {
+        try {
+            connection.client.ping();
+            connection.lastUsedMillis = System.currentTimeMillis();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    private void closeQuietly(McpSyncClient mcpClient) {
+        try {
+            mcpClient.closeGracefully();
+        } catch (Exception e) {
+            log.warn("关闭MCP连接失败: mcpId={}, 错误: {}", mcpId, e.getMessage());
+        }
+    }
+
+    private static final class PooledConnection {
+
+        private final McpSyncClient client;
+
+        private volatile long lastUsedMillis = System.currentTimeMillis();
+
+        private PooledConnection(McpSyncClient client) {
+            this.client = client;
+        }
+
+    }
+
+    /**
+     * 池化工具回调，每次调用时从连接池借出连接
+     */
+    private class PooledToolCallback implements McpNamedToolCallback {
+
+        private final McpSchema.Tool tool;
+
+        private final ToolDefinition toolDefinition;
+
+        private PooledToolCallback(McpSchema.Tool tool, ToolDefinition toolDefinition) {
+            this.tool = tool;
+            this.toolDefinition = toolDefinition;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return toolDefinition;
+        }
+
+        @Override
+        public String getOriginalToolName() {
+            return tool.name();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return execute(mcpClient -> new SyncMcpToolCallback(mcpClient, tool).call(toolInput));
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            return call(toolInput);
+        }
+
+    }
+
+}
@@ -0,0 +1,103 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import io.modelcontextprotocol.client.McpSyncClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.McpConnectionPoolMetricsVO;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * MCP 连接池管理器
+ * 按全局配置创建连接池，定期对已登记的连接池做健康检查，并汇总连接池指标
+ */
+@Slf4j
+@Component
+public class McpConnectionPoolManager {
+
+    /**
+     * 连接池耗尽时等待借出连接的超时(毫秒)
+     */
+    @Value("${spring.ai.agent.mcp.pool.acquire-timeout-ms:30000}")
+    private long acquireTimeoutMillis;
+
+    /**
+     * 空闲超过该时间的连接在借出前先 ping 校验(毫秒)
+     */
+    @Value("${spring.ai.agent.mcp.pool.validate-after-ms:60000}")
+    private long validateAfterMillis;
+
+    @Value("${spring.ai.agent.mcp.pool.health-check-interval-ms:30000}")
+    private long healthCheckIntervalMillis;
+
+    /**
+     * 连接池，key为mcpId；重新装配时以新连接池覆盖
+     */
+    private final Map<String, McpConnectionPool> poolMap = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-pool-health-check");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::healthCheck, healthCheckIntervalMillis, healthCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 创建连接池，不预建连接，也不登记
+     */
+    public McpConnectionPool create(String mcpId, Supplier<McpSyncClient> clientFactory, int minSize, int maxSize) {
+        return new McpConnectionPool(mcpId, clientFactory, minSize, maxSize, acquireTimeoutMillis, validateAfterMillis);
+    }
+
+    /**
+     * 登记预建成功的连接池；同一 mcpId 的旧连接池由 {@link McpResourceLifecycleManager} 在调用排空后关闭
+     */
+    public void register(McpConnectionPool pool) {
+        poolMap.put(pool.getMcpId(), pool);
+    }
+
+    /**
+     * 连接池关闭时移除登记，已被新连接池覆盖时不处理
+     */
+    public void unregister(McpConnectionPool pool) {
+        poolMap.remove(pool.getMcpId(), pool);
+    }
+
+    public List<McpConnectionPoolMetricsVO> queryMetrics() {
+        return poolMap.values().stream()
+                .map(McpConnectionPool::queryMetrics)
+                .toList();
+    }
+
+    private void healthCheck() {
+        long now = System.currentTimeMillis();
+        for (McpConnectionPool pool : poolMap.values()) {
+            try {
+                pool.healthCheck(now);
+            } catch (Exception e) {
+                log.warn("MCP连接池健康检查失败: mcpId={}, 错误: {}", pool.getMcpId(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+        poolMap.values().forEach(McpConnectionPool::close);
+        poolMap.clear();
+    }
+
+}
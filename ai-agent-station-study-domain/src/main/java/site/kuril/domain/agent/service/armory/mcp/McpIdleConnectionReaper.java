@@ -0,0 +1,74 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 延迟 MCP 客户端空闲连接回收器
+ * 定期检查已注册的延迟客户端，关闭空闲超过 TTL 的连接
+ */
+@Slf4j
+@Component
+public class McpIdleConnectionReaper {
+
+    @Value("${spring.ai.agent.mcp.idle-check-interval-ms:30000}")
+    private long idleCheckIntervalMillis;
+
+    /**
+     * 延迟客户端，key为mcpId；重新装配时以新代理覆盖
+     */
+    private final Map<String, LazyMcpSyncClient> lazyClientMap = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-idle-reaper");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::reap, idleCheckIntervalMillis, idleCheckIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 登记延迟客户端；同一 mcpId 的旧代理由 {@link McpResourceLifecycleManager} 在调用排空后关闭
+     */
+    public void register(LazyMcpSyncClient lazyClient) {
+        lazyClientMap.put(lazyClient.getMcpId(), lazyClient);
+    }
+
+    /**
+     * 代理关闭时移除登记，已被新代理覆盖时不处理
+     */
+    public void unregister(LazyMcpSyncClient lazyClient) {
+        lazyClientMap.remove(lazyClient.getMcpId(), lazyClient);
+    }
+
+    private void reap() {
+        long now = System.currentTimeMillis();
+        for (LazyMcpSyncClient lazyClient : lazyClientMap.values()) {
+            try {
+                lazyClient.closeIfIdle(now);
+            } catch (Exception e) {
+                log.warn("回收空闲MCP连接失败: mcpId={}, 错误: {}", lazyClient.getMcpId(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+        lazyClientMap.values().forEach(LazyMcpSyncClient::close);
+        lazyClientMap.clear();
+    }
+
+}
@@ -0,0 +1,16 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import org.springframework.ai.tool.ToolCallback;
+
+/**
+ * 保留 MCP 原始工具名称的工具回调
+ * 工具定义中的名称带有客户端前缀（McpToolUtils.prefixedToolName），按工具配置的策略需使用服务端声明的原始名称
+ */
+public interface McpNamedToolCallback extends ToolCallback {
+
+    /**
+     * MCP 服务端声明的原始工具名称
+     */
+    String getOriginalToolName();
+
+}
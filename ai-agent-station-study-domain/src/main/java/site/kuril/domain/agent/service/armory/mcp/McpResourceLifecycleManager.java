@@ -0,0 +1,415 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.McpResourceLifecycleMetricsVO;
+import site.kuril.domain.agent.model.valobj.enums.McpResourceStateEnumVO;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.annotation.Resource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 装配资源生命周期管理器
+ * 追踪装配创建的 MCP 客户端、延迟连接代理、连接池以及其它可关闭组件。重新装配替换后，旧资源进入退役状态，
+ * 至少保留宽限期、并等进行中的工具调用结束后再关闭，超过排空超时则强制关闭；
+ * stdio 子进程单独登记，关闭后仍存活的子孙进程被终止，应用关闭时关闭全部资源并清理残留进程
+ */
+@Slf4j
+@Component
+public class McpResourceLifecycleManager {
+
+    @Resource
+    private McpConnectionPoolManager mcpConnectionPoolManager;
+
+    @Resource
+    private McpIdleConnectionReaper mcpIdleConnectionReaper;
+
+    /**
+     * 替换后至少保留的时间(毫秒)，让刚拿到旧工具回调的会话完成本轮调用
+     */
+    @Value("${spring.ai.agent.mcp.lifecycle.retire-grace-ms:5000}")
+    private long retireGraceMillis;
+
+    /**
+     * 等待进行中调用结束的最长时间(毫秒)，超过后强制关闭
+     */
+    @Value("${spring.ai.agent.mcp.lifecycle.drain-timeout-ms:60000}")
+    private long drainTimeoutMillis;
+
+    @Value("${spring.ai.agent.mcp.lifecycle.check-interval-ms:1000}")
+    private long checkIntervalMillis;
+
+    /**
+     * 子进程收到 SIGTERM 后等待退出的时间(毫秒)，超过后强制终止
+     */
+    @Value("${spring.ai.agent.mcp.lifecycle.process-kill-timeout-ms:5000}")
+    private long processKillTimeoutMillis;
+
+    /**
+     * 使用中与退役中的资源，key为组件实例
+     */
+    private final Map<Object, ManagedResource> resourceMap = new ConcurrentHashMap<>();
+
+    /**
+     * 存活的 stdio 子进程，key为pid
+     */
+    private final Map<Long, TrackedProcess> processMap = new ConcurrentHashMap<>();
+
+    /**
+     * 以降级状态注册、后台握手尚未完成的组件，其工具不提供给模型
+     */
+    private final Set<Object> handshakingComponents = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 后台握手失败、等待从运行时注册表移除并关闭的组件
+     */
+    private final Set<Object> handshakeFailedComponents = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong closedResources = new AtomicLong();
+
+    private final AtomicLong forcedCloses = new AtomicLong();
+
+    private final AtomicLong orphanProcessesKilled = new AtomicLong();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "mcp-resource-lifecycle");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @PostConstruct
+    public void start() {
+        scheduler.scheduleWithFixedDelay(this::drain, checkIntervalMillis, checkIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 是否为需要管理生命周期的组件
+     */
+    public static boolean isManaged(Object component) {
+        return component instanceof McpSyncClient || component instanceof McpAsyncClient || component instanceof AutoCloseable;
+    }
+
+    /**
+     * 登记发布到运行时注册表的组件
+     */
+    public void track(String beanName, Object component) {
+        if (isManaged(component)) {
+            resourceMap.computeIfAbsent(component, key -> new ManagedResource(beanName, component));
+        }
+    }
+
+    /**
+     * 组件被新一代替换，进入退役状态，由定时任务在调用排空后关闭
+     */
+    public void retire(String beanName, Object component) {
+        if (!isManaged(component)) {
+            return;
+        }
+        ManagedResource resource = resourceMap.computeIfAbsent(component, key -> new ManagedResource(beanName, component));
+        if (resource.retiredAtMillis == 0L) {
+            resource.retiredAtMillis = System.currentTimeMillis();
+            log.info("装配资源退役，等待进行中的调用结束后关闭: beanName={}, 进行中调用: {}", beanName, resource.inFlight.get());
+        }
+    }
+
+    /**
+     * 立即关闭从未发布的组件，如握手失败的客户端或装配失败时暂存的组件
+     */
+    public void closeNow(String beanName, Object component) {
+        if (!isManaged(component)) {
+            return;
+        }
+        ManagedResource resource = resourceMap.remove(component);
+        close(resource != null ? resource : new ManagedResource(beanName, component), false);
+    }
+
+    /**
+     * 降级组件开始后台握手，握手成功前不提供其工具
+     */
+    public void handshakeStarted(Object component) {
+        handshakingComponents.add(component);
+    }
+
+    public void handshakeSucceeded(Object component) {
+        handshakingComponents.remove(component);
+    }
+
+    /**
+     * 后台握手失败，先标记失败再解除握手中状态，工具始终不会被提供；组件由运行时注册表移除后退役关闭
+     */
+    public void handshakeFailed(Object component) {
+        handshakeFailedComponents.add(component);
+        handshakingComponents.remove(component);
+    }
+
+    /**
+     * 组件是否已可提供工具：不在后台握手中，且握手未失败
+     */
+    public boolean isHandshakeReady(Object component) {
+        return !handshakingComponents.contains(component) && !handshakeFailedComponents.contains(component);
+    }
+
+    public boolean isHandshakeFailed(Object component) {
+        return handshakeFailedComponents.contains(component);
+    }
+
+    /**
+     * 包装工具回调，统计组件上进行中的调用，退役组件据此判断是否可以关闭
+     */
+    public ToolCallback[] wrap(String beanName, Object component, ToolCallback[] toolCallbacks) {
+        if (!isManaged(component)) {
+            return toolCallbacks;
+        }
+        ManagedResource resource = resourceMap.computeIfAbsent(component, key -> new ManagedResource(beanName, component));
+        ToolCallback[] wrapped = new ToolCallback[toolCallbacks.length];
+        for (int i = 0; i < toolCallbacks.length; i++) {
+            wrapped[i] = new LeasedToolCallback(toolCallbacks[i], resource);
+        }
+        return wrapped;
+    }
+
+    /**
+     * 登记 stdio 子进程，进程退出后自动移除
+     */
+    public void trackProcess(String mcpId, ProcessHandle processHandle) {
+        processMap.put(processHandle.pid(), new TrackedProcess(mcpId, processHandle));
+        processHandle.onExit().thenRun(() -> processMap.remove(processHandle.pid()));
+        log.info("登记MCP子进程: mcpId={}, pid={}, 存活子进程: {}", mcpId, processHandle.pid(), processMap.size());
+    }
+
+    /**
+     * 传输关闭后终止仍存活的子进程及其子孙进程
+     */
+    public void killRemaining(String mcpId, ProcessHandle processHandle, List<ProcessHandle> descendants) {
+        List<ProcessHandle> remaining = new ArrayList<>(descendants);
+        if (processHandle != null) {
+            remaining.add(processHandle);
+        }
+        remaining.removeIf(handle -> !handle.isAlive());
+        if (remaining.isEmpty()) {
+            return;
+        }
+        log.warn("MCP传输关闭后仍有进程存活，终止: mcpId={}, pid={}", mcpId, remaining.stream().map(ProcessHandle::pid).toList());
+        for (ProcessHandle handle : remaining) {
+            handle.destroy();
+            orphanProcessesKilled.incrementAndGet();
+        }
+        scheduler.schedule(() -> remaining.stream().filter(ProcessHandle::isAlive).forEach(ProcessHandle::destroyForcibly),
+                processKillTimeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public McpResourceLifecycleMetricsVO queryMetrics() {
+        List<McpResourceLifecycleMetricsVO.Resource> resources = new ArrayList<>();
+        int live = 0;
+        int retiring = 0;
+        int inFlight = 0;
+        int connections = 0;
+        for (ManagedResource resource : resourceMap.values()) {
+            boolean retired = resource.retiredAtMillis != 0L;
+            int resourceConnections = connections(resource.component);
+            if (retired) {
+                retiring++;
+            } else {
+                live++;
+            }
+            inFlight += resource.inFlight.get();
+            connections += resourceConnections;
+            resources.add(McpResourceLifecycleMetricsVO.Resource.builder()
+                    .beanName(resource.beanName)
+                    .type(resource.component.getClass().getSimpleName())
+                    .state(retired ? McpResourceStateEnumVO.RETIRING.getCode() : McpResourceStateEnumVO.LIVE.getCode())
+                    .inFlight(resource.inFlight.get())
+                    .connections(resourceConnections)
+                    .retiredAtMillis(retired ? resource.retiredAtMillis : null)
+                    .build());
+        }
+
+        return McpResourceLifecycleMetricsVO.builder()
+                .liveResources(live)
+                .retiringResources(retiring)
+                .inFlightCalls(inFlight)
+                .liveConnections(connections)
+                .liveProcesses((int) processMap.values().stream().filter(process -> process.handle().isAlive()).count())
+                .closedResources(closedResources.get())
+                .forcedCloses(forcedCloses.get())
+                .orphanProcessesKilled(orphanProcessesKilled.get())
+                .resources(resources)
+                .build();
+    }
+
+    /**
+     * 关闭排空完成或超过排空超时的退役资源
+     */
+    private void drain() {
+        long now = System.currentTimeMillis();
+        for (ManagedResource resource : resourceMap.values()) {
+            long retiredAt = resource.retiredAtMillis;
+            if (retiredAt == 0L || now - retiredAt < retireGraceMillis) {
+                continue;
+            }
+            boolean drained = resource.inFlight.get() == 0;
+            boolean expired = now - retiredAt >= drainTimeoutMillis;
+            if ((drained || expired) && resourceMap.remove(resource.component, resource)) {
+                close(resource, !drained);
+            }
+        }
+    }
+
+    private void close(ManagedResource resource, boolean forced) {
+        long start = System.currentTimeMillis();
+        Object component = resource.component;
+        handshakingComponents.remove(component);
+        handshakeFailedComponents.remove(component);
+        try {
+            if (component instanceof McpSyncClient mcpSyncClient) {
+                mcpSyncClient.closeGracefully();
+            } else if (component instanceof McpAsyncClient mcpAsyncClient) {
+                mcpAsyncClient.closeGracefully().block(Duration.ofMillis(processKillTimeoutMillis));
+            } else if (component instanceof McpConnectionPool pool) {
+                mcpConnectionPoolManager.unregister(pool);
+                pool.close();
+            } else if (component instanceof LazyMcpSyncClient lazyClient) {
+                mcpIdleConnectionReaper.unregister(lazyClient);
+                lazyClient.close();
+            } else if (component instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+            closedResources.incrementAndGet();
+            if (forced) {
+                forcedCloses.incrementAndGet();
+                log.warn("装配资源排空超时 {}ms，强制关闭: beanName={}, 进行中调用: {}", drainTimeoutMillis, resource.beanName, resource.inFlight.get());
+            } else {
+                log.info("装配资源已关闭: beanName={}, 耗时: {}ms", resource.beanName, System.currentTimeMillis() - start);
+            }
+        } catch (Exception e) {
+            log.warn("关闭装配资源失败: beanName={}, 错误: {}", resource.beanName, e.getMessage());
+        }
+    }
+
+    private int connections(Object component) {
+        if (component instanceof McpConnectionPool pool) {
+            return pool.queryMetrics().getTotalConnections();
+        }
+        if (component instanceof LazyMcpSyncClient lazyClient) {
+            return lazyClient.isConnected() ? 1 : 0;
+        }
+        return component instanceof McpSyncClient || component instanceof McpAsyncClient ? 1 : 0;
+    }
+
+    /**
+     * 应用关闭：关闭全部资源，再终止关闭前记录的子进程树中仍存活的进程
+     */
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+
+        List<ProcessHandle> processTree = new ArrayList<>();
+        for (TrackedProcess process : processMap.values()) {
+            processTree.addAll(process.handle().descendants().toList());
+            processTree.add(process.handle());
+        }
+
+        int resourceCount = resourceMap.size();
+        for (ManagedResource resource : new ArrayList<>(resourceMap.values())) {
+            resourceMap.remove(resource.component);
+            close(resource, false);
+        }
+
+        List<ProcessHandle> orphans = processTree.stream().filter(ProcessHandle::isAlive).toList();
+        orphans.forEach(ProcessHandle::destroy);
+        long deadline = System.currentTimeMillis() + processKillTimeoutMillis;
+        for (ProcessHandle orphan : orphans) {
+            try {
+                orphan.onExit().get(Math.max(0L, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                orphan.destroyForcibly();
+            }
+        }
+        orphanProcessesKilled.addAndGet(orphans.size());
+        log.info("装配资源生命周期管理器关闭: 关闭资源 {} 个, 终止残留进程 {} 个", resourceCount, orphans.size());
+    }
+
+    private static final class ManagedResource {
+
+        private final String beanName;
+
+        private final Object component;
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        /**
+         * 退役时间，0 表示使用中
+         */
+        private volatile long retiredAtMillis;
+
+        private ManagedResource(String beanName, Object component) {
+            this.beanName = beanName;
+            this.component = component;
+        }
+
+    }
+
+    private record TrackedProcess(String mcpId, ProcessHandle handle) {
+    }
+
+    /**
+     * 计数工具回调，调用期间占用组件的一个进行中计数
+     */
+    private static final class LeasedToolCallback implements ToolCallback {
+
+        private final ToolCallback delegate;
+
+        private final ManagedResource resource;
+
+        private LeasedToolCallback(ToolCallback delegate, ManagedResource resource) {
+            this.delegate = delegate;
+            this.resource = resource;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public ToolMetadata getToolMetadata() {
+            return delegate.getToolMetadata();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return call(toolInput, null);
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            resource.inFlight.incrementAndGet();
+            try {
+                return toolContext == null ? delegate.call(toolInput) : delegate.call(toolInput, toolContext);
+            } finally {
+                resource.inFlight.decrementAndGet();
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,69 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import io.modelcontextprotocol.client.transport.ServerParameters;
+import io.modelcontextprotocol.client.transport.StdioClientTransport;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 可追踪子进程的 STDIO 传输
+ * 连接后向 {@link McpResourceLifecycleManager} 登记子进程；关闭时先记录子孙进程，
+ * 父进程退出后仍存活的子孙进程（如 npx 拉起的 node）由生命周期管理器终止，避免成为孤儿进程
+ */
+@Slf4j
+public class McpStdioClientTransport extends StdioClientTransport {
+
+    private final String mcpId;
+
+    private final McpResourceLifecycleManager lifecycleManager;
+
+    private volatile ProcessHandle processHandle;
+
+    public McpStdioClientTransport(String mcpId, ServerParameters params, McpResourceLifecycleManager lifecycleManager) {
+        super(params);
+        this.mcpId = mcpId;
+        this.lifecycleManager = lifecycleManager;
+    }
+
+    @Override
+    public Mono<Void> connect(Function<Mono<McpSchema.JSONRPCMessage>, Mono<McpSchema.JSONRPCMessage>> handler) {
+        return super.connect(handler).doOnSuccess(ignored -> {
+            processHandle = readProcessHandle();
+            if (processHandle != null) {
+                lifecycleManager.trackProcess(mcpId, processHandle);
+            }
+        });
+    }
+
+    @Override
+    public Mono<Void> closeGracefully() {
+        return Mono.defer(() -> {
+            // 父进程退出后子孙进程会被重新挂到 init 下，必须在关闭前记录
+            ProcessHandle current = processHandle;
+            List<ProcessHandle> descendants = current != null ? current.descendants().toList() : List.of();
+            return super.closeGracefully()
+                    .doFinally(signal -> lifecycleManager.killRemaining(mcpId, current, descendants));
+        });
+    }
+
+    /**
+     * StdioClientTransport 未暴露子进程，按字段名读取；读取失败时不追踪，不影响连接
+     */
+    private ProcessHandle readProcessHandle() {
+        try {
+            Field field = StdioClientTransport.class.getDeclaredField("process");
+            field.setAccessible(true);
+            Process process = (Process) field.get(this);
+            return process != null ? process.toHandle() : null;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            log.warn("读取MCP子进程失败，不追踪该进程: mcpId={}, 错误: {}", mcpId, e.getMessage());
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,233 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import io.modelcontextprotocol.client.McpAsyncClient;
+import io.modelcontextprotocol.client.McpSyncClient;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.mcp.AsyncMcpToolCallbackProvider;
+import org.springframework.ai.mcp.SyncMcpToolCallbackProvider;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.ToolCallbackProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.McpToolCallbackCacheMetricsVO;
+import site.kuril.domain.agent.service.armory.registry.AiClientRuntimeRegistry;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * MCP 工具回调缓存
+ * 两级缓存：按 MCP Bean 名称缓存工具列表（tools/list）构建出的工具回调，按客户端ID缓存合并后的工具回调数组。
+ * 缓存项与组件实例绑定，重新装配替换 ChatClient 或 MCP 客户端后自动失效；
+ * 另外在收到 MCP tools/list_changed 通知或超过 TTL 时失效。
+ * 熔断打开的 MCP 的工具在返回时被过滤，不提供给模型
+ */
+@Slf4j
+@Component
+public class McpToolCallbackCache {
+
+    @Resource
+    private AiClientRuntimeRegistry aiClientRuntimeRegistry;
+
+    @Resource
+    private McpToolResultCache mcpToolResultCache;
+
+    @Resource
+    private McpCircuitBreakerRegistry mcpCircuitBreakerRegistry;
+
+    @Resource
+    private McpResourceLifecycleManager mcpResourceLifecycleManager;
+
+    /**
+     * 工具回调缓存 TTL(毫秒)，0 表示不过期
+     */
+    @Value("${spring.ai.agent.mcp.tool-cache-ttl-ms:300000}")
+    private long toolCacheTtlMillis;
+
+    private final Map<String, Entry> cache = new ConcurrentHashMap<>();
+
+    private final Map<String, ClientEntry> clientCache = new ConcurrentHashMap<>();
+
+    private final AtomicLong toolListCalls = new AtomicLong();
+
+    private final AtomicLong toolListCallsAvoided = new AtomicLong();
+
+    private final AtomicLong clientCacheHits = new AtomicLong();
+
+    private final AtomicLong clientCacheMisses = new AtomicLong();
+
+    /**
+     * 获取客户端配置的全部 MCP 工具回调
+     * @param clientId 客户端ID
+     * @param mcpBeanNamesLoader 未命中时加载客户端配置的 MCP Bean 名称列表
+     * @return 工具回调，客户端未配置 MCP 时为空数组
+     */
+    public ToolCallback[] getClientToolCallbacks(String clientId, Supplier<List<String>> mcpBeanNamesLoader) {
+        ChatClient chatClient = aiClientRuntimeRegistry.getChatClient(clientId);
+        ClientEntry clientEntry = clientCache.get(clientId);
+        if (clientEntry != null && isValid(clientEntry, chatClient)) {
+            clientCacheHits.incrementAndGet();
+            toolListCallsAvoided.addAndGet(clientEntry.components().size());
+            return availableToolCallbacks(clientId, clientEntry);
+        }
+        clientCacheMisses.incrementAndGet();
+
+        List<String> mcpBeanNames = mcpBeanNamesLoader.get();
+        List<String> resolvedBeanNames = new ArrayList<>();
+        List<Object> components = new ArrayList<>();
+        List<ToolCallback[]> toolCallbacks = new ArrayList<>();
+        boolean complete = true;
+        for (String mcpBeanName : mcpBeanNames) {
+            Object mcpComponent = aiClientRuntimeRegistry.getComponent(mcpBeanName);
+            if (mcpComponent == null) {
+                log.warn("客户端配置的MCP未装配，跳过: clientId={}, beanName={}", clientId, mcpBeanName);
+                continue;
+            }
+            if (!mcpResourceLifecycleManager.isHandshakeReady(mcpComponent)) {
+                // 降级客户端后台握手完成前不提供其工具，握手成功后的下一次请求重新加载
+                log.warn("MCP后台握手未完成，跳过: clientId={}, beanName={}", clientId, mcpBeanName);
+                complete = false;
+                continue;
+            }
+            if (!isCached(mcpBeanName, mcpComponent) && !mcpCircuitBreakerRegistry.allowRequest(mcpBeanName)) {
+                // 熔断中的 MCP 不发起工具列举，熔断关闭后的下一次请求重新加载
+                log.warn("MCP熔断中，跳过工具列举: clientId={}, beanName={}", clientId, mcpBeanName);
+                complete = false;
+                continue;
+            }
+            try {
+                toolCallbacks.add(getToolCallbacks(mcpBeanName, mcpComponent));
+                resolvedBeanNames.add(mcpBeanName);
+                components.add(mcpComponent);
+            } catch (Exception e) {
+                // 列举失败的 MCP 不进入缓存，其余 MCP 的工具照常提供
+                log.warn("获取MCP工具回调失败: clientId={}, beanName={}, 错误: {}", clientId, mcpBeanName, e.getMessage());
+                complete = false;
+            }
+        }
+
+        ClientEntry result = new ClientEntry(chatClient, resolvedBeanNames, components, toolCallbacks, System.currentTimeMillis());
+        if (complete) {
+            clientCache.put(clientId, result);
+            log.info("缓存客户端MCP工具回调: clientId={}, MCP: {}", clientId, resolvedBeanNames);
+        }
+        return availableToolCallbacks(clientId, result);
+    }
+
+    /**
+     * 获取MCP组件的工具回调，首次获取时列举工具并缓存
+     * @param mcpBeanName MCP Bean名称
+     * @param mcpComponent McpSyncClient、McpAsyncClient、延迟连接代理或连接池
+     * @return 工具回调
+     */
+    public ToolCallback[] getToolCallbacks(String mcpBeanName, Object mcpComponent) {
+        Entry entry = cache.get(mcpBeanName);
+        if (entry != null && entry.component() == mcpComponent && !isExpired(entry.createdMillis())) {
+            toolListCallsAvoided.incrementAndGet();
+            return entry.toolCallbacks();
+        }
+
+        long start = System.currentTimeMillis();
+        ToolCallback[] toolCallbacks;
+        try {
+            if (mcpComponent instanceof McpSyncClient mcpSyncClient) {
+                toolCallbacks = new SyncMcpToolCallbackProvider(mcpSyncClient).getToolCallbacks();
+            } else if (mcpComponent instanceof McpAsyncClient mcpAsyncClient) {
+                toolCallbacks = new AsyncMcpToolCallbackProvider(mcpAsyncClient).getToolCallbacks();
+            } else if (mcpComponent instanceof ToolCallbackProvider toolCallbackProvider) {
+                toolCallbacks = toolCallbackProvider.getToolCallbacks();
+            } else {
+                throw new IllegalArgumentException("不支持的MCP组件类型: " + mcpComponent.getClass().getName());
+            }
+            mcpCircuitBreakerRegistry.recordSuccess(mcpBeanName);
+        } catch (RuntimeException e) {
+            mcpCircuitBreakerRegistry.recordFailure(mcpBeanName, e);
+            throw e;
+        }
+        toolListCalls.incrementAndGet();
+        // 由内到外：进行中调用计数、熔断、结果缓存；命中缓存的调用不受熔断影响。缓存策略按原始工具名称匹配，须在包装前解析
+        String[] toolNames = McpToolResultCache.originalToolNames(toolCallbacks);
+        toolCallbacks = mcpResourceLifecycleManager.wrap(mcpBeanName, mcpComponent, toolCallbacks);
+        toolCallbacks = mcpToolResultCache.wrap(mcpBeanName, mcpCircuitBreakerRegistry.wrap(mcpBeanName, toolCallbacks), toolNames);
+
+        cache.put(mcpBeanName, new Entry(mcpComponent, toolCallbacks, System.currentTimeMillis()));
+        log.info("缓存MCP工具回调: beanName={}, 工具数: {}, 耗时: {}ms", mcpBeanName, toolCallbacks.length, System.currentTimeMillis() - start);
+        return toolCallbacks;
+    }
+
+    /**
+     * 是否已缓存该客户端实例的工具回调
+     */
+    public boolean isCached(String mcpBeanName, Object mcpComponent) {
+        Entry entry = cache.get(mcpBeanName);
+        return entry != null && entry.component() == mcpComponent && !isExpired(entry.createdMillis());
+    }
+
+    /**
+     * 使 MCP 的工具回调及引用它的客户端缓存失效，收到 tools/list_changed 通知时调用
+     */
+    public void invalidate(String mcpBeanName) {
+        cache.remove(mcpBeanName);
+        clientCache.entrySet().removeIf(entry -> entry.getValue().mcpBeanNames().contains(mcpBeanName));
+        log.info("MCP工具回调缓存失效: beanName={}", mcpBeanName);
+    }
+
+    public McpToolCallbackCacheMetricsVO queryMetrics() {
+        return McpToolCallbackCacheMetricsVO.builder()
+                .toolListCalls(toolListCalls.get())
+                .toolListCallsAvoided(toolListCallsAvoided.get())
+                .clientCacheHits(clientCacheHits.get())
+                .clientCacheMisses(clientCacheMisses.get())
+                .cachedMcpCount(cache.size())
+                .cachedClientCount(clientCache.size())
+                .build();
+    }
+
+    private boolean isValid(ClientEntry clientEntry, ChatClient chatClient) {
+        if (clientEntry.chatClient() != chatClient || isExpired(clientEntry.createdMillis())) {
+            return false;
+        }
+        List<String> mcpBeanNames = clientEntry.mcpBeanNames();
+        for (int i = 0; i < mcpBeanNames.size(); i++) {
+            if (aiClientRuntimeRegistry.getComponent(mcpBeanNames.get(i)) != clientEntry.components().get(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 合并客户端的工具回调，熔断打开的 MCP 的工具不提供给模型
+     */
+    private ToolCallback[] availableToolCallbacks(String clientId, ClientEntry clientEntry) {
+        List<ToolCallback> toolCallbacks = new ArrayList<>();
+        List<String> mcpBeanNames = clientEntry.mcpBeanNames();
+        for (int i = 0; i < mcpBeanNames.size(); i++) {
+            if (!mcpCircuitBreakerRegistry.isAvailable(mcpBeanNames.get(i))) {
+                log.warn("MCP熔断中，本次请求不提供其工具: clientId={}, beanName={}", clientId, mcpBeanNames.get(i));
+                continue;
+            }
+            toolCallbacks.addAll(Arrays.asList(clientEntry.toolCallbacks().get(i)));
+        }
+        return toolCallbacks.toArray(new ToolCallback[0]);
+    }
+
+    private boolean isExpired(long createdMillis) {
+        return toolCacheTtlMillis > 0 && System.currentTimeMillis() - createdMillis > toolCacheTtlMillis;
+    }
+
+    private record Entry(Object component, ToolCallback[] toolCallbacks, long createdMillis) {
+    }
+
+    private record ClientEntry(ChatClient chatClient, List<String> mcpBeanNames, List<Object> components,
+                               List<ToolCallback[]> toolCallbacks, long createdMillis) {
+    }
+
+}
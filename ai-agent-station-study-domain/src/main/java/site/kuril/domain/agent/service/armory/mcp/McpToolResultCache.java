@@ -0,0 +1,382 @@
+package site.kuril.domain.agent.service.armory.mcp;
+
+import com.alibaba.fastjson.JSON;
+import com.alibaba.fastjson.serializer.SerializerFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.mcp.AsyncMcpToolCallback;
+import org.springframework.ai.mcp.SyncMcpToolCallback;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.AiClientToolMcpVO;
+import site.kuril.domain.agent.model.valobj.McpToolResultCacheStatsVO;
+import site.kuril.domain.agent.model.valobj.enums.McpToolResultCacheScopeEnumVO;
+
+import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+
+/**
+ * MCP 工具结果缓存
+ * 以 (mcpId, 工具名称, 规范化后的 JSON 参数) 为键缓存幂等只读工具的结果，分会话级与共享两层，均按 TTL 过期并按字节数 LRU 淘汰；
+ * 只有 ai_client_tool_mcp.ext_param.toolCache 中声明 cacheable 的工具才会缓存，同一 MCP 上调用未声明的工具（写工具）后清空该 MCP 的缓存结果
+ */
+@Slf4j
+@Component
+public class McpToolResultCache {
+
+    /**
+     * 工具上下文中的会话ID键
+     */
+    public static final String SESSION_ID = "mcp_tool_cache_session_id";
+
+    private static final char KEY_SEPARATOR = '\u0000';
+
+    @Value("${spring.ai.agent.mcp.tool-result-cache.default-ttl-seconds:300}")
+    private long defaultTtlSeconds;
+
+    @Value("${spring.ai.agent.mcp.tool-result-cache.default-max-result-bytes:65536}")
+    private int defaultMaxResultBytes;
+
+    /**
+     * 共享层总字节数上限
+     */
+    @Value("${spring.ai.agent.mcp.tool-result-cache.shared-max-bytes:16777216}")
+    private long sharedMaxBytes;
+
+    /**
+     * 每个会话层的总字节数上限
+     */
+    @Value("${spring.ai.agent.mcp.tool-result-cache.session-max-bytes:1048576}")
+    private long sessionMaxBytes;
+
+    @Value("${spring.ai.agent.mcp.tool-result-cache.max-sessions:1000}")
+    private int maxSessions;
+
+    /**
+     * 工具缓存策略，key为MCP Bean名称
+     */
+    private final Map<String, McpPolicy> policyMap = new ConcurrentHashMap<>();
+
+    private final Map<String, ToolStats> statsMap = new ConcurrentHashMap<>();
+
+    private Tier sharedTier;
+
+    /**
+     * 会话层，会话数超过上限时淘汰最久未访问的会话
+     */
+    private Map<String, Tier> sessionTiers;
+
+    @PostConstruct
+    public void init() {
+        sharedTier = new Tier(sharedMaxBytes);
+        sessionTiers = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Tier> eldest) {
+                return size() > maxSessions;
+            }
+        });
+    }
+
+    /**
+     * 装配 MCP 时登记工具缓存策略，未配置时移除旧策略
+     */
+    public void registerPolicies(String mcpBeanName, String mcpId, Map<String, AiClientToolMcpVO.ToolCachePolicy> toolCache) {
+        if (toolCache == null || toolCache.isEmpty()) {
+            policyMap.remove(mcpBeanName);
+            return;
+        }
+        policyMap.put(mcpBeanName, new McpPolicy(mcpId, Map.copyOf(toolCache)));
+        log.info("登记MCP工具结果缓存策略: mcpId={}, 工具: {}", mcpId, toolCache.keySet());
+    }
+
+    /**
+     * 为配置了缓存策略的 MCP 包装工具回调，未配置策略的 MCP 原样返回
+     * @param mcpBeanName MCP Bean名称
+     * @param toolCallbacks 工具回调
+     * @param toolNames 与工具回调一一对应的原始工具名称，由 {@link #originalToolNames(ToolCallback[])} 在包装前解析
+     */
+    public ToolCallback[] wrap(String mcpBeanName, ToolCallback[] toolCallbacks, String[] toolNames) {
+        McpPolicy mcpPolicy = policyMap.get(mcpBeanName);
+        if (mcpPolicy == null) {
+            return toolCallbacks;
+        }
+        ToolCallback[] wrapped = new ToolCallback[toolCallbacks.length];
+        for (int i = 0; i < toolCallbacks.length; i++) {
+            String toolName = toolNames[i];
+            AiClientToolMcpVO.ToolCachePolicy policy = mcpPolicy.toolCache().get(toolName);
+            boolean cacheable = policy != null && Boolean.TRUE.equals(policy.getCacheable());
+            wrapped[i] = new MemoizingToolCallback(toolCallbacks[i], mcpPolicy.mcpId(), toolName, cacheable ? policy : null);
+        }
+        return wrapped;
+    }
+
+    /**
+     * 解析 MCP 原始工具名称；工具定义中的名称带有客户端前缀，与 toolCache 中配置的名称不一致。
+     * 须在熔断、生命周期等包装之前解析，无法识别的回调使用工具定义中的名称
+     */
+    public static String[] originalToolNames(ToolCallback[] toolCallbacks) {
+        String[] toolNames = new String[toolCallbacks.length];
+        for (int i = 0; i < toolCallbacks.length; i++) {
+            ToolCallback toolCallback = toolCallbacks[i];
+            if (toolCallback instanceof SyncMcpToolCallback syncMcpToolCallback) {
+                toolNames[i] = syncMcpToolCallback.getOriginalToolName();
+            } else if (toolCallback instanceof AsyncMcpToolCallback asyncMcpToolCallback) {
+                toolNames[i] = asyncMcpToolCallback.getOriginalToolName();
+            } else if (toolCallback instanceof McpNamedToolCallback mcpNamedToolCallback) {
+                toolNames[i] = mcpNamedToolCallback.getOriginalToolName();
+            } else {
+                toolNames[i] = toolCallback.getToolDefinition().name();
+            }
+        }
+        return toolNames;
+    }
+
+    /**
+     * 清空指定 MCP 的缓存结果
+     */
+    public void invalidate(String mcpId) {
+        String prefix = mcpId + KEY_SEPARATOR;
+        Predicate<String> predicate = key -> key.startsWith(prefix);
+        sharedTier.removeIf(predicate);
+        synchronized (sessionTiers) {
+            sessionTiers.values().forEach(tier -> tier.removeIf(predicate));
+        }
+    }
+
+    public List<McpToolResultCacheStatsVO> queryStats() {
+        return statsMap.values().stream()
+                .map(ToolStats::toVO)
+                .toList();
+    }
+
+    /**
+     * 规范化 JSON 参数：对象键排序，使键顺序不同的相同参数命中同一缓存
+     */
+    static String canonicalize(String toolInput) {
+        if (toolInput == null || toolInput.isBlank()) {
+            return "";
+        }
+        try {
+            return JSON.toJSONString(JSON.parse(toolInput), SerializerFeature.MapSortField, SerializerFeature.SortField);
+        } catch (Exception e) {
+            return toolInput.trim();
+        }
+    }
+
+    private String call(ToolCallback delegate, String mcpId, String toolName, AiClientToolMcpVO.ToolCachePolicy policy,
+                        String toolInput, ToolContext toolContext) {
+        ToolStats stats = statsMap.computeIfAbsent(mcpId + KEY_SEPARATOR + toolName, key -> new ToolStats(mcpId, toolName));
+
+        // 写工具：调用后清空该 MCP 的缓存结果
+        if (policy == null) {
+            try {
+                return invoke(delegate, toolInput, toolContext);
+            } finally {
+                stats.invalidations.incrementAndGet();
+                invalidate(mcpId);
+            }
+        }
+
+        McpToolResultCacheScopeEnumVO scope = McpToolResultCacheScopeEnumVO.getByCode(policy.getScope());
+        String sessionId = toolContext != null && toolContext.getContext().get(SESSION_ID) instanceof String id ? id : null;
+        Tier tier = scope == McpToolResultCacheScopeEnumVO.SHARED ? sharedTier : sessionTier(sessionId);
+        if (tier == null) {
+            stats.bypasses.incrementAndGet();
+            return invoke(delegate, toolInput, toolContext);
+        }
+
+        String key = mcpId + KEY_SEPARATOR + toolName + KEY_SEPARATOR + canonicalize(toolInput);
+        long now = System.currentTimeMillis();
+        String cached = tier.get(key, now);
+        if (cached != null) {
+            (scope == McpToolResultCacheScopeEnumVO.SHARED ? stats.sharedHits : stats.sessionHits).incrementAndGet();
+            return cached;
+        }
+
+        stats.misses.incrementAndGet();
+        String result = invoke(delegate, toolInput, toolContext);
+        int bytes = result != null ? result.getBytes(StandardCharsets.UTF_8).length : 0;
+        int maxResultBytes = policy.getMaxResultBytes() != null ? policy.getMaxResultBytes() : defaultMaxResultBytes;
+        if (result == null || bytes > maxResultBytes) {
+            stats.oversized.incrementAndGet();
+            return result;
+        }
+        long ttlSeconds = policy.getTtlSeconds() != null ? policy.getTtlSeconds() : defaultTtlSeconds;
+        tier.put(key, new CachedResult(result, now + TimeUnit.SECONDS.toMillis(ttlSeconds), bytes));
+        return result;
+    }
+
+    /**
+     * 调用被包装的工具回调，保留工具上下文
+     */
+    private static String invoke(ToolCallback delegate, String toolInput, ToolContext toolContext) {
+        return toolContext == null ? delegate.call(toolInput) : delegate.call(toolInput, toolContext);
+    }
+
+    /**
+     * 会话层，没有会话ID时不缓存
+     */
+    private Tier sessionTier(String sessionId) {
+        if (sessionId == null || sessionId.isEmpty()) {
+            return null;
+        }
+        return sessionTiers.computeIfAbsent(sessionId, id -> new Tier(sessionMaxBytes));
+    }
+
+    private record McpPolicy(String mcpId, Map<String, AiClientToolMcpVO.ToolCachePolicy> toolCache) {
+    }
+
+    private record CachedResult(String value, long expiresAtMillis, int bytes) {
+    }
+
+    /**
+     * 一层缓存：访问顺序 LinkedHashMap，超过字节数上限时淘汰最久未访问的结果
+     */
+    private static final class Tier {
+
+        private final long maxBytes;
+
+        private final LinkedHashMap<String, CachedResult> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        private long bytes;
+
+        private Tier(long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized String get(String key, long nowMillis) {
+            CachedResult cachedResult = entries.get(key);
+            if (cachedResult == null) {
+                return null;
+            }
+            if (cachedResult.expiresAtMillis() <= nowMillis) {
+                entries.remove(key);
+                bytes -= cachedResult.bytes();
+                return null;
+            }
+            return cachedResult.value();
+        }
+
+        synchronized void put(String key, CachedResult cachedResult) {
+            if (cachedResult.bytes() > maxBytes) {
+                return;
+            }
+            CachedResult previous = entries.put(key, cachedResult);
+            if (previous != null) {
+                bytes -= previous.bytes();
+            }
+            bytes += cachedResult.bytes();
+
+            Iterator<CachedResult> iterator = entries.values().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                bytes -= iterator.next().bytes();
+                iterator.remove();
+            }
+        }
+
+        synchronized void removeIf(Predicate<String> keyPredicate) {
+            Iterator<Map.Entry<String, CachedResult>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, CachedResult> entry = iterator.next();
+                if (keyPredicate.test(entry.getKey())) {
+                    bytes -= entry.getValue().bytes();
+                    iterator.remove();
+                }
+            }
+        }
+
+    }
+
+    private static final class ToolStats {
+
+        private final String mcpId;
+
+        private final String toolName;
+
+        private final AtomicLong sessionHits = new AtomicLong();
+
+        private final AtomicLong sharedHits = new AtomicLong();
+
+        private final AtomicLong misses = new AtomicLong();
+
+        private final AtomicLong bypasses = new AtomicLong();
+
+        private final AtomicLong oversized = new AtomicLong();
+
+        private final AtomicLong invalidations = new AtomicLong();
+
+        private ToolStats(String mcpId, String toolName) {
+            this.mcpId = mcpId;
+            this.toolName = toolName;
+        }
+
+        private McpToolResultCacheStatsVO toVO() {
+            return McpToolResultCacheStatsVO.builder()
+                    .mcpId(mcpId)
+                    .toolName(toolName)
+                    .sessionHits(sessionHits.get())
+                    .sharedHits(sharedHits.get())
+                    .misses(misses.get())
+                    .bypasses(bypasses.get())
+                    .oversized(oversized.get())
+                    .invalidations(invalidations.get())
+                    .build();
+        }
+
+    }
+
+    /**
+     * 带结果缓存的工具回调；policy 为空表示写工具，调用后清空该 MCP 的缓存结果
+     */
+    private class MemoizingToolCallback implements ToolCallback {
+
+        private final ToolCallback delegate;
+
+        private final String mcpId;
+
+        private final String toolName;
+
+        private final AiClientToolMcpVO.ToolCachePolicy policy;
+
+        private MemoizingToolCallback(ToolCallback delegate, String mcpId, String toolName, AiClientToolMcpVO.ToolCachePolicy policy) {
+            this.delegate = delegate;
+            this.mcpId = mcpId;
+            this.toolName = toolName;
+            this.policy = policy;
+        }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public ToolMetadata getToolMetadata() {
+            return delegate.getToolMetadata();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return call(toolInput, null);
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            return McpToolResultCache.this.call(delegate, mcpId, toolName, policy, toolInput, toolContext);
+        }
+
+    }
+
+}
@@ -0,0 +1,211 @@
+package site.kuril.domain.agent.service.armory.readiness;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.adapter.port.IAgentRepository;
+import site.kuril.domain.agent.model.valobj.AiAgentClientFlowConfigVO;
+import site.kuril.domain.agent.model.valobj.AiClientReadinessVO;
+import site.kuril.domain.agent.model.valobj.enums.AiClientArmoryStatusEnumVO;
+import site.kuril.domain.agent.service.armory.registry.AiClientRuntimeRegistry;
+
+import javax.annotation.Resource;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * AI客户端就绪状态跟踪器
+ * 跟踪后台装配中每个客户端的进度，装配期间将应用就绪状态置为 REFUSING_TRAFFIC，
+ * 装配成功后切换为 ACCEPTING_TRAFFIC 并记录冷启动到就绪的耗时；重试耗尽仍失败时同样恢复接收流量，
+ * 未就绪客户端的请求由 HTTP 层快速失败，其余接口照常服务；HTTP 层据此短暂排队或快速失败
+ */
+@Slf4j
+@Component
+public class AiClientReadinessTracker {
+
+    @Resource
+    private AiClientRuntimeRegistry aiClientRuntimeRegistry;
+
+    @Resource
+    private IAgentRepository repository;
+
+    @Resource
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private final Map<String, AiClientArmoryStatusEnumVO> clientStatusMap = new ConcurrentHashMap<>();
+
+    /**
+     * 本轮后台装配结果，true 表示成功；没有装配时为已完成状态
+     */
+    private volatile CompletableFuture<Boolean> armoryFuture = CompletableFuture.completedFuture(Boolean.TRUE);
+
+    private volatile long armoryStartMillis;
+
+    private volatile Long armoryMillis;
+
+    private volatile Long coldStartToReadyMillis;
+
+    private volatile String errorMessage;
+
+    /**
+     * 开始后台装配，客户端进入 BUILDING，应用拒绝流量直到装配完成
+     */
+    public synchronized void begin(Collection<String> clientIds) {
+        for (String clientId : clientIds) {
+            clientStatusMap.put(clientId, AiClientArmoryStatusEnumVO.BUILDING);
+        }
+        armoryStartMillis = System.currentTimeMillis();
+        armoryMillis = null;
+        errorMessage = null;
+        armoryFuture = new CompletableFuture<>();
+        AvailabilityChangeEvent.publish(applicationEventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        log.info("后台装配开始，客户端: {}", clientIds);
+    }
+
+    /**
+     * ChatClient 已构建，等待整代发布；仅更新正在跟踪的客户端
+     */
+    public void markBuilt(String clientId) {
+        clientStatusMap.computeIfPresent(clientId, (id, status) ->
+                status == AiClientArmoryStatusEnumVO.BUILDING ? AiClientArmoryStatusEnumVO.BUILT : status);
+    }
+
+    /**
+     * 后台装配成功，客户端进入 READY，应用开始接收流量
+     */
+    public synchronized void complete(Collection<String> clientIds) {
+        for (String clientId : clientIds) {
+            clientStatusMap.put(clientId, AiClientArmoryStatusEnumVO.READY);
+        }
+        long now = System.currentTimeMillis();
+        armoryMillis = now - armoryStartMillis;
+        if (coldStartToReadyMillis == null) {
+            coldStartToReadyMillis = now - ManagementFactory.getRuntimeMXBean().getStartTime();
+        }
+        armoryFuture.complete(Boolean.TRUE);
+        AvailabilityChangeEvent.publish(applicationEventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        log.info("后台装配完成，客户端: {}, 装配耗时: {}ms, 冷启动到就绪: {}ms", clientIds, armoryMillis, coldStartToReadyMillis);
+    }
+
+    /**
+     * 后台装配重试耗尽，客户端进入 FAILED；应用以降级状态恢复接收流量，避免实例永久摘除，
+     * 失败的客户端在之后手动装配成功后即可使用
+     */
+    public synchronized void fail(Collection<String> clientIds, Throwable cause) {
+        for (String clientId : clientIds) {
+            clientStatusMap.put(clientId, AiClientArmoryStatusEnumVO.FAILED);
+        }
+        armoryMillis = System.currentTimeMillis() - armoryStartMillis;
+        errorMessage = cause != null ? cause.getMessage() : null;
+        armoryFuture.complete(Boolean.FALSE);
+        AvailabilityChangeEvent.publish(applicationEventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        log.error("后台装配失败，应用降级接收流量，客户端: {}, 耗时: {}ms, 原因: {}", clientIds, armoryMillis, errorMessage);
+    }
+
+    /**
+     * Spring Boot 在 ApplicationReadyEvent 之后会发布 ACCEPTING_TRAFFIC，装配未结束时重新置为 REFUSING_TRAFFIC
+     */
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && event.getSource() != this && isArmoryInProgress()) {
+            log.info("后台装配进行中，应用保持 REFUSING_TRAFFIC");
+            AvailabilityChangeEvent.publish(applicationEventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    public boolean isArmoryInProgress() {
+        return !armoryFuture.isDone();
+    }
+
+    /**
+     * 等待指定客户端就绪
+     * 客户端仍在后台装配时最多等待 maxWaitMillis，未被装配或装配失败的客户端立即返回
+     * @param clientIds 需要的客户端ID
+     * @param maxWaitMillis 最长等待时间(毫秒)
+     * @return 仍未就绪的客户端ID，为空表示全部就绪
+     */
+    public List<String> awaitClients(Collection<String> clientIds, long maxWaitMillis) {
+        List<String> notReady = queryNotReady(clientIds);
+        if (notReady.isEmpty() || maxWaitMillis <= 0) {
+            return notReady;
+        }
+
+        boolean building = notReady.stream().anyMatch(clientId -> {
+            AiClientArmoryStatusEnumVO status = clientStatusMap.get(clientId);
+            return status == AiClientArmoryStatusEnumVO.BUILDING || status == AiClientArmoryStatusEnumVO.BUILT;
+        });
+        if (!building) {
+            return notReady;
+        }
+
+        try {
+            armoryFuture.get(maxWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("等待客户端就绪超时: {}, 等待: {}ms", notReady, maxWaitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // armoryFuture 只会正常完成
+        }
+        return queryNotReady(clientIds);
+    }
+
+    /**
+     * 等待智能体流程配置中的全部客户端就绪
+     * @param aiAgentId 智能体ID
+     * @param maxWaitMillis 最长等待时间(毫秒)
+     * @return 仍未就绪的客户端ID，为空表示全部就绪
+     */
+    public List<String> awaitAgentClients(String aiAgentId, long maxWaitMillis) {
+        Map<String, AiAgentClientFlowConfigVO> flowConfigMap = repository.queryAiAgentClientFlowConfig(aiAgentId);
+        if (flowConfigMap == null || flowConfigMap.isEmpty()) {
+            return List.of();
+        }
+        List<String> clientIds = flowConfigMap.values().stream()
+                .map(AiAgentClientFlowConfigVO::getClientId)
+                .distinct()
+                .toList();
+        return awaitClients(clientIds, maxWaitMillis);
+    }
+
+    /**
+     * 查询就绪状态
+     */
+    public AiClientReadinessVO queryReadiness() {
+        Map<String, String> clientStatus = new LinkedHashMap<>();
+        clientStatusMap.forEach((clientId, status) -> clientStatus.put(clientId, status.getCode()));
+
+        boolean inProgress = isArmoryInProgress();
+        return AiClientReadinessVO.builder()
+                .ready(!inProgress && Boolean.TRUE.equals(armoryFuture.getNow(Boolean.FALSE)))
+                .armoryInProgress(inProgress)
+                .clientStatus(clientStatus)
+                .armoryMillis(armoryMillis)
+                .coldStartToReadyMillis(coldStartToReadyMillis)
+                .errorMessage(errorMessage)
+                .build();
+    }
+
+    private List<String> queryNotReady(Collection<String> clientIds) {
+        List<String> notReady = new ArrayList<>();
+        for (String clientId : clientIds) {
+            if (aiClientRuntimeRegistry.getChatClient(clientId) == null) {
+                notReady.add(clientId);
+            }
+        }
+        return notReady;
+    }
+
+}
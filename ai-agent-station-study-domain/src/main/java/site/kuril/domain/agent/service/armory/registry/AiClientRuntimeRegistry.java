@@ -0,0 +1,241 @@
+package site.kuril.domain.agent.service.armory.registry;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.openai.OpenAiChatModel;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
+import site.kuril.domain.agent.service.armory.mcp.McpResourceLifecycleManager;
+
+import javax.annotation.Resource;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * AI客户端运行时注册表
+ * 以不可变快照（代）保存 ChatClient、OpenAiChatModel、OpenAiApi、MCP 客户端与顾问，查询只是一次 volatile 读；
+ * 装配成功后整代写时复制并原子发布，执行中的会话不会看到半装配的客户端集合；
+ * 被新一代替换的 MCP 客户端等可关闭组件交给 {@link McpResourceLifecycleManager} 排空后关闭
+ */
+@Slf4j
+@Component
+public class AiClientRuntimeRegistry {
+
+    @Resource
+    private ApplicationContext applicationContext;
+
+    @Resource
+    private McpResourceLifecycleManager mcpResourceLifecycleManager;
+
+    private final AtomicReference<Generation> current = new AtomicReference<>(Generation.EMPTY);
+
+    /**
+     * 当前代
+     */
+    public Generation current() {
+        return current.get();
+    }
+
+    public ChatClient getChatClient(String clientId) {
+        return current.get().get(AiAgentEnumVO.AI_CLIENT.getBeanName(clientId));
+    }
+
+    public OpenAiChatModel getChatModel(String modelId) {
+        return current.get().get(AiAgentEnumVO.AI_CLIENT_MODEL.getBeanName(modelId));
+    }
+
+    public OpenAiApi getOpenAiApi(String apiId) {
+        return current.get().get(AiAgentEnumVO.AI_CLIENT_API.getBeanName(apiId));
+    }
+
+    /**
+     * MCP 客户端，可能是 McpSyncClient、McpAsyncClient、延迟连接代理或连接池
+     */
+    public Object getToolMcp(String mcpId) {
+        return current.get().get(AiAgentEnumVO.AI_CLIENT_TOOL_MCP.getBeanName(mcpId));
+    }
+
+    public Object getAdvisor(String advisorId) {
+        return current.get().get(AiAgentEnumVO.AI_CLIENT_ADVISOR.getBeanName(advisorId));
+    }
+
+    /**
+     * 按Bean名称查询组件
+     */
+    public <T> T getComponent(String beanName) {
+        return current.get().get(beanName);
+    }
+
+    /**
+     * 以当前代为基础合并本次装配的组件，原子发布为新一代
+     * @param components 本次装配的组件，key为Bean名称
+     * @return 发布后的代
+     */
+    public Generation publish(Map<String, Object> components) {
+        if (components == null || components.isEmpty()) {
+            return current.get();
+        }
+
+        Generation previous;
+        Generation published;
+        do {
+            previous = current.get();
+            published = previous.next(components);
+        } while (!current.compareAndSet(previous, published));
+        log.info("运行时注册表发布第 {} 代，本次组件 {} 个，共 {} 个", published.getVersion(), components.size(), published.size());
+
+        // 被替换的旧组件退役，进行中的调用结束后关闭
+        for (Map.Entry<String, Object> entry : components.entrySet()) {
+            mcpResourceLifecycleManager.track(entry.getKey(), entry.getValue());
+            Object replaced = previous.get(entry.getKey());
+            if (replaced != null && replaced != entry.getValue()) {
+                mcpResourceLifecycleManager.retire(entry.getKey(), replaced);
+            }
+        }
+
+        mirrorToApplicationContext(components.keySet());
+
+        // 发布前已后台握手失败的降级客户端，发布后立即移除
+        for (Map.Entry<String, Object> entry : components.entrySet()) {
+            if (mcpResourceLifecycleManager.isHandshakeFailed(entry.getValue())) {
+                remove(entry.getKey(), entry.getValue());
+            }
+        }
+        return current.get();
+    }
+
+    /**
+     * 从当前代移除组件，仅当当前代中仍是同一实例时生效；移除后组件退役，进行中的调用结束后关闭
+     * @param beanName Bean名称
+     * @param component 组件实例
+     * @return 是否移除
+     */
+    public boolean remove(String beanName, Object component) {
+        Generation previous;
+        Generation published;
+        do {
+            previous = current.get();
+            if (previous.get(beanName) != component) {
+                return false;
+            }
+            published = previous.without(beanName);
+        } while (!current.compareAndSet(previous, published));
+        log.info("运行时注册表发布第 {} 代，移除组件: {}", published.getVersion(), beanName);
+
+        mcpResourceLifecycleManager.retire(beanName, component);
+        removeFromApplicationContext(beanName);
+        return true;
+    }
+
+    /**
+     * 丢弃装配失败时暂存的组件，未发布且不属于当前代的组件立即关闭
+     * @param components 本次装配暂存的组件，key为Bean名称
+     */
+    public void discard(Map<String, Object> components) {
+        if (components == null || components.isEmpty()) {
+            return;
+        }
+        Generation latest = current.get();
+        for (Map.Entry<String, Object> entry : components.entrySet()) {
+            if (latest.get(entry.getKey()) != entry.getValue()) {
+                mcpResourceLifecycleManager.closeNow(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * 同步注册到Spring容器，供测试与示例代码按Bean名称查询；运行时热路径只读注册表。
+     * 镜像的Bean不设销毁方法：组件由 {@link McpResourceLifecycleManager} 排空后关闭，
+     * 否则替换或移除Bean定义时Spring会推断出 close() 立即关闭 MCP 客户端与连接池，应用关闭时还会再关一次
+     */
+    @SuppressWarnings("unchecked")
+    private synchronized void mirrorToApplicationContext(Iterable<String> beanNames) {
+        DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory) applicationContext.getAutowireCapableBeanFactory();
+        Generation latest = current.get();
+        for (String beanName : beanNames) {
+            Object beanInstance = latest.get(beanName);
+            if (beanInstance == null) {
+                continue;
+            }
+
+            BeanDefinition beanDefinition = BeanDefinitionBuilder
+                    .genericBeanDefinition((Class<Object>) beanInstance.getClass(), () -> beanInstance)
+                    .getRawBeanDefinition();
+            beanDefinition.setScope(BeanDefinition.SCOPE_SINGLETON);
+            beanDefinition.setDestroyMethodName("");
+
+            if (beanFactory.containsBeanDefinition(beanName)) {
+                beanFactory.removeBeanDefinition(beanName);
+            }
+            beanFactory.registerBeanDefinition(beanName, beanDefinition);
+        }
+    }
+
+    private synchronized void removeFromApplicationContext(String beanName) {
+        DefaultListableBeanFactory beanFactory = (DefaultListableBeanFactory) applicationContext.getAutowireCapableBeanFactory();
+        if (current.get().get(beanName) == null && beanFactory.containsBeanDefinition(beanName)) {
+            beanFactory.removeBeanDefinition(beanName);
+        }
+    }
+
+    /**
+     * 注册表的一代，不可变
+     */
+    public static final class Generation {
+
+        static final Generation EMPTY = new Generation(0L, Collections.emptyMap());
+
+        private final long version;
+
+        private final Map<String, Object> components;
+
+        private Generation(long version, Map<String, Object> components) {
+            this.version = version;
+            this.components = components;
+        }
+
+        Generation next(Map<String, Object> changed) {
+            Map<String, Object> merged = new HashMap<>(components);
+            merged.putAll(changed);
+            return new Generation(version + 1, Collections.unmodifiableMap(merged));
+        }
+
+        Generation without(String beanName) {
+            Map<String, Object> remaining = new HashMap<>(components);
+            remaining.remove(beanName);
+            return new Generation(version + 1, Collections.unmodifiableMap(remaining));
+        }
+
+        @SuppressWarnings("unchecked")
+        public <T> T get(String beanName) {
+            return (T) components.get(beanName);
+        }
+
+        /**
+         * 按Bean名称前缀查询组件名称
+         */
+        public List<String> beanNames(String beanNamePrefix) {
+            return components.keySet().stream()
+                    .filter(beanName -> beanName.startsWith(beanNamePrefix))
+                    .toList();
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public int size() {
+            return components.size();
+        }
+
+    }
+
+}
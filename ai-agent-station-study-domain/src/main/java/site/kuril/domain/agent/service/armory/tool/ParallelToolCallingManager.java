@@ -0,0 +1,234 @@
+package site.kuril.domain.agent.service.armory.tool;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.ToolResponseMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.chat.prompt.Prompt;
+import org.springframework.ai.model.tool.DefaultToolCallingManager;
+import org.springframework.ai.model.tool.ToolCallingChatOptions;
+import org.springframework.ai.model.tool.ToolCallingManager;
+import org.springframework.ai.model.tool.ToolExecutionResult;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.execution.DefaultToolExecutionExceptionProcessor;
+import org.springframework.ai.tool.execution.ToolExecutionException;
+import org.springframework.ai.tool.execution.ToolExecutionExceptionProcessor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.CollectionUtils;
+import site.kuril.domain.agent.service.execute.limit.LlmConcurrencyLimiter;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationToken;
+
+import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 并行工具调用管理器
+ * 模型在一轮回复中返回多个工具调用时，按每轮并发上限并行执行，结果仍按原始顺序返回给模型；
+ * 只有一个工具调用或存在无法从请求选项中解析的工具时，交给默认管理器串行执行；
+ * 工具上下文携带会话取消令牌时，取消会中断工具线程与等待结果的线程；
+ * 携带工具耗时累计器时，每轮工具调用的耗时计入其中，供模型调用限流器从 RTT 样本中扣除
+ */
+@Slf4j
+@Component
+public class ParallelToolCallingManager implements ToolCallingManager {
+
+    /**
+     * 每轮工具调用的并发上限
+     */
+    @Value("${spring.ai.agent.tool.max-parallel-per-turn:4}")
+    private int maxParallelPerTurn;
+
+    @Resource
+    private ThreadPoolExecutor toolCallExecutor;
+
+    private final ToolCallingManager delegate = DefaultToolCallingManager.builder().build();
+
+    private final ToolExecutionExceptionProcessor toolExecutionExceptionProcessor = DefaultToolExecutionExceptionProcessor.builder().build();
+
+    @Override
+    public List<ToolDefinition> resolveToolDefinitions(ToolCallingChatOptions chatOptions) {
+        return delegate.resolveToolDefinitions(chatOptions);
+    }
+
+    @Override
+    public ToolExecutionResult executeToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        long startNanos = System.nanoTime();
+        try {
+            return doExecuteToolCalls(prompt, chatResponse);
+        } finally {
+            if (prompt.getOptions() instanceof ToolCallingChatOptions toolCallingChatOptions
+                    && toolCallingChatOptions.getToolContext() != null
+                    && toolCallingChatOptions.getToolContext().get(LlmConcurrencyLimiter.TOOL_TIME_CONTEXT_KEY) instanceof AtomicLong toolNanos) {
+                toolNanos.addAndGet(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private ToolExecutionResult doExecuteToolCalls(Prompt prompt, ChatResponse chatResponse) {
+        AssistantMessage assistantMessage = chatResponse.getResults().stream()
+                .map(Generation::getOutput)
+                .filter(output -> !CollectionUtils.isEmpty(output.getToolCalls()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("No tool call requested by the chat model"));
+
+        List<AssistantMessage.ToolCall> toolCalls = assistantMessage.getToolCalls();
+        List<ToolCallback> toolCallbacks = resolveToolCallbacks(prompt, toolCalls);
+        if (toolCalls.size() < 2 || maxParallelPerTurn < 2 || toolCallbacks == null) {
+            return delegate.executeToolCalls(prompt, chatResponse);
+        }
+
+        // 1. 按每轮并发上限提交工具调用，许可在调用结束时释放；工具线程登记到会话取消令牌
+        long start = System.currentTimeMillis();
+        ToolContext toolContext = buildToolContext(prompt, assistantMessage);
+        AutoAgentCancellationToken token = toolContext.getContext().get(AutoAgentCancellationToken.TOOL_CONTEXT_KEY)
+                instanceof AutoAgentCancellationToken cancellationToken ? cancellationToken : null;
+        Semaphore permits = new Semaphore(maxParallelPerTurn);
+        List<CompletableFuture<ToolResponseMessage.ToolResponse>> futures = new ArrayList<>(toolCalls.size());
+        long[] latencies = new long[toolCalls.size()];
+        for (int i = 0; i < toolCalls.size(); i++) {
+            AssistantMessage.ToolCall toolCall = toolCalls.get(i);
+            ToolCallback toolCallback = toolCallbacks.get(i);
+            int index = i;
+            acquire(permits, futures, token);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                long callStart = System.currentTimeMillis();
+                try {
+                    String result = token != null
+                            ? token.interruptible(() -> call(toolCallback, toolCall, toolContext))
+                            : call(toolCallback, toolCall, toolContext);
+                    return new ToolResponseMessage.ToolResponse(toolCall.id(), toolCall.name(), result);
+                } finally {
+                    latencies[index] = System.currentTimeMillis() - callStart;
+                    permits.release();
+                }
+            }, toolCallExecutor));
+        }
+
+        // 2. 按原始顺序收集结果，等待线程同样登记到取消令牌
+        List<ToolResponseMessage.ToolResponse> toolResponses = token != null
+                ? token.interruptible(() -> await(futures))
+                : await(futures);
+
+        long serialMillis = 0;
+        for (long latency : latencies) {
+            serialMillis += latency;
+        }
+        log.info("并行执行工具调用: {} 个, 并发上限: {}, 耗时: {}ms, 串行耗时合计: {}ms",
+                toolCalls.size(), maxParallelPerTurn, System.currentTimeMillis() - start, serialMillis);
+
+        boolean returnDirect = toolCallbacks.stream().allMatch(toolCallback -> toolCallback.getToolMetadata().returnDirect());
+        List<Message> conversationHistory = new ArrayList<>(prompt.copy().getInstructions());
+        conversationHistory.add(assistantMessage);
+        conversationHistory.add(new ToolResponseMessage(toolResponses, Map.of()));
+        return ToolExecutionResult.builder()
+                .conversationHistory(conversationHistory)
+                .returnDirect(returnDirect)
+                .build();
+    }
+
+    /**
+     * 从请求选项中按工具调用顺序解析工具回调，任一工具无法解析时返回 null
+     */
+    private List<ToolCallback> resolveToolCallbacks(Prompt prompt, List<AssistantMessage.ToolCall> toolCalls) {
+        if (!(prompt.getOptions() instanceof ToolCallingChatOptions toolCallingChatOptions)) {
+            return null;
+        }
+        Map<String, ToolCallback> toolCallbackMap = new HashMap<>();
+        for (ToolCallback toolCallback : toolCallingChatOptions.getToolCallbacks()) {
+            toolCallbackMap.putIfAbsent(toolCallback.getToolDefinition().name(), toolCallback);
+        }
+
+        List<ToolCallback> toolCallbacks = new ArrayList<>(toolCalls.size());
+        for (AssistantMessage.ToolCall toolCall : toolCalls) {
+            ToolCallback toolCallback = toolCallbackMap.get(toolCall.name());
+            if (toolCallback == null) {
+                return null;
+            }
+            toolCallbacks.add(toolCallback);
+        }
+        return toolCallbacks;
+    }
+
+    /**
+     * 获取每轮并发许可；会话已取消或等待被中断时取消已提交的调用
+     */
+    private static void acquire(Semaphore permits, List<? extends CompletableFuture<?>> futures, AutoAgentCancellationToken token) {
+        try {
+            if (token != null) {
+                token.throwIfCancelled();
+            }
+            permits.acquire();
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("等待工具调用许可被中断");
+        } catch (CancellationException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+    }
+
+    /**
+     * 可中断地等待全部调用结果；被中断或任一调用失败时取消其余调用，与串行执行一致抛出工具调用的原始异常
+     */
+    private static List<ToolResponseMessage.ToolResponse> await(List<CompletableFuture<ToolResponseMessage.ToolResponse>> futures) {
+        List<ToolResponseMessage.ToolResponse> toolResponses = new ArrayList<>(futures.size());
+        try {
+            for (CompletableFuture<ToolResponseMessage.ToolResponse> future : futures) {
+                toolResponses.add(future.get());
+            }
+            return toolResponses;
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new CancellationException("等待工具调用结果被中断");
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String call(ToolCallback toolCallback, AssistantMessage.ToolCall toolCall, ToolContext toolContext) {
+        try {
+            return toolCallback.call(toolCall.arguments(), toolContext);
+        } catch (ToolExecutionException e) {
+            return toolExecutionExceptionProcessor.process(e);
+        }
+    }
+
+    /**
+     * 与默认管理器一致：请求设置了工具上下文时附带工具调用历史
+     */
+    private ToolContext buildToolContext(Prompt prompt, AssistantMessage assistantMessage) {
+        Map<String, Object> toolContextMap = Map.of();
+        if (prompt.getOptions() instanceof ToolCallingChatOptions toolCallingChatOptions
+                && !CollectionUtils.isEmpty(toolCallingChatOptions.getToolContext())) {
+            toolContextMap = new HashMap<>(toolCallingChatOptions.getToolContext());
+            List<Message> toolCallHistory = new ArrayList<>(prompt.copy().getInstructions());
+            toolCallHistory.add(new AssistantMessage(assistantMessage.getText(), assistantMessage.getMetadata(), assistantMessage.getToolCalls()));
+            toolContextMap.put(ToolContext.TOOL_CALL_HISTORY, toolCallHistory);
+        }
+        return new ToolContext(toolContextMap);
+    }
+
+}
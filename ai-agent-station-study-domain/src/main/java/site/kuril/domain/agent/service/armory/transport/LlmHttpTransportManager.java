@@ -0,0 +1,181 @@
+package site.kuril.domain.agent.service.armory.transport;
+
+import io.netty.channel.ChannelOption;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.openai.api.OpenAiApi;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.ReactorClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionPoolMetrics;
+import reactor.netty.resources.ConnectionProvider;
+import site.kuril.domain.agent.model.valobj.LlmHttpPoolMetricsVO;
+
+import javax.annotation.PreDestroy;
+import java.net.SocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * LLM HTTP 传输管理
+ * 每个 baseUrl 共享一个连接池（keep-alive、https 下优先 HTTP/2），相同 baseUrl + apiKey 的 OpenAiApi 复用同一实例，
+ * 避免并发的步骤调用反复建立 TLS 连接
+ */
+@Slf4j
+@Component
+public class LlmHttpTransportManager {
+
+    @Value("${spring.ai.agent.http.max-connections:50}")
+    private int maxConnections;
+
+    @Value("${spring.ai.agent.http.pending-acquire-timeout-ms:10000}")
+    private long pendingAcquireTimeoutMillis;
+
+    @Value("${spring.ai.agent.http.max-idle-time-ms:60000}")
+    private long maxIdleTimeMillis;
+
+    @Value("${spring.ai.agent.http.max-life-time-ms:600000}")
+    private long maxLifeTimeMillis;
+
+    @Value("${spring.ai.agent.http.connect-timeout-ms:10000}")
+    private int connectTimeoutMillis;
+
+    @Value("${spring.ai.agent.http.response-timeout-ms:180000}")
+    private long responseTimeoutMillis;
+
+    /**
+     * 连接池，key为规范化后的 baseUrl
+     */
+    private final Map<String, PooledTransport> transportMap = new ConcurrentHashMap<>();
+
+    /**
+     * OpenAiApi 实例，key为 baseUrl + apiKey
+     */
+    private final Map<ApiKey, OpenAiApi> openAiApiMap = new ConcurrentHashMap<>();
+
+    /**
+     * 连接池指标，key为 poolName + 远端地址
+     */
+    private final Map<String, PoolMetricsEntry> poolMetricsMap = new ConcurrentHashMap<>();
+
+    /**
+     * 获取共享连接池的 OpenAiApi，相同 baseUrl + apiKey 返回同一实例
+     */
+    public OpenAiApi openAiApi(String baseUrl, String apiKey) {
+        String normalizedBaseUrl = normalize(baseUrl);
+        return openAiApiMap.computeIfAbsent(new ApiKey(normalizedBaseUrl, apiKey), key -> {
+            PooledTransport transport = transport(normalizedBaseUrl);
+            log.info("创建共享连接池的 OpenAiApi: baseUrl={}, pool={}", normalizedBaseUrl, transport.poolName());
+            return OpenAiApi.builder()
+                    .baseUrl(baseUrl)
+                    .apiKey(apiKey)
+                    .restClientBuilder(RestClient.builder().requestFactory(new ReactorClientHttpRequestFactory(transport.httpClient())))
+                    .webClientBuilder(WebClient.builder().clientConnector(new ReactorClientHttpConnector(transport.httpClient())))
+                    .build();
+        });
+    }
+
+    /**
+     * 预建连接：对 baseUrl 发起一次 HEAD 请求，完成 DNS、TLS 与 HTTP/2 协商，连接保留在池中供后续请求复用
+     * 响应状态码不影响预建结果
+     */
+    public void warmUp(String baseUrl, Duration timeout) {
+        String normalizedBaseUrl = normalize(baseUrl);
+        transport(normalizedBaseUrl).httpClient()
+                .head()
+                .uri(normalizedBaseUrl)
+                .response()
+                .block(timeout);
+    }
+
+    /**
+     * 查询连接池指标
+     */
+    public List<LlmHttpPoolMetricsVO> queryPoolMetrics() {
+        List<LlmHttpPoolMetricsVO> result = new ArrayList<>();
+        for (PoolMetricsEntry entry : poolMetricsMap.values()) {
+            ConnectionPoolMetrics metrics = entry.metrics();
+            result.add(LlmHttpPoolMetricsVO.builder()
+                    .poolName(entry.poolName())
+                    .remoteAddress(entry.remoteAddress())
+                    .acquiredSize(metrics.acquiredSize())
+                    .allocatedSize(metrics.allocatedSize())
+                    .idleSize(metrics.idleSize())
+                    .pendingAcquireSize(metrics.pendingAcquireSize())
+                    .maxAllocatedSize(metrics.maxAllocatedSize())
+                    .build());
+        }
+        return result;
+    }
+
+    private PooledTransport transport(String normalizedBaseUrl) {
+        return transportMap.computeIfAbsent(normalizedBaseUrl, this::createTransport);
+    }
+
+    private PooledTransport createTransport(String normalizedBaseUrl) {
+        URI uri = URI.create(normalizedBaseUrl);
+        // 同一主机上的不同 baseUrl 各自一个连接池，名称按 baseUrl 区分，指标不会互相覆盖
+        String poolName = "llm-" + normalizedBaseUrl;
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder(poolName)
+                .maxConnections(maxConnections)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMillis))
+                .maxIdleTime(Duration.ofMillis(maxIdleTimeMillis))
+                .maxLifeTime(Duration.ofMillis(maxLifeTimeMillis))
+                .evictInBackground(Duration.ofMillis(maxIdleTimeMillis))
+                .metrics(true, () -> this::registerMetrics)
+                .build();
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMillis)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMillis))
+                .keepAlive(true);
+        if ("https".equalsIgnoreCase(uri.getScheme())) {
+            httpClient = httpClient.secure().protocol(HttpProtocol.H2, HttpProtocol.HTTP11);
+        }
+
+        log.info("创建 LLM HTTP 连接池: pool={}, baseUrl={}, maxConnections={}, maxIdleTime={}ms",
+                poolName, normalizedBaseUrl, maxConnections, maxIdleTimeMillis);
+        return new PooledTransport(poolName, connectionProvider, httpClient);
+    }
+
+    private void registerMetrics(String poolName, String id, SocketAddress remoteAddress, ConnectionPoolMetrics metrics) {
+        String remote = String.valueOf(remoteAddress);
+        poolMetricsMap.put(poolName + "|" + remote, new PoolMetricsEntry(poolName, remote, metrics));
+    }
+
+    private String normalize(String baseUrl) {
+        String url = Objects.requireNonNull(baseUrl, "baseUrl").trim();
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        transportMap.values().forEach(transport -> transport.connectionProvider().dispose());
+        transportMap.clear();
+        openAiApiMap.clear();
+        poolMetricsMap.clear();
+    }
+
+    private record PooledTransport(String poolName, ConnectionProvider connectionProvider, HttpClient httpClient) {
+    }
+
+    private record ApiKey(String baseUrl, String apiKey) {
+    }
+
+    private record PoolMetricsEntry(String poolName, String remoteAddress, ConnectionPoolMetrics metrics) {
+    }
+
+}
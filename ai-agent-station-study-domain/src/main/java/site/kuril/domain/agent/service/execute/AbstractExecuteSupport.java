@@ -4,15 +4,22 @@ import com.alibaba.fastjson2.JSON;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.context.ApplicationContext;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import site.kuril.domain.agent.adapter.port.IAgentRepository;
 import site.kuril.domain.agent.model.entity.AutoAgentExecuteResultEntity;
 import site.kuril.domain.agent.model.entity.ExecuteCommandEntity;
+import site.kuril.domain.agent.service.armory.advisor.ChatMemoryAdvisorFactory;
+import site.kuril.domain.agent.service.armory.registry.AiClientRuntimeRegistry;
 import site.kuril.domain.agent.service.execute.factory.DefaultAutoAgentExecuteStrategyFactory;
+import site.kuril.domain.agent.service.execute.limit.LlmConcurrencyLimiter;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationToken;
+import site.kuril.domain.agent.service.execute.stream.StreamingSectionParser;
 
 import javax.annotation.Resource;
 import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 执行抽象支撑类
@@ -28,14 +35,11 @@ public abstract class AbstractExecuteSupport implements DefaultAutoAgentExecuteS
     @Resource
     protected IAgentRepository repository;
 
-    /**
-     * 默认策略处理器，用于结束链路
-     */
-    protected DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> 
-            defaultStrategyHandler = (entity, context) -> {
-        log.info("⚡ 执行链路结束");
-        return "EXECUTION_COMPLETED";
-    };
+    @Resource
+    protected AiClientRuntimeRegistry aiClientRuntimeRegistry;
+
+    @Resource
+    protected LlmConcurrencyLimiter llmConcurrencyLimiter;
 
     /**
      * StrategyHandler接口实现 - 执行策略处理
@@ -46,19 +50,16 @@ public abstract class AbstractExecuteSupport implements DefaultAutoAgentExecuteS
     }
 
     /**
-     * 处理执行请求
+     * 处理执行请求，只执行本节点逻辑；下一个节点由执行策略工厂的状态机决定
      * @param requestParameter 执行请求参数
      * @param dynamicContext 动态上下文
      * @return 处理结果
+     * @throws java.util.concurrent.CancellationException 会话已取消
      */
     public String process(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
+        dynamicContext.getCancellationToken().throwIfCancelled();
         log.info("🎯 开始处理执行节点: {}", this.getClass().getSimpleName());
-        
-        // 执行具体的应用逻辑
-        doApply(requestParameter, dynamicContext);
-        
-        // 路由到下一个节点
-        return router(requestParameter, dynamicContext);
+        return doApply(requestParameter, dynamicContext);
     }
 
     /**
@@ -70,61 +71,92 @@ public abstract class AbstractExecuteSupport implements DefaultAutoAgentExecuteS
     protected abstract String doApply(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception;
 
     /**
-     * 获取下一个处理节点，由子类实现
-     * @param requestParameter 执行请求参数
-     * @param dynamicContext 动态上下文
-     * @return 下一个节点处理器
+     * 从Spring容器中获取Bean
+     * @param beanName Bean名称
+     * @return Bean实例
      */
-    public abstract DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> 
-            get(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception;
+    @SuppressWarnings("unchecked")
+    protected <T> T getBean(String beanName) {
+        return (T) applicationContext.getBean(beanName);
+    }
 
     /**
-     * 路由到下一个节点
-     * @param requestParameter 执行请求参数
-     * @param dynamicContext 动态上下文
-     * @return 下一个节点的处理结果
+     * 根据客户端ID获取ChatClient
+     * @param clientId 客户端ID
+     * @return ChatClient实例
+     */
+    protected ChatClient getChatClientByClientId(String clientId) {
+        ChatClient chatClient = aiClientRuntimeRegistry.getChatClient(clientId);
+        if (chatClient == null) {
+            throw new IllegalStateException("ChatClient 未装配: clientId=" + clientId);
+        }
+        return chatClient;
+    }
+
+    /**
+     * 对话记忆的会话ID，按客户端与会话隔离；没有会话ID时使用默认会话，不读写记忆
+     * @param clientId 客户端ID
+     * @param sessionId 会话ID
+     * @return 传给 ChatMemory.CONVERSATION_ID 的会话ID
      */
-    protected String router(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> nextHandler = 
-                get(requestParameter, dynamicContext);
-        
-        if (nextHandler == null || nextHandler == defaultStrategyHandler) {
-            log.info("✅ 执行链路完成");
-            return "EXECUTION_CHAIN_COMPLETED";
+    protected String memoryConversationId(String clientId, String sessionId) {
+        if (sessionId == null || sessionId.isBlank()) {
+            return ChatMemory.DEFAULT_CONVERSATION_ID;
         }
-        
-        log.info("🔄 路由到下一个执行节点");
-        return nextHandler.apply(requestParameter, dynamicContext);
+        return ChatMemoryAdvisorFactory.conversationId(clientId, sessionId);
     }
 
     /**
-     * 从Spring容器中获取Bean
-     * @param beanName Bean名称
-     * @return Bean实例
+     * 流式调用模型，边接收边由分段解析器发出子结果；在客户端所属 API 的并发许可内执行，会话取消时立即断开流
+     * @param dynamicContext 动态上下文
+     * @param clientId 客户端ID
+     * @param requestSpec 已设置提示词、选项与顾问参数的请求
+     * @param parser 分段解析器
+     * @return 完整输出，与 call().content() 一致
+     * @throws java.util.concurrent.CancellationException 会话已取消
      */
-    @SuppressWarnings("unchecked")
-    protected <T> T getBean(String beanName) {
-        return (T) applicationContext.getBean(beanName);
+    protected String streamContent(DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext, String clientId,
+                                   ChatClient.ChatClientRequestSpec requestSpec, StreamingSectionParser parser) {
+        return streamContent(dynamicContext, clientId, requestSpec, parser, null);
     }
 
     /**
-     * 获取执行节点StrategyHandler
-     * @param beanName Bean名称
-     * @return StrategyHandler实例
+     * 流式调用模型，请求带工具时许可在模型内部的工具调用循环期间一直占用，工具耗时从 RTT 样本中扣除
+     * @param toolNanos 工具上下文中 {@link LlmConcurrencyLimiter#TOOL_TIME_CONTEXT_KEY} 对应的工具调用累计耗时，为 null 时不扣除
      */
-    protected DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> 
-            getExecuteHandler(String beanName) {
-        return (AbstractExecuteSupport) applicationContext.getBean(beanName);
+    protected String streamContent(DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext, String clientId,
+                                   ChatClient.ChatClientRequestSpec requestSpec, StreamingSectionParser parser, AtomicLong toolNanos) {
+        AutoAgentCancellationToken token = dynamicContext.getCancellationToken();
+        String content = llmConcurrencyLimiter.execute(clientId, token, permit -> {
+            permit.excludeToolTime(toolNanos);
+            token.interruptible(() -> token.bind(requestSpec.stream().content())
+                    .doOnNext(chunk -> {
+                        permit.firstChunk();
+                        parser.append(chunk);
+                    })
+                    .blockLast());
+            // 取消导致流提前结束时不输出残缺内容
+            token.throwIfCancelled();
+            return parser.finish();
+        });
+        dynamicContext.recordLlmOutput(content);
+        return content;
     }
 
     /**
-     * 根据客户端ID获取ChatClient
+     * 同步调用模型；在客户端所属 API 的并发许可内执行，会话取消时中断等待中的调用
+     * @param dynamicContext 动态上下文
      * @param clientId 客户端ID
-     * @return ChatClient实例
+     * @param requestSpec 已设置提示词、选项与顾问参数的请求
+     * @return 模型输出
+     * @throws java.util.concurrent.CancellationException 会话已取消
      */
-    protected ChatClient getChatClientByClientId(String clientId) {
-        String beanName = "ai_client_" + clientId;
-        return applicationContext.getBean(beanName, ChatClient.class);
+    protected String callContent(DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext, String clientId,
+                                 ChatClient.ChatClientRequestSpec requestSpec) {
+        AutoAgentCancellationToken token = dynamicContext.getCancellationToken();
+        String content = llmConcurrencyLimiter.execute(clientId, token, permit -> token.interruptible(() -> requestSpec.call().content()));
+        dynamicContext.recordLlmOutput(content);
+        return content;
     }
 
     // =================
@@ -149,8 +181,11 @@ public abstract class AbstractExecuteSupport implements DefaultAutoAgentExecuteS
                         result.getContent() != null && result.getContent().length() > 50 ? 
                         result.getContent().substring(0, 50) + "..." : result.getContent());
             }
-        } catch (IOException e) {
-            log.error("发送SSE结果失败：{}", e.getMessage(), e);
+        } catch (IOException | IllegalStateException e) {
+            // 连接已断开，取消会话，不再继续调用模型与工具
+            if (dynamicContext.getCancellationToken().cancel("SSE发送失败")) {
+                log.warn("发送SSE结果失败，取消会话: sessionId={}, error={}", result.getSessionId(), e.getMessage());
+            }
         }
     }
 
@@ -6,7 +6,6 @@ import site.kuril.domain.agent.model.entity.ExecuteCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentClientFlowConfigVO;
 import site.kuril.domain.agent.service.execute.factory.DefaultAutoAgentExecuteStrategyFactory;
 
-import javax.annotation.Resource;
 import java.util.Map;
 
 /**
@@ -17,9 +16,6 @@ import java.util.Map;
 @Service("executeRootNode")
 public class RootNode extends AbstractExecuteSupport {
 
-    @Resource
-    private Step1AnalyzerNode step1AnalyzerNode;
-
     @Override
     protected String doApply(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
         log.info("=== 🚀 AutoAgent动态多轮执行开始 ===");
@@ -52,11 +48,4 @@ public class RootNode extends AbstractExecuteSupport {
         return "ROOT_NODE_COMPLETED";
     }
 
-    @Override
-    public DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> 
-            get(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        // 始终路由到任务分析节点
-        return step1AnalyzerNode;
-    }
-
 }
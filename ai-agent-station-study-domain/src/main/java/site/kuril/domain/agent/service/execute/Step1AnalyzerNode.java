@@ -2,6 +2,7 @@ package site.kuril.domain.agent.service.execute;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import org.springframework.stereotype.Service;
 import site.kuril.domain.agent.model.entity.AutoAgentExecuteResultEntity;
@@ -9,6 +10,9 @@ import site.kuril.domain.agent.model.entity.ExecuteCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentClientFlowConfigVO;
 import site.kuril.domain.agent.model.valobj.enums.AiClientTypeEnumVO;
 import site.kuril.domain.agent.service.execute.factory.DefaultAutoAgentExecuteStrategyFactory;
+import site.kuril.domain.agent.service.execute.stream.StreamingSectionParser;
+
+import java.util.List;
 
 // 移除静态导入，使用字符串常量
 
@@ -20,6 +24,16 @@ import site.kuril.domain.agent.service.execute.factory.DefaultAutoAgentExecuteSt
 @Service("step1AnalyzerNode")
 public class Step1AnalyzerNode extends AbstractExecuteSupport {
 
+    /**
+     * 分析结果段落，"完成度评估" 与 "任务状态" 的标题行本身即是结果
+     */
+    private static final List<StreamingSectionParser.SectionRule> ANALYSIS_SECTION_RULES = List.of(
+            StreamingSectionParser.SectionRule.of("任务状态分析:", "analysis_status"),
+            StreamingSectionParser.SectionRule.of("执行历史评估:", "analysis_history"),
+            StreamingSectionParser.SectionRule.of("下一步策略:", "analysis_strategy"),
+            new StreamingSectionParser.SectionRule("完成度评估:", "analysis_progress", true),
+            new StreamingSectionParser.SectionRule("任务状态:", "analysis_task_status", true));
+
     @Override
     protected String doApply(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
         log.info("\n🎯 === 执行第 {} 步：任务分析 ===", dynamicContext.getStep());
@@ -41,9 +55,13 @@ public class Step1AnalyzerNode extends AbstractExecuteSupport {
 
         ChatClient chatClient = getChatClientByClientId(analyzerConfig.getClientId());
 
-        // 执行任务分析
+        // 执行任务分析：流式接收，每个段落标题到达时发出上一段
         log.info("🤔 开始任务状态分析...");
-        String analysisResult = chatClient
+        String sessionId = requestParameter.getSessionId();
+        StreamingSectionParser parser = new StreamingSectionParser(ANALYSIS_SECTION_RULES, null,
+                (subType, content) -> sendAnalysisSubResult(dynamicContext, subType, content, sessionId), null);
+        log.info("\n📊 === 第 {} 步分析结果 ===", dynamicContext.getStep());
+        String analysisResult = streamContent(dynamicContext, analyzerConfig.getClientId(), chatClient
                 .prompt(analysisPrompt)
                 .options(OpenAiChatOptions.builder()
                         .model("gpt-4o")
@@ -51,12 +69,14 @@ public class Step1AnalyzerNode extends AbstractExecuteSupport {
                         .temperature(0.3)
                         .build())
                 .advisors(a -> a
-                        .param("CHAT_MEMORY_CONVERSATION_ID", requestParameter.getSessionId())
-                        .param("CHAT_MEMORY_RETRIEVE_SIZE", 1024))
-                .call().content();
+                        .param(ChatMemory.CONVERSATION_ID, memoryConversationId(analyzerConfig.getClientId(), sessionId))
+                        .param("CHAT_MEMORY_RETRIEVE_SIZE", 1024)), parser);
 
-        // 解析分析结果并发送SSE
-        parseAnalysisResult(dynamicContext, analysisResult, requestParameter.getSessionId());
+        // 没有识别到任何段落时，发送完整的分析结果
+        if (!parser.isSectionMatched()) {
+            log.warn("⚠️ 未识别到标准section格式，发送完整分析结果");
+            sendAnalysisSubResult(dynamicContext, "analysis_status", analysisResult, sessionId);
+        }
         
         // 将分析结果保存到动态上下文中
         dynamicContext.setValue("analysisResult", analysisResult);
@@ -75,19 +95,6 @@ public class Step1AnalyzerNode extends AbstractExecuteSupport {
         return "ANALYSIS_COMPLETED";
     }
 
-    @Override
-    public DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> 
-            get(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        
-        // 如果任务已完成或达到最大步数，进入总结阶段
-        if (dynamicContext.isCompleted() || dynamicContext.getStep() > dynamicContext.getMaxStep()) {
-            return getExecuteHandler("step4LogExecutionSummaryNode");
-        }
-        
-        // 否则继续执行下一步：精准执行
-        return getExecuteHandler("step2PrecisionExecutorNode");
-    }
-
     /**
      * 构建任务分析提示词
      */
@@ -135,103 +142,13 @@ public class Step1AnalyzerNode extends AbstractExecuteSupport {
         );
     }
 
-    /**
-     * 解析任务分析结果并发送SSE
-     */
-    private void parseAnalysisResult(DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext, 
-                                   String analysisResult, String sessionId) {
-        int step = dynamicContext.getStep();
-        log.info("\n📊 === 第 {} 步分析结果 ===", step);
-        
-        String[] lines = analysisResult.split("\n");
-        String currentSection = "";
-        StringBuilder sectionContent = new StringBuilder();
-
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-
-            if (line.contains("任务状态分析:")) {
-                // 发送上一个section的内容
-                sendAnalysisSubResult(dynamicContext, currentSection, sectionContent.toString(), sessionId);
-                currentSection = "analysis_status";
-                sectionContent = new StringBuilder();
-                log.info("\n🎯 任务状态分析:");
-                continue;
-            } else if (line.contains("执行历史评估:")) {
-                // 发送上一个section的内容
-                sendAnalysisSubResult(dynamicContext, currentSection, sectionContent.toString(), sessionId);
-                currentSection = "analysis_history";
-                sectionContent = new StringBuilder();
-                log.info("\n📈 执行历史评估:");
-                continue;
-            } else if (line.contains("下一步策略:")) {
-                // 发送上一个section的内容
-                sendAnalysisSubResult(dynamicContext, currentSection, sectionContent.toString(), sessionId);
-                currentSection = "analysis_strategy";
-                sectionContent = new StringBuilder();
-                log.info("\n🚀 下一步策略:");
-                continue;
-            } else if (line.contains("完成度评估:")) {
-                // 发送上一个section的内容
-                sendAnalysisSubResult(dynamicContext, currentSection, sectionContent.toString(), sessionId);
-                currentSection = "analysis_progress";
-                sectionContent = new StringBuilder();
-                String progress = line.substring(line.indexOf(":") + 1).trim();
-                log.info("\n📊 完成度评估: {}", progress);
-                sectionContent.append(line).append("\n");
-                continue;
-            } else if (line.contains("任务状态:")) {
-                // 发送上一个section的内容
-                sendAnalysisSubResult(dynamicContext, currentSection, sectionContent.toString(), sessionId);
-                currentSection = "analysis_task_status";
-                sectionContent = new StringBuilder();
-                String status = line.substring(line.indexOf(":") + 1).trim();
-                if (status.equals("COMPLETED")) {
-                    log.info("\n✅ 任务状态: 已完成");
-                } else {
-                    log.info("\n🔄 任务状态: 继续执行");
-                }
-                sectionContent.append(line).append("\n");
-                continue;
-            }
-
-            // 收集当前section的内容
-            if (!currentSection.isEmpty()) {
-                sectionContent.append(line).append("\n");
-                switch (currentSection) {
-                    case "analysis_status":
-                        log.info("   📋 {}", line);
-                        break;
-                    case "analysis_history":
-                        log.info("   📊 {}", line);
-                        break;
-                    case "analysis_strategy":
-                        log.info("   🎯 {}", line);
-                        break;
-                    default:
-                        log.info("   📝 {}", line);
-                        break;
-                }
-            }
-        }
-        
-        // 发送最后一个section的内容
-        sendAnalysisSubResult(dynamicContext, currentSection, sectionContent.toString(), sessionId);
-        
-        // 如果没有识别到任何section，发送完整的分析结果
-        if (currentSection.isEmpty()) {
-            log.warn("⚠️ 未识别到标准section格式，发送完整分析结果");
-            sendAnalysisSubResult(dynamicContext, "analysis_status", analysisResult, sessionId);
-        }
-    }
-
     /**
      * 发送分析阶段细分结果到流式输出
      */
     private void sendAnalysisSubResult(DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext, 
                                       String subType, String content, String sessionId) {
         if (!subType.isEmpty() && !content.isEmpty()) {
+            log.info("   📋 {}: {}", subType, content.trim());
             AutoAgentExecuteResultEntity result = AutoAgentExecuteResultEntity.createAnalysisSubResult(
                     dynamicContext.getStep(), subType, content.trim(), sessionId);
             sendSseResult(dynamicContext, result);
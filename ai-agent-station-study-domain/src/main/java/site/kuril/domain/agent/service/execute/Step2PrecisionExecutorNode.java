@@ -2,15 +2,31 @@ package site.kuril.domain.agent.service.execute;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.openai.OpenAiChatOptions;
-import org.springframework.ai.mcp.SyncMcpToolCallbackProvider;
-import io.modelcontextprotocol.client.McpSyncClient;
+import org.springframework.ai.chat.model.ToolContext;
+import org.springframework.ai.tool.ToolCallback;
+import org.springframework.ai.tool.definition.ToolDefinition;
+import org.springframework.ai.tool.metadata.ToolMetadata;
 import site.kuril.domain.agent.model.entity.AutoAgentExecuteResultEntity;
 import org.springframework.stereotype.Service;
 import site.kuril.domain.agent.model.entity.ExecuteCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentClientFlowConfigVO;
+import site.kuril.domain.agent.model.valobj.AiClientVO;
 import site.kuril.domain.agent.model.valobj.enums.AiClientTypeEnumVO;
+import site.kuril.domain.agent.service.armory.mcp.McpToolCallbackCache;
+import site.kuril.domain.agent.service.armory.mcp.McpToolResultCache;
 import site.kuril.domain.agent.service.execute.factory.DefaultAutoAgentExecuteStrategyFactory;
+import site.kuril.domain.agent.service.execute.limit.LlmConcurrencyLimiter;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationToken;
+import site.kuril.domain.agent.service.execute.stream.StreamingSectionParser;
+
+import javax.annotation.Resource;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 // 移除静态导入，使用字符串常量
 
@@ -22,6 +38,18 @@ import site.kuril.domain.agent.service.execute.factory.DefaultAutoAgentExecuteSt
 @Service("step2PrecisionExecutorNode")
 public class Step2PrecisionExecutorNode extends AbstractExecuteSupport {
 
+    /**
+     * 执行结果段落
+     */
+    private static final List<StreamingSectionParser.SectionRule> EXECUTION_SECTION_RULES = List.of(
+            StreamingSectionParser.SectionRule.of("执行目标:", "execution_target"),
+            StreamingSectionParser.SectionRule.of("执行过程:", "execution_process"),
+            StreamingSectionParser.SectionRule.of("执行结果:", "execution_result"),
+            StreamingSectionParser.SectionRule.of("质量检查:", "execution_quality"));
+
+    @Resource
+    private McpToolCallbackCache mcpToolCallbackCache;
+
     @Override
     protected String doApply(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
         log.info("\n⚡ === 执行第 {} 步：精准任务执行 ===", dynamicContext.getStep());
@@ -47,8 +75,10 @@ public class Step2PrecisionExecutorNode extends AbstractExecuteSupport {
 
         ChatClient chatClient = getChatClientByClientId(executorConfig.getClientId());
 
-        // 获取MCP客户端用于工具调用
-        McpSyncClient[] mcpClients = getMcpClientsForClient(executorConfig.getClientId());
+        // 获取MCP工具回调用于工具调用，会话取消后不再发起新的工具调用，进行中的调用被中断
+        ToolCallback[] toolCallbacks = Arrays.stream(getToolCallbacksForClient(executorConfig.getClientId()))
+                .map(toolCallback -> new CancellableToolCallback(toolCallback, dynamicContext.getCancellationToken()))
+                .toArray(ToolCallback[]::new);
         
         // 执行具体任务
         log.info("🔧 开始精准任务执行...");
@@ -57,22 +87,36 @@ public class Step2PrecisionExecutorNode extends AbstractExecuteSupport {
                 .maxTokens(4000)
                 .temperature(0.5);
         
-        // 如果有MCP客户端，配置工具回调
-        if (mcpClients.length > 0) {
-            log.info("🛠️ 配置{}个MCP工具回调", mcpClients.length);
-            optionsBuilder.toolCallbacks(new SyncMcpToolCallbackProvider(mcpClients).getToolCallbacks());
+        // 如果有MCP工具，配置工具回调
+        AtomicLong toolNanos = new AtomicLong();
+        if (toolCallbacks.length > 0) {
+            log.info("🛠️ 配置{}个MCP工具回调", toolCallbacks.length);
+            optionsBuilder.toolCallbacks(toolCallbacks);
+            // 会话ID供工具结果缓存的会话层使用，取消令牌供并行工具调用中断工具线程，工具耗时从模型调用 RTT 中扣除
+            Map<String, Object> toolContext = new HashMap<>();
+            toolContext.put(AutoAgentCancellationToken.TOOL_CONTEXT_KEY, dynamicContext.getCancellationToken());
+            toolContext.put(LlmConcurrencyLimiter.TOOL_TIME_CONTEXT_KEY, toolNanos);
+            if (requestParameter.getSessionId() != null) {
+                toolContext.put(McpToolResultCache.SESSION_ID, requestParameter.getSessionId());
+            }
+            optionsBuilder.toolContext(toolContext);
         }
         
-        String executionResult = chatClient
+        // 流式接收，每个段落标题到达时发出上一段，第一个标题之前的内容归入执行过程
+        String sessionId = requestParameter.getSessionId();
+        StreamingSectionParser parser = new StreamingSectionParser(EXECUTION_SECTION_RULES, "execution_process",
+                (subType, content) -> sendExecutionSubResult(dynamicContext, subType, content, sessionId), null);
+        log.info("\n⚡ === 第 {} 步执行结果 ===", dynamicContext.getStep());
+        String executionResult = streamContent(dynamicContext, executorConfig.getClientId(), chatClient
                 .prompt(executionPrompt)
                 .options(optionsBuilder.build())
                 .advisors(a -> a
-                        .param("CHAT_MEMORY_CONVERSATION_ID", requestParameter.getSessionId())
-                        .param("CHAT_MEMORY_RETRIEVE_SIZE", 1024))
-                .call().content();
+                        .param(ChatMemory.CONVERSATION_ID, memoryConversationId(executorConfig.getClientId(), sessionId))
+                        .param("CHAT_MEMORY_RETRIEVE_SIZE", 1024)), parser, toolNanos);
 
-        // 解析执行结果并发送SSE
-        parseExecutionResult(dynamicContext, executionResult, requestParameter.getSessionId());
+        // 完整的执行结果在各段落之后发送
+        log.info("{}", executionResult);
+        sendExecutionSubResult(dynamicContext, "execution_process", executionResult, sessionId);
         
         // 将执行结果保存到动态上下文中
         dynamicContext.setValue("executionResult", executionResult);
@@ -83,13 +127,6 @@ public class Step2PrecisionExecutorNode extends AbstractExecuteSupport {
         return "EXECUTION_COMPLETED";
     }
 
-    @Override
-    public DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> 
-            get(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        // 路由到质量监督节点
-        return getExecuteHandler("step3QualitySupervisorNode");
-    }
-
     /**
      * 构建执行提示词
      */
@@ -134,97 +171,6 @@ public class Step2PrecisionExecutorNode extends AbstractExecuteSupport {
                 """, analysisResult);
     }
     
-    /**
-     * 解析执行结果并发送SSE
-     */
-    private void parseExecutionResult(DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext, 
-                                    String executionResult, String sessionId) {
-        int step = dynamicContext.getStep();
-        log.info("\n⚡ === 第 {} 步执行结果 ===", step);
-        log.info("{}", executionResult);
-        
-        // 先发送完整的执行结果
-        sendExecutionSubResult(dynamicContext, "execution_process", executionResult, sessionId);
-        
-        // 解析不同部分并分别发送
-        String[] lines = executionResult.split("\n");
-        String currentSection = "";
-        StringBuilder sectionContent = new StringBuilder();
-        
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-            
-            // 识别不同的执行部分
-            if (line.contains("执行目标:")) {
-                // 发送上一个section
-                sendExecutionSubResult(dynamicContext, getExecutionSubType(currentSection), sectionContent.toString(), sessionId);
-                currentSection = "target";
-                sectionContent = new StringBuilder();
-                log.info("\n🎯 执行目标:");
-                continue;
-            } else if (line.contains("执行过程:")) {
-                sendExecutionSubResult(dynamicContext, getExecutionSubType(currentSection), sectionContent.toString(), sessionId);
-                currentSection = "process";
-                sectionContent = new StringBuilder();
-                log.info("\n🔧 执行过程:");
-                continue;
-            } else if (line.contains("执行结果:")) {
-                sendExecutionSubResult(dynamicContext, getExecutionSubType(currentSection), sectionContent.toString(), sessionId);
-                currentSection = "result";
-                sectionContent = new StringBuilder();
-                log.info("\n📈 执行结果:");
-                continue;
-            } else if (line.contains("质量检查:")) {
-                sendExecutionSubResult(dynamicContext, getExecutionSubType(currentSection), sectionContent.toString(), sessionId);
-                currentSection = "quality";
-                sectionContent = new StringBuilder();
-                log.info("\n🔍 质量检查:");
-                continue;
-            }
-            
-            // 收集内容
-            sectionContent.append(line).append("\n");
-            
-            // 输出具体内容
-            switch (currentSection) {
-                case "target":
-                    log.info("   🎯 {}", line);
-                    break;
-                case "process":
-                    log.info("   ⚙️ {}", line);
-                    break;
-                case "result":
-                    log.info("   📊 {}", line);
-                    break;
-                case "quality":
-                    log.info("   ✅ {}", line);
-                    break;
-                default:
-                    if (!currentSection.isEmpty()) {
-                        log.info("   📝 {}", line);
-                    }
-                    break;
-            }
-        }
-        
-        // 发送最后一个section
-        sendExecutionSubResult(dynamicContext, getExecutionSubType(currentSection), sectionContent.toString(), sessionId);
-    }
-    
-    /**
-     * 获取执行阶段子类型
-     */
-    private String getExecutionSubType(String section) {
-        switch (section) {
-            case "target": return "execution_target";
-            case "process": return "execution_process";
-            case "result": return "execution_result";
-            case "quality": return "execution_quality";
-            default: return "execution_process";
-        }
-    }
-    
     /**
      * 发送执行阶段细分结果到流式输出
      */
@@ -273,44 +219,68 @@ public class Step2PrecisionExecutorNode extends AbstractExecuteSupport {
     }
     
     /**
-     * 获取指定客户端的MCP客户端
+     * 获取指定客户端的MCP工具回调
+     * 按客户端配置的MCP列表解析，结果由 McpToolCallbackCache 按客户端缓存，后续步骤无需再列举工具
+     * 配置了连接池的MCP返回池化回调，每次工具调用从连接池借出连接，并发会话不再共用同一条管道
      */
-    private McpSyncClient[] getMcpClientsForClient(String clientId) {
+    private ToolCallback[] getToolCallbacksForClient(String clientId) {
         try {
-            java.util.List<McpSyncClient> mcpClientList = new java.util.ArrayList<>();
-            
-            // 对于客户端3102，它有CSDN和FileSystem两个工具
-            if ("3102".equals(clientId)) {
-                // 尝试获取CSDN MCP客户端 (bean名称: ai_client_tool_mcp_5001)
-                try {
-                    Object csdnBean = getBean("ai_client_tool_mcp_5001");
-                    if (csdnBean instanceof McpSyncClient) {
-                        McpSyncClient csdnClient = (McpSyncClient) csdnBean;
-                        mcpClientList.add(csdnClient);
-                        log.info("✅ 成功获取CSDN MCP客户端");
-                    }
-                } catch (Exception e) {
-                    log.warn("⚠️ 无法获取CSDN MCP客户端: {}", e.getMessage());
-                }
-                
-                // 尝试获取FileSystem MCP客户端 (bean名称: ai_client_tool_mcp_5003) 
-                try {
-                    Object fileSystemBean = getBean("ai_client_tool_mcp_5003");
-                    if (fileSystemBean instanceof McpSyncClient) {
-                        McpSyncClient fileSystemClient = (McpSyncClient) fileSystemBean;
-                        mcpClientList.add(fileSystemClient);
-                        log.info("✅ 成功获取FileSystem MCP客户端");
-                    }
-                } catch (Exception e) {
-                    log.warn("⚠️ 无法获取FileSystem MCP客户端: {}", e.getMessage());
-                }
-            }
-            
-            return mcpClientList.toArray(new McpSyncClient[0]);
+            ToolCallback[] toolCallbacks = mcpToolCallbackCache.getClientToolCallbacks(clientId, () -> queryMcpBeanNames(clientId));
+            log.info("✅ 获取MCP工具回调: clientId={}, 工具数: {}, 已避免工具列举: {}次",
+                    clientId, toolCallbacks.length, mcpToolCallbackCache.queryMetrics().getToolListCallsAvoided());
+            return toolCallbacks;
         } catch (Exception e) {
-            log.error("❌ 获取MCP客户端时出错: {}", e.getMessage());
-            return new McpSyncClient[0];
+            log.error("❌ 获取MCP工具回调时出错: {}", e.getMessage());
+            return new ToolCallback[0];
+        }
+    }
+
+    /**
+     * 查询客户端配置的MCP Bean名称列表
+     */
+    private List<String> queryMcpBeanNames(String clientId) {
+        List<AiClientVO> aiClientVOList = repository.AiClientVOByClientIds(List.of(clientId));
+        if (aiClientVOList == null || aiClientVOList.isEmpty() || aiClientVOList.get(0).getMcpBeanNameList() == null) {
+            return List.of();
+        }
+        return aiClientVOList.get(0).getMcpBeanNameList();
+    }
+
+    /**
+     * 响应会话取消的工具回调
+     * 取消后抛出 CancellationException，不会作为工具错误交给模型重试，而是结束本次模型调用
+     */
+    private static class CancellableToolCallback implements ToolCallback {
+
+        private final ToolCallback delegate;
+
+        private final AutoAgentCancellationToken token;
+
+        private CancellableToolCallback(ToolCallback delegate, AutoAgentCancellationToken token) {
+            this.delegate = delegate;
+            this.token = token;
         }
+
+        @Override
+        public ToolDefinition getToolDefinition() {
+            return delegate.getToolDefinition();
+        }
+
+        @Override
+        public ToolMetadata getToolMetadata() {
+            return delegate.getToolMetadata();
+        }
+
+        @Override
+        public String call(String toolInput) {
+            return token.interruptible(() -> delegate.call(toolInput));
+        }
+
+        @Override
+        public String call(String toolInput, ToolContext toolContext) {
+            return token.interruptible(() -> delegate.call(toolInput, toolContext));
+        }
+
     }
 
 }
@@ -2,6 +2,7 @@ package site.kuril.domain.agent.service.execute;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.openai.OpenAiChatOptions;
 import site.kuril.domain.agent.model.entity.AutoAgentExecuteResultEntity;
 import org.springframework.stereotype.Service;
@@ -9,6 +10,9 @@ import site.kuril.domain.agent.model.entity.ExecuteCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentClientFlowConfigVO;
 import site.kuril.domain.agent.model.valobj.enums.AiClientTypeEnumVO;
 import site.kuril.domain.agent.service.execute.factory.DefaultAutoAgentExecuteStrategyFactory;
+import site.kuril.domain.agent.service.execute.stream.StreamingSectionParser;
+
+import java.util.List;
 
 // 移除静态导入，使用字符串常量
 
@@ -47,7 +51,12 @@ public class Step3QualitySupervisorNode extends AbstractExecuteSupport {
 
         // 执行质量监督
         log.info("🔍 开始质量监督检查...");
-        String supervisionResult = chatClient
+        // 流式接收，评分与通过状态所在行到达时立即发送
+        String sessionId = requestParameter.getSessionId();
+        StreamingSectionParser parser = new StreamingSectionParser(List.of(), null, null,
+                line -> onSupervisionLine(dynamicContext, line, sessionId));
+        log.info("\n🔍 === 第 {} 步监督结果 ===", dynamicContext.getStep());
+        String supervisionResult = streamContent(dynamicContext, supervisorConfig.getClientId(), chatClient
                 .prompt(supervisionPrompt)
                 .options(OpenAiChatOptions.builder()
                         .model("gpt-4o")
@@ -55,12 +64,12 @@ public class Step3QualitySupervisorNode extends AbstractExecuteSupport {
                         .temperature(0.2)
                         .build())
                 .advisors(a -> a
-                        .param("CHAT_MEMORY_CONVERSATION_ID", requestParameter.getSessionId())
-                        .param("CHAT_MEMORY_RETRIEVE_SIZE", 1024))
-                .call().content();
+                        .param(ChatMemory.CONVERSATION_ID, memoryConversationId(supervisorConfig.getClientId(), sessionId))
+                        .param("CHAT_MEMORY_RETRIEVE_SIZE", 1024)), parser);
 
-        // 解析监督结果并发送SSE
-        parseSupervisionResult(dynamicContext, supervisionResult, requestParameter.getSessionId());
+        // 完整的监督结果在评分与通过状态之后发送
+        log.info("{}", supervisionResult);
+        sendSupervisionSubResult(dynamicContext, "assessment", supervisionResult, sessionId);
         
         // 将监督结果保存到动态上下文中
         dynamicContext.setValue("supervisionResult", supervisionResult);
@@ -70,27 +79,10 @@ public class Step3QualitySupervisorNode extends AbstractExecuteSupport {
         
         // 更新完整的执行历史
         updateCompleteExecutionHistory(dynamicContext);
-        
-        // 增加步骤计数
-        dynamicContext.setStep(dynamicContext.getStep() + 1);
 
         return "SUPERVISION_COMPLETED";
     }
 
-    @Override
-    public DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> 
-            get(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        
-        // 如果任务已完成或达到最大步数，进入总结阶段
-        if (dynamicContext.isCompleted() || dynamicContext.getStep() > dynamicContext.getMaxStep()) {
-            return getExecuteHandler("step4LogExecutionSummaryNode");
-        }
-        
-        // 否则返回到Step1AnalyzerNode进行下一轮分析
-        log.info("🔄 准备进入下一轮分析执行循环");
-        return getExecuteHandler("step1AnalyzerNode");
-    }
-
     /**
      * 构建监督提示词
      */
@@ -120,49 +112,35 @@ public class Step3QualitySupervisorNode extends AbstractExecuteSupport {
     }
     
     /**
-     * 解析监督结果
+     * 解析监督结果的一行，识别质量评分与通过状态
      */
-    private void parseSupervisionResult(DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext, 
-                                      String supervisionResult, String sessionId) {
-        int step = dynamicContext.getStep();
-        log.info("\n🔍 === 第 {} 步监督结果 ===", step);
-        log.info("{}", supervisionResult);
-        
-        // 先发送完整的监督结果
-        sendSupervisionSubResult(dynamicContext, "assessment", supervisionResult, sessionId);
+    private void onSupervisionLine(DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext,
+                                   String line, String sessionId) {
+        // 检查质量评分
+        if (line.contains("质量评分:") || line.contains("评分:")) {
+            String score = extractAfterColon(line);
+            log.info("\n📊 质量评分: {}", score);
+            sendSupervisionSubResult(dynamicContext, "score", "质量评分: " + score, sessionId);
+        }
         
-        // 简化版本解析 - 确保所有内容都能发送
-        String[] lines = supervisionResult.split("\n");
-        for (String line : lines) {
-            line = line.trim();
-            if (line.isEmpty()) continue;
-            
-            // 检查质量评分
-            if (line.contains("质量评分:") || line.contains("评分:")) {
-                String score = extractAfterColon(line);
-                log.info("\n📊 质量评分: {}", score);
-                sendSupervisionSubResult(dynamicContext, "score", "质量评分: " + score, sessionId);
-            }
-            
-            // 检查通过状态
-            if (line.contains("是否通过:") || line.contains("通过:")) {
-                String status = extractAfterColon(line);
-                switch (status.toUpperCase()) {
-                    case "PASS":
-                        log.info("\n✅ 检查结果: 通过");
-                        break;
-                    case "FAIL":
-                        log.info("\n❌ 检查结果: 未通过");
-                        break;
-                    case "OPTIMIZE":
-                        log.info("\n🔧 检查结果: 需要优化");
-                        break;
-                    default:
-                        log.info("\n❓ 检查结果: {}", status);
-                        break;
-                }
-                sendSupervisionSubResult(dynamicContext, "pass", "检查结果: " + status, sessionId);
+        // 检查通过状态
+        if (line.contains("是否通过:") || line.contains("通过:")) {
+            String status = extractAfterColon(line);
+            switch (status.toUpperCase()) {
+                case "PASS":
+                    log.info("\n✅ 检查结果: 通过");
+                    break;
+                case "FAIL":
+                    log.info("\n❌ 检查结果: 未通过");
+                    break;
+                case "OPTIMIZE":
+                    log.info("\n🔧 检查结果: 需要优化");
+                    break;
+                default:
+                    log.info("\n❓ 检查结果: {}", status);
+                    break;
             }
+            sendSupervisionSubResult(dynamicContext, "pass", "检查结果: " + status, sessionId);
         }
     }
     
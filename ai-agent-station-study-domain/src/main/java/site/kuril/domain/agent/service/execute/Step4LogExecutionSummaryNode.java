@@ -2,7 +2,9 @@ package site.kuril.domain.agent.service.execute;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.memory.ChatMemory;
 import org.springframework.ai.openai.OpenAiChatOptions;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import site.kuril.domain.agent.model.entity.AutoAgentExecuteResultEntity;
@@ -10,8 +12,11 @@ import site.kuril.domain.agent.model.entity.ExecuteCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentClientFlowConfigVO;
 import site.kuril.domain.agent.model.valobj.enums.AiClientTypeEnumVO;
 import site.kuril.domain.agent.service.execute.factory.DefaultAutoAgentExecuteStrategyFactory;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationToken;
+import site.kuril.domain.agent.service.execute.stream.SseChunkForwarder;
 
 import java.util.Map;
+import java.util.concurrent.CancellationException;
 
 // 移除静态导入，使用字符串常量
 
@@ -23,6 +28,30 @@ import java.util.Map;
 @Service("step4LogExecutionSummaryNode")
 public class Step4LogExecutionSummaryNode extends AbstractExecuteSupport {
 
+    /**
+     * 最终答案是否流式直通到前端
+     */
+    @Value("${spring.ai.agent.execute.final-answer.streaming:true}")
+    private boolean finalAnswerStreaming;
+
+    /**
+     * 分块合并字节阈值，不大于 0 时不按字节合并
+     */
+    @Value("${spring.ai.agent.execute.final-answer.coalesce-bytes:256}")
+    private int finalAnswerCoalesceBytes;
+
+    /**
+     * 分块合并时间阈值(毫秒)，不大于 0 时不按时间合并
+     */
+    @Value("${spring.ai.agent.execute.final-answer.coalesce-ms:50}")
+    private long finalAnswerCoalesceMillis;
+
+    /**
+     * 流式发送时是否拼接完整答案并写入上下文 finalAnswer，供下游读取；会话记忆由 advisor 自行聚合流式输出，不依赖此项
+     */
+    @Value("${spring.ai.agent.execute.final-answer.materialize:false}")
+    private boolean finalAnswerMaterialize;
+
     @Override
     protected String doApply(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
         log.info("\n📊 === 执行第 {} 步：执行总结分析 ===", dynamicContext.getStep());
@@ -50,13 +79,6 @@ public class Step4LogExecutionSummaryNode extends AbstractExecuteSupport {
         return "AUTO_AGENT_EXECUTION_SUMMARY_COMPLETED";
     }
 
-    @Override
-    public DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> 
-            get(ExecuteCommandEntity requestParameter, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) throws Exception {
-        // 总结节点是最后一个节点，返回默认处理器表示执行结束
-        return defaultStrategyHandler;
-    }
-    
     /**
      * 记录执行总结统计信息
      */
@@ -292,15 +314,26 @@ public class Step4LogExecutionSummaryNode extends AbstractExecuteSupport {
                 }
             }
             
-            ChatClient chatClient = getChatClientByClientId(summaryConfig.getClientId());
-            String finalAnswer = chatClient
+            String summaryClientId = summaryConfig.getClientId();
+            ChatClient chatClient = getChatClientByClientId(summaryClientId);
+            ChatClient.ChatClientRequestSpec requestSpec = chatClient
                     .prompt(finalAnswerPrompt)
                     .options(OpenAiChatOptions.builder()
                             .model("gpt-4o")
                             .maxTokens(3000)
                             .temperature(0.7)
                             .build())
-                    .call().content();
+                    .advisors(a -> a.param(ChatMemory.CONVERSATION_ID,
+                            memoryConversationId(summaryClientId, requestParameter.getSessionId())));
+
+            // 流式直通：模型分块边生成边发送到前端
+            if (finalAnswerStreaming) {
+                streamFinalAnswer(summaryConfig.getClientId(), requestSpec, requestParameter, dynamicContext);
+                return;
+            }
+
+            String finalAnswer = callContent(dynamicContext, summaryConfig.getClientId(), requestSpec);
+            dynamicContext.setValue("finalAnswer", finalAnswer);
             
             log.info("📝 最终答案已生成");
             
@@ -308,6 +341,9 @@ public class Step4LogExecutionSummaryNode extends AbstractExecuteSupport {
             sendSseResult(dynamicContext, AutoAgentExecuteResultEntity.createSummarySubResult(4, "final_answer", 
                     finalAnswer, requestParameter.getSessionId()));
             
+        } catch (CancellationException e) {
+            // 会话已取消，不再降级生成答案
+            throw e;
         } catch (Exception e) {
             log.error("生成最终答案时出现异常", e);
             sendSseResult(dynamicContext, AutoAgentExecuteResultEntity.createErrorResult(4,
@@ -317,6 +353,56 @@ public class Step4LogExecutionSummaryNode extends AbstractExecuteSupport {
         }
     }
     
+    /**
+     * 流式发送最终答案
+     * 分块按字节与时间阈值合并后以 final_answer_delta 发送，前端边收边追加；结束后只发送不带内容的 final_answer_done 标识，
+     * 开启 materialize 时才拼接完整答案保存到上下文。
+     * 已发送过分块后出错时只发送错误，不再降级重新生成，避免前端在残缺答案之后又收到一份完整答案
+     */
+    private void streamFinalAnswer(String clientId, ChatClient.ChatClientRequestSpec requestSpec, ExecuteCommandEntity requestParameter,
+                                   DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext) {
+        String sessionId = requestParameter.getSessionId();
+        SseChunkForwarder forwarder = new SseChunkForwarder(
+                chunk -> sendSseResult(dynamicContext, AutoAgentExecuteResultEntity.createSummarySubResult(4, "final_answer_delta", chunk, sessionId)),
+                finalAnswerCoalesceBytes, finalAnswerCoalesceMillis, finalAnswerMaterialize);
+
+        AutoAgentCancellationToken token = dynamicContext.getCancellationToken();
+        long start = System.currentTimeMillis();
+        try {
+            llmConcurrencyLimiter.execute(clientId, token, permit -> {
+                token.interruptible(() -> token.bind(requestSpec.stream().content())
+                        .doOnNext(chunk -> {
+                            permit.firstChunk();
+                            forwarder.accept(chunk);
+                        })
+                        .blockLast());
+                token.throwIfCancelled();
+                return null;
+            });
+        } catch (CancellationException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            forwarder.complete();
+            if (forwarder.getSendCount() == 0) {
+                // 尚未发送任何分块，由调用方降级生成
+                throw e;
+            }
+            log.error("最终答案流式发送中断: 已发送 {} 次", forwarder.getSendCount(), e);
+            sendSseResult(dynamicContext, AutoAgentExecuteResultEntity.createErrorResult(4,
+                    "最终答案生成中断: " + e.getMessage(), sessionId));
+            return;
+        }
+        forwarder.complete();
+        log.info("📝 最终答案流式发送完成: 首块耗时: {}ms, 总耗时: {}ms, 模型分块: {}, SSE发送: {}",
+                forwarder.getFirstChunkMillis(), System.currentTimeMillis() - start, forwarder.getChunkCount(), forwarder.getSendCount());
+
+        dynamicContext.recordLlmOutput(forwarder.getAnswerChars());
+        if (finalAnswerMaterialize) {
+            dynamicContext.setValue("finalAnswer", forwarder.getAnswer());
+        }
+        sendSseResult(dynamicContext, AutoAgentExecuteResultEntity.createSummarySubResult(4, "final_answer_done", "", sessionId));
+    }
+
     /**
      * 生成智能的直接答案 - 使用AI总结
      */
@@ -374,14 +460,15 @@ public class Step4LogExecutionSummaryNode extends AbstractExecuteSupport {
                         "基于专业知识和常识回答");
             
             ChatClient chatClient = getChatClientByClientId(availableConfig.getClientId());
-            String smartAnswer = chatClient
+            String smartAnswer = callContent(dynamicContext, availableConfig.getClientId(), chatClient
                     .prompt(smartSummaryPrompt)
                     .options(OpenAiChatOptions.builder()
                             .model("gpt-4o")
                             .maxTokens(2000)
                             .temperature(0.3)  // 较低温度，确保答案准确
                             .build())
-                    .call().content();
+                    .advisors(a -> a.param(ChatMemory.CONVERSATION_ID,
+                            memoryConversationId(availableConfig.getClientId(), requestParameter.getSessionId()))));
             
             log.info("✅ AI智能总结答案生成完成");
             
@@ -389,6 +476,8 @@ public class Step4LogExecutionSummaryNode extends AbstractExecuteSupport {
             sendSseResult(dynamicContext, AutoAgentExecuteResultEntity.createSummarySubResult(4, "final_answer", 
                     smartAnswer, requestParameter.getSessionId()));
                     
+        } catch (CancellationException e) {
+            throw e;
         } catch (Exception e) {
             log.error("AI智能总结时出现异常", e);
             sendSseResult(dynamicContext, AutoAgentExecuteResultEntity.createErrorResult(4,
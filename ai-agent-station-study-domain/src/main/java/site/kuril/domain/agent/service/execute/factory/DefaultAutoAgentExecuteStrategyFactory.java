@@ -1,35 +1,209 @@
 package site.kuril.domain.agent.service.execute.factory;
 
 import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import site.kuril.domain.agent.model.entity.ExecuteCommandEntity;
 import site.kuril.domain.agent.model.valobj.AiAgentClientFlowConfigVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentExecuteTransitionVO;
+import site.kuril.domain.agent.model.valobj.enums.AutoAgentExecuteStateEnumVO;
+import site.kuril.domain.agent.service.execute.AbstractExecuteSupport;
 import site.kuril.domain.agent.service.execute.RootNode;
+import site.kuril.domain.agent.service.execute.Step1AnalyzerNode;
+import site.kuril.domain.agent.service.execute.Step2PrecisionExecutorNode;
+import site.kuril.domain.agent.service.execute.Step3QualitySupervisorNode;
+import site.kuril.domain.agent.service.execute.Step4LogExecutionSummaryNode;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationMonitor;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationToken;
 
+import javax.annotation.PostConstruct;
 import javax.annotation.Resource;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * 默认AutoAgent执行策略工厂
- * 用于管理AutoAgent的多轮对话执行流程
+ * 用于管理AutoAgent的多轮对话执行流程：以显式循环驱动状态机，每次只执行一个节点，
+ * 再由当前状态与上下文决定下一个状态；轮次顺序取自 ai_agent_flow_config 的 sequence
  */
+@Slf4j
 @Component
 public class DefaultAutoAgentExecuteStrategyFactory {
 
     @Resource(name = "executeRootNode")
     private RootNode rootNode;
 
+    @Resource
+    private Step1AnalyzerNode step1AnalyzerNode;
+
+    @Resource
+    private Step2PrecisionExecutorNode step2PrecisionExecutorNode;
+
+    @Resource
+    private Step3QualitySupervisorNode step3QualitySupervisorNode;
+
+    @Resource
+    private Step4LogExecutionSummaryNode step4LogExecutionSummaryNode;
+
+    @Resource
+    private AutoAgentCancellationMonitor autoAgentCancellationMonitor;
+
+    /**
+     * 流程配置尚未加载时，一轮内状态数按分析、执行、监督计
+     */
+    private static final int ROUND_STATE_COUNT = 3;
+
+    /**
+     * 状态对应的执行节点
+     */
+    private final Map<AutoAgentExecuteStateEnumVO, AbstractExecuteSupport> nodeMap = new EnumMap<>(AutoAgentExecuteStateEnumVO.class);
+
+    @PostConstruct
+    public void init() {
+        nodeMap.put(AutoAgentExecuteStateEnumVO.ROOT, rootNode);
+        nodeMap.put(AutoAgentExecuteStateEnumVO.ANALYZE, step1AnalyzerNode);
+        nodeMap.put(AutoAgentExecuteStateEnumVO.EXECUTE, step2PrecisionExecutorNode);
+        nodeMap.put(AutoAgentExecuteStateEnumVO.SUPERVISE, step3QualitySupervisorNode);
+        nodeMap.put(AutoAgentExecuteStateEnumVO.SUMMARY, step4LogExecutionSummaryNode);
+    }
+
     /**
      * 获取策略处理器
      */
     public StrategyHandler<ExecuteCommandEntity, DynamicContext, String> armoryStrategyHandler() {
-        return new StrategyHandler<ExecuteCommandEntity, DynamicContext, String>() {
-            @Override
-            public String apply(ExecuteCommandEntity entity, DynamicContext context) throws Exception {
-                return rootNode.process(entity, context);
+        return this::execute;
+    }
+
+    /**
+     * 状态机主循环：每次状态转换前检查取消令牌；节点内的模型调用与工具调用在取消时被中止并抛出 CancellationException
+     */
+    private String execute(ExecuteCommandEntity entity, DynamicContext context) throws Exception {
+        AutoAgentExecuteStateEnumVO state = AutoAgentExecuteStateEnumVO.ROOT;
+        while (!state.isTerminal()) {
+            if (context.isCancelled()) {
+                return cancel(entity, context, state, false);
             }
-        };
+
+            context.setState(state);
+            long start = System.currentTimeMillis();
+            int step = context.getStep();
+            String result;
+            try {
+                result = nodeMap.get(state).apply(entity, context);
+            } catch (CancellationException e) {
+                if (!context.isCancelled()) {
+                    throw e;
+                }
+                return cancel(entity, context, state, true);
+            }
+            long durationMillis = System.currentTimeMillis() - start;
+
+            AutoAgentExecuteStateEnumVO nextState = transition(state, context);
+            context.getTransitions().add(AutoAgentExecuteTransitionVO.builder()
+                    .state(state)
+                    .nextState(nextState)
+                    .step(step)
+                    .result(result)
+                    .durationMillis(durationMillis)
+                    .build());
+            log.info("🔄 状态转换: {} -> {}, 步数: {}, 结果: {}, 耗时: {}ms",
+                    state.getCode(), nextState.getCode(), step, result, durationMillis);
+            state = nextState;
+        }
+
+        context.setState(state);
+        log.info("✅ 执行链路完成");
+        return "EXECUTION_CHAIN_COMPLETED";
+    }
+
+    /**
+     * 结束已取消的执行，并统计未执行的步数与模型调用
+     * @param state 取消时所处的状态
+     * @param started 该状态的节点是否已开始执行（被中止）
+     */
+    private String cancel(ExecuteCommandEntity entity, DynamicContext context, AutoAgentExecuteStateEnumVO state, boolean started) {
+        context.setState(AutoAgentExecuteStateEnumVO.CANCELLED);
+        AutoAgentCancellationToken token = context.getCancellationToken();
+
+        int savedSteps = 0;
+        int savedLlmCalls;
+        if (state == AutoAgentExecuteStateEnumVO.SUMMARY) {
+            savedLlmCalls = started ? 0 : 1;
+        } else {
+            // 总结尚未开始，必然省下一次调用
+            savedLlmCalls = 1;
+            if (!context.isCompleted()) {
+                List<AutoAgentExecuteStateEnumVO> roundStates = context.getRoundStates();
+                int roundSize = roundStates != null ? roundStates.size() : ROUND_STATE_COUNT;
+                int index = roundStates != null ? roundStates.indexOf(state) : -1;
+                int remainingInRound = index < 0 ? roundSize : roundSize - index - (started ? 1 : 0);
+                int remainingRounds = Math.max(0, context.getMaxStep() - context.getStep());
+                savedSteps = remainingRounds + (remainingInRound == roundSize ? 1 : 0);
+                savedLlmCalls += remainingInRound + remainingRounds * roundSize;
+            }
+        }
+        boolean abortedLlmCall = started && state.getClientType() != null;
+
+        long cancelLatencyMillis = System.currentTimeMillis() - token.getCancelledAtMillis();
+        long savedTokens = autoAgentCancellationMonitor.record(token.getReason(), cancelLatencyMillis, abortedLlmCall,
+                savedSteps, savedLlmCalls, context.getLlmCallCount().get(), context.getLlmOutputChars().get());
+        log.info("⏹️ 执行已取消, sessionId: {}, 原因: {}, 取消时状态: {}, 步数: {}, 中止进行中调用: {}, 省下步数: {}, 省下模型调用: {}, 估算省下token: {}, 取消耗时: {}ms",
+                entity.getSessionId(), token.getReason(), state.getCode(), context.getStep(), abortedLlmCall,
+                savedSteps, savedLlmCalls, savedTokens, cancelLatencyMillis);
+        return "EXECUTION_CANCELLED";
+    }
+
+    /**
+     * 计算下一个状态
+     * 初始化后进入第一个轮次状态；轮次状态在任务完成或超过最大步数时进入总结，否则按流程配置顺序前进，
+     * 一轮的最后一个状态结束时步数加一并回到第一个轮次状态；总结之后结束
+     */
+    private AutoAgentExecuteStateEnumVO transition(AutoAgentExecuteStateEnumVO state, DynamicContext context) {
+        if (state == AutoAgentExecuteStateEnumVO.SUMMARY) {
+            return AutoAgentExecuteStateEnumVO.DONE;
+        }
+
+        if (state == AutoAgentExecuteStateEnumVO.ROOT) {
+            List<AutoAgentExecuteStateEnumVO> roundStates = resolveRoundStates(context.getAiAgentClientFlowConfigVOMap());
+            if (roundStates.isEmpty()) {
+                throw new IllegalStateException("智能体流程配置中没有可执行的步骤: " + context.getAiAgentClientFlowConfigVOMap().keySet());
+            }
+            log.info("📋 执行轮次顺序: {}", roundStates);
+            context.setRoundStates(roundStates);
+            return roundStates.get(0);
+        }
+
+        List<AutoAgentExecuteStateEnumVO> roundStates = context.getRoundStates();
+        int index = roundStates.indexOf(state);
+        if (index == roundStates.size() - 1) {
+            context.setStep(context.getStep() + 1);
+        }
+
+        // 如果任务已完成或达到最大步数，进入总结阶段
+        if (context.isCompleted() || context.getStep() > context.getMaxStep()) {
+            return AutoAgentExecuteStateEnumVO.SUMMARY;
+        }
+
+        return roundStates.get((index + 1) % roundStates.size());
+    }
+
+    /**
+     * 按 sequence 排列流程配置中的分析、执行、监督客户端，得到一轮内的状态顺序
+     */
+    private List<AutoAgentExecuteStateEnumVO> resolveRoundStates(Map<String, AiAgentClientFlowConfigVO> flowConfigMap) {
+        return flowConfigMap.values().stream()
+                .sorted(Comparator.comparing(AiAgentClientFlowConfigVO::getSequence, Comparator.nullsLast(Comparator.naturalOrder())))
+                .map(config -> AutoAgentExecuteStateEnumVO.getRoundStateByClientType(config.getClientType()))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
     }
 
     /**
@@ -45,42 +219,97 @@ public class DefaultAutoAgentExecuteStrategyFactory {
      */
     @Data
     public static class DynamicContext {
-        
+
         /**
          * 通用数据存储
          */
         private final Map<String, Object> contextData = new ConcurrentHashMap<>();
-        
+
         /**
          * AI智能体客户端流程配置Map
          */
         private Map<String, AiAgentClientFlowConfigVO> aiAgentClientFlowConfigVOMap;
-        
+
         /**
          * 执行历史记录
          */
         private StringBuilder executionHistory;
-        
+
         /**
          * 当前任务描述
          */
         private String currentTask;
-        
+
         /**
          * 当前执行步数
          */
         private int step = 1;
-        
+
         /**
          * 最大执行步数
          */
         private int maxStep;
-        
+
         /**
          * 任务是否已完成
          */
         private boolean completed = false;
 
+        /**
+         * 状态机当前状态
+         */
+        private volatile AutoAgentExecuteStateEnumVO state;
+
+        /**
+         * 一轮内的状态顺序，由流程配置决定
+         */
+        private List<AutoAgentExecuteStateEnumVO> roundStates;
+
+        /**
+         * 状态转换记录
+         */
+        private final List<AutoAgentExecuteTransitionVO> transitions = new CopyOnWriteArrayList<>();
+
+        /**
+         * 会话取消令牌，SSE 连接断开时由其他线程取消
+         */
+        private volatile AutoAgentCancellationToken cancellationToken = new AutoAgentCancellationToken();
+
+        /**
+         * 已完成的模型调用数，用于估算取消后节省的 token
+         */
+        private final AtomicLong llmCallCount = new AtomicLong();
+
+        /**
+         * 已完成的模型调用输出字符数
+         */
+        private final AtomicLong llmOutputChars = new AtomicLong();
+
+        /**
+         * 是否已取消
+         */
+        public boolean isCancelled() {
+            return cancellationToken.isCancelled();
+        }
+
+        /**
+         * 记录一次完成的模型调用
+         */
+        public void recordLlmOutput(String output) {
+            llmCallCount.incrementAndGet();
+            if (output != null) {
+                llmOutputChars.addAndGet(output.length());
+            }
+        }
+
+        /**
+         * 记录一次完成的模型调用，流式输出未拼接完整内容时只按字符数记录
+         */
+        public void recordLlmOutput(long outputChars) {
+            llmCallCount.incrementAndGet();
+            llmOutputChars.addAndGet(outputChars);
+        }
+
         /**
          * 存储键值对数据
          */
@@ -114,6 +343,12 @@ public class DefaultAutoAgentExecuteStrategyFactory {
             step = 1;
             maxStep = 0;
             completed = false;
+            state = null;
+            roundStates = null;
+            transitions.clear();
+            cancellationToken = new AutoAgentCancellationToken();
+            llmCallCount.set(0);
+            llmOutputChars.set(0);
         }
 
         /**
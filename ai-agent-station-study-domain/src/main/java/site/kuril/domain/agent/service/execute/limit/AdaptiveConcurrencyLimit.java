@@ -0,0 +1,162 @@
+package site.kuril.domain.agent.service.execute.limit;
+
+import site.kuril.domain.agent.model.valobj.LlmConcurrencyLimitMetricsVO;
+
+/**
+ * 自适应并发上限（梯度算法 + 过载时乘性退避）
+ * 以长期 RTT 均值作为无负载基线，与短期 RTT 均值之比作为梯度：短期 RTT 升高时按比例收窄上限，RTT 平稳时每次放宽约 sqrt(limit)；
+ * 限流、服务端错误与超时时按退避系数乘性收窄。并发数远低于上限时不放宽，避免空闲期上限虚高。线程安全
+ */
+public class AdaptiveConcurrencyLimit {
+
+    /**
+     * 短期 RTT 平滑系数
+     */
+    private static final double SHORT_RTT_ALPHA = 0.3;
+
+    /**
+     * 长期 RTT 平滑系数，约 100 个样本
+     */
+    private static final double LONG_RTT_ALPHA = 0.02;
+
+    private final String key;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double smoothing;
+
+    private final double rttTolerance;
+
+    private final double backoffRatio;
+
+    private double limit;
+
+    private int inFlight;
+
+    private int waiting;
+
+    private double shortRttMillis;
+
+    private double longRttMillis;
+
+    private long lastRttMillis;
+
+    private long successCount;
+
+    private long overloadCount;
+
+    private long shedCount;
+
+    /**
+     * @param key 限流维度，如 API baseUrl
+     * @param initialLimit 初始并发上限
+     * @param minLimit 并发上限下限
+     * @param maxLimit 并发上限上限
+     * @param smoothing 上限调整平滑系数，(0, 1]，越大调整越快
+     * @param rttTolerance RTT 容忍倍数，短期 RTT 不超过基线的该倍数时不收窄
+     * @param backoffRatio 过载时的乘性退避系数，(0, 1)
+     */
+    public AdaptiveConcurrencyLimit(String key, int initialLimit, int minLimit, int maxLimit,
+                                    double smoothing, double rttTolerance, double backoffRatio) {
+        this.key = key;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.smoothing = smoothing;
+        this.rttTolerance = rttTolerance;
+        this.backoffRatio = backoffRatio;
+        this.limit = clamp(initialLimit);
+    }
+
+    /**
+     * 获取并发许可，达到上限时最多等待 timeoutMillis，仍无许可则计为削减
+     * @return 是否获取到许可
+     */
+    public synchronized boolean acquire(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + Math.max(0, timeoutMillis);
+        while (inFlight >= (int) limit) {
+            long remaining = deadline - System.currentTimeMillis();
+            if (remaining <= 0) {
+                shedCount++;
+                return false;
+            }
+            waiting++;
+            try {
+                wait(remaining);
+            } finally {
+                waiting--;
+            }
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * 调用成功，按 RTT 样本调整上限
+     */
+    public synchronized void onSuccess(long rttMillis) {
+        int inFlightBefore = inFlight;
+        inFlight--;
+        successCount++;
+        lastRttMillis = rttMillis;
+
+        double rtt = Math.max(1, rttMillis);
+        shortRttMillis = shortRttMillis == 0 ? rtt : shortRttMillis * (1 - SHORT_RTT_ALPHA) + rtt * SHORT_RTT_ALPHA;
+        longRttMillis = longRttMillis == 0 ? rtt : longRttMillis * (1 - LONG_RTT_ALPHA) + rtt * LONG_RTT_ALPHA;
+        // 过载结束后 RTT 回落时加速基线回落，不必等长期均值慢慢衰减
+        if (longRttMillis > shortRttMillis * 2) {
+            longRttMillis *= 0.95;
+        }
+
+        // 远未用满上限时 RTT 不反映容量，不调整
+        if (inFlightBefore >= limit / 2) {
+            double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRttMillis / shortRttMillis));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            limit = clamp(limit * (1 - smoothing) + newLimit * smoothing);
+        }
+        notifyAll();
+    }
+
+    /**
+     * 调用过载（限流、服务端错误、超时），乘性收窄上限
+     */
+    public synchronized void onOverload() {
+        inFlight--;
+        overloadCount++;
+        limit = clamp(limit * backoffRatio);
+        notifyAll();
+    }
+
+    /**
+     * 与服务端负载无关的失败，只释放许可
+     */
+    public synchronized void onIgnore() {
+        inFlight--;
+        notifyAll();
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized LlmConcurrencyLimitMetricsVO queryMetrics() {
+        return LlmConcurrencyLimitMetricsVO.builder()
+                .baseUrl(key)
+                .limit((int) limit)
+                .inFlight(inFlight)
+                .waiting(waiting)
+                .rttMillis(Math.round(shortRttMillis))
+                .rttNoLoadMillis(Math.round(longRttMillis))
+                .lastRttMillis(lastRttMillis)
+                .successCount(successCount)
+                .overloadCount(overloadCount)
+                .shedCount(shedCount)
+                .build();
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+}
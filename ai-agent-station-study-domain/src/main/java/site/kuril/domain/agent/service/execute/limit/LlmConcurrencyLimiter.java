@@ -0,0 +1,247 @@
+package site.kuril.domain.agent.service.execute.limit;
+
+import io.netty.handler.timeout.ReadTimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.retry.TransientAiException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import site.kuril.domain.agent.adapter.port.IAgentRepository;
+import site.kuril.domain.agent.model.valobj.AiClientApiVO;
+import site.kuril.domain.agent.model.valobj.LlmConcurrencyLimitMetricsVO;
+import site.kuril.domain.agent.service.armory.registry.AiClientRuntimeRegistry;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationToken;
+
+import javax.annotation.Resource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 模型调用自适应限流器
+ * 执行节点的每次 ChatClient 调用按客户端所属 ai_client_api 的 baseUrl 取得并发许可，同一服务商的全部客户端共享一个自适应上限；
+ * 服务商变慢或返回 429/5xx 时上限收窄，等待许可超时的调用直接失败，不再继续压向已经降级的服务商；等待中的会话被取消时立即放弃等待。
+ * 带工具的调用在模型内部的工具调用循环期间一直占用许可，慢的 MCP 工具会占用服务商的并发名额；
+ * 工具耗时通过 {@link #TOOL_TIME_CONTEXT_KEY} 累计并从 RTT 样本中扣除，上限不会因 MCP 变慢而收窄
+ */
+@Slf4j
+@Component
+public class LlmConcurrencyLimiter {
+
+    private static final String UNKNOWN_BASE_URL = "unknown";
+
+    /**
+     * 工具上下文中累计工具调用耗时(纳秒)的 AtomicLong
+     */
+    public static final String TOOL_TIME_CONTEXT_KEY = "llm_tool_time_nanos";
+
+    @Resource
+    private IAgentRepository repository;
+
+    @Resource
+    private AiClientRuntimeRegistry aiClientRuntimeRegistry;
+
+    @Value("${spring.ai.agent.llm-limiter.enabled:true}")
+    private boolean enabled;
+
+    @Value("${spring.ai.agent.llm-limiter.initial-limit:20}")
+    private int initialLimit;
+
+    @Value("${spring.ai.agent.llm-limiter.min-limit:2}")
+    private int minLimit;
+
+    @Value("${spring.ai.agent.llm-limiter.max-limit:100}")
+    private int maxLimit;
+
+    @Value("${spring.ai.agent.llm-limiter.smoothing:0.2}")
+    private double smoothing;
+
+    @Value("${spring.ai.agent.llm-limiter.rtt-tolerance:1.5}")
+    private double rttTolerance;
+
+    @Value("${spring.ai.agent.llm-limiter.backoff-ratio:0.9}")
+    private double backoffRatio;
+
+    @Value("${spring.ai.agent.llm-limiter.acquire-timeout-ms:10000}")
+    private long acquireTimeoutMillis;
+
+    /**
+     * 并发上限，key为API baseUrl
+     */
+    private final Map<String, AdaptiveConcurrencyLimit> limitMap = new ConcurrentHashMap<>();
+
+    /**
+     * 客户端所属的 baseUrl，key为clientId；注册表发布新一代后重新查询
+     */
+    private final Map<String, BaseUrlEntry> baseUrlMap = new ConcurrentHashMap<>();
+
+    /**
+     * 在并发许可内执行一次模型调用
+     * @param clientId 客户端ID
+     * @param token 会话取消令牌，等待许可期间取消时立即放弃等待；为 null 时不检查
+     * @param call 模型调用，流式调用收到首个分块时调用 {@link Permit#firstChunk()}，以首块耗时作为 RTT 样本
+     * @return 调用结果
+     * @throws CancellationException 等待许可期间会话已取消
+     */
+    public <T> T execute(String clientId, AutoAgentCancellationToken token, Function<Permit, T> call) {
+        Permit permit = new Permit();
+        if (!enabled) {
+            return call.apply(permit);
+        }
+
+        String baseUrl = resolveBaseUrl(clientId);
+        AdaptiveConcurrencyLimit limit = limitMap.computeIfAbsent(baseUrl, key ->
+                new AdaptiveConcurrencyLimit(key, initialLimit, minLimit, maxLimit, smoothing, rttTolerance, backoffRatio));
+        // 等待许可的线程登记到取消令牌，取消时被中断
+        boolean acquired = token != null ? token.interruptible(() -> acquire(limit, baseUrl)) : acquire(limit, baseUrl);
+        if (!acquired) {
+            log.warn("模型服务并发已满，削减调用: clientId={}, baseUrl={}, limit={}", clientId, baseUrl, limit.getLimit());
+            throw new IllegalStateException("模型服务繁忙，已限流: " + baseUrl);
+        }
+
+        permit.start();
+        try {
+            T result = call.apply(permit);
+            limit.onSuccess(permit.rttMillis());
+            return result;
+        } catch (RuntimeException | Error e) {
+            if (isOverload(e)) {
+                limit.onOverload();
+                log.warn("模型服务过载，收窄并发上限: baseUrl={}, limit={}, error={}", baseUrl, limit.getLimit(), e.getMessage());
+            } else {
+                limit.onIgnore();
+            }
+            throw e;
+        }
+    }
+
+    private boolean acquire(AdaptiveConcurrencyLimit limit, String baseUrl) {
+        try {
+            return limit.acquire(acquireTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待模型调用许可被中断: " + baseUrl, e);
+        }
+    }
+
+    public List<LlmConcurrencyLimitMetricsVO> queryMetrics() {
+        return limitMap.values().stream()
+                .map(AdaptiveConcurrencyLimit::queryMetrics)
+                .toList();
+    }
+
+    private String resolveBaseUrl(String clientId) {
+        long version = aiClientRuntimeRegistry.current().getVersion();
+        BaseUrlEntry entry = baseUrlMap.get(clientId);
+        if (entry != null && entry.version() == version) {
+            return entry.baseUrl();
+        }
+
+        String baseUrl = UNKNOWN_BASE_URL;
+        try {
+            List<AiClientApiVO> aiClientApiList = repository.queryAiClientApiVOListByClientIds(List.of(clientId));
+            if (aiClientApiList != null && !aiClientApiList.isEmpty() && aiClientApiList.get(0).getBaseUrl() != null) {
+                baseUrl = normalize(aiClientApiList.get(0).getBaseUrl());
+            }
+        } catch (Exception e) {
+            log.warn("查询客户端API配置失败: clientId={}, error={}", clientId, e.getMessage());
+        }
+        baseUrlMap.put(clientId, new BaseUrlEntry(baseUrl, version));
+        return baseUrl;
+    }
+
+    private static String normalize(String baseUrl) {
+        String url = baseUrl.trim();
+        while (url.endsWith("/")) {
+            url = url.substring(0, url.length() - 1);
+        }
+        return url;
+    }
+
+    /**
+     * 是否为服务端过载：429、5xx、超时；只按异常类型与状态码判断，不匹配异常消息
+     */
+    private static boolean isOverload(Throwable throwable) {
+        // 会话取消中止的调用与服务端负载无关
+        if (throwable instanceof CancellationException) {
+            return false;
+        }
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof WebClientResponseException e) {
+                return e.getStatusCode().value() == 429 || e.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof RestClientResponseException e) {
+                return e.getStatusCode().value() == 429 || e.getStatusCode().is5xxServerError();
+            }
+            if (cause instanceof TimeoutException || cause instanceof ReadTimeoutException) {
+                return true;
+            }
+            // Spring AI 将 5xx 转换为 TransientAiException
+            if (cause instanceof TransientAiException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record BaseUrlEntry(String baseUrl, long version) {
+    }
+
+    /**
+     * 一次模型调用的许可，记录 RTT 样本
+     */
+    public static final class Permit {
+
+        private long startNanos;
+
+        private volatile long firstChunkNanos;
+
+        private volatile AtomicLong toolNanos;
+
+        private volatile long toolNanosAtFirstChunk;
+
+        private void start() {
+            startNanos = System.nanoTime();
+        }
+
+        /**
+         * 收到首个分块，重复调用只记录第一次
+         */
+        public void firstChunk() {
+            if (firstChunkNanos == 0) {
+                firstChunkNanos = System.nanoTime();
+                AtomicLong current = toolNanos;
+                toolNanosAtFirstChunk = current != null ? current.get() : 0;
+            }
+        }
+
+        /**
+         * 从 RTT 样本中扣除首个分块之前的工具调用耗时
+         * @param toolNanos 工具调用累计耗时(纳秒)，为 null 时不扣除
+         */
+        public void excludeToolTime(AtomicLong toolNanos) {
+            this.toolNanos = toolNanos;
+        }
+
+        private long rttMillis() {
+            long end;
+            long excluded;
+            if (firstChunkNanos != 0) {
+                end = firstChunkNanos;
+                excluded = toolNanosAtFirstChunk;
+            } else {
+                end = System.nanoTime();
+                AtomicLong current = toolNanos;
+                excluded = current != null ? current.get() : 0;
+            }
+            return Math.max(0, end - startNanos - excluded) / 1_000_000;
+        }
+
+    }
+
+}
@@ -0,0 +1,349 @@
+package site.kuril.domain.agent.service.execute.session;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.AutoAgentAdmissionLimitVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentAdmissionMetricsVO;
+import site.kuril.types.enums.ResponseCode;
+import site.kuril.types.exception.AppException;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AutoAgent会话准入控制
+ * 在会话执行器之前限制全局与每个智能体的并发会话数；超出限制的会话进入有界 FIFO 等待队列，排队期间不占用线程，
+ * 位置变化时回调通知，超时后出队；队列已满时立即拒绝。限制可在运行时调整，调大后立即放行排队中的会话
+ */
+@Slf4j
+@Component
+public class AutoAgentAdmissionManager {
+
+    @Value("${spring.ai.agent.admission.max-concurrent-sessions:20}")
+    private int maxConcurrentSessions;
+
+    @Value("${spring.ai.agent.admission.max-concurrent-per-agent:10}")
+    private int maxConcurrentPerAgent;
+
+    @Value("${spring.ai.agent.admission.max-queue-size:50}")
+    private int maxQueueSize;
+
+    @Value("${spring.ai.agent.admission.queue-timeout-ms:60000}")
+    private long queueTimeoutMillis;
+
+    private final Deque<Ticket> waitingQueue = new ArrayDeque<>();
+
+    private int activeSessions;
+
+    /**
+     * 每个智能体执行中的会话数，key为aiAgentId
+     */
+    private final Map<String, Integer> activeSessionsByAgent = new HashMap<>();
+
+    private final AtomicLong admittedCount = new AtomicLong();
+
+    private final AtomicLong queuedCount = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    private final AtomicLong withdrawnCount = new AtomicLong();
+
+    private final AtomicLong totalQueueWaitMillis = new AtomicLong();
+
+    private final AtomicLong dequeuedCount = new AtomicLong();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "auto-agent-admission");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 提交会话：有空闲名额时立即交给执行器，否则排队
+     * @param sessionId 会话ID
+     * @param aiAgentId 智能体ID
+     * @param executor 会话执行器
+     * @param session 会话任务
+     * @param listener 排队位置与排队失败的回调
+     * @return 准入凭证
+     * @throws AppException 等待队列已满（SESSION_QUEUE_FULL）
+     * @throws RejectedExecutionException 立即放行但执行器拒绝
+     */
+    public Ticket submit(String sessionId, String aiAgentId, Executor executor, Runnable session, AdmissionListener listener) {
+        Ticket ticket = new Ticket(sessionId, aiAgentId == null ? "" : aiAgentId, executor, session, listener);
+        boolean queued;
+        synchronized (this) {
+            if (canAdmit(ticket.aiAgentId)) {
+                acquire(ticket);
+                queued = false;
+            } else if (waitingQueue.size() >= maxQueueSize) {
+                rejectedCount.incrementAndGet();
+                log.warn("AutoAgent会话排队已满，拒绝会话: sessionId={}, aiAgentId={}, queueSize={}", sessionId, aiAgentId, waitingQueue.size());
+                throw new AppException(ResponseCode.SESSION_QUEUE_FULL.getCode(), "AutoAgent会话排队已满: " + waitingQueue.size());
+            } else {
+                ticket.enqueueMillis = System.currentTimeMillis();
+                ticket.timeoutTask = scheduler.schedule(() -> expire(ticket), queueTimeoutMillis, TimeUnit.MILLISECONDS);
+                waitingQueue.addLast(ticket);
+                queuedCount.incrementAndGet();
+                queued = true;
+                log.info("AutoAgent会话进入排队: sessionId={}, aiAgentId={}, position={}", sessionId, aiAgentId, waitingQueue.size());
+            }
+        }
+
+        if (queued) {
+            notifyPositions();
+        } else {
+            try {
+                start(ticket);
+            } catch (RejectedExecutionException e) {
+                releasePermit(ticket);
+                throw e;
+            }
+        }
+        return ticket;
+    }
+
+    /**
+     * 撤回排队中的会话（客户端已断开），已放行的会话不受影响
+     * @return 是否从等待队列中移除
+     */
+    public boolean withdraw(Ticket ticket) {
+        synchronized (this) {
+            if (!waitingQueue.remove(ticket)) {
+                return false;
+            }
+            ticket.timeoutTask.cancel(false);
+            dequeuedCount.incrementAndGet();
+            totalQueueWaitMillis.addAndGet(System.currentTimeMillis() - ticket.enqueueMillis);
+        }
+        withdrawnCount.incrementAndGet();
+        log.info("AutoAgent会话撤回排队: sessionId={}, aiAgentId={}", ticket.sessionId, ticket.aiAgentId);
+        notifyPositions();
+        return true;
+    }
+
+    /**
+     * 调整限制，未设置或不大于 0 的字段保持不变；调大后立即放行排队中的会话
+     */
+    public AutoAgentAdmissionMetricsVO updateLimits(AutoAgentAdmissionLimitVO limitVO) {
+        synchronized (this) {
+            if (limitVO.getMaxConcurrentSessions() != null && limitVO.getMaxConcurrentSessions() > 0) {
+                maxConcurrentSessions = limitVO.getMaxConcurrentSessions();
+            }
+            if (limitVO.getMaxConcurrentPerAgent() != null && limitVO.getMaxConcurrentPerAgent() > 0) {
+                maxConcurrentPerAgent = limitVO.getMaxConcurrentPerAgent();
+            }
+            if (limitVO.getMaxQueueSize() != null && limitVO.getMaxQueueSize() > 0) {
+                maxQueueSize = limitVO.getMaxQueueSize();
+            }
+            if (limitVO.getQueueTimeoutMillis() != null && limitVO.getQueueTimeoutMillis() > 0) {
+                queueTimeoutMillis = limitVO.getQueueTimeoutMillis();
+            }
+            log.info("AutoAgent准入限制已调整: maxConcurrentSessions={}, maxConcurrentPerAgent={}, maxQueueSize={}, queueTimeoutMillis={}",
+                    maxConcurrentSessions, maxConcurrentPerAgent, maxQueueSize, queueTimeoutMillis);
+        }
+        drain();
+        return queryMetrics();
+    }
+
+    public synchronized AutoAgentAdmissionMetricsVO queryMetrics() {
+        long dequeued = dequeuedCount.get();
+        return AutoAgentAdmissionMetricsVO.builder()
+                .maxConcurrentSessions(maxConcurrentSessions)
+                .maxConcurrentPerAgent(maxConcurrentPerAgent)
+                .maxQueueSize(maxQueueSize)
+                .queueTimeoutMillis(queueTimeoutMillis)
+                .activeSessions(activeSessions)
+                .activeSessionsByAgent(new HashMap<>(activeSessionsByAgent))
+                .queueDepth(waitingQueue.size())
+                .admittedCount(admittedCount.get())
+                .queuedCount(queuedCount.get())
+                .rejectedCount(rejectedCount.get())
+                .timeoutCount(timeoutCount.get())
+                .withdrawnCount(withdrawnCount.get())
+                .avgQueueWaitMillis(dequeued == 0 ? 0 : totalQueueWaitMillis.get() / dequeued)
+                .build();
+    }
+
+    private boolean canAdmit(String aiAgentId) {
+        return activeSessions < maxConcurrentSessions
+                && activeSessionsByAgent.getOrDefault(aiAgentId, 0) < maxConcurrentPerAgent;
+    }
+
+    private void acquire(Ticket ticket) {
+        activeSessions++;
+        activeSessionsByAgent.merge(ticket.aiAgentId, 1, Integer::sum);
+        admittedCount.incrementAndGet();
+    }
+
+    private synchronized void releasePermit(Ticket ticket) {
+        activeSessions--;
+        activeSessionsByAgent.computeIfPresent(ticket.aiAgentId, (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    private void start(Ticket ticket) {
+        ticket.executor.execute(() -> {
+            try {
+                ticket.session.run();
+            } finally {
+                releasePermit(ticket);
+                drain();
+            }
+        });
+    }
+
+    /**
+     * 按排队顺序放行有名额的会话，所属智能体已满的会话不阻塞其后其他智能体的会话
+     */
+    private void drain() {
+        List<Ticket> admitted = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Ticket> iterator = waitingQueue.iterator();
+            while (iterator.hasNext() && activeSessions < maxConcurrentSessions) {
+                Ticket ticket = iterator.next();
+                if (!canAdmit(ticket.aiAgentId)) {
+                    continue;
+                }
+                iterator.remove();
+                ticket.timeoutTask.cancel(false);
+                acquire(ticket);
+                dequeuedCount.incrementAndGet();
+                totalQueueWaitMillis.addAndGet(System.currentTimeMillis() - ticket.enqueueMillis);
+                admitted.add(ticket);
+            }
+        }
+
+        for (Ticket ticket : admitted) {
+            log.info("AutoAgent会话结束排队: sessionId={}, aiAgentId={}, 等待{}ms",
+                    ticket.sessionId, ticket.aiAgentId, System.currentTimeMillis() - ticket.enqueueMillis);
+            try {
+                start(ticket);
+            } catch (RejectedExecutionException e) {
+                releasePermit(ticket);
+                rejectedCount.incrementAndGet();
+                notifyExpired(ticket, "AutoAgent会话执行器已满");
+            }
+        }
+        if (!admitted.isEmpty()) {
+            notifyPositions();
+        }
+    }
+
+    private void expire(Ticket ticket) {
+        synchronized (this) {
+            if (!waitingQueue.remove(ticket)) {
+                return;
+            }
+            dequeuedCount.incrementAndGet();
+            totalQueueWaitMillis.addAndGet(System.currentTimeMillis() - ticket.enqueueMillis);
+        }
+        timeoutCount.incrementAndGet();
+        log.warn("AutoAgent会话排队超时: sessionId={}, aiAgentId={}", ticket.sessionId, ticket.aiAgentId);
+        notifyExpired(ticket, "AutoAgent会话排队超时: " + queueTimeoutMillis + "ms");
+        notifyPositions();
+    }
+
+    /**
+     * 向位置发生变化的排队会话发送新位置，回调在锁外执行
+     */
+    private void notifyPositions() {
+        List<Ticket> changed = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        synchronized (this) {
+            int position = 1;
+            for (Ticket ticket : waitingQueue) {
+                if (ticket.lastNotifiedPosition != position) {
+                    ticket.lastNotifiedPosition = position;
+                    changed.add(ticket);
+                    positions.add(position);
+                }
+                position++;
+            }
+        }
+        for (int i = 0; i < changed.size(); i++) {
+            try {
+                changed.get(i).listener.onQueued(positions.get(i));
+            } catch (Exception e) {
+                log.warn("发送排队位置失败: sessionId={}, error={}", changed.get(i).sessionId, e.getMessage());
+            }
+        }
+    }
+
+    private void notifyExpired(Ticket ticket, String reason) {
+        try {
+            ticket.listener.onExpired(reason);
+        } catch (Exception e) {
+            log.warn("发送排队失败通知失败: sessionId={}, error={}", ticket.sessionId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * 排队回调
+     */
+    public interface AdmissionListener {
+
+        /**
+         * 排队位置变化，position 从 1 开始
+         */
+        void onQueued(int position);
+
+        /**
+         * 排队超时或出队后执行器拒绝，会话不会执行
+         */
+        void onExpired(String reason);
+
+    }
+
+    /**
+     * 准入凭证
+     */
+    public static class Ticket {
+
+        private final String sessionId;
+
+        private final String aiAgentId;
+
+        private final Executor executor;
+
+        private final Runnable session;
+
+        private final AdmissionListener listener;
+
+        private long enqueueMillis;
+
+        private ScheduledFuture<?> timeoutTask;
+
+        private int lastNotifiedPosition;
+
+        private Ticket(String sessionId, String aiAgentId, Executor executor, Runnable session, AdmissionListener listener) {
+            this.sessionId = sessionId;
+            this.aiAgentId = aiAgentId;
+            this.executor = executor;
+            this.session = session;
+            this.listener = listener;
+        }
+
+    }
+
+}
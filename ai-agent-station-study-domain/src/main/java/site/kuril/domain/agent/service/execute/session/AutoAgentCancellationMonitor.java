@@ -0,0 +1,87 @@
+package site.kuril.domain.agent.service.execute.session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.kuril.domain.agent.model.valobj.AutoAgentCancellationMetricsVO;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AutoAgent会话取消统计
+ * 记录客户端断开后被取消的会话，以及因此未执行的步数、未发起的模型调用与节省的 token 估算值。
+ * token 按本会话已完成调用的平均输出长度估算，没有样本时使用配置的每次调用默认值；提示词 token 不计入
+ */
+@Component
+public class AutoAgentCancellationMonitor {
+
+    /**
+     * 中英文混合输出的粗略换算：约 2 个字符 1 个 token
+     */
+    private static final int CHARS_PER_TOKEN = 2;
+
+    @Value("${spring.ai.agent.cancellation.estimated-tokens-per-call:1000}")
+    private long estimatedTokensPerCall = 1000;
+
+    private final AtomicLong cancelledSessions = new AtomicLong();
+
+    private final Map<String, AtomicLong> cancelledByReason = new ConcurrentHashMap<>();
+
+    private final AtomicLong abortedLlmCalls = new AtomicLong();
+
+    private final AtomicLong savedSteps = new AtomicLong();
+
+    private final AtomicLong savedLlmCalls = new AtomicLong();
+
+    private final AtomicLong estimatedSavedTokens = new AtomicLong();
+
+    private final AtomicLong totalCancelLatencyMillis = new AtomicLong();
+
+    /**
+     * 记录一次取消
+     * @param reason 取消原因
+     * @param cancelLatencyMillis 从取消到会话结束的耗时(毫秒)
+     * @param abortedLlmCall 是否中止了进行中的模型调用
+     * @param steps 未执行的步数
+     * @param llmCalls 未发起的模型调用数
+     * @param completedLlmCalls 本会话已完成的模型调用数
+     * @param completedOutputChars 本会话已完成调用的输出字符数
+     * @return 本次节省的 token 估算值
+     */
+    public long record(String reason, long cancelLatencyMillis, boolean abortedLlmCall, int steps, int llmCalls,
+                       long completedLlmCalls, long completedOutputChars) {
+        long tokensPerCall = completedLlmCalls > 0
+                ? completedOutputChars / completedLlmCalls / CHARS_PER_TOKEN
+                : estimatedTokensPerCall;
+        long tokens = tokensPerCall * llmCalls;
+
+        cancelledSessions.incrementAndGet();
+        cancelledByReason.computeIfAbsent(reason == null ? "unknown" : reason, key -> new AtomicLong()).incrementAndGet();
+        if (abortedLlmCall) {
+            abortedLlmCalls.incrementAndGet();
+        }
+        savedSteps.addAndGet(steps);
+        savedLlmCalls.addAndGet(llmCalls);
+        estimatedSavedTokens.addAndGet(tokens);
+        totalCancelLatencyMillis.addAndGet(Math.max(0, cancelLatencyMillis));
+        return tokens;
+    }
+
+    public AutoAgentCancellationMetricsVO queryMetrics() {
+        long cancelled = cancelledSessions.get();
+        Map<String, Long> byReason = new TreeMap<>();
+        cancelledByReason.forEach((reason, count) -> byReason.put(reason, count.get()));
+        return AutoAgentCancellationMetricsVO.builder()
+                .cancelledSessions(cancelled)
+                .cancelledByReason(byReason)
+                .abortedLlmCalls(abortedLlmCalls.get())
+                .savedSteps(savedSteps.get())
+                .savedLlmCalls(savedLlmCalls.get())
+                .estimatedSavedTokens(estimatedSavedTokens.get())
+                .avgCancelLatencyMillis(cancelled == 0 ? 0 : totalCancelLatencyMillis.get() / cancelled)
+                .build();
+    }
+
+}
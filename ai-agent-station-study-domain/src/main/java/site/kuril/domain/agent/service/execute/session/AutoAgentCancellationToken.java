@@ -0,0 +1,112 @@
+package site.kuril.domain.agent.service.execute.session;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * AutoAgent会话取消令牌
+ * 由 SSE 连接完成、超时、出错或发送失败时取消；执行节点在开始前检查，进行中的流式调用通过 {@link #bind(Flux)} 立即取消订阅，
+ * 阻塞中的同步调用与工具调用通过 {@link #interruptible(Supplier)} 中断所在线程。线程安全，只能取消一次
+ */
+public class AutoAgentCancellationToken {
+
+    /**
+     * 工具上下文中的取消令牌键，并行工具调用据此中断工具线程与结果等待
+     */
+    public static final String TOOL_CONTEXT_KEY = "auto_agent_cancellation_token";
+
+    private final Sinks.Empty<Void> signal = Sinks.empty();
+
+    /**
+     * 正在执行可中断调用的线程
+     */
+    private final Set<Thread> interruptibleThreads = ConcurrentHashMap.newKeySet();
+
+    private volatile String reason;
+
+    private volatile long cancelledAtMillis;
+
+    /**
+     * 取消，重复调用只有第一次生效
+     * @param reason 取消原因
+     * @return 是否由本次调用取消
+     */
+    public boolean cancel(String reason) {
+        synchronized (this) {
+            if (this.reason != null) {
+                return false;
+            }
+            this.cancelledAtMillis = System.currentTimeMillis();
+            this.reason = reason;
+        }
+        signal.tryEmitEmpty();
+        interruptibleThreads.forEach(Thread::interrupt);
+        return true;
+    }
+
+    public boolean isCancelled() {
+        return reason != null;
+    }
+
+    /**
+     * 取消原因，未取消时为 null
+     */
+    public String getReason() {
+        return reason;
+    }
+
+    /**
+     * 取消时间，未取消时为 0
+     */
+    public long getCancelledAtMillis() {
+        return cancelledAtMillis;
+    }
+
+    /**
+     * 已取消时抛出 {@link CancellationException}
+     */
+    public void throwIfCancelled() {
+        if (reason != null) {
+            throw new CancellationException("AutoAgent会话已取消: " + reason);
+        }
+    }
+
+    /**
+     * 取消时结束流并取消上游订阅，进行中的模型流式请求随之断开
+     */
+    public <T> Flux<T> bind(Flux<T> flux) {
+        return flux.takeUntilOther(signal.asMono());
+    }
+
+    /**
+     * 执行阻塞调用，取消时中断当前线程；调用因取消失败时统一抛出 {@link CancellationException}，并清除中断标记
+     */
+    public <T> T interruptible(Supplier<T> call) {
+        throwIfCancelled();
+        Thread thread = Thread.currentThread();
+        interruptibleThreads.add(thread);
+        try {
+            // 注册与取消并发时，取消可能没有看到本线程
+            throwIfCancelled();
+            return call.get();
+        } catch (RuntimeException e) {
+            if (reason != null) {
+                CancellationException cancellation = new CancellationException("AutoAgent会话已取消: " + reason);
+                cancellation.initCause(e);
+                throw cancellation;
+            }
+            throw e;
+        } finally {
+            interruptibleThreads.remove(thread);
+            if (reason != null) {
+                Thread.interrupted();
+            }
+        }
+    }
+
+}
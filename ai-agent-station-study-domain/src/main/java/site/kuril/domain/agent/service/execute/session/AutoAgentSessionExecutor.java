@@ -0,0 +1,182 @@
+package site.kuril.domain.agent.service.execute.session;
+
+import lombok.extern.slf4j.Slf4j;
+import site.kuril.domain.agent.model.valobj.AutoAgentSessionExecutorMetricsVO;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * AutoAgent会话执行器
+ * 每个会话占用一个线程完成整段多轮执行（阻塞的模型与 MCP 调用），与公共 ForkJoinPool 隔离。
+ * 默认为有界平台线程池；开启虚拟线程且运行在 JDK 21+ 时每个会话一个虚拟线程，并发会话数仍以最大线程数为上限。
+ * 满载时直接拒绝（RejectedExecutionException），不由提交线程自己执行，也不静默丢弃
+ */
+@Slf4j
+public class AutoAgentSessionExecutor implements Executor {
+
+    public static final String MODE_PLATFORM = "PLATFORM";
+
+    public static final String MODE_VIRTUAL = "VIRTUAL";
+
+    /**
+     * 平台线程池，虚拟线程模式下为 null
+     */
+    private final ThreadPoolExecutor threadPoolExecutor;
+
+    /**
+     * 虚拟线程执行器，平台线程模式下为 null
+     */
+    private final ExecutorService virtualThreadExecutor;
+
+    /**
+     * 虚拟线程模式下的并发会话许可
+     */
+    private final Semaphore virtualSessionPermits;
+
+    private final int maxSessions;
+
+    private final int queueCapacity;
+
+    private final AtomicInteger activeSessions = new AtomicInteger();
+
+    private final AtomicLong submittedCount = new AtomicLong();
+
+    private final AtomicLong completedCount = new AtomicLong();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+
+    /**
+     * @param corePoolSize 核心线程数
+     * @param maxPoolSize 最大线程数，即最大并发会话数
+     * @param keepAliveSeconds 空闲线程存活时间(秒)
+     * @param queueCapacity 等待队列长度，虚拟线程模式下不排队
+     * @param virtualThreads 是否使用虚拟线程，JDK 21 以下回退为平台线程池
+     */
+    public AutoAgentSessionExecutor(int corePoolSize, int maxPoolSize, long keepAliveSeconds, int queueCapacity, boolean virtualThreads) {
+        this.maxSessions = maxPoolSize;
+        ExecutorService virtualExecutor = virtualThreads ? newVirtualThreadPerTaskExecutor() : null;
+        if (virtualExecutor != null) {
+            this.virtualThreadExecutor = virtualExecutor;
+            this.virtualSessionPermits = new Semaphore(maxPoolSize);
+            this.threadPoolExecutor = null;
+            this.queueCapacity = 0;
+        } else {
+            this.virtualThreadExecutor = null;
+            this.virtualSessionPermits = null;
+            this.queueCapacity = queueCapacity;
+            this.threadPoolExecutor = new ThreadPoolExecutor(
+                    Math.min(corePoolSize, maxPoolSize),
+                    maxPoolSize,
+                    keepAliveSeconds,
+                    TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(queueCapacity),
+                    new ThreadFactory() {
+                        private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            Thread thread = new Thread(r, "auto-agent-session-" + threadNumber.getAndIncrement());
+                            thread.setDaemon(false);
+                            return thread;
+                        }
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+        log.info("AutoAgent会话执行器初始化完成: mode={}, maxSessions={}, queueCapacity={}", getMode(), maxSessions, this.queueCapacity);
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        Runnable session = () -> {
+            activeSessions.incrementAndGet();
+            try {
+                command.run();
+            } finally {
+                activeSessions.decrementAndGet();
+                completedCount.incrementAndGet();
+            }
+        };
+
+        if (virtualThreadExecutor != null) {
+            if (!virtualSessionPermits.tryAcquire()) {
+                throw reject();
+            }
+            try {
+                virtualThreadExecutor.execute(() -> {
+                    try {
+                        session.run();
+                    } finally {
+                        virtualSessionPermits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                virtualSessionPermits.release();
+                rejectedCount.incrementAndGet();
+                throw e;
+            }
+        } else {
+            try {
+                threadPoolExecutor.execute(session);
+            } catch (RejectedExecutionException e) {
+                rejectedCount.incrementAndGet();
+                throw e;
+            }
+        }
+        submittedCount.incrementAndGet();
+    }
+
+    public String getMode() {
+        return virtualThreadExecutor != null ? MODE_VIRTUAL : MODE_PLATFORM;
+    }
+
+    public AutoAgentSessionExecutorMetricsVO queryMetrics() {
+        return AutoAgentSessionExecutorMetricsVO.builder()
+                .mode(getMode())
+                .maxSessions(maxSessions)
+                .activeSessions(activeSessions.get())
+                .poolSize(threadPoolExecutor != null ? threadPoolExecutor.getPoolSize() : activeSessions.get())
+                .queueDepth(threadPoolExecutor != null ? threadPoolExecutor.getQueue().size() : 0)
+                .queueCapacity(queueCapacity)
+                .submittedCount(submittedCount.get())
+                .completedCount(completedCount.get())
+                .rejectedCount(rejectedCount.get())
+                .build();
+    }
+
+    public void shutdown() {
+        if (threadPoolExecutor != null) {
+            threadPoolExecutor.shutdown();
+        }
+        if (virtualThreadExecutor != null) {
+            virtualThreadExecutor.shutdown();
+        }
+    }
+
+    private RejectedExecutionException reject() {
+        rejectedCount.incrementAndGet();
+        return new RejectedExecutionException("AutoAgent会话已达上限: " + maxSessions);
+    }
+
+    /**
+     * 反射创建虚拟线程执行器，编译目标仍为 JDK 17
+     */
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            log.warn("当前JDK不支持虚拟线程，AutoAgent会话执行器回退为平台线程池: java.version={}", System.getProperty("java.version"));
+            return null;
+        }
+    }
+
+}
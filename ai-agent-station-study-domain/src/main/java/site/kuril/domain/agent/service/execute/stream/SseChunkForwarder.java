@@ -0,0 +1,163 @@
+package site.kuril.domain.agent.service.execute.stream;
+
+import reactor.core.Disposable;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 流式分块转发器
+ * 把模型流式输出的分块转发给 SSE：攒够字节阈值立即发送，否则最早一个分块缓冲满时间阈值后发送；
+ * 两个阈值都不大于 0 时分块原样直接转发，不做任何拷贝。完整答案只在需要时才拼接；
+ * 定时发送会阻塞在 SSE 写出上，因此调度在 boundedElastic 而不是非阻塞的 parallel 调度器上
+ */
+public class SseChunkForwarder {
+
+    private final Consumer<String> sink;
+
+    private final int coalesceBytes;
+
+    private final long coalesceMillis;
+
+    /**
+     * 完整答案，不需要时为 null
+     */
+    private final StringBuilder answer;
+
+    private final StringBuilder buffer = new StringBuilder();
+
+    private int bufferedBytes;
+
+    private Disposable flushTask;
+
+    private final long startMillis = System.currentTimeMillis();
+
+    private long firstChunkMillis = -1L;
+
+    private long chunkCount;
+
+    private long sendCount;
+
+    private long answerChars;
+
+    /**
+     * @param sink 接收合并后分块的发送方法
+     * @param coalesceBytes 合并字节阈值，不大于 0 时不按字节合并
+     * @param coalesceMillis 合并时间阈值(毫秒)，不大于 0 时不按时间合并
+     * @param materialize 是否拼接完整答案
+     */
+    public SseChunkForwarder(Consumer<String> sink, int coalesceBytes, long coalesceMillis, boolean materialize) {
+        this.sink = sink;
+        this.coalesceBytes = coalesceBytes;
+        this.coalesceMillis = coalesceMillis;
+        this.answer = materialize ? new StringBuilder() : null;
+    }
+
+    public synchronized void accept(String chunk) {
+        if (chunk == null || chunk.isEmpty()) {
+            return;
+        }
+        chunkCount++;
+        answerChars += chunk.length();
+        if (firstChunkMillis < 0) {
+            firstChunkMillis = System.currentTimeMillis() - startMillis;
+        }
+        if (answer != null) {
+            answer.append(chunk);
+        }
+
+        // 不合并：原样转发
+        if (coalesceBytes <= 0 && coalesceMillis <= 0) {
+            send(chunk);
+            return;
+        }
+
+        buffer.append(chunk);
+        bufferedBytes += utf8Length(chunk);
+        if (coalesceBytes > 0 && bufferedBytes >= coalesceBytes) {
+            flush();
+        } else if (coalesceMillis > 0 && flushTask == null) {
+            flushTask = Schedulers.boundedElastic().schedule(this::flushOnTimer, coalesceMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * 流结束，发送缓冲中剩余的内容
+     */
+    public synchronized void complete() {
+        flush();
+    }
+
+    /**
+     * 完整答案，未开启拼接时为 null
+     */
+    public synchronized String getAnswer() {
+        return answer != null ? answer.toString() : null;
+    }
+
+    /**
+     * 首个分块到达耗时(毫秒)，未收到分块时为 -1
+     */
+    public synchronized long getFirstChunkMillis() {
+        return firstChunkMillis;
+    }
+
+    public synchronized long getChunkCount() {
+        return chunkCount;
+    }
+
+    public synchronized long getSendCount() {
+        return sendCount;
+    }
+
+    /**
+     * 已接收的答案字符数，未开启拼接时同样统计
+     */
+    public synchronized long getAnswerChars() {
+        return answerChars;
+    }
+
+    private synchronized void flushOnTimer() {
+        flushTask = null;
+        flush();
+    }
+
+    private void flush() {
+        if (flushTask != null) {
+            flushTask.dispose();
+            flushTask = null;
+        }
+        if (buffer.length() == 0) {
+            return;
+        }
+        String merged = buffer.toString();
+        buffer.setLength(0);
+        bufferedBytes = 0;
+        send(merged);
+    }
+
+    private void send(String content) {
+        sendCount++;
+        sink.accept(content);
+    }
+
+    private static int utf8Length(String text) {
+        int bytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c)) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+}
@@ -0,0 +1,147 @@
+package site.kuril.domain.agent.service.execute.stream;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * 流式分段解析器
+ * 单趟消费模型的流式输出：按换行切出完整行，遇到段落标题（如 "任务状态分析:"）时立即把上一段作为子结果发出，
+ * 不必等整段回复结束；拼接的全文与非流式调用 content() 的结果一致。非线程安全，一次回复使用一个实例
+ */
+public class StreamingSectionParser {
+
+    private final List<SectionRule> rules;
+
+    /**
+     * 段落结束时回调（子类型，段落内容），可为 null
+     */
+    private final BiConsumer<String, String> sectionListener;
+
+    /**
+     * 每个完整的非空行回调（已去除首尾空白），可为 null
+     */
+    private final Consumer<String> lineListener;
+
+    private final StringBuilder text = new StringBuilder();
+
+    private final StringBuilder pendingLine = new StringBuilder();
+
+    private StringBuilder sectionContent = new StringBuilder();
+
+    /**
+     * 当前段落的子类型，初始为第一个段落标题之前的内容归属的子类型，为 null 时丢弃
+     */
+    private String currentSubType;
+
+    private boolean sectionMatched;
+
+    private boolean finished;
+
+    public StreamingSectionParser(List<SectionRule> rules, String leadingSubType,
+                                  BiConsumer<String, String> sectionListener, Consumer<String> lineListener) {
+        this.rules = rules;
+        this.currentSubType = leadingSubType;
+        this.sectionListener = sectionListener;
+        this.lineListener = lineListener;
+    }
+
+    /**
+     * 追加一段流式输出，输出中完整的行立即解析
+     */
+    public void append(String chunk) {
+        if (chunk == null || chunk.isEmpty() || finished) {
+            return;
+        }
+        text.append(chunk);
+
+        int start = 0;
+        int newline;
+        while ((newline = chunk.indexOf('\n', start)) >= 0) {
+            pendingLine.append(chunk, start, newline);
+            onLine(pendingLine.toString());
+            pendingLine.setLength(0);
+            start = newline + 1;
+        }
+        pendingLine.append(chunk, start, chunk.length());
+    }
+
+    /**
+     * 输出结束：解析最后一行并发出最后一段
+     * @return 完整输出
+     */
+    public String finish() {
+        if (!finished) {
+            finished = true;
+            if (pendingLine.length() > 0) {
+                onLine(pendingLine.toString());
+                pendingLine.setLength(0);
+            }
+            emitSection();
+        }
+        return text.toString();
+    }
+
+    /**
+     * 已接收的完整输出
+     */
+    public String getText() {
+        return text.toString();
+    }
+
+    /**
+     * 是否识别到任一段落标题
+     */
+    public boolean isSectionMatched() {
+        return sectionMatched;
+    }
+
+    private void onLine(String rawLine) {
+        String line = rawLine.trim();
+        if (line.isEmpty()) {
+            return;
+        }
+        if (lineListener != null) {
+            lineListener.accept(line);
+        }
+
+        for (SectionRule rule : rules) {
+            if (line.contains(rule.marker())) {
+                emitSection();
+                sectionMatched = true;
+                currentSubType = rule.subType();
+                sectionContent = new StringBuilder();
+                if (rule.keepHeaderLine()) {
+                    sectionContent.append(line).append("\n");
+                }
+                return;
+            }
+        }
+
+        if (currentSubType != null) {
+            sectionContent.append(line).append("\n");
+        }
+    }
+
+    private void emitSection() {
+        if (sectionListener != null && currentSubType != null && !sectionContent.toString().trim().isEmpty()) {
+            sectionListener.accept(currentSubType, sectionContent.toString());
+        }
+        sectionContent = new StringBuilder();
+    }
+
+    /**
+     * 段落规则，按声明顺序匹配
+     * @param marker 段落标题，行内包含即视为新段落开始
+     * @param subType 段落对应的子结果类型
+     * @param keepHeaderLine 标题行是否计入段落内容（如 "完成度评估: 80%" 标题行本身即是结果）
+     */
+    public record SectionRule(String marker, String subType, boolean keepHeaderLine) {
+
+        public static SectionRule of(String marker, String subType) {
+            return new SectionRule(marker, subType, false);
+        }
+
+    }
+
+}
@@ -1,6 +1,7 @@
 package site.kuril.infrastructure.dao;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import site.kuril.infrastructure.dao.po.AiClientAdvisor;
 
 import java.util.List;
@@ -81,4 +82,11 @@ public interface IAiClientAdvisorDao {
      * @return 顾问配置列表
      */
     List<AiClientAdvisor> queryAll();
+
+    /**
+     * 根据顾问ID列表批量查询启用的顾问配置
+     * @param advisorIds 顾问ID列表
+     * @return 顾问配置列表
+     */
+    List<AiClientAdvisor> queryByAdvisorIds(@Param("advisorIds") List<String> advisorIds);
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package site.kuril.infrastructure.dao;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import site.kuril.infrastructure.dao.po.AiClientApi;
 
 import java.util.List;
@@ -75,4 +76,11 @@ public interface IAiClientApiDao {
      * @return API配置列表
      */
     List<AiClientApi> queryAll();
+
+    /**
+     * 根据API ID列表批量查询启用的API配置
+     * @param apiIds API ID列表
+     * @return API配置列表
+     */
+    List<AiClientApi> queryByApiIds(@Param("apiIds") List<String> apiIds);
 } 
\ No newline at end of file
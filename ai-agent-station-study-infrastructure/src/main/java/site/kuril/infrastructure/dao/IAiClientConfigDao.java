@@ -1,7 +1,9 @@
 package site.kuril.infrastructure.dao;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import site.kuril.infrastructure.dao.po.AiClientConfig;
+import site.kuril.infrastructure.dao.po.AiClientConfigWatermark;
 
 import java.util.List;
 
@@ -91,4 +93,28 @@ public interface IAiClientConfigDao {
      * @return 客户端配置列表
      */
     List<AiClientConfig> queryAll();
+
+    /**
+     * 查询客户端配置水位线（ai_client* 相关表的最大更新时间与总行数）
+     * @return 配置水位线
+     */
+    AiClientConfigWatermark queryConfigWatermark();
+
+    /**
+     * 根据源类型、源ID列表和目标类型批量查询启用的配置关联（命中 idx_source_target 索引）
+     * @param sourceType 源类型
+     * @param sourceIds 源ID列表
+     * @param targetType 目标类型，为空时查询全部目标类型
+     * @return 客户端配置列表
+     */
+    List<AiClientConfig> queryBySourceIdsAndTargetType(@Param("sourceType") String sourceType,
+                                                       @Param("sourceIds") List<String> sourceIds,
+                                                       @Param("targetType") String targetType);
+
+    /**
+     * 根据客户端ID列表查询其关联模型的 model -> mcp 启用关联
+     * @param clientIds 客户端ID列表
+     * @return 客户端配置列表
+     */
+    List<AiClientConfig> queryModelMcpConfigsByClientIds(@Param("clientIds") List<String> clientIds);
 } 
\ No newline at end of file
@@ -1,7 +1,9 @@
 package site.kuril.infrastructure.dao;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import site.kuril.infrastructure.dao.po.AiClient;
+import site.kuril.infrastructure.dao.po.AiClientGraphRow;
 
 import java.util.List;
 
@@ -75,4 +77,18 @@ public interface IAiClientDao {
      * @return AI客户端配置列表
      */
     List<AiClient> queryAll();
+
+    /**
+     * 根据客户端ID列表批量查询启用的客户端
+     * @param clientIds 客户端ID列表
+     * @return 客户端列表
+     */
+    List<AiClient> queryByClientIds(@Param("clientIds") List<String> clientIds);
+
+    /**
+     * 根据客户端ID列表连接查询客户端配置图（client -> api / model / mcp / prompt / advisor）
+     * @param clientIds 客户端ID列表
+     * @return 客户端配置图连接查询行
+     */
+    List<AiClientGraphRow> queryClientGraphByClientIds(@Param("clientIds") List<String> clientIds);
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package site.kuril.infrastructure.dao;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import site.kuril.infrastructure.dao.po.AiClientModel;
 
 import java.util.List;
@@ -89,4 +90,11 @@ public interface IAiClientModelDao {
      * @return 模型配置列表
      */
     List<AiClientModel> queryAll();
+
+    /**
+     * 根据模型ID列表批量查询启用的模型配置
+     * @param modelIds 模型ID列表
+     * @return 模型配置列表
+     */
+    List<AiClientModel> queryByModelIds(@Param("modelIds") List<String> modelIds);
 } 
\ No newline at end of file
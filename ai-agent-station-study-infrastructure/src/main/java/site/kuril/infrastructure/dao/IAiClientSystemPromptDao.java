@@ -1,6 +1,7 @@
 package site.kuril.infrastructure.dao;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import site.kuril.infrastructure.dao.po.AiClientSystemPrompt;
 
 import java.util.List;
@@ -75,4 +76,11 @@ public interface IAiClientSystemPromptDao {
      * @return 系统提示词配置列表
      */
     List<AiClientSystemPrompt> queryAll();
+
+    /**
+     * 根据提示词ID列表批量查询启用的系统提示词配置
+     * @param promptIds 提示词ID列表
+     * @return 系统提示词配置列表
+     */
+    List<AiClientSystemPrompt> queryByPromptIds(@Param("promptIds") List<String> promptIds);
 } 
\ No newline at end of file
@@ -1,6 +1,7 @@
 package site.kuril.infrastructure.dao;
 
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
 import site.kuril.infrastructure.dao.po.AiClientToolMcp;
 
 import java.util.List;
@@ -75,4 +76,11 @@ public interface IAiClientToolMcpDao {
      * @return MCP客户端配置列表
      */
     List<AiClientToolMcp> queryAll();
+
+    /**
+     * 根据MCP ID列表批量查询启用的MCP客户端配置
+     * @param mcpIds MCP ID列表
+     * @return MCP客户端配置列表
+     */
+    List<AiClientToolMcp> queryByMcpIds(@Param("mcpIds") List<String> mcpIds);
 } 
\ No newline at end of file
@@ -4,10 +4,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Repository;
 import site.kuril.domain.agent.adapter.port.IAgentRepository;
 import site.kuril.domain.agent.model.valobj.*;
-import site.kuril.infrastructure.dao.*;
+import site.kuril.domain.agent.model.aggregate.AiClientGraphAggregate;
+import site.kuril.infrastructure.dao.IAiAgentFlowConfigDao;
+import site.kuril.infrastructure.dao.IAiClientConfigDao;
+import site.kuril.infrastructure.dao.IAiClientDao;
+import site.kuril.infrastructure.dao.adapter.graph.AiClientConfigGraph;
+import site.kuril.infrastructure.dao.adapter.graph.AiClientConfigGraphCache;
 import site.kuril.infrastructure.dao.po.*;
 
 import javax.annotation.Resource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -23,20 +30,19 @@ import org.apache.commons.lang3.StringUtils;
 @Repository
 public class AgentRepository implements IAgentRepository {
 
-    @Resource
-    private IAiClientApiDao aiClientApiDao;
-
-    @Resource
-    private IAiClientModelDao aiClientModelDao;
+    private static final String SOURCE_TYPE_CLIENT = "client";
+    private static final String SOURCE_TYPE_MODEL = "model";
+    private static final String TARGET_TYPE_API = "api";
+    private static final String TARGET_TYPE_MODEL = "model";
+    private static final String TARGET_TYPE_MCP = "mcp";
+    private static final String TARGET_TYPE_PROMPT = "prompt";
+    private static final String TARGET_TYPE_ADVISOR = "advisor";
 
     @Resource
-    private IAiClientToolMcpDao aiClientToolMcpDao;
+    private AiClientConfigGraphCache aiClientConfigGraphCache;
 
     @Resource
-    private IAiClientSystemPromptDao aiClientSystemPromptDao;
-
-    @Resource
-    private IAiClientAdvisorDao aiClientAdvisorDao;
+    private IAiAgentFlowConfigDao aiAgentFlowConfigDao;
 
     @Resource
     private IAiClientDao aiClientDao;
@@ -44,32 +50,16 @@ public class AgentRepository implements IAgentRepository {
     @Resource
     private IAiClientConfigDao aiClientConfigDao;
 
-    @Resource
-    private IAiAgentFlowConfigDao aiAgentFlowConfigDao;
-
     @Override
     public List<AiClientApiVO> queryAiClientApiVOListByClientIds(List<String> clientIds) {
         log.info("根据客户端ID列表查询API配置: {}", clientIds);
-        
-        // 通过配置表查询关联的API ID
-        List<AiClientConfig> configs = aiClientConfigDao.queryAll()
-                .stream()
-                .filter(config -> "client".equals(config.getSourceType()) && 
-                                 clientIds.contains(config.getSourceId()) &&
-                                 "api".equals(config.getTargetType()))
-                .collect(Collectors.toList());
-        
-        if (configs.isEmpty()) {
-            return List.of();
-        }
-        
-        List<String> apiIds = configs.stream()
-                .map(AiClientConfig::getTargetId)
-                .collect(Collectors.toList());
-        
-        return aiClientApiDao.queryAll()
+        AiClientConfigGraph graph = aiClientConfigGraphCache.forClients(clientIds);
+
+        // 通过配置图查询关联的API ID
+        return graph.targetIds(SOURCE_TYPE_CLIENT, clientIds, TARGET_TYPE_API)
                 .stream()
-                .filter(api -> apiIds.contains(api.getApiId()) && api.getStatus() == 1)
+                .map(graph::getApi)
+                .filter(api -> api != null && AiClientConfigGraph.isEnabled(api.getStatus()))
                 .map(this::convertToAiClientApiVO)
                 .collect(Collectors.toList());
     }
@@ -77,24 +67,15 @@ public class AgentRepository implements IAgentRepository {
     @Override
     public List<AiClientApiVO> queryAiClientApiVOListByModelIds(List<String> modelIds) {
         log.info("根据模型ID列表查询API配置: {}", modelIds);
-        
-        // 通过模型表查询关联的API ID
-        List<AiClientModel> models = aiClientModelDao.queryAll()
+        AiClientConfigGraph graph = aiClientConfigGraphCache.forModels(modelIds);
+
+        // 通过模型记录查询关联的API ID
+        return enabledModels(graph, modelIds)
                 .stream()
-                .filter(model -> modelIds.contains(model.getModelId()) && model.getStatus() == 1)
-                .collect(Collectors.toList());
-        
-        if (models.isEmpty()) {
-            return List.of();
-        }
-        
-        List<String> apiIds = models.stream()
                 .map(AiClientModel::getApiId)
-                .collect(Collectors.toList());
-        
-        return aiClientApiDao.queryAll()
-                .stream()
-                .filter(api -> apiIds.contains(api.getApiId()) && api.getStatus() == 1)
+                .distinct()
+                .map(graph::getApi)
+                .filter(api -> api != null && AiClientConfigGraph.isEnabled(api.getStatus()))
                 .map(this::convertToAiClientApiVO)
                 .collect(Collectors.toList());
     }
@@ -102,64 +83,37 @@ public class AgentRepository implements IAgentRepository {
     @Override
     public List<AiClientModelVO> AiClientModelVOByClientIds(List<String> clientIds) {
         log.info("根据客户端ID列表查询模型配置: {}", clientIds);
-        
-        // 通过配置表查询关联的模型ID
-        List<AiClientConfig> configs = aiClientConfigDao.queryAll()
-                .stream()
-                .filter(config -> "client".equals(config.getSourceType()) && 
-                                 clientIds.contains(config.getSourceId()) &&
-                                 "model".equals(config.getTargetType()))
-                .collect(Collectors.toList());
-        
-        if (configs.isEmpty()) {
-            return List.of();
-        }
-        
-        List<String> modelIds = configs.stream()
-                .map(AiClientConfig::getTargetId)
-                .collect(Collectors.toList());
-        
-        return aiClientModelDao.queryAll()
+        AiClientConfigGraph graph = aiClientConfigGraphCache.forClients(clientIds);
+
+        // 通过配置图查询关联的模型ID
+        List<String> modelIds = graph.targetIds(SOURCE_TYPE_CLIENT, clientIds, TARGET_TYPE_MODEL);
+        return enabledModels(graph, modelIds)
                 .stream()
-                .filter(model -> modelIds.contains(model.getModelId()) && model.getStatus() == 1)
-                .map(model -> convertToAiClientModelVO(model, modelIds))
+                .map(model -> convertToAiClientModelVO(graph, model))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<AiClientModelVO> AiClientModelVOByModelIds(List<String> modelIds) {
         log.info("根据模型ID列表查询模型配置: {}", modelIds);
-        
-        return aiClientModelDao.queryAll()
+        AiClientConfigGraph graph = aiClientConfigGraphCache.forModels(modelIds);
+
+        return enabledModels(graph, modelIds)
                 .stream()
-                .filter(model -> modelIds.contains(model.getModelId()) && model.getStatus() == 1)
-                .map(model -> convertToAiClientModelVO(model))
+                .map(model -> convertToAiClientModelVO(graph, model))
                 .collect(Collectors.toList());
     }
 
     @Override
     public List<AiClientToolMcpVO> AiClientToolMcpVOByClientIds(List<String> clientIds) {
         log.info("根据客户端ID列表查询MCP工具配置: {}", clientIds);
-        
-        // 通过配置表查询关联的MCP ID
-        List<AiClientConfig> configs = aiClientConfigDao.queryAll()
-                .stream()
-                .filter(config -> "client".equals(config.getSourceType()) && 
-                                 clientIds.contains(config.getSourceId()) &&
-                                 "mcp".equals(config.getTargetType()))
-                .collect(Collectors.toList());
-        
-        if (configs.isEmpty()) {
-            return List.of();
-        }
-        
-        List<String> mcpIds = configs.stream()
-                .map(AiClientConfig::getTargetId)
-                .collect(Collectors.toList());
-        
-        return aiClientToolMcpDao.queryAll()
+        AiClientConfigGraph graph = aiClientConfigGraphCache.forClients(clientIds);
+
+        // 通过配置图查询关联的MCP ID
+        return graph.targetIds(SOURCE_TYPE_CLIENT, clientIds, TARGET_TYPE_MCP)
                 .stream()
-                .filter(mcp -> mcpIds.contains(mcp.getMcpId()) && mcp.getStatus() == 1)
+                .map(graph::getToolMcp)
+                .filter(mcp -> mcp != null && AiClientConfigGraph.isEnabled(mcp.getStatus()))
                 .map(this::convertToAiClientToolMcpVO)
                 .collect(Collectors.toList());
     }
@@ -167,26 +121,13 @@ public class AgentRepository implements IAgentRepository {
     @Override
     public List<AiClientSystemPromptVO> AiClientSystemPromptVOByClientIds(List<String> clientIds) {
         log.info("根据客户端ID列表查询系统提示词配置: {}", clientIds);
-        
-        // 通过配置表查询关联的提示词ID
-        List<AiClientConfig> configs = aiClientConfigDao.queryAll()
-                .stream()
-                .filter(config -> "client".equals(config.getSourceType()) && 
-                                 clientIds.contains(config.getSourceId()) &&
-                                 "prompt".equals(config.getTargetType()))
-                .collect(Collectors.toList());
-        
-        if (configs.isEmpty()) {
-            return List.of();
-        }
-        
-        List<String> promptIds = configs.stream()
-                .map(AiClientConfig::getTargetId)
-                .collect(Collectors.toList());
-        
-        return aiClientSystemPromptDao.queryAll()
+        AiClientConfigGraph graph = aiClientConfigGraphCache.forClients(clientIds);
+
+        // 通过配置图查询关联的提示词ID
+        return graph.targetIds(SOURCE_TYPE_CLIENT, clientIds, TARGET_TYPE_PROMPT)
                 .stream()
-                .filter(prompt -> promptIds.contains(prompt.getPromptId()) && prompt.getStatus() == 1)
+                .map(graph::getSystemPrompt)
+                .filter(prompt -> prompt != null && AiClientConfigGraph.isEnabled(prompt.getStatus()))
                 .map(this::convertToAiClientSystemPromptVO)
                 .collect(Collectors.toList());
     }
@@ -194,26 +135,13 @@ public class AgentRepository implements IAgentRepository {
     @Override
     public List<AiClientAdvisorVO> AiClientAdvisorVOByClientIds(List<String> clientIds) {
         log.info("根据客户端ID列表查询顾问配置: {}", clientIds);
-        
-        // 通过配置表查询关联的顾问ID
-        List<AiClientConfig> configs = aiClientConfigDao.queryAll()
-                .stream()
-                .filter(config -> "client".equals(config.getSourceType()) && 
-                                 clientIds.contains(config.getSourceId()) &&
-                                 "advisor".equals(config.getTargetType()))
-                .collect(Collectors.toList());
-        
-        if (configs.isEmpty()) {
-            return List.of();
-        }
-        
-        List<String> advisorIds = configs.stream()
-                .map(AiClientConfig::getTargetId)
-                .collect(Collectors.toList());
-        
-        return aiClientAdvisorDao.queryAll()
+        AiClientConfigGraph graph = aiClientConfigGraphCache.forClients(clientIds);
+
+        // 通过配置图查询关联的顾问ID
+        return graph.targetIds(SOURCE_TYPE_CLIENT, clientIds, TARGET_TYPE_ADVISOR)
                 .stream()
-                .filter(advisor -> advisorIds.contains(advisor.getAdvisorId()) && advisor.getStatus() == 1)
+                .map(graph::getAdvisor)
+                .filter(advisor -> advisor != null && AiClientConfigGraph.isEnabled(advisor.getStatus()))
                 .map(this::convertToAiClientAdvisorVO)
                 .collect(Collectors.toList());
     }
@@ -221,11 +149,86 @@ public class AgentRepository implements IAgentRepository {
     @Override
     public List<AiClientVO> AiClientVOByClientIds(List<String> clientIds) {
         log.info("根据客户端ID列表查询客户端配置: {}", clientIds);
-        
-        return aiClientDao.queryAll()
+        AiClientConfigGraph graph = aiClientConfigGraphCache.forClients(clientIds);
+
+        return clientIds.stream()
+                .distinct()
+                .map(graph::getClient)
+                .filter(client -> client != null && AiClientConfigGraph.isEnabled(client.getStatus()))
+                .map(client -> convertToAiClientVO(graph, client))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public AiClientGraphAggregate queryAiClientGraphByClientIds(List<String> clientIds) {
+        log.info("根据客户端ID列表查询客户端配置图: {}", clientIds);
+        if (clientIds == null || clientIds.isEmpty()) {
+            return new AiClientGraphAggregate();
+        }
+
+        // 第一条SQL：client 左连接全部 client -> target 关联及启用的目标记录
+        List<AiClientGraphRow> rows = aiClientDao.queryClientGraphByClientIds(clientIds);
+        // 第二条SQL：客户端关联模型的 model -> mcp 关联
+        Map<String, List<String>> modelToolMcpIds = aiClientConfigDao.queryModelMcpConfigsByClientIds(clientIds)
                 .stream()
-                .filter(client -> clientIds.contains(client.getClientId()) && client.getStatus() == 1)
-                .map(this::convertToAiClientVO)
+                .collect(Collectors.groupingBy(AiClientConfig::getSourceId, LinkedHashMap::new,
+                        Collectors.mapping(AiClientConfig::getTargetId, Collectors.toList())));
+
+        Map<String, AiClient> clientMap = new LinkedHashMap<>();
+        Map<String, Map<String, List<String>>> clientTargetIds = new HashMap<>();
+        Map<String, AiClientApi> apiMap = new LinkedHashMap<>();
+        Map<String, AiClientModel> modelMap = new LinkedHashMap<>();
+        Map<String, AiClientToolMcp> toolMcpMap = new LinkedHashMap<>();
+        Map<String, AiClientSystemPrompt> systemPromptMap = new LinkedHashMap<>();
+        Map<String, AiClientAdvisor> advisorMap = new LinkedHashMap<>();
+
+        for (AiClientGraphRow row : rows) {
+            AiClient client = row.getClient();
+            if (client == null) {
+                continue;
+            }
+            clientMap.putIfAbsent(client.getClientId(), client);
+            if (row.getTargetType() == null) {
+                continue;
+            }
+            clientTargetIds.computeIfAbsent(client.getClientId(), k -> new HashMap<>())
+                    .computeIfAbsent(row.getTargetType(), k -> new ArrayList<>())
+                    .add(row.getTargetId());
+
+            if (row.getApi() != null) apiMap.putIfAbsent(row.getApi().getApiId(), row.getApi());
+            if (row.getModel() != null) modelMap.putIfAbsent(row.getModel().getModelId(), row.getModel());
+            if (row.getToolMcp() != null) toolMcpMap.putIfAbsent(row.getToolMcp().getMcpId(), row.getToolMcp());
+            if (row.getSystemPrompt() != null) systemPromptMap.putIfAbsent(row.getSystemPrompt().getPromptId(), row.getSystemPrompt());
+            if (row.getAdvisor() != null) advisorMap.putIfAbsent(row.getAdvisor().getAdvisorId(), row.getAdvisor());
+        }
+
+        List<AiClientVO> aiClientList = clientMap.values().stream()
+                .filter(client -> AiClientConfigGraph.isEnabled(client.getStatus()))
+                .map(client -> convertToAiClientVO(client,
+                        clientTargetIds.getOrDefault(client.getClientId(), Map.of())))
+                .collect(Collectors.toList());
+
+        AiClientGraphAggregate aggregate = AiClientGraphAggregate.builder()
+                .aiClientApiList(apiMap.values().stream().map(this::convertToAiClientApiVO).collect(Collectors.toList()))
+                .aiClientModelList(modelMap.values().stream()
+                        .map(model -> convertToAiClientModelVO(model,
+                                modelToolMcpIds.getOrDefault(model.getModelId(), List.of())))
+                        .collect(Collectors.toList()))
+                .aiClientToolMcpList(toolMcpMap.values().stream().map(this::convertToAiClientToolMcpVO).collect(Collectors.toList()))
+                .aiClientSystemPromptList(systemPromptMap.values().stream().map(this::convertToAiClientSystemPromptVO).collect(Collectors.toList()))
+                .aiClientAdvisorList(advisorMap.values().stream().map(this::convertToAiClientAdvisorVO).collect(Collectors.toList()))
+                .aiClientList(aiClientList)
+                .build();
+
+        log.info("查询客户端配置图完成, clientIds: {}, 连接行数: {}", clientIds, rows.size());
+        return aggregate;
+    }
+
+    private List<AiClientModel> enabledModels(AiClientConfigGraph graph, List<String> modelIds) {
+        return modelIds.stream()
+                .distinct()
+                .map(graph::getModel)
+                .filter(model -> model != null && AiClientConfigGraph.isEnabled(model.getStatus()))
                 .collect(Collectors.toList());
     }
 
@@ -243,21 +246,12 @@ public class AgentRepository implements IAgentRepository {
                 .build();
     }
 
-    private AiClientModelVO convertToAiClientModelVO(AiClientModel po, List<String> modelIds) {
-        return convertToAiClientModelVO(po);
-    }
-
-    private AiClientModelVO convertToAiClientModelVO(AiClientModel po) {
+    private AiClientModelVO convertToAiClientModelVO(AiClientConfigGraph graph, AiClientModel po) {
         // 查询当前模型关联的 MCP 工具 ID
-        List<String> toolMcpIds = aiClientConfigDao.queryAll()
-                .stream()
-                .filter(config -> "model".equals(config.getSourceType()) && 
-                                 po.getModelId().equals(config.getSourceId()) &&
-                                 "mcp".equals(config.getTargetType()) &&
-                                 config.getStatus() == 1)
-                .map(AiClientConfig::getTargetId)
-                .collect(Collectors.toList());
+        return convertToAiClientModelVO(po, graph.targetIds(SOURCE_TYPE_MODEL, po.getModelId(), TARGET_TYPE_MCP));
+    }
 
+    private AiClientModelVO convertToAiClientModelVO(AiClientModel po, List<String> toolMcpIds) {
         return AiClientModelVO.builder()
                 .modelId(po.getModelId())
                 .apiId(po.getApiId())
@@ -277,10 +271,20 @@ public class AgentRepository implements IAgentRepository {
                 .transportType(po.getTransportType())
                 .transportConfig(po.getTransportConfig())
                 .requestTimeout(po.getRequestTimeout())
+                .extParam(po.getExtParam())
                 .status(po.getStatus())
                 .createTime(po.getCreateTime())
                 .updateTime(po.getUpdateTime());
 
+        // 解析扩展参数
+        if (StringUtils.isNotBlank(po.getExtParam())) {
+            try {
+                builder.extParamConfig(JSON.parseObject(po.getExtParam(), AiClientToolMcpVO.ExtParamConfig.class));
+            } catch (Exception e) {
+                log.warn("解析MCP扩展参数失败，mcpId: {}, extParam: {}", po.getMcpId(), po.getExtParam(), e);
+            }
+        }
+
         // 根据传输类型解析配置
         if (StringUtils.isNotBlank(po.getTransportConfig())) {
             try {
@@ -325,54 +329,43 @@ public class AgentRepository implements IAgentRepository {
                 .build();
     }
 
-    private AiClientVO convertToAiClientVO(AiClient po) {
+    private AiClientVO convertToAiClientVO(AiClientConfigGraph graph, AiClient po) {
         String clientId = po.getClientId();
-        
+        Map<String, List<String>> targetIds = new HashMap<>();
+        for (String targetType : List.of(TARGET_TYPE_MODEL, TARGET_TYPE_MCP, TARGET_TYPE_ADVISOR, TARGET_TYPE_PROMPT)) {
+            targetIds.put(targetType, graph.targetIds(SOURCE_TYPE_CLIENT, clientId, targetType));
+        }
+        return convertToAiClientVO(po, targetIds);
+    }
+
+    private AiClientVO convertToAiClientVO(AiClient po, Map<String, List<String>> targetIds) {
         // 查询客户端关联的模型Bean名称
         String modelBeanName = null;
-        List<AiClientConfig> modelConfigs = aiClientConfigDao.queryAll()
-                .stream()
-                .filter(config -> "client".equals(config.getSourceType()) && 
-                                 clientId.equals(config.getSourceId()) &&
-                                 "model".equals(config.getTargetType()) &&
-                                 config.getStatus() == 1)
-                .collect(Collectors.toList());
-        
-        if (!modelConfigs.isEmpty()) {
-            String modelId = modelConfigs.get(0).getTargetId();
-            modelBeanName = AiAgentEnumVO.AI_CLIENT_MODEL.getBeanName(modelId);
+        List<String> modelIds = targetIds.getOrDefault(TARGET_TYPE_MODEL, List.of());
+        if (!modelIds.isEmpty()) {
+            modelBeanName = AiAgentEnumVO.AI_CLIENT_MODEL.getBeanName(modelIds.get(0));
         }
-        
+
         // 查询客户端关联的MCP工具Bean名称列表
-        List<String> mcpBeanNameList = aiClientConfigDao.queryAll()
+        List<String> mcpBeanNameList = targetIds.getOrDefault(TARGET_TYPE_MCP, List.of())
                 .stream()
-                .filter(config -> "client".equals(config.getSourceType()) && 
-                                 clientId.equals(config.getSourceId()) &&
-                                 "mcp".equals(config.getTargetType()) &&
-                                 config.getStatus() == 1)
-                .map(config -> AiAgentEnumVO.AI_CLIENT_TOOL_MCP.getBeanName(config.getTargetId()))
+                .distinct()
+                .map(AiAgentEnumVO.AI_CLIENT_TOOL_MCP::getBeanName)
                 .collect(Collectors.toList());
-        
+
         // 查询客户端关联的顾问Bean名称列表
-        List<String> advisorBeanNameList = aiClientConfigDao.queryAll()
+        List<String> advisorBeanNameList = targetIds.getOrDefault(TARGET_TYPE_ADVISOR, List.of())
                 .stream()
-                .filter(config -> "client".equals(config.getSourceType()) && 
-                                 clientId.equals(config.getSourceId()) &&
-                                 "advisor".equals(config.getTargetType()) &&
-                                 config.getStatus() == 1)
-                .map(config -> AiAgentEnumVO.AI_CLIENT_ADVISOR.getBeanName(config.getTargetId()))
+                .distinct()
+                .map(AiAgentEnumVO.AI_CLIENT_ADVISOR::getBeanName)
                 .collect(Collectors.toList());
-        
+
         // 查询客户端关联的提示词ID列表
-        List<String> promptIdList = aiClientConfigDao.queryAll()
+        List<String> promptIdList = targetIds.getOrDefault(TARGET_TYPE_PROMPT, List.of())
                 .stream()
-                .filter(config -> "client".equals(config.getSourceType()) && 
-                                 clientId.equals(config.getSourceId()) &&
-                                 "prompt".equals(config.getTargetType()) &&
-                                 config.getStatus() == 1)
-                .map(AiClientConfig::getTargetId)
+                .distinct()
                 .collect(Collectors.toList());
-        
+
         return AiClientVO.builder()
                 .clientId(po.getClientId())
                 .clientName(po.getClientName())
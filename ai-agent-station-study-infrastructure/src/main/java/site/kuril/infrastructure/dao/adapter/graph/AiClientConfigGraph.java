@@ -0,0 +1,221 @@
+package site.kuril.infrastructure.dao.adapter.graph;
+
+import site.kuril.infrastructure.dao.po.*;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * 客户端配置图快照（不可变）
+ * 按 (sourceType, sourceId, targetType) 索引 ai_client_config 中启用的关联关系，
+ * 并按主键ID索引 client/api/model/mcp/prompt/advisor 记录，使仓储查询退化为哈希查找。
+ * 快照按需加载：只包含已请求过的客户端/模型子图，新片段通过 {@link #merge} 生成新版本
+ */
+public final class AiClientConfigGraph {
+
+    private static final AiClientConfigGraph EMPTY = new AiClientConfigGraph(0L, null,
+            Set.of(), Set.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+
+    /**
+     * 快照版本号，每次变更递增
+     */
+    private final long version;
+
+    /**
+     * 快照对应的配置水位线
+     */
+    private final AiClientConfigWatermark watermark;
+
+    /**
+     * 已完整加载关联关系的客户端ID / 模型ID
+     */
+    private final Set<String> loadedClientIds;
+    private final Set<String> loadedModelIds;
+
+    /**
+     * 关联关系索引：(sourceType, sourceId, targetType) -> 目标ID列表（保持数据库顺序）
+     */
+    private final Map<EdgeKey, List<String>> edgeIndex;
+
+    private final Map<String, AiClient> clientMap;
+    private final Map<String, AiClientApi> apiMap;
+    private final Map<String, AiClientModel> modelMap;
+    private final Map<String, AiClientToolMcp> toolMcpMap;
+    private final Map<String, AiClientSystemPrompt> systemPromptMap;
+    private final Map<String, AiClientAdvisor> advisorMap;
+
+    private AiClientConfigGraph(long version,
+                                AiClientConfigWatermark watermark,
+                                Set<String> loadedClientIds,
+                                Set<String> loadedModelIds,
+                                Map<EdgeKey, List<String>> edgeIndex,
+                                Map<String, AiClient> clientMap,
+                                Map<String, AiClientApi> apiMap,
+                                Map<String, AiClientModel> modelMap,
+                                Map<String, AiClientToolMcp> toolMcpMap,
+                                Map<String, AiClientSystemPrompt> systemPromptMap,
+                                Map<String, AiClientAdvisor> advisorMap) {
+        this.version = version;
+        this.watermark = watermark;
+        this.loadedClientIds = loadedClientIds;
+        this.loadedModelIds = loadedModelIds;
+        this.edgeIndex = edgeIndex;
+        this.clientMap = clientMap;
+        this.apiMap = apiMap;
+        this.modelMap = modelMap;
+        this.toolMcpMap = toolMcpMap;
+        this.systemPromptMap = systemPromptMap;
+        this.advisorMap = advisorMap;
+    }
+
+    public static AiClientConfigGraph empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 创建指定水位线下的空快照
+     */
+    public static AiClientConfigGraph empty(long version, AiClientConfigWatermark watermark) {
+        return new AiClientConfigGraph(version, watermark,
+                Set.of(), Set.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of(), Map.of());
+    }
+
+    /**
+     * 合并按需加载的片段，返回新版本快照（写时复制，当前快照保持不变）
+     */
+    public AiClientConfigGraph merge(long newVersion, AiClientConfigGraphSegment segment) {
+        Map<EdgeKey, List<String>> mergedEdges = new HashMap<>(edgeIndex);
+        Map<EdgeKey, List<String>> segmentEdges = new LinkedHashMap<>();
+        for (AiClientConfig config : segment.getConfigs()) {
+            if (!isEnabled(config.getStatus())) {
+                continue;
+            }
+            EdgeKey key = new EdgeKey(config.getSourceType(), config.getSourceId(), config.getTargetType());
+            segmentEdges.computeIfAbsent(key, k -> new ArrayList<>()).add(config.getTargetId());
+        }
+        segmentEdges.forEach((key, targetIds) -> mergedEdges.put(key, List.copyOf(new LinkedHashSet<>(targetIds))));
+
+        return new AiClientConfigGraph(newVersion, watermark,
+                union(loadedClientIds, segment.getClientIds()),
+                union(loadedModelIds, segment.getModelIds()),
+                Collections.unmodifiableMap(mergedEdges),
+                index(clientMap, segment.getClients(), AiClient::getClientId),
+                index(apiMap, segment.getApis(), AiClientApi::getApiId),
+                index(modelMap, segment.getModels(), AiClientModel::getModelId),
+                index(toolMcpMap, segment.getToolMcps(), AiClientToolMcp::getMcpId),
+                index(systemPromptMap, segment.getSystemPrompts(), AiClientSystemPrompt::getPromptId),
+                index(advisorMap, segment.getAdvisors(), AiClientAdvisor::getAdvisorId));
+    }
+
+    /**
+     * 查询单个源的目标ID列表
+     */
+    public List<String> targetIds(String sourceType, String sourceId, String targetType) {
+        return edgeIndex.getOrDefault(new EdgeKey(sourceType, sourceId, targetType), List.of());
+    }
+
+    /**
+     * 查询多个源的目标ID列表（去重，保持顺序）
+     */
+    public List<String> targetIds(String sourceType, Collection<String> sourceIds, String targetType) {
+        Set<String> targetIds = new LinkedHashSet<>();
+        for (String sourceId : sourceIds) {
+            targetIds.addAll(targetIds(sourceType, sourceId, targetType));
+        }
+        return new ArrayList<>(targetIds);
+    }
+
+    /**
+     * 返回尚未加载的客户端ID
+     */
+    public List<String> missingClientIds(Collection<String> clientIds) {
+        return missing(loadedClientIds, clientIds);
+    }
+
+    /**
+     * 返回尚未加载的模型ID
+     */
+    public List<String> missingModelIds(Collection<String> modelIds) {
+        return missing(loadedModelIds, modelIds);
+    }
+
+    public AiClient getClient(String clientId) {
+        return clientMap.get(clientId);
+    }
+
+    public AiClientApi getApi(String apiId) {
+        return apiMap.get(apiId);
+    }
+
+    public AiClientModel getModel(String modelId) {
+        return modelMap.get(modelId);
+    }
+
+    public AiClientToolMcp getToolMcp(String mcpId) {
+        return toolMcpMap.get(mcpId);
+    }
+
+    public AiClientSystemPrompt getSystemPrompt(String promptId) {
+        return systemPromptMap.get(promptId);
+    }
+
+    public AiClientAdvisor getAdvisor(String advisorId) {
+        return advisorMap.get(advisorId);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public AiClientConfigWatermark getWatermark() {
+        return watermark;
+    }
+
+    /**
+     * 是否已与数据库水位线对齐
+     */
+    public boolean isLoaded() {
+        return watermark != null;
+    }
+
+    public static boolean isEnabled(Integer status) {
+        return status != null && status == 1;
+    }
+
+    private static List<String> missing(Set<String> loaded, Collection<String> ids) {
+        List<String> missing = new ArrayList<>();
+        for (String id : new LinkedHashSet<>(ids)) {
+            if (id != null && !loaded.contains(id)) {
+                missing.add(id);
+            }
+        }
+        return missing;
+    }
+
+    private static Set<String> union(Set<String> loaded, List<String> added) {
+        if (added.isEmpty()) {
+            return loaded;
+        }
+        Set<String> merged = new HashSet<>(loaded);
+        merged.addAll(added);
+        return Collections.unmodifiableSet(merged);
+    }
+
+    private static <T> Map<String, T> index(Map<String, T> current, List<T> rows, Function<T, String> idGetter) {
+        if (rows.isEmpty()) {
+            return current;
+        }
+        Map<String, T> map = new HashMap<>(current);
+        for (T row : rows) {
+            map.put(idGetter.apply(row), row);
+        }
+        return Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * 关联关系索引键
+     */
+    private record EdgeKey(String sourceType, String sourceId, String targetType) {
+    }
+
+}
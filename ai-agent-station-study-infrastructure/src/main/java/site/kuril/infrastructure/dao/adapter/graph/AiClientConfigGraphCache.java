@@ -0,0 +1,225 @@
+package site.kuril.infrastructure.dao.adapter.graph;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import site.kuril.infrastructure.dao.*;
+import site.kuril.infrastructure.dao.po.AiClientConfig;
+import site.kuril.infrastructure.dao.po.AiClientConfigWatermark;
+import site.kuril.infrastructure.dao.po.AiClientModel;
+
+import javax.annotation.Resource;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 客户端配置图快照缓存
+ * 通过 update_time 水位线判断快照是否过期，过期时丢弃快照；缺失的客户端/模型子图通过批量 IN 查询按需加载，
+ * 合并后以 volatile 引用发布新版本。水位线检查按 refresh-interval 节流，命中时读路径不加锁
+ */
+@Slf4j
+@Component
+public class AiClientConfigGraphCache {
+
+    private static final String SOURCE_TYPE_CLIENT = "client";
+    private static final String SOURCE_TYPE_MODEL = "model";
+    private static final String TARGET_TYPE_API = "api";
+    private static final String TARGET_TYPE_MODEL = "model";
+    private static final String TARGET_TYPE_MCP = "mcp";
+    private static final String TARGET_TYPE_PROMPT = "prompt";
+    private static final String TARGET_TYPE_ADVISOR = "advisor";
+
+    @Resource
+    private IAiClientDao aiClientDao;
+
+    @Resource
+    private IAiClientApiDao aiClientApiDao;
+
+    @Resource
+    private IAiClientModelDao aiClientModelDao;
+
+    @Resource
+    private IAiClientToolMcpDao aiClientToolMcpDao;
+
+    @Resource
+    private IAiClientSystemPromptDao aiClientSystemPromptDao;
+
+    @Resource
+    private IAiClientAdvisorDao aiClientAdvisorDao;
+
+    @Resource
+    private IAiClientConfigDao aiClientConfigDao;
+
+    /**
+     * 水位线检查间隔（毫秒），间隔内直接复用当前快照
+     */
+    @Value("${spring.ai.agent.config-graph.refresh-interval-ms:5000}")
+    private long refreshIntervalMillis;
+
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    private final Object refreshLock = new Object();
+
+    private volatile AiClientConfigGraph graph = AiClientConfigGraph.empty();
+
+    private volatile long lastCheckMillis;
+
+    /**
+     * 获取包含指定客户端子图的快照
+     */
+    public AiClientConfigGraph forClients(Collection<String> clientIds) {
+        AiClientConfigGraph snapshot = current();
+        if (snapshot.missingClientIds(clientIds).isEmpty()) {
+            return snapshot;
+        }
+
+        synchronized (refreshLock) {
+            snapshot = graph;
+            List<String> missingClientIds = snapshot.missingClientIds(clientIds);
+            if (missingClientIds.isEmpty()) {
+                return snapshot;
+            }
+            snapshot = snapshot.merge(versionSequence.incrementAndGet(), loadClientSegment(snapshot, missingClientIds));
+            graph = snapshot;
+            return snapshot;
+        }
+    }
+
+    /**
+     * 获取包含指定模型子图的快照
+     */
+    public AiClientConfigGraph forModels(Collection<String> modelIds) {
+        AiClientConfigGraph snapshot = current();
+        if (snapshot.missingModelIds(modelIds).isEmpty()) {
+            return snapshot;
+        }
+
+        synchronized (refreshLock) {
+            snapshot = graph;
+            List<String> missingModelIds = snapshot.missingModelIds(modelIds);
+            if (missingModelIds.isEmpty()) {
+                return snapshot;
+            }
+            AiClientConfigGraphSegment segment = new AiClientConfigGraphSegment();
+            Set<String> apiIds = new LinkedHashSet<>();
+            Set<String> mcpIds = new LinkedHashSet<>();
+            loadModelSegment(missingModelIds, segment, apiIds, mcpIds);
+            loadReferencedRows(snapshot, segment, apiIds, mcpIds);
+            snapshot = snapshot.merge(versionSequence.incrementAndGet(), segment);
+            graph = snapshot;
+            return snapshot;
+        }
+    }
+
+    /**
+     * 使当前快照失效，下一次读取时强制检查水位线
+     */
+    public void invalidate() {
+        lastCheckMillis = 0L;
+        graph = AiClientConfigGraph.empty();
+    }
+
+    /**
+     * 获取当前快照，必要时检查水位线；水位线变化时丢弃已加载的子图
+     */
+    private AiClientConfigGraph current() {
+        AiClientConfigGraph snapshot = graph;
+        if (snapshot.isLoaded() && System.currentTimeMillis() - lastCheckMillis < refreshIntervalMillis) {
+            return snapshot;
+        }
+
+        synchronized (refreshLock) {
+            snapshot = graph;
+            long now = System.currentTimeMillis();
+            if (snapshot.isLoaded() && now - lastCheckMillis < refreshIntervalMillis) {
+                return snapshot;
+            }
+
+            // 先取水位线再按需读表：读表期间发生的变更会体现在下一次水位线中，不会被遗漏
+            AiClientConfigWatermark watermark = aiClientConfigDao.queryConfigWatermark();
+            if (watermark == null) {
+                watermark = new AiClientConfigWatermark();
+            }
+            if (!snapshot.isLoaded() || !Objects.equals(watermark, snapshot.getWatermark())) {
+                log.info("客户端配置水位线变化，丢弃配置图快照, version: {}, watermark: {}", snapshot.getVersion(), watermark);
+                snapshot = AiClientConfigGraph.empty(versionSequence.incrementAndGet(), watermark);
+                graph = snapshot;
+            }
+            lastCheckMillis = now;
+            return snapshot;
+        }
+    }
+
+    private AiClientConfigGraphSegment loadClientSegment(AiClientConfigGraph snapshot, List<String> clientIds) {
+        long start = System.currentTimeMillis();
+        AiClientConfigGraphSegment segment = new AiClientConfigGraphSegment();
+        segment.setClientIds(clientIds);
+        segment.setClients(aiClientDao.queryByClientIds(clientIds));
+
+        List<AiClientConfig> clientConfigs = aiClientConfigDao.queryBySourceIdsAndTargetType(SOURCE_TYPE_CLIENT, clientIds, null);
+        segment.getConfigs().addAll(clientConfigs);
+        Map<String, List<String>> targetIdsByType = clientConfigs.stream()
+                .collect(Collectors.groupingBy(AiClientConfig::getTargetType, LinkedHashMap::new,
+                        Collectors.mapping(AiClientConfig::getTargetId, Collectors.toList())));
+
+        // 模型子图（含 model -> mcp 关联及模型引用的 API）
+        Set<String> apiIds = new LinkedHashSet<>(targetIdsByType.getOrDefault(TARGET_TYPE_API, List.of()));
+        Set<String> mcpIds = new LinkedHashSet<>(targetIdsByType.getOrDefault(TARGET_TYPE_MCP, List.of()));
+        List<String> modelIds = snapshot.missingModelIds(targetIdsByType.getOrDefault(TARGET_TYPE_MODEL, List.of()));
+        loadModelSegment(modelIds, segment, apiIds, mcpIds);
+        loadReferencedRows(snapshot, segment, apiIds, mcpIds);
+
+        segment.getSystemPrompts().addAll(queryMissing(targetIdsByType.getOrDefault(TARGET_TYPE_PROMPT, List.of()),
+                snapshot::getSystemPrompt, aiClientSystemPromptDao::queryByPromptIds));
+        segment.getAdvisors().addAll(queryMissing(targetIdsByType.getOrDefault(TARGET_TYPE_ADVISOR, List.of()),
+                snapshot::getAdvisor, aiClientAdvisorDao::queryByAdvisorIds));
+
+        log.info("按需加载客户端配置子图, clientIds: {}, 关联数量: {}, 耗时: {}ms",
+                clientIds, clientConfigs.size(), System.currentTimeMillis() - start);
+        return segment;
+    }
+
+    /**
+     * 加载模型行及 model -> * 关联，并收集模型引用的 API ID / MCP ID
+     */
+    private void loadModelSegment(List<String> modelIds, AiClientConfigGraphSegment segment, Set<String> apiIds, Set<String> mcpIds) {
+        if (modelIds.isEmpty()) {
+            return;
+        }
+        List<AiClientModel> models = aiClientModelDao.queryByModelIds(modelIds);
+        List<AiClientConfig> modelConfigs = aiClientConfigDao.queryBySourceIdsAndTargetType(SOURCE_TYPE_MODEL, modelIds, null);
+        segment.getModelIds().addAll(modelIds);
+        segment.getModels().addAll(models);
+        segment.getConfigs().addAll(modelConfigs);
+
+        models.forEach(model -> apiIds.add(model.getApiId()));
+        modelConfigs.stream()
+                .filter(config -> TARGET_TYPE_MCP.equals(config.getTargetType()))
+                .forEach(config -> mcpIds.add(config.getTargetId()));
+    }
+
+    /**
+     * 批量加载子图引用到的 API / MCP 记录
+     */
+    private void loadReferencedRows(AiClientConfigGraph snapshot, AiClientConfigGraphSegment segment, Set<String> apiIds, Set<String> mcpIds) {
+        segment.getApis().addAll(queryMissing(apiIds, snapshot::getApi, aiClientApiDao::queryByApiIds));
+        segment.getToolMcps().addAll(queryMissing(mcpIds, snapshot::getToolMcp, aiClientToolMcpDao::queryByMcpIds));
+    }
+
+    /**
+     * 只查询快照中尚不存在的记录，空列表不访问数据库
+     */
+    private <T> List<T> queryMissing(Collection<String> ids, Function<String, T> cached, Function<List<String>, List<T>> query) {
+        List<String> missingIds = ids.stream()
+                .filter(id -> id != null && cached.apply(id) == null)
+                .distinct()
+                .collect(Collectors.toList());
+        if (missingIds.isEmpty()) {
+            return List.of();
+        }
+        return query.apply(missingIds);
+    }
+
+}
@@ -0,0 +1,55 @@
+package site.kuril.infrastructure.dao.adapter.graph;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import site.kuril.infrastructure.dao.po.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 客户端配置图片段
+ * 一次按需加载（按客户端ID或模型ID批量查询）得到的行数据，合并进配置图快照
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AiClientConfigGraphSegment {
+
+    /**
+     * 本次完整加载了关联关系的客户端ID
+     */
+    @Builder.Default
+    private List<String> clientIds = new ArrayList<>();
+
+    /**
+     * 本次完整加载了关联关系的模型ID
+     */
+    @Builder.Default
+    private List<String> modelIds = new ArrayList<>();
+
+    @Builder.Default
+    private List<AiClientConfig> configs = new ArrayList<>();
+
+    @Builder.Default
+    private List<AiClient> clients = new ArrayList<>();
+
+    @Builder.Default
+    private List<AiClientApi> apis = new ArrayList<>();
+
+    @Builder.Default
+    private List<AiClientModel> models = new ArrayList<>();
+
+    @Builder.Default
+    private List<AiClientToolMcp> toolMcps = new ArrayList<>();
+
+    @Builder.Default
+    private List<AiClientSystemPrompt> systemPrompts = new ArrayList<>();
+
+    @Builder.Default
+    private List<AiClientAdvisor> advisors = new ArrayList<>();
+
+}
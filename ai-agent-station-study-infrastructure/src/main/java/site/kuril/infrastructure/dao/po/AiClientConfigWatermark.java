@@ -0,0 +1,29 @@
+package site.kuril.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 客户端配置水位线
+ * 汇总 ai_client* 相关表的最大更新时间和总行数，用于判断配置快照是否过期
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AiClientConfigWatermark {
+
+    /**
+     * 相关表中最大的更新时间
+     */
+    private LocalDateTime maxUpdateTime;
+
+    /**
+     * 相关表的总行数（用于感知删除）
+     */
+    private Long totalCount;
+}
@@ -0,0 +1,50 @@
+package site.kuril.infrastructure.dao.po;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 客户端配置图连接查询行
+ * ai_client 左连接 ai_client_config 及各目标表，每行对应一条 client -> target 关联
+ */
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class AiClientGraphRow {
+
+    /**
+     * 关联配置主键ID（客户端无关联时为空）
+     */
+    private Long configId;
+
+    /**
+     * 客户端
+     */
+    private AiClient client;
+
+    /**
+     * 目标类型（api、model、mcp、prompt、advisor）
+     */
+    private String targetType;
+
+    /**
+     * 目标ID
+     */
+    private String targetId;
+
+    /**
+     * 启用的目标记录，目标类型不匹配或目标被禁用时为空
+     */
+    private AiClientApi api;
+
+    private AiClientModel model;
+
+    private AiClientToolMcp toolMcp;
+
+    private AiClientSystemPrompt systemPrompt;
+
+    private AiClientAdvisor advisor;
+}
@@ -43,6 +43,11 @@ public class AiClientToolMcp {
      */
     private Integer requestTimeout;
 
+    /**
+     * 扩展参数(JSON格式)，如延迟连接配置 {"lazyInit":true,"idleTtlSeconds":600}
+     */
+    private String extParam;
+
     /**
      * 状态(0:禁用,1:启用)
      */
@@ -1,14 +1,56 @@
 package site.kuril.trigger.http;
 
+import com.alibaba.fastjson.JSON;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 import site.kuril.api.IAiAgentService;
+import site.kuril.api.response.Response;
+import site.kuril.domain.agent.model.entity.ArmoryCommandEntity;
+import site.kuril.domain.agent.model.entity.AutoAgentExecuteResultEntity;
 import site.kuril.domain.agent.model.entity.ExecuteCommandEntity;
+import site.kuril.domain.agent.model.valobj.AiAgentEnumVO;
+import site.kuril.domain.agent.model.valobj.AiClientReadinessVO;
+import site.kuril.domain.agent.model.valobj.ArmoryChangeSetVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentAdmissionLimitVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentAdmissionMetricsVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentCancellationMetricsVO;
+import site.kuril.domain.agent.model.valobj.AutoAgentSessionExecutorMetricsVO;
+import site.kuril.domain.agent.model.valobj.LlmConcurrencyLimitMetricsVO;
+import site.kuril.domain.agent.model.valobj.LlmHttpPoolMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpCircuitBreakerMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpConnectionPoolMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpResourceLifecycleMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpToolCallbackCacheMetricsVO;
+import site.kuril.domain.agent.model.valobj.McpToolResultCacheStatsVO;
+import site.kuril.domain.agent.model.valobj.enums.AutoAgentExecuteStateEnumVO;
+import site.kuril.domain.agent.service.armory.factory.DefaultArmoryStrategyFactory;
+import site.kuril.domain.agent.service.armory.mcp.McpCircuitBreakerRegistry;
+import site.kuril.domain.agent.service.armory.mcp.McpConnectionPoolManager;
+import site.kuril.domain.agent.service.armory.mcp.McpResourceLifecycleManager;
+import site.kuril.domain.agent.service.armory.mcp.McpToolCallbackCache;
+import site.kuril.domain.agent.service.armory.mcp.McpToolResultCache;
+import site.kuril.domain.agent.service.armory.readiness.AiClientReadinessTracker;
+import site.kuril.domain.agent.service.armory.transport.LlmHttpTransportManager;
 import site.kuril.domain.agent.service.execute.factory.DefaultAutoAgentExecuteStrategyFactory;
+import site.kuril.domain.agent.service.execute.limit.LlmConcurrencyLimiter;
+import site.kuril.domain.agent.service.execute.session.AutoAgentAdmissionManager;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationMonitor;
+import site.kuril.domain.agent.service.execute.session.AutoAgentCancellationToken;
+import site.kuril.domain.agent.service.execute.session.AutoAgentSessionExecutor;
+import site.kuril.types.common.Constants;
+import site.kuril.types.enums.ResponseCode;
+import site.kuril.types.exception.AppException;
 
 import javax.annotation.Resource;
-import java.util.concurrent.CompletableFuture;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * AI Agent 控制器
@@ -25,6 +67,48 @@ public class AiAgentController implements IAiAgentService {
     @Resource
     private DefaultAutoAgentExecuteStrategyFactory defaultAutoAgentExecuteStrategyFactory;
 
+    @Resource
+    private DefaultArmoryStrategyFactory defaultArmoryStrategyFactory;
+
+    @Resource
+    private AiClientReadinessTracker aiClientReadinessTracker;
+
+    @Resource
+    private McpToolCallbackCache mcpToolCallbackCache;
+
+    @Resource
+    private McpConnectionPoolManager mcpConnectionPoolManager;
+
+    @Resource
+    private McpToolResultCache mcpToolResultCache;
+
+    @Resource
+    private McpCircuitBreakerRegistry mcpCircuitBreakerRegistry;
+
+    @Resource
+    private McpResourceLifecycleManager mcpResourceLifecycleManager;
+
+    @Resource
+    private AutoAgentSessionExecutor autoAgentSessionExecutor;
+
+    @Resource
+    private AutoAgentAdmissionManager autoAgentAdmissionManager;
+
+    @Resource
+    private LlmConcurrencyLimiter llmConcurrencyLimiter;
+
+    @Resource
+    private LlmHttpTransportManager llmHttpTransportManager;
+
+    @Resource
+    private AutoAgentCancellationMonitor autoAgentCancellationMonitor;
+
+    /**
+     * 所需客户端仍在后台装配时，请求最多排队等待的时间(毫秒)
+     */
+    @Value("${spring.ai.agent.readiness.max-wait-ms:3000}")
+    private long readinessMaxWaitMillis;
+
     /**
      * AutoAgent自动对话接口
      * 支持SSE流式响应，实时返回AI的思考过程和执行结果
@@ -40,45 +124,73 @@ public class AiAgentController implements IAiAgentService {
                 executeCommandEntity.getMessage(), 
                 executeCommandEntity.getMaxStep());
 
+        // 所需客户端未就绪时短暂排队，仍未就绪则直接返回 503，不建立 SSE 连接
+        List<String> notReadyClientIds = aiClientReadinessTracker.awaitAgentClients(
+                executeCommandEntity.getAiAgentId(), readinessMaxWaitMillis);
+        if (!notReadyClientIds.isEmpty()) {
+            log.warn("AutoAgent客户端未就绪: sessionId={}, aiAgentId={}, clientIds={}",
+                    executeCommandEntity.getSessionId(), executeCommandEntity.getAiAgentId(), notReadyClientIds);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AI客户端未就绪: " + notReadyClientIds);
+        }
+
         // 创建SSE响应发射器
         ResponseBodyEmitter emitter = new ResponseBodyEmitter(0L);
+        String sessionId = executeCommandEntity.getSessionId();
 
-        // 设置SSE响应头
-        emitter.onCompletion(() -> log.info("SSE连接完成: sessionId={}", executeCommandEntity.getSessionId()));
-        emitter.onTimeout(() -> log.warn("SSE连接超时: sessionId={}", executeCommandEntity.getSessionId()));
-        emitter.onError((throwable) -> log.error("SSE连接错误: sessionId={}, error={}", 
-                executeCommandEntity.getSessionId(), throwable.getMessage(), throwable));
+        // 动态上下文在会话提交前创建，连接完成、超时或出错时取消会话；仍在排队的会话直接撤回
+        DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext =
+                new DefaultAutoAgentExecuteStrategyFactory.DynamicContext();
+        dynamicContext.setValue("emitter", emitter);
+        AutoAgentCancellationToken cancellationToken = dynamicContext.getCancellationToken();
+        AtomicReference<AutoAgentAdmissionManager.Ticket> ticketRef = new AtomicReference<>();
+
+        emitter.onCompletion(() -> {
+            log.info("SSE连接完成: sessionId={}", sessionId);
+            cancelSession(sessionId, dynamicContext, ticketRef.get(), "SSE连接完成");
+        });
+        emitter.onTimeout(() -> {
+            log.warn("SSE连接超时: sessionId={}", sessionId);
+            cancelSession(sessionId, dynamicContext, ticketRef.get(), "SSE连接超时");
+        });
+        emitter.onError((throwable) -> {
+            log.error("SSE连接错误: sessionId={}, error={}", sessionId, throwable.getMessage(), throwable);
+            cancelSession(sessionId, dynamicContext, ticketRef.get(), "SSE连接错误");
+        });
 
-        // 异步执行AutoAgent任务
-        CompletableFuture.runAsync(() -> {
+        // 会话任务，在独立的会话执行器中执行
+        Runnable session = () -> {
             try {
                 // 创建执行策略处理器
                 DefaultAutoAgentExecuteStrategyFactory.StrategyHandler<ExecuteCommandEntity, DefaultAutoAgentExecuteStrategyFactory.DynamicContext, String> executeHandler
                         = defaultAutoAgentExecuteStrategyFactory.armoryStrategyHandler();
 
-                // 创建动态上下文并注入emitter
-                DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext = 
-                        new DefaultAutoAgentExecuteStrategyFactory.DynamicContext();
-                dynamicContext.setValue("emitter", emitter);
-
                 // 执行AutoAgent任务
                 String result = executeHandler.apply(executeCommandEntity, dynamicContext);
-                
+            
                 log.info("AutoAgent执行完成: sessionId={}, result={}", 
                         executeCommandEntity.getSessionId(), result);
 
+                // 客户端已断开，不再发送完成信号
+                if (cancellationToken.isCancelled()) {
+                    return;
+                }
+
                 // 发送完成信号
                 emitter.send("data: {\"type\":\"complete\",\"completed\":true,\"timestamp\":" + 
                         System.currentTimeMillis() + ",\"sessionId\":\"" + 
                         executeCommandEntity.getSessionId() + "\"}\n\n");
-                
+            
                 // 完成响应
                 emitter.complete();
 
             } catch (Exception e) {
+                if (cancellationToken.isCancelled()) {
+                    log.info("AutoAgent会话已取消: sessionId={}, reason={}", sessionId, cancellationToken.getReason());
+                    return;
+                }
                 log.error("AutoAgent执行异常: sessionId={}, error={}", 
                         executeCommandEntity.getSessionId(), e.getMessage(), e);
-                
+            
                 try {
                     // 发送错误信息
                     emitter.send("data: {\"type\":\"error\",\"content\":\"" + 
@@ -92,8 +204,289 @@ public class AiAgentController implements IAiAgentService {
                     emitter.completeWithError(sendError);
                 }
             }
-        });
+        };
+
+        // 经准入控制提交：有名额立即执行，否则排队并推送排队位置；队列已满返回 429，会话执行器已满返回 503
+        try {
+            ticketRef.set(autoAgentAdmissionManager.submit(sessionId, executeCommandEntity.getAiAgentId(), autoAgentSessionExecutor, session,
+                    new AutoAgentAdmissionManager.AdmissionListener() {
+                        @Override
+                        public void onQueued(int position) {
+                            sendSseEvent(emitter, AutoAgentExecuteResultEntity.createQueuedResult(position, sessionId));
+                        }
+
+                        @Override
+                        public void onExpired(String reason) {
+                            sendSseEvent(emitter, AutoAgentExecuteResultEntity.createErrorResult(0, reason, sessionId));
+                            emitter.complete();
+                        }
+                    }));
+        } catch (AppException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getInfo());
+        } catch (RejectedExecutionException e) {
+            log.warn("AutoAgent会话执行器已满，拒绝会话: sessionId={}, metrics={}",
+                    sessionId, autoAgentSessionExecutor.queryMetrics());
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "AutoAgent会话已满，请稍后重试");
+        }
+
+        // 提交期间连接已断开：回调执行时凭证尚未返回
+        if (cancellationToken.isCancelled()) {
+            autoAgentAdmissionManager.withdraw(ticketRef.get());
+        }
 
         return emitter;
     }
+
+    /**
+     * 取消会话：执行中的会话在当前模型或工具调用中止后结束，排队中的会话从等待队列撤回；会话已正常结束时无影响
+     */
+    private void cancelSession(String sessionId, DefaultAutoAgentExecuteStrategyFactory.DynamicContext dynamicContext,
+                               AutoAgentAdmissionManager.Ticket ticket, String reason) {
+        AutoAgentExecuteStateEnumVO state = dynamicContext.getState();
+        boolean finished = state != null && state.isTerminal();
+        if (!finished && dynamicContext.getCancellationToken().cancel(reason)) {
+            log.info("取消AutoAgent会话: sessionId={}, reason={}", sessionId, reason);
+        }
+        if (ticket != null) {
+            autoAgentAdmissionManager.withdraw(ticket);
+        }
+    }
+
+    /**
+     * 发送SSE事件，连接已断开时只记录日志
+     */
+    private void sendSseEvent(ResponseBodyEmitter emitter, AutoAgentExecuteResultEntity result) {
+        try {
+            emitter.send("data: " + JSON.toJSONString(result) + "\n\n");
+        } catch (IOException | IllegalStateException e) {
+            log.warn("发送SSE事件失败: sessionId={}, type={}, error={}", result.getSessionId(), result.getType(), e.getMessage());
+        }
+    }
+
+    /**
+     * 查询AI客户端就绪状态
+     * 
+     * @return 后台装配进度与冷启动到就绪耗时
+     */
+    @Override
+    @GetMapping("/readiness")
+    public Response<AiClientReadinessVO> readiness() {
+        return Response.<AiClientReadinessVO>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(aiClientReadinessTracker.queryReadiness())
+                .build();
+    }
+
+    /**
+     * 查询MCP工具回调缓存指标
+     * 
+     * @return 工具列举次数与命中缓存避免的次数
+     */
+    @Override
+    @GetMapping("/mcp/tool_cache_metrics")
+    public Response<McpToolCallbackCacheMetricsVO> mcpToolCacheMetrics() {
+        return Response.<McpToolCallbackCacheMetricsVO>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(mcpToolCallbackCache.queryMetrics())
+                .build();
+    }
+
+    /**
+     * 查询MCP连接池指标
+     * 
+     * @return 各连接池的连接数与借出等待时间
+     */
+    @Override
+    @GetMapping("/mcp/pool_metrics")
+    public Response<List<McpConnectionPoolMetricsVO>> mcpPoolMetrics() {
+        return Response.<List<McpConnectionPoolMetricsVO>>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(mcpConnectionPoolManager.queryMetrics())
+                .build();
+    }
+
+    /**
+     * 查询MCP工具结果缓存统计
+     * 
+     * @return 按工具统计的会话层、共享层命中与未命中次数
+     */
+    @Override
+    @GetMapping("/mcp/tool_result_cache_stats")
+    public Response<List<McpToolResultCacheStatsVO>> mcpToolResultCacheStats() {
+        return Response.<List<McpToolResultCacheStatsVO>>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(mcpToolResultCache.queryStats())
+                .build();
+    }
+
+    /**
+     * 查询MCP熔断器状态
+     * 
+     * @return 各 MCP 的熔断状态与状态转换记录
+     */
+    @Override
+    @GetMapping("/mcp/circuit_breakers")
+    public Response<List<McpCircuitBreakerMetricsVO>> mcpCircuitBreakers() {
+        return Response.<List<McpCircuitBreakerMetricsVO>>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(mcpCircuitBreakerRegistry.queryMetrics())
+                .build();
+    }
+
+    /**
+     * 查询装配资源生命周期指标
+     * 
+     * @return 存活的连接数、子进程数与退役中的资源
+     */
+    @Override
+    @GetMapping("/mcp/lifecycle_metrics")
+    public Response<McpResourceLifecycleMetricsVO> mcpLifecycleMetrics() {
+        return Response.<McpResourceLifecycleMetricsVO>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(mcpResourceLifecycleManager.queryMetrics())
+                .build();
+    }
+
+    /**
+     * 查询AutoAgent会话执行器指标
+     * 
+     * @return 执行中与排队中的会话数、累计拒绝数
+     */
+    @Override
+    @GetMapping("/session/executor_metrics")
+    public Response<AutoAgentSessionExecutorMetricsVO> sessionExecutorMetrics() {
+        return Response.<AutoAgentSessionExecutorMetricsVO>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(autoAgentSessionExecutor.queryMetrics())
+                .build();
+    }
+
+    /**
+     * 查询AutoAgent会话准入指标
+     * 
+     * @return 当前限制、执行中与排队中的会话数、累计拒绝与超时数
+     */
+    @Override
+    @GetMapping("/session/admission_metrics")
+    public Response<AutoAgentAdmissionMetricsVO> sessionAdmissionMetrics() {
+        return Response.<AutoAgentAdmissionMetricsVO>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(autoAgentAdmissionManager.queryMetrics())
+                .build();
+    }
+
+    /**
+     * 运行时调整AutoAgent会话准入限制
+     * 
+     * @param limitVO 新的限制，未设置的字段保持不变
+     * @return 调整后的准入指标
+     */
+    @Override
+    @PostMapping("/session/admission_limits")
+    public Response<AutoAgentAdmissionMetricsVO> updateSessionAdmissionLimits(@RequestBody AutoAgentAdmissionLimitVO limitVO) {
+        log.info("调整AutoAgent会话准入限制: {}", limitVO);
+        return Response.<AutoAgentAdmissionMetricsVO>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(autoAgentAdmissionManager.updateLimits(limitVO))
+                .build();
+    }
+
+    /**
+     * 查询AutoAgent会话取消指标
+     * 
+     * @return 客户端断开后取消的会话数，以及省下的步数、模型调用与 token 估算值
+     */
+    @Override
+    @GetMapping("/session/cancellation_metrics")
+    public Response<AutoAgentCancellationMetricsVO> sessionCancellationMetrics() {
+        return Response.<AutoAgentCancellationMetricsVO>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(autoAgentCancellationMonitor.queryMetrics())
+                .build();
+    }
+
+    /**
+     * 查询模型调用自适应并发上限
+     * 
+     * @return 每个 API baseUrl 的当前上限、RTT 与削减数
+     */
+    @Override
+    @GetMapping("/llm/concurrency_limits")
+    public Response<List<LlmConcurrencyLimitMetricsVO>> llmConcurrencyLimits() {
+        return Response.<List<LlmConcurrencyLimitMetricsVO>>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(llmConcurrencyLimiter.queryMetrics())
+                .build();
+    }
+
+    /**
+     * 查询模型调用HTTP连接池指标
+     * 
+     * @return 每个 baseUrl 连接池按远端地址的连接数与等待数
+     */
+    @Override
+    @GetMapping("/llm/http_pool_metrics")
+    public Response<List<LlmHttpPoolMetricsVO>> llmHttpPoolMetrics() {
+        return Response.<List<LlmHttpPoolMetricsVO>>builder()
+                .code(ResponseCode.SUCCESS.getCode())
+                .info(ResponseCode.SUCCESS.getInfo())
+                .data(llmHttpTransportManager.queryPoolMetrics())
+                .build();
+    }
+
+    /**
+     * 增量重新装配AI客户端
+     * 
+     * @param clientIds 客户端ID，逗号分隔
+     * @return 重建与复用的组件
+     */
+    @Override
+    @PostMapping("/armory/reload")
+    public Response<ArmoryChangeSetVO> reloadClients(@RequestParam("clientIds") String clientIds) {
+        List<String> commandIdList = Arrays.stream(clientIds.split(Constants.SPLIT))
+                .map(String::trim)
+                .filter(id -> !id.isEmpty())
+                .toList();
+        if (commandIdList.isEmpty()) {
+            return Response.<ArmoryChangeSetVO>builder()
+                    .code(ResponseCode.ILLEGAL_PARAMETER.getCode())
+                    .info(ResponseCode.ILLEGAL_PARAMETER.getInfo())
+                    .build();
+        }
+
+        try {
+            log.info("增量重新装配AI客户端: {}", commandIdList);
+            DefaultArmoryStrategyFactory.DynamicContext dynamicContext = new DefaultArmoryStrategyFactory.DynamicContext();
+            defaultArmoryStrategyFactory.armoryStrategyHandler().apply(
+                    ArmoryCommandEntity.builder()
+                            .commandType(AiAgentEnumVO.AI_CLIENT.getCode())
+                            .commandIdList(commandIdList)
+                            .incremental(true)
+                            .build(),
+                    dynamicContext);
+
+            return Response.<ArmoryChangeSetVO>builder()
+                    .code(ResponseCode.SUCCESS.getCode())
+                    .info(ResponseCode.SUCCESS.getInfo())
+                    .data(dynamicContext.getArmoryChangeSet())
+                    .build();
+        } catch (Exception e) {
+            log.error("增量重新装配AI客户端失败: {}", commandIdList, e);
+            return Response.<ArmoryChangeSetVO>builder()
+                    .code(ResponseCode.UN_ERROR.getCode())
+                    .info(e.getMessage())
+                    .build();
+        }
+    }
 }
@@ -12,6 +12,7 @@ public enum ResponseCode {
     SUCCESS("0000", "成功"),
     UN_ERROR("0001", "未知失败"),
     ILLEGAL_PARAMETER("0002", "非法参数"),
+    SESSION_QUEUE_FULL("0003", "会话排队已满"),
     ;
 
     private String code;
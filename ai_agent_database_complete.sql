@@ -98,6 +98,7 @@ CREATE TABLE `ai_client_tool_mcp` (
     `transport_type` varchar(20) NOT NULL COMMENT '传输类型(sse/stdio)',
     `transport_config` varchar(2048) DEFAULT NULL COMMENT '传输配置(JSON格式)',
     `request_timeout` int DEFAULT '180' COMMENT '请求超时时间(秒)',
+    `ext_param` varchar(1024) DEFAULT NULL COMMENT '扩展参数(JSON格式，如 {"lazyInit":true,"idleTtlSeconds":600} 或 {"poolMinSize":1,"poolMaxSize":4} 或 {"async":true}，工具结果缓存 {"toolCache":{"read_file":{"cacheable":true,"ttlSeconds":60,"scope":"session"}}})',
     `status` tinyint(1) DEFAULT '1' COMMENT '状态(0:禁用,1:启用)',
     `create_time` datetime DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
     `update_time` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
@@ -217,12 +218,12 @@ INSERT INTO `ai_client_model` (`model_id`, `api_id`, `model_name`, `model_type`,
 ('2004', '1002', 'gpt-4o-2024-11-20', 'openai', 1, NOW(), NOW());
 
 -- 3.5 MCP工具配置 (注意：使用正确的npx完整路径和JSON格式)
-INSERT INTO `ai_client_tool_mcp` (`mcp_id`, `mcp_name`, `transport_type`, `transport_config`, `request_timeout`, `status`, `create_time`, `update_time`) VALUES 
-('5001', 'CSDN文章发布工具', 'sse', '{"baseUri":"http://127.0.0.1:8101","sseEndpoint":"/sse","description":"用于发布文章到CSDN平台"}', 180, 1, NOW(), NOW()),
-('5002', '微信公众号通知工具', 'sse', '{"baseUri":"http://127.0.0.1:8102","sseEndpoint":"/sse","description":"用于发送微信公众号消息通知"}', 180, 1, NOW(), NOW()),
-('5003', 'FileSystem文件操作工具', 'stdio', '{"stdio":{"filesystem":{"command":"D:/Develop/nodeJs/npx.cmd","args":["-y","@modelcontextprotocol/server-filesystem","D:/Develop/Projects/xfg/ai-agent-station-study-3-3-agent-case/ai-agent-station-study-3-3-agent-case","D:/Develop/Projects/xfg/ai-agent-station-study-3-3-agent-case/ai-agent-station-study-3-3-agent-case"],"env":{"NODE_ENV":"production"}}}}', 180, 1, NOW(), NOW()),
-('5004', 'Google搜索工具', 'stdio', '{"stdio":{"g-search":{"command":"D:/Develop/nodeJs/npx.cmd","args":["-y","g-search-mcp"],"env":{"NODE_ENV":"production"}}}}', 180, 1, NOW(), NOW()),
-('5005', '高德地图工具', 'sse', '{"baseUri":"https://mcp.amap.com","sseEndpoint":"/sse?key=801aabf79ed055c2ff78603cfe851787"}', 180, 1, NOW(), NOW());
+INSERT INTO `ai_client_tool_mcp` (`mcp_id`, `mcp_name`, `transport_type`, `transport_config`, `request_timeout`, `ext_param`, `status`, `create_time`, `update_time`) VALUES 
+('5001', 'CSDN文章发布工具', 'sse', '{"baseUri":"http://127.0.0.1:8101","sseEndpoint":"/sse","description":"用于发布文章到CSDN平台"}', 180, NULL, 1, NOW(), NOW()),
+('5002', '微信公众号通知工具', 'sse', '{"baseUri":"http://127.0.0.1:8102","sseEndpoint":"/sse","description":"用于发送微信公众号消息通知"}', 180, '{"lazyInit":true,"idleTtlSeconds":600}', 1, NOW(), NOW()),
+('5003', 'FileSystem文件操作工具', 'stdio', '{"stdio":{"filesystem":{"command":"D:/Develop/nodeJs/npx.cmd","args":["-y","@modelcontextprotocol/server-filesystem","D:/Develop/Projects/xfg/ai-agent-station-study-3-3-agent-case/ai-agent-station-study-3-3-agent-case","D:/Develop/Projects/xfg/ai-agent-station-study-3-3-agent-case/ai-agent-station-study-3-3-agent-case"],"env":{"NODE_ENV":"production"}}}}', 180, '{"poolMinSize":1,"poolMaxSize":4,"toolCache":{"read_file":{"cacheable":true,"ttlSeconds":60},"read_multiple_files":{"cacheable":true,"ttlSeconds":60},"list_directory":{"cacheable":true,"ttlSeconds":60},"directory_tree":{"cacheable":true,"ttlSeconds":60},"search_files":{"cacheable":true,"ttlSeconds":60}}}', 1, NOW(), NOW()),
+('5004', 'Google搜索工具', 'stdio', '{"stdio":{"g-search":{"command":"D:/Develop/nodeJs/npx.cmd","args":["-y","g-search-mcp"],"env":{"NODE_ENV":"production"}}}}', 180, '{"lazyInit":true,"idleTtlSeconds":600}', 1, NOW(), NOW()),
+('5005', '高德地图工具', 'sse', '{"baseUri":"https://mcp.amap.com","sseEndpoint":"/sse?key=801aabf79ed055c2ff78603cfe851787"}', 180, '{"lazyInit":true,"idleTtlSeconds":600}', 1, NOW(), NOW());
 
 -- 3.6 系统提示词配置
 INSERT INTO `ai_client_system_prompt` (`prompt_id`, `prompt_name`, `prompt_content`, `description`, `status`, `create_time`, `update_time`) VALUES 